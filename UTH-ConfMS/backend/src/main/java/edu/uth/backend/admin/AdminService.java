@@ -1,12 +1,18 @@
 package edu.uth.backend.admin;
 
 import edu.uth.backend.admin.dto.AdminUserResponse;
+import edu.uth.backend.auth.RefreshTokenService;
 import edu.uth.backend.entity.Role;
 import edu.uth.backend.entity.User;
 import edu.uth.backend.repository.PaperRepository;
 import edu.uth.backend.repository.RoleRepository;
 import edu.uth.backend.repository.UserRepository;
+import edu.uth.backend.security.PrincipalCache;
+import edu.uth.backend.security.TokenVersionStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -15,24 +21,62 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class AdminService {
     @Autowired private UserRepository userRepo;
     @Autowired private PaperRepository paperRepo;
     @Autowired private RoleRepository roleRepo;
+    @Autowired private PrincipalCache principalCache;
+    @Autowired private TokenVersionStore tokenVersionStore;
+    @Autowired private RefreshTokenService refreshTokenService;
 
-    public List<AdminUserResponse> getAllUsers() {
-        return userRepo.findAll().stream()
-                .map(AdminUserResponse::new)
-                .collect(Collectors.toList());
+    public List<AdminUserResponse> getAllUsers(AdminUserFilter filter) {
+        return findUsers(filter, Pageable.unpaged()).getContent();
+    }
+
+    public Page<AdminUserResponse> getUsers(AdminUserFilter filter, int page, int size) {
+        return findUsers(filter, PageRequest.of(page, size));
+    }
+
+    public AdminUserResponse getUser(Long userId) {
+        User user = userRepo.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User không tồn tại"));
+        return new AdminUserResponse(user);
+    }
+
+    /**
+     * Chuẩn hóa tên role: "admin" / "ADMIN" / "ROLE_ADMIN" đều thành "ROLE_ADMIN"
+     */
+    public static String normalizeRole(String roleName) {
+        String temp = roleName.trim().toUpperCase();
+        return temp.startsWith("ROLE_") ? temp : "ROLE_" + temp;
+    }
+
+    private Page<AdminUserResponse> findUsers(AdminUserFilter filter, Pageable pageable) {
+        return userRepo.findAdminUsers(
+                StringUtils.hasText(filter.role()) ? normalizeRole(filter.role()) : null,
+                filter.enabled(),
+                filter.provider(),
+                prefixPattern(filter.prefix()),
+                pageable);
+    }
+
+    private static String prefixPattern(String prefix) {
+        if (!StringUtils.hasText(prefix)) {
+            return "%";
+        }
+        String escaped = prefix.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return escaped + "%";
     }
 
     public User toggleUserActive(Long userId) {
         User user = userRepo.findById(userId).orElseThrow(() -> new RuntimeException("User không tồn tại"));
         user.setEnabled(!user.isEnabled());
-        return userRepo.save(user);
+        User saved = userRepo.save(user);
+        invalidateSessions(saved);
+        return saved;
     }
 
     public AdminUserResponse updateUserStatus(Long userId, boolean enabled) {
@@ -40,6 +84,7 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("User không tồn tại"));
         user.setEnabled(enabled);
         User saved = userRepo.save(user);
+        invalidateSessions(saved);
         return new AdminUserResponse(saved);
     }
 
@@ -68,9 +113,7 @@ public class AdminService {
             throw new RuntimeException("role không được để trống");
         }
 
-
-        String temp = roleName.trim().toUpperCase();
-        final String normalized = temp.startsWith("ROLE_") ? temp : "ROLE_" + temp;
+        final String normalized = normalizeRole(roleName);
 
         Role role = roleRepo.findByName(normalized)
                 .orElseThrow(() -> new RuntimeException("Role không tồn tại: " + normalized));
@@ -83,6 +126,7 @@ public class AdminService {
         user.setRoles(roles);
 
         User saved = userRepo.save(user);
+        invalidateSessions(saved);
         return new AdminUserResponse(saved);
     }
 
@@ -91,5 +135,17 @@ public class AdminService {
             throw new RuntimeException("User không tồn tại");
         }
         userRepo.deleteById(userId);
+        principalCache.evictUser(userId);
+        tokenVersionStore.bump(userId);
+    }
+
+    /**
+     * Bỏ principal đã cache, thu hồi access token và refresh token đã phát hành để quyền mới
+     * (đổi role, khóa/mở khóa tài khoản) có hiệu lực ngay, không gia hạn được bằng refresh token cũ
+     */
+    private void invalidateSessions(User user) {
+        principalCache.evict(user.getEmail());
+        tokenVersionStore.bump(user.getId());
+        refreshTokenService.revokeAll(user.getId());
     }
 }
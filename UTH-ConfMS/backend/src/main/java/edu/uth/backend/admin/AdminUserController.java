@@ -4,6 +4,7 @@ import edu.uth.backend.admin.dto.AdminUserResponse;
 import edu.uth.backend.admin.dto.UpdateRoleRequest;
 import edu.uth.backend.admin.dto.UpdateStatusRequest;
 import edu.uth.backend.admin.dto.UpdateUserNameRequest;
+import edu.uth.backend.entity.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,16 +19,52 @@ import java.util.List;
 @PreAuthorize("hasAuthority('ROLE_ADMIN')")
 public class AdminUserController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private AdminService adminService;
     
     @Autowired
     private edu.uth.backend.security.AuditLogger auditLogger;
 
+    /**
+     * GET /api/admin/users?page=0&size=20&role=REVIEWER&enabled=true&provider=GOOGLE&q=nguyen
+     * q: tiền tố email hoặc họ tên. Có page/size thì trả về Page; không có thì trả về danh sách như cũ
+     */
     @GetMapping
-    public ResponseEntity<List<AdminUserResponse>> getAllUsers() {
-        log.info("GET /api/admin/users - Get all users");
-        return ResponseEntity.ok(adminService.getAllUsers());
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String provider,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        log.info("GET /api/admin/users - role={}, enabled={}, provider={}, q={}, page={}, size={}",
+                role, enabled, provider, q, page, size);
+        AdminUserFilter filter = new AdminUserFilter(role, enabled, parseProvider(provider), q);
+        if (page == null && size == null) {
+            List<AdminUserResponse> users = adminService.getAllUsers(filter);
+            return ResponseEntity.ok(users);
+        }
+        int pageNumber = page == null ? 0 : Math.max(page, 0);
+        int pageSize = (size == null || size < 1) ? 20 : Math.min(size, MAX_PAGE_SIZE);
+        return ResponseEntity.ok(adminService.getUsers(filter, pageNumber, pageSize));
+    }
+
+    private static User.AuthProvider parseProvider(String provider) {
+        if (provider == null || provider.isBlank()) {
+            return null;
+        }
+        try {
+            return User.AuthProvider.valueOf(provider.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("provider không hợp lệ: " + provider);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AdminUserResponse> getUser(@PathVariable Long id) {
+        return ResponseEntity.ok(adminService.getUser(id));
     }
 
     @PutMapping("/{id}/role")
@@ -39,12 +76,7 @@ public class AdminUserController {
         log.info("PUT /api/admin/users/{}/role - Update role to {}", id, request.getRole());
         
         // Get old role before update
-        var allUsers = adminService.getAllUsers();
-        var userBefore = allUsers.stream()
-            .filter(u -> u.getId().equals(id))
-            .findFirst()
-            .orElse(null);
-        String oldRole = userBefore != null ? userBefore.getRole() : "UNKNOWN";
+        String oldRole = adminService.getUser(id).getRole();
         
         var result = adminService.updateUserRole(id, request.getRole());
         
@@ -0,0 +1,16 @@
+package edu.uth.backend.admin;
+
+import edu.uth.backend.entity.User;
+
+/**
+ * Điều kiện lọc danh sách user trang admin; trường null thì bỏ qua.
+ *
+ * @param role     tên role đầy đủ (ROLE_...)
+ * @param enabled  trạng thái kích hoạt
+ * @param provider nguồn đăng nhập
+ * @param prefix   email hoặc họ tên bắt đầu bằng chuỗi này (không phân biệt hoa thường)
+ */
+public record AdminUserFilter(String role, Boolean enabled, User.AuthProvider provider, String prefix) {
+
+    public static final AdminUserFilter NONE = new AdminUserFilter(null, null, null, null);
+}
@@ -0,0 +1,386 @@
+package edu.uth.backend.admin;
+
+import edu.uth.backend.common.HyperLogLog;
+import edu.uth.backend.repository.UserRepository;
+import edu.uth.backend.util.DateTimeUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Số liệu dashboard admin giữ trong bộ nhớ: sketch HyperLogLog user hoạt động theo ngày (được
+ * UserActivityHistoryService cập nhật mỗi khi ghi hoạt động) và số đăng ký theo tháng (AuditLogger),
+ * chỉ tính khi transaction của caller commit. DAU/WAU/MAU đọc từ sketch, không quét bảng.
+ * Thay đổi được ghi xuống database định kỳ (gộp với sketch đã lưu nên nhiều node cùng ghi không mất dữ liệu);
+ * mỗi lần ghi cũng đọc lại số đăng ký và các sketch node khác vừa ghi để các node không lệch nhau.
+ */
+@Service
+@Slf4j
+public class DashboardMetricsService {
+
+    private static final String INSERT_SKETCH_SQL =
+            "INSERT INTO dashboard_daily_active_users (activity_date, registers, updated_at) VALUES (?, ?, ?) "
+                    + "ON CONFLICT (activity_date) DO NOTHING";
+
+    private static final String SELECT_SKETCH_FOR_UPDATE_SQL =
+            "SELECT registers FROM dashboard_daily_active_users WHERE activity_date = ? FOR UPDATE";
+
+    private static final String UPDATE_SKETCH_SQL =
+            "UPDATE dashboard_daily_active_users SET registers = ?, updated_at = ? WHERE activity_date = ?";
+
+    private static final String SELECT_SKETCHES_SQL =
+            "SELECT activity_date, registers FROM dashboard_daily_active_users WHERE activity_date >= ? AND updated_at >= ?";
+
+    private static final String SELECT_REGISTRATIONS_SQL =
+            "SELECT month_start, registrations FROM dashboard_monthly_registrations";
+
+    private static final String UPSERT_REGISTRATIONS_SQL =
+            "INSERT INTO dashboard_monthly_registrations (month_start, registrations) VALUES (?, ?) "
+                    + "ON CONFLICT (month_start) DO UPDATE SET registrations = "
+                    + "dashboard_monthly_registrations.registrations + EXCLUDED.registrations";
+
+    private static final String BACKFILL_REGISTRATIONS_SQL =
+            "INSERT INTO dashboard_monthly_registrations (month_start, registrations) "
+                    + "SELECT CAST(date_trunc('month', timestamp) AS date), COUNT(*) FROM audit_logs "
+                    + "WHERE action = 'REGISTRATION' GROUP BY CAST(date_trunc('month', timestamp) AS date) "
+                    + "ON CONFLICT (month_start) DO UPDATE SET registrations = "
+                    + "GREATEST(dashboard_monthly_registrations.registrations, EXCLUDED.registrations)";
+
+    private static final String REGISTRATIONS_BACKFILL_MARKER = "dashboard-monthly-registrations-backfill";
+
+    // Lùi mốc đọc lại sketch của node khác để bù lệch đồng hồ giữa các node
+    private static final Duration SYNC_MARGIN = Duration.ofMinutes(5);
+
+    /**
+     * Số liệu tổng quan cho dashboard
+     */
+    public record Summary(
+            long totalUsers,
+            long dailyActiveUsers,
+            long yesterdayActiveUsers,
+            long weeklyActiveUsers,
+            long monthlyActiveUsers,
+            long registrationsThisMonth) {
+    }
+
+    @Value("${app.dashboard.metrics.precision:14}")
+    private int precision;
+
+    @Value("${app.dashboard.metrics.retention-days:62}")
+    private int retentionDays;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Các field dưới đây được bảo vệ bởi khóa của service
+    private final TreeMap<LocalDate, HyperLogLog> dailySketches = new TreeMap<>();
+    private final Set<LocalDate> dirtyDays = new HashSet<>();
+    // Số đăng ký đã lưu trong database (đọc lại mỗi lần flush) và số node này đếm thêm chưa ghi
+    private final Map<YearMonth, Long> monthlyRegistrations = new HashMap<>();
+    private final Map<YearMonth, Long> pendingRegistrations = new HashMap<>();
+    private long totalUsers;
+    private LocalDateTime syncedAt = LocalDate.EPOCH.atStartOfDay();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * User có hoạt động tại thời điểm hiện tại (tính sau khi transaction đang chạy commit)
+     */
+    public void recordActivity(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            LocalDate today = today();
+            synchronized (this) {
+                if (sketch(today).add(userId)) {
+                    dirtyDays.add(today);
+                }
+            }
+        });
+    }
+
+    /**
+     * Có user đăng ký mới (tính sau khi transaction đang chạy commit)
+     */
+    public void recordRegistration() {
+        afterCommit(() -> {
+            YearMonth month = YearMonth.from(today());
+            synchronized (this) {
+                pendingRegistrations.merge(month, 1L, Long::sum);
+                totalUsers++;
+            }
+        });
+    }
+
+    public synchronized long dailyActiveUsers(LocalDate day) {
+        HyperLogLog sketch = dailySketches.get(day);
+        return sketch != null ? sketch.cardinality() : 0;
+    }
+
+    /**
+     * Số user hoạt động phân biệt trong `days` ngày gần nhất tính cả hôm nay
+     */
+    public synchronized long activeUsersInLastDays(int days) {
+        LocalDate today = today();
+        HyperLogLog union = new HyperLogLog(precision);
+        for (HyperLogLog sketch : dailySketches.subMap(today.minusDays(days - 1L), true, today, true).values()) {
+            union.merge(sketch);
+        }
+        return union.cardinality();
+    }
+
+    public synchronized long registrations(YearMonth month) {
+        return monthlyRegistrations.getOrDefault(month, 0L) + pendingRegistrations.getOrDefault(month, 0L);
+    }
+
+    public synchronized long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public Summary getSummary() {
+        LocalDate today = today();
+        return new Summary(
+                getTotalUsers(),
+                dailyActiveUsers(today),
+                dailyActiveUsers(today.minusDays(1)),
+                activeUsersInLastDays(7),
+                activeUsersInLastDays(30),
+                registrations(YearMonth.from(today)));
+    }
+
+    /**
+     * Nạp sketch và số đăng ký đã lưu; lần đầu thì dựng từ user_activity_daily_counts và audit log REGISTRATION
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            LocalDateTime loadedAt = DateTimeUtil.nowVietnam();
+            LocalDate from = today().minusDays(retentionDays);
+            Integer storedDays = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM dashboard_daily_active_users", Integer.class);
+            if (storedDays != null && storedDays == 0) {
+                backfillSketches(from);
+            }
+            jdbcTemplate.query(
+                    "SELECT activity_date, registers FROM dashboard_daily_active_users WHERE activity_date >= ?",
+                    rs -> {
+                        mergeLoadedSketch(rs.getDate(1).toLocalDate(), rs.getBytes(2));
+                    },
+                    Date.valueOf(from));
+
+            backfillRegistrationsOnce();
+            Map<YearMonth, Long> months = loadRegistrations();
+            long users = userRepository.count();
+            synchronized (this) {
+                // Đăng ký đến trong lúc đang nạp vẫn nằm trong pendingRegistrations
+                monthlyRegistrations.clear();
+                monthlyRegistrations.putAll(months);
+                totalUsers = users;
+                syncedAt = loadedAt;
+            }
+            log.info("Loaded dashboard metrics: {} days of active-user sketches, {} months of registrations",
+                    dailySketches.size(), months.size());
+        } catch (Exception e) {
+            log.error("Could not load dashboard metrics", e);
+        }
+    }
+
+    /**
+     * Ghi các sketch đã đổi và số đăng ký cộng thêm xuống database; đọc lại số đăng ký, các sketch node khác
+     * đã ghi và tổng số user
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.metrics.flush-interval-ms:60000}",
+            initialDelayString = "${app.dashboard.metrics.flush-interval-ms:60000}")
+    public void flush() {
+        Map<LocalDate, HyperLogLog> sketches = new TreeMap<>();
+        Map<YearMonth, Long> registrations;
+        LocalDateTime since;
+        synchronized (this) {
+            for (LocalDate day : dirtyDays) {
+                sketches.put(day, dailySketches.get(day).copy());
+            }
+            dirtyDays.clear();
+            // Chỉ trừ khỏi pendingRegistrations sau khi đã commit
+            registrations = new HashMap<>(pendingRegistrations);
+            since = syncedAt.minus(SYNC_MARGIN);
+        }
+        LocalDateTime startedAt = DateTimeUtil.nowVietnam();
+
+        // Mọi lần đọc nằm trong transaction ghi: sau commit chỉ còn cập nhật bộ nhớ, không còn I/O nào có thể
+        // lỗi khiến pendingRegistrations không được trừ và lần flush sau cộng lại số đã ghi
+        Snapshot snapshot;
+        try {
+            snapshot = transactionTemplate.execute(status -> {
+                Timestamp now = Timestamp.valueOf(startedAt);
+                sketches.forEach((day, sketch) -> saveSketch(day, sketch, now));
+                for (Map.Entry<YearMonth, Long> entry : registrations.entrySet()) {
+                    jdbcTemplate.update(UPSERT_REGISTRATIONS_SQL, Date.valueOf(entry.getKey().atDay(1)), entry.getValue());
+                }
+                Map<YearMonth, Long> months = loadRegistrations();
+                List<Map.Entry<LocalDate, byte[]>> storedSketches = jdbcTemplate.query(SELECT_SKETCHES_SQL,
+                        (rs, rowNum) -> Map.entry(rs.getDate(1).toLocalDate(), rs.getBytes(2)),
+                        Date.valueOf(today().minusDays(retentionDays)), Timestamp.valueOf(since));
+                return new Snapshot(months, storedSketches, userRepository.count());
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not persist dashboard metrics, will retry", e);
+            synchronized (this) {
+                dirtyDays.addAll(sketches.keySet());
+            }
+            return;
+        }
+
+        synchronized (this) {
+            registrations.forEach((month, count) ->
+                    pendingRegistrations.computeIfPresent(month, (m, pending) -> pending > count ? pending - count : null));
+            monthlyRegistrations.clear();
+            monthlyRegistrations.putAll(snapshot.months());
+            sketches.forEach(this::mergeSketch);
+            snapshot.sketches().forEach(entry -> mergeLoadedSketch(entry.getKey(), entry.getValue()));
+            dailySketches.headMap(today().minusDays(retentionDays)).clear();
+            totalUsers = snapshot.users();
+            syncedAt = startedAt;
+        }
+    }
+
+    private record Snapshot(Map<YearMonth, Long> months, List<Map.Entry<LocalDate, byte[]>> sketches, long users) {
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void backfillSketches(LocalDate from) {
+        jdbcTemplate.query(
+                "SELECT DISTINCT activity_date, user_id FROM user_activity_daily_counts WHERE activity_date >= ?",
+                rs -> {
+                    LocalDate day = rs.getDate(1).toLocalDate();
+                    long userId = rs.getLong(2);
+                    synchronized (this) {
+                        sketch(day).add(userId);
+                        dirtyDays.add(day);
+                    }
+                },
+                Date.valueOf(from));
+        log.info("Backfilled active-user sketches for {} days from user_activity_daily_counts", dirtyDays.size());
+        flush();
+    }
+
+    /**
+     * Chèn sketch của ngày nếu chưa có; nếu đã có (kể cả do node khác vừa chèn) thì khóa dòng và gộp.
+     * Gọi trong transaction của flush
+     */
+    private void saveSketch(LocalDate day, HyperLogLog sketch, Timestamp now) {
+        if (jdbcTemplate.update(INSERT_SKETCH_SQL, Date.valueOf(day), sketch.toBytes(), now) == 1) {
+            return;
+        }
+        List<byte[]> stored = jdbcTemplate.query(SELECT_SKETCH_FOR_UPDATE_SQL,
+                (rs, rowNum) -> rs.getBytes(1), Date.valueOf(day));
+        if (!stored.isEmpty()) {
+            HyperLogLog storedSketch = HyperLogLog.fromBytes(stored.get(0));
+            if (storedSketch.getPrecision() == sketch.getPrecision()) {
+                sketch.merge(storedSketch);
+            }
+        }
+        jdbcTemplate.update(UPDATE_SKETCH_SQL, sketch.toBytes(), now, Date.valueOf(day));
+    }
+
+    /**
+     * Dựng số đăng ký theo tháng từ audit log REGISTRATION một lần; việc đã xong được ghi vào
+     * maintenance_markers cùng transaction. Tháng đã có số (đăng ký mới đã flush) giữ số lớn hơn
+     */
+    private void backfillRegistrationsOnce() {
+        Boolean done = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM maintenance_markers WHERE name = ?)", Boolean.class,
+                REGISTRATIONS_BACKFILL_MARKER);
+        if (Boolean.TRUE.equals(done)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(BACKFILL_REGISTRATIONS_SQL);
+            jdbcTemplate.update("INSERT INTO maintenance_markers (name, completed_at) VALUES (?, ?) "
+                    + "ON CONFLICT (name) DO NOTHING", REGISTRATIONS_BACKFILL_MARKER, Timestamp.valueOf(LocalDateTime.now()));
+        });
+        log.info("Backfilled monthly registrations from audit log");
+    }
+
+    private Map<YearMonth, Long> loadRegistrations() {
+        Map<YearMonth, Long> months = new HashMap<>();
+        for (Map.Entry<YearMonth, Long> row : jdbcTemplate.query(SELECT_REGISTRATIONS_SQL,
+                (rs, rowNum) -> Map.entry(YearMonth.from(rs.getDate(1).toLocalDate()), rs.getLong(2)))) {
+            months.put(row.getKey(), row.getValue());
+        }
+        return months;
+    }
+
+    private synchronized void mergeLoadedSketch(LocalDate day, byte[] registers) {
+        HyperLogLog stored = HyperLogLog.fromBytes(registers);
+        if (stored.getPrecision() != precision) {
+            log.warn("Skipping stored active-user sketch for {} with precision {}", day, stored.getPrecision());
+            return;
+        }
+        sketch(day).merge(stored);
+    }
+
+    private void mergeSketch(LocalDate day, HyperLogLog sketch) {
+        sketch(day).merge(sketch);
+    }
+
+    private HyperLogLog sketch(LocalDate day) {
+        return dailySketches.computeIfAbsent(day, d -> new HyperLogLog(precision));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static LocalDate today() {
+        return DateTimeUtil.nowVietnam().toLocalDate();
+    }
+}
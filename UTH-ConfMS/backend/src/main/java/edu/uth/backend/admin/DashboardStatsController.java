@@ -3,42 +3,48 @@ package edu.uth.backend.admin;
 import edu.uth.backend.admin.dto.DashboardStatsDTO;
 import edu.uth.backend.admin.dto.MonthlyUserStatsDTO;
 import edu.uth.backend.admin.dto.WeeklyAccessStatsDTO;
-import edu.uth.backend.repository.UserRepository;
+import edu.uth.backend.util.DateTimeUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Số liệu dashboard admin, đọc từ DashboardMetricsService (sketch DAU theo ngày, số đăng ký theo tháng)
+ * nên không truy vấn database mỗi request
+ */
 @RestController
 @RequestMapping("/api/admin/dashboard")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class DashboardStatsController {
 
-    private final UserRepository userRepository;
+    private final DashboardMetricsService dashboardMetrics;
 
     @GetMapping("/stats")
     // @PreAuthorize("hasRole('ROLE_ADMIN')") // Temporarily disabled for testing
     public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
-        // Tổng số người dùng từ database
-        long totalUsers = userRepository.count();
+        DashboardMetricsService.Summary summary = dashboardMetrics.getSummary();
 
-        // Người dùng active hôm nay - ước lượng 10%
-        long todayActiveUsers = Math.max(1, totalUsers / 10);
+        // Tăng trưởng user so với đầu tháng
+        long usersAtMonthStart = summary.totalUsers() - summary.registrationsThisMonth();
+        double totalUsersTrend = percentChange(summary.totalUsers(), usersAtMonthStart);
 
-        // Tính trend - giả định tăng trưởng 5% mỗi tháng
-        double totalUsersTrend = 5.0;
-
-        // Trend hôm nay - random nhẹ
-        double todayUsersTrend = (Math.random() - 0.5) * 10; // -5% to +5%
+        // User hoạt động hôm nay so với hôm qua
+        double todayUsersTrend = percentChange(summary.dailyActiveUsers(), summary.yesterdayActiveUsers());
 
         DashboardStatsDTO stats = new DashboardStatsDTO(
-                totalUsers,
-                todayActiveUsers,
-                Math.round(totalUsersTrend * 10.0) / 10.0,
-                Math.round(todayUsersTrend * 10.0) / 10.0);
+                summary.totalUsers(),
+                summary.dailyActiveUsers(),
+                totalUsersTrend,
+                todayUsersTrend,
+                summary.weeklyActiveUsers(),
+                summary.monthlyActiveUsers());
 
         return ResponseEntity.ok(stats);
     }
@@ -46,17 +52,15 @@ public class DashboardStatsController {
     @GetMapping("/monthly")
     // @PreAuthorize("hasRole('ROLE_ADMIN')") // Temporarily disabled for testing
     public ResponseEntity<List<MonthlyUserStatsDTO>> getMonthlyStats() {
+        // Tổng số user cuối mỗi tháng trong 12 tháng gần nhất: lùi dần từ tổng hiện tại
+        // bằng số đăng ký của từng tháng
+        YearMonth current = YearMonth.from(DateTimeUtil.nowVietnam());
+        long usersAtMonthEnd = dashboardMetrics.getTotalUsers();
         List<MonthlyUserStatsDTO> stats = new ArrayList<>();
-        long totalUsers = userRepository.count();
-
-        // Giả định tăng trưởng đều qua 12 tháng
-        long startUsers = Math.max(10, totalUsers - (totalUsers / 5)); // Start from 80% of current
-        long increment = (totalUsers - startUsers) / 12;
-
-        for (int i = 1; i <= 12; i++) {
-            String monthLabel = "T" + i;
-            long userCount = startUsers + (increment * i);
-            stats.add(new MonthlyUserStatsDTO(monthLabel, userCount));
+        for (int i = 0; i < 12; i++) {
+            YearMonth month = current.minusMonths(i);
+            stats.add(0, new MonthlyUserStatsDTO("T" + month.getMonthValue(), Math.max(0, usersAtMonthEnd)));
+            usersAtMonthEnd -= dashboardMetrics.registrations(month);
         }
 
         return ResponseEntity.ok(stats);
@@ -70,17 +74,19 @@ public class DashboardStatsController {
         // Map từ DayOfWeek sang label tiếng Việt
         String[] dayLabels = { "T2", "T3", "T4", "T5", "T6", "T7", "CN" };
 
-        // Dữ liệu ước lượng dựa trên tổng users
-        long totalUsers = userRepository.count();
-        long baseVisits = Math.max(10, totalUsers / 10);
-
+        // Số user hoạt động từng ngày của tuần hiện tại (ngày chưa tới là 0)
+        LocalDate monday = DateTimeUtil.nowVietnam().toLocalDate().with(DayOfWeek.MONDAY);
         for (int i = 0; i < 7; i++) {
-            // Weekdays cao hơn weekend
-            double multiplier = (i < 5) ? 1.0 + Math.random() * 0.3 : 0.6 + Math.random() * 0.2;
-            long visits = (long) (baseVisits * multiplier);
-            stats.add(new WeeklyAccessStatsDTO(dayLabels[i], visits));
+            stats.add(new WeeklyAccessStatsDTO(dayLabels[i], dashboardMetrics.dailyActiveUsers(monday.plusDays(i))));
         }
 
         return ResponseEntity.ok(stats);
     }
+
+    private static double percentChange(long current, long previous) {
+        if (previous <= 0) {
+            return 0.0;
+        }
+        return Math.round((current - previous) * 1000.0 / previous) / 10.0;
+    }
 }
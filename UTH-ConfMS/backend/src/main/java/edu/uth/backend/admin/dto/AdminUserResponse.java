@@ -1,7 +1,10 @@
 package edu.uth.backend.admin.dto;
 
+import edu.uth.backend.entity.Role;
 import edu.uth.backend.entity.User;
 
+import java.util.Comparator;
+
 public class AdminUserResponse {
     private Long id;
     private String name;
@@ -9,17 +12,32 @@ public class AdminUserResponse {
     private String role;
     private String status;
 
+    /**
+     * Role hiển thị là tên role nhỏ nhất của user, cùng quy tắc MIN(r.name) với UserRepository.findAdminUsers
+     */
     public AdminUserResponse(User user) {
         this.id = user.getId();
         this.email = user.getEmail();
         this.name = user.getFullName() != null ? user.getFullName() : user.getEmail();
         this.role = user.getRoles().stream()
-                .findFirst()
-                .map(r -> r.getName().replaceFirst("^ROLE_", ""))
+                .map(Role::getName)
+                .min(Comparator.naturalOrder())
+                .map(r -> r.replaceFirst("^ROLE_", ""))
                 .orElse("USER");
         this.status = user.isEnabled() ? "Active" : "Disabled";
     }
 
+    /**
+     * Dùng cho projection JPQL (UserRepository.findAdminUsers), không nạp entity User
+     */
+    public AdminUserResponse(Long id, String email, String fullName, boolean enabled, String roleName) {
+        this.id = id;
+        this.email = email;
+        this.name = fullName != null ? fullName : email;
+        this.role = roleName != null ? roleName.replaceFirst("^ROLE_", "") : "USER";
+        this.status = enabled ? "Active" : "Disabled";
+    }
+
     public Long getId() {
         return id;
     }
@@ -12,4 +12,6 @@ public class DashboardStatsDTO {
     private Long todayActiveUsers;
     private Double totalUsersTrend; 
     private Double todayUsersTrend; 
+    private Long weeklyActiveUsers;
+    private Long monthlyActiveUsers;
 }
@@ -1,12 +1,9 @@
 package edu.uth.backend.assignment;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.uth.backend.ai.AIProxyService;
-import edu.uth.backend.ai.dto.AssignmentSuggestionRequest;
 import edu.uth.backend.ai.dto.AssignmentSuggestionResponse;
 import edu.uth.backend.ai.dto.ReviewerSimilarityRequest;
 import edu.uth.backend.ai.dto.ReviewerSimilarityResponse;
-import edu.uth.backend.entity.ConflictOfInterest;
 import edu.uth.backend.repository.ConflictOfInterestRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,17 +18,17 @@ public class AIAssignmentService {
 
     private final AIProxyService aiProxyService;
     private final ConflictOfInterestRepository coiRepository;
-    private final ObjectMapper objectMapper;
+    private final ReviewerSuggestionService suggestionService;
 
     // ✅ Constructor injection – KHÔNG cần @Autowired
     public AIAssignmentService(
             AIProxyService aiProxyService,
             ConflictOfInterestRepository coiRepository,
-            ObjectMapper objectMapper
+            ReviewerSuggestionService suggestionService
     ) {
         this.aiProxyService = aiProxyService;
         this.coiRepository = coiRepository;
-        this.objectMapper = objectMapper;
+        this.suggestionService = suggestionService;
     }
 
     /**
@@ -98,93 +95,50 @@ public class AIAssignmentService {
     }
 
     /**
-     * Gợi ý phân công reviewer cho bài báo
+     * Gợi ý phân công reviewer cho bài báo.
+     * Tính cục bộ bằng ReviewerSuggestionService (luồng chi phí nhỏ nhất trên độ phù hợp chủ đề),
+     * không gửi metadata cho AI: nhanh, tất định và không giới hạn bởi kích thước prompt.
      */
     public Map<String, Object> getSuggestedAssignments(
             Long conferenceId,
             List<Long> paperIds,
-            Map<Long, Map<String, Object>> paperData,
             List<Long> reviewerIds,
-            Map<Long, Map<String, Object>> reviewerData,
             int maxPapersPerReviewer,
             int minReviewersPerPaper
     ) {
-        try {
-            // Lấy danh sách COI
-            List<Map<String, String>> coiExclusions = new ArrayList<>();
-            for (Long paperId : paperIds) {
-                List<ConflictOfInterest> cois =
-                        coiRepository.findByPaperId(paperId);
-
-                for (ConflictOfInterest coi : cois) {
-                    Map<String, String> exclusion = new HashMap<>();
-                    exclusion.put("paper_id", paperId.toString());
-                    exclusion.put(
-                            "reviewer_id",
-                            coi.getReviewer().getId().toString()
-                    );
-                    coiExclusions.add(exclusion);
-                }
-            }
-
-            AssignmentSuggestionRequest request =
-                    new AssignmentSuggestionRequest();
-
-            request.setPaperIds(
-                    paperIds.stream().map(String::valueOf).toList()
-            );
-            request.setReviewerIds(
-                    reviewerIds.stream().map(String::valueOf).toList()
-            );
-            request.setConferenceId(conferenceId);
-
-            // Metadata JSON
-            request.setPapersMetadata(
-                    objectMapper.writeValueAsString(paperData)
-            );
-            request.setReviewersMetadata(
-                    objectMapper.writeValueAsString(reviewerData)
-            );
-
-            Map<String, Object> constraints = new HashMap<>();
-            constraints.put(
-                    "max_papers_per_reviewer",
-                    maxPapersPerReviewer
-            );
-            constraints.put(
-                    "min_reviewers_per_paper",
-                    minReviewersPerPaper
-            );
-            constraints.put("coi_exclusions", coiExclusions);
-            constraints.put("workload_balance", true);
-
-            request.setConstraints(
-                    objectMapper.writeValueAsString(constraints)
-            );
-
-            AssignmentSuggestionResponse response =
-                    aiProxyService.suggestAssignments(
-                            request, null, conferenceId
-                    );
-
-            logger.info(
-                    "Đã nhận {} đề xuất phân công",
-                    response.getAssignments().size()
-            );
-
-            Map<String, Object> result = new HashMap<>();
-            result.put(
-                    "suggested_assignments",
-                    response.getAssignments()
-            );
-            return result;
-
-        } catch (Exception e) {
-            logger.error("Lỗi khi gợi ý phân công reviewer", e);
-            throw new RuntimeException(
-                    "Lấy đề xuất phân công thất bại: " + e.getMessage(), e
+        ReviewerSuggestionResult suggestion = suggestionService.suggest(
+                conferenceId,
+                maxPapersPerReviewer,
+                minReviewersPerPaper,
+                paperIds,
+                reviewerIds
+        );
+
+        List<AssignmentSuggestionResponse.Assignment> assignments = new ArrayList<>();
+        for (ReviewerSuggestionResult.Item item : suggestion.suggestions()) {
+            AssignmentSuggestionResponse.Assignment assignment =
+                    new AssignmentSuggestionResponse.Assignment();
+            assignment.setPaperId(item.paperId().toString());
+            assignment.setReviewerId(item.reviewerId().toString());
+            assignment.setReason(
+                    item.affinity() > 0
+                            ? "Độ phù hợp chủ đề " + item.affinity()
+                            : "Bổ sung để đủ số reviewer (không có chủ đề chung)"
             );
+            assignments.add(assignment);
         }
+
+        logger.info(
+                "Đã tạo {} đề xuất phân công trong {} ms",
+                assignments.size(),
+                suggestion.elapsedMs()
+        );
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("suggested_assignments", assignments);
+        result.put("unfilled_slots", suggestion.unfilled());
+        result.put("understaffed_paper_ids", suggestion.understaffedPaperIds());
+        return result;
     }
 
     /**
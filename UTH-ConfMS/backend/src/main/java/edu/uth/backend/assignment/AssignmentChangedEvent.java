@@ -0,0 +1,37 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.AssignmentStatus;
+import edu.uth.backend.entity.Paper;
+import edu.uth.backend.entity.ReviewAssignment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sự kiện miền: một phân công đổi trạng thái. previousStatus null là phân công mới,
+ * status null là phân công đã bị xóa. conferenceId null khi bài báo chưa gắn track/hội nghị.
+ */
+public record AssignmentChangedEvent(
+    Long conferenceId,
+    Long assignmentId,
+    Long reviewerId,
+    AssignmentStatus previousStatus,
+    AssignmentStatus status,
+    LocalDateTime dueDate
+) {
+
+    public static AssignmentChangedEvent of(ReviewAssignment assignment, AssignmentStatus previousStatus) {
+        return new AssignmentChangedEvent(conferenceId(assignment.getPaper()), assignment.getId(),
+            assignment.getReviewer().getId(), previousStatus, assignment.getStatus(), assignment.getDueDate());
+    }
+
+    public static AssignmentChangedEvent deleted(ReviewAssignment assignment) {
+        return new AssignmentChangedEvent(conferenceId(assignment.getPaper()), assignment.getId(),
+            assignment.getReviewer().getId(), assignment.getStatus(), null, assignment.getDueDate());
+    }
+
+    private static Long conferenceId(Paper paper) {
+        return paper != null && paper.getTrack() != null && paper.getTrack().getConference() != null
+            ? paper.getTrack().getConference().getId()
+            : null;
+    }
+}
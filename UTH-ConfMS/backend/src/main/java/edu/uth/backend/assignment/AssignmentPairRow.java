@@ -0,0 +1,9 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.AssignmentStatus;
+
+/**
+ * Một phân công rút gọn (bài, reviewer, trạng thái) để tính số chỗ còn trống khi gợi ý phân công
+ */
+public record AssignmentPairRow(Long paperId, Long reviewerId, AssignmentStatus status) {
+}
@@ -0,0 +1,94 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.Conference;
+import edu.uth.backend.entity.Paper;
+import edu.uth.backend.entity.User;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Các điều kiện phân công reviewer, dùng chung cho phân công lẻ và phân công hàng loạt.
+ * Mỗi hàm trả về thông báo lỗi, hoặc null nếu hợp lệ.
+ */
+final class AssignmentRules {
+
+    private static final DateTimeFormatter DEADLINE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private AssignmentRules() {
+    }
+
+    /**
+     * Hội nghị của bài báo còn cho phân công không (chưa khóa, chưa quá hạn chấm)
+     */
+    static String conferenceViolation(Paper paper, LocalDateTime now) {
+        if (paper.getTrack() == null || paper.getTrack().getConference() == null) {
+            return null;
+        }
+        return conferenceViolation(paper.getTrack().getConference(), now);
+    }
+
+    /**
+     * Hội nghị còn cho phân công không (chưa khóa, chưa quá hạn chấm)
+     */
+    static String conferenceViolation(Conference conference, LocalDateTime now) {
+        if (conference.getIsLocked() != null && conference.getIsLocked()) {
+            return "Hội nghị đã bị khóa, không thể phân công reviewer!";
+        }
+        if (conference.getReviewDeadline() != null && now.isAfter(conference.getReviewDeadline())) {
+            return "Đã quá hạn chấm bài! Không thể phân công reviewer. Deadline: "
+                + conference.getReviewDeadline().format(DEADLINE_FORMAT);
+        }
+        return null;
+    }
+
+    /**
+     * Reviewer có được chấm bài này không (COI, cùng đơn vị, đã phân công).
+     * conflictDeclared/alreadyAssigned chỉ được gọi khi cần (phân công lẻ tra database)
+     */
+    static String reviewerViolation(Paper paper, User reviewer,
+                                    BooleanSupplier conflictDeclared, BooleanSupplier alreadyAssigned) {
+        // Check COI Cơ bản: Tác giả không được chấm bài mình
+        if (paper.getMainAuthor().getId().equals(reviewer.getId())) {
+            return "Lỗi COI: Tác giả không thể tự chấm bài của mình!";
+        }
+        // Nếu Reviewer đã khai báo xung đột trong bảng conflicts_of_interest thì chặn lại
+        if (conflictDeclared.getAsBoolean()) {
+            return "Lỗi COI: Không thể phân công vì Reviewer này đã khai báo Xung đột lợi ích!";
+        }
+        // Check COI (Nâng cao): Nếu cùng đơn vị công tác (Affiliation)
+        String authorAffiliation = paper.getMainAuthor().getAffiliation();
+        String authorAffiliationKey = affiliationKey(authorAffiliation);
+        if (authorAffiliationKey != null && authorAffiliationKey.equals(affiliationKey(reviewer.getAffiliation()))) {
+            return "Cảnh báo COI: Reviewer và Tác giả cùng đơn vị công tác (" + authorAffiliation + ")!";
+        }
+        // Tránh phân công trùng
+        if (alreadyAssigned.getAsBoolean()) {
+            return "Lỗi: Reviewer này đã được phân công cho bài báo này rồi!";
+        }
+        return null;
+    }
+
+    /**
+     * Khóa so sánh đơn vị công tác, không phân biệt hoa thường (cùng cách gập chữ với String.equalsIgnoreCase);
+     * null nếu không có đơn vị
+     */
+    static String affiliationKey(String affiliation) {
+        if (affiliation == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(affiliation.length());
+        affiliation.codePoints().forEach(cp -> key.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp))));
+        return key.toString();
+    }
+
+    /**
+     * Hạn chấm của phân công mới lấy theo reviewDeadline của hội nghị
+     */
+    static LocalDateTime dueDate(Paper paper) {
+        return paper.getTrack() != null && paper.getTrack().getConference() != null
+            ? paper.getTrack().getConference().getReviewDeadline()
+            : null;
+    }
+}
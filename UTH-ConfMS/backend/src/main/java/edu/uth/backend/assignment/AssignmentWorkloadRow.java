@@ -0,0 +1,11 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.AssignmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một phân công rút gọn để nạp chỉ mục workload (projection của ReviewAssignmentRepository)
+ */
+public record AssignmentWorkloadRow(Long assignmentId, Long reviewerId, AssignmentStatus status, LocalDateTime dueDate) {
+}
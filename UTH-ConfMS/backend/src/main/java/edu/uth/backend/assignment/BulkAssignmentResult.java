@@ -0,0 +1,25 @@
+package edu.uth.backend.assignment;
+
+import java.util.List;
+
+/**
+ * Kết quả phân công hàng loạt: mỗi cặp (bài, reviewer) thành công kèm assignmentId, hoặc thất bại kèm lý do
+ */
+public record BulkAssignmentResult(int requested, int assigned, int failed, List<Item> items) {
+
+    public record Item(Long paperId, Long reviewerId, boolean success, Long assignmentId, String error) {
+
+        static Item success(Long paperId, Long reviewerId, Long assignmentId) {
+            return new Item(paperId, reviewerId, true, assignmentId, null);
+        }
+
+        static Item failure(Long paperId, Long reviewerId, String error) {
+            return new Item(paperId, reviewerId, false, null, error);
+        }
+    }
+
+    static BulkAssignmentResult of(List<Item> items) {
+        int assigned = (int) items.stream().filter(Item::success).count();
+        return new BulkAssignmentResult(items.size(), assigned, items.size() - assigned, items);
+    }
+}
@@ -0,0 +1,228 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.email.EmailService;
+import edu.uth.backend.entity.AssignmentStatus;
+import edu.uth.backend.entity.Paper;
+import edu.uth.backend.entity.PaperStatus;
+import edu.uth.backend.entity.ReviewAssignment;
+import edu.uth.backend.entity.User;
+import edu.uth.backend.report.ReportDataChangedEvent;
+import edu.uth.backend.repository.ConflictOfInterestRepository;
+import edu.uth.backend.repository.PaperRepository;
+import edu.uth.backend.repository.ReviewAssignmentRepository;
+import edu.uth.backend.repository.UserRepository;
+import edu.uth.backend.util.DateTimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Phân công hàng loạt (mọi cặp bài × reviewer, hoặc danh sách cặp cho trước) trong một transaction: nạp bài, reviewer, COI và phân công
+ * đã có bằng vài query theo tập, kiểm tra từng cặp trong bộ nhớ (cùng điều kiện với phân công lẻ),
+ * ghi các phân công hợp lệ bằng một JDBC batch và gửi email sau khi commit.
+ * Cặp không hợp lệ không làm hỏng cả lô; lỗi database thì rollback toàn bộ.
+ */
+@Service
+public class BulkAssignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkAssignmentService.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO review_assignments (paper_id, reviewer_id, status, assigned_date, due_date, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired private PaperRepository paperRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private ConflictOfInterestRepository coiRepo;
+    @Autowired private ReviewAssignmentRepository assignmentRepo;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EmailService emailService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public BulkAssignmentResult bulkAssign(List<Long> paperIds, List<Long> reviewerIds) {
+        Set<Long> paperSet = distinct(paperIds);
+        Set<Long> reviewerSet = distinct(reviewerIds);
+        List<PaperReviewerPair> pairs = new ArrayList<>(paperSet.size() * reviewerSet.size());
+        for (Long paperId : paperSet) {
+            for (Long reviewerId : reviewerSet) {
+                pairs.add(new PaperReviewerPair(paperId, reviewerId));
+            }
+        }
+        return assignPairs(pairs);
+    }
+
+    /**
+     * Phân công theo danh sách cặp cho trước (ví dụ từ gợi ý phân công); cặp trùng chỉ xét một lần
+     */
+    @Transactional
+    public BulkAssignmentResult assignPairs(Collection<PaperReviewerPair> pairs) {
+        Set<PaperReviewerPair> requested = new LinkedHashSet<>();
+        pairs.stream()
+            .filter(pair -> pair.paperId() != null && pair.reviewerId() != null)
+            .forEach(requested::add);
+        if (requested.isEmpty()) {
+            return BulkAssignmentResult.of(List.of());
+        }
+        Set<Long> paperSet = requested.stream().map(PaperReviewerPair::paperId).collect(Collectors.toSet());
+        Set<Long> reviewerSet = requested.stream().map(PaperReviewerPair::reviewerId).collect(Collectors.toSet());
+
+        // 1. Nạp toàn bộ dữ liệu cần kiểm tra theo tập
+        Map<Long, Paper> papers = paperRepo.findAllForAssignmentByIdIn(paperSet).stream()
+            .collect(Collectors.toMap(Paper::getId, Function.identity()));
+        Map<Long, User> reviewers = userRepo.findAllWithRolesByIdIn(reviewerSet).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        Set<PaperReviewerPair> conflicts = new HashSet<>(coiRepo.findPairsByPaperIdInAndReviewerIdIn(paperSet, reviewerSet));
+        Set<PaperReviewerPair> assigned = new HashSet<>(assignmentRepo.findPairsByPaperIdInAndReviewerIdIn(paperSet, reviewerSet));
+
+        // 2. Kiểm tra từng cặp trong bộ nhớ
+        LocalDateTime now = LocalDateTime.now();
+        List<BulkAssignmentResult.Item> items = new ArrayList<>(requested.size());
+        List<Integer> pendingPositions = new ArrayList<>();
+        List<ReviewAssignment> pending = new ArrayList<>();
+        for (PaperReviewerPair pair : requested) {
+            Long paperId = pair.paperId();
+            Long reviewerId = pair.reviewerId();
+            Paper paper = papers.get(paperId);
+            User reviewer = reviewers.get(reviewerId);
+            String error = paper == null ? "Lỗi: Bài báo không tồn tại!"
+                : AssignmentRules.conferenceViolation(paper, now);
+            if (error == null) {
+                error = reviewer == null ? "Lỗi: Reviewer không tồn tại!"
+                    : AssignmentRules.reviewerViolation(paper, reviewer,
+                        () -> conflicts.contains(pair), () -> assigned.contains(pair));
+            }
+            if (error != null) {
+                items.add(BulkAssignmentResult.Item.failure(paperId, reviewerId, error));
+                continue;
+            }
+            ReviewAssignment assignment = new ReviewAssignment();
+            assignment.setPaper(paper);
+            assignment.setReviewer(reviewer);
+            assignment.setStatus(AssignmentStatus.PENDING);
+            assignment.setAssignedDate(now);
+            assignment.setDueDate(AssignmentRules.dueDate(paper));
+            pendingPositions.add(items.size());
+            pending.add(assignment);
+            items.add(null);
+        }
+
+        // 3. Ghi các phân công hợp lệ bằng một batch
+        insert(pending);
+        for (int i = 0; i < pending.size(); i++) {
+            ReviewAssignment assignment = pending.get(i);
+            items.set(pendingPositions.get(i), BulkAssignmentResult.Item.success(
+                assignment.getPaper().getId(), assignment.getReviewer().getId(), assignment.getId()));
+        }
+
+        if (!pending.isEmpty()) {
+            Set<Long> assignedPaperIds = pending.stream().map(a -> a.getPaper().getId()).collect(Collectors.toSet());
+            paperRepo.updateStatusByIdIn(assignedPaperIds, PaperStatus.SUBMITTED, PaperStatus.UNDER_REVIEW);
+
+            pending.stream()
+                .map(a -> a.getPaper().getTrack().getConference().getId())
+                .distinct()
+                .forEach(conferenceId -> eventPublisher.publishEvent(
+                    new ReportDataChangedEvent(conferenceId, "bulk-assign")));
+            pending.forEach(a -> eventPublisher.publishEvent(AssignmentChangedEvent.of(a, null)));
+            notifyAfterCommit(pending);
+        }
+
+        BulkAssignmentResult result = BulkAssignmentResult.of(items);
+        logger.info("Bulk assignment: {} pairs over {} papers / {} reviewers, {} assigned, {} failed",
+            requested.size(), paperSet.size(), reviewerSet.size(), result.assigned(), result.failed());
+        return result;
+    }
+
+    private void insert(List<ReviewAssignment> assignments) {
+        if (assignments.isEmpty()) {
+            return;
+        }
+        LocalDateTime createdAt = DateTimeUtil.nowVietnam();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ReviewAssignment assignment = assignments.get(i);
+                    ps.setLong(1, assignment.getPaper().getId());
+                    ps.setLong(2, assignment.getReviewer().getId());
+                    ps.setString(3, assignment.getStatus().name());
+                    ps.setObject(4, assignment.getAssignedDate(), Types.TIMESTAMP);
+                    ps.setObject(5, assignment.getDueDate(), Types.TIMESTAMP);
+                    ps.setObject(6, createdAt, Types.TIMESTAMP);
+                    ps.setObject(7, createdAt, Types.TIMESTAMP);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return assignments.size();
+                }
+            },
+            keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < assignments.size(); i++) {
+            ReviewAssignment assignment = assignments.get(i);
+            assignment.setId(((Number) keys.get(i).get("id")).longValue());
+            assignment.setCreatedAt(createdAt);
+            assignment.setUpdatedAt(createdAt);
+        }
+    }
+
+    /**
+     * Email chỉ gửi khi các phân công đã thực sự được lưu; EmailService gửi bất đồng bộ
+     */
+    private void notifyAfterCommit(List<ReviewAssignment> assignments) {
+        Runnable send = () -> assignments.forEach(assignment -> {
+            try {
+                emailService.sendAssignmentNotification(assignment);
+            } catch (Exception e) {
+                logger.warn("Failed to queue assignment email for assignment {}: {}", assignment.getId(), e.getMessage());
+            }
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+
+    private static Set<Long> distinct(List<Long> ids) {
+        Set<Long> result = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(result::add);
+        }
+        return result;
+    }
+}
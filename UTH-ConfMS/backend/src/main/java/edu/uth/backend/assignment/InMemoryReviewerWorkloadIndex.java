@@ -0,0 +1,246 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.AssignmentStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chỉ mục workload trong bộ nhớ của node hiện tại (mặc định). Mỗi metric là một TreeSet sắp theo
+ * (số phân công, reviewerId) nên cập nhật và lấy top/bottom-K đều O(log n) (+K).
+ * Chạy nhiều node thì dùng store "redis" để mọi node thấy cùng một chỉ mục.
+ */
+@Component
+@ConditionalOnProperty(name = "app.assignment.workload.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryReviewerWorkloadIndex implements ReviewerWorkloadIndex {
+
+    private record Entry(long count, long reviewerId) {
+    }
+
+    private static final Comparator<Entry> ORDER =
+        Comparator.comparingLong(Entry::count).thenComparingLong(Entry::reviewerId);
+
+    /**
+     * Dữ liệu của một reviewer: số phân công theo metric và hạn chấm của phân công đang mở
+     */
+    private static final class ReviewerState {
+        final Map<WorkloadMetric, Long> counts = new EnumMap<>(WorkloadMetric.class);
+        final Map<Long, LocalDateTime> openDueDates = new HashMap<>();
+        final TreeMap<LocalDateTime, Integer> dueDateCounts = new TreeMap<>();
+
+        long count(WorkloadMetric metric) {
+            return counts.getOrDefault(metric, 0L);
+        }
+
+        void addDue(Long assignmentId, LocalDateTime dueDate) {
+            if (dueDate != null && openDueDates.put(assignmentId, dueDate) == null) {
+                dueDateCounts.merge(dueDate, 1, Integer::sum);
+            }
+        }
+
+        void removeDue(Long assignmentId) {
+            LocalDateTime dueDate = openDueDates.remove(assignmentId);
+            if (dueDate != null) {
+                dueDateCounts.computeIfPresent(dueDate, (d, n) -> n > 1 ? n - 1 : null);
+            }
+        }
+
+        long overdue(LocalDateTime now) {
+            return dueDateCounts.headMap(now, false).values().stream().mapToLong(Integer::longValue).sum();
+        }
+    }
+
+    /**
+     * Dữ liệu của một hội nghị; mọi thao tác đồng bộ trên chính đối tượng này
+     */
+    private static final class ConferenceState {
+        long version;
+        boolean loaded;
+        Map<Long, ReviewerState> reviewers = new HashMap<>();
+        Map<WorkloadMetric, NavigableSet<Entry>> rankings = emptyRankings();
+        // Trạng thái hiện tại của từng phân công, để bỏ qua sự kiện đã có trong dữ liệu nạp
+        Map<Long, AssignmentStatus> statuses = new HashMap<>();
+
+        void reset() {
+            loaded = false;
+            reviewers = new HashMap<>();
+            rankings = emptyRankings();
+            statuses = new HashMap<>();
+        }
+
+        ReviewerState reviewer(Long reviewerId) {
+            ReviewerState state = reviewers.get(reviewerId);
+            if (state == null) {
+                state = new ReviewerState();
+                reviewers.put(reviewerId, state);
+                for (WorkloadMetric metric : WorkloadMetric.values()) {
+                    rankings.get(metric).add(new Entry(0, reviewerId));
+                }
+            }
+            return state;
+        }
+
+        void increment(Long reviewerId, WorkloadMetric metric, long delta) {
+            ReviewerState state = reviewer(reviewerId);
+            long current = state.count(metric);
+            NavigableSet<Entry> ranking = rankings.get(metric);
+            ranking.remove(new Entry(current, reviewerId));
+            long updated = Math.max(0, current + delta);
+            state.counts.put(metric, updated);
+            ranking.add(new Entry(updated, reviewerId));
+        }
+    }
+
+    private final Map<Long, ConferenceState> conferences = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isLoaded(Long conferenceId) {
+        ConferenceState state = conference(conferenceId);
+        synchronized (state) {
+            return state.loaded;
+        }
+    }
+
+    @Override
+    public long version(Long conferenceId) {
+        ConferenceState state = conference(conferenceId);
+        synchronized (state) {
+            return state.version;
+        }
+    }
+
+    @Override
+    public boolean load(Long conferenceId, Collection<Long> reviewerIds, List<AssignmentWorkloadRow> rows,
+                        long expectedVersion) {
+        ConferenceState state = conference(conferenceId);
+        synchronized (state) {
+            if (state.version != expectedVersion) {
+                return false;
+            }
+            state.reset();
+            reviewerIds.forEach(state::reviewer);
+            for (AssignmentWorkloadRow row : rows) {
+                state.statuses.put(row.assignmentId(), row.status());
+                for (WorkloadMetric metric : WorkloadMetric.of(row.status())) {
+                    state.increment(row.reviewerId(), metric, 1);
+                }
+                ReviewerState reviewer = state.reviewer(row.reviewerId());
+                if (WorkloadMetric.isOpen(row.status())) {
+                    reviewer.addDue(row.assignmentId(), row.dueDate());
+                }
+            }
+            state.loaded = true;
+            return true;
+        }
+    }
+
+    @Override
+    public void apply(AssignmentChangedEvent event) {
+        ConferenceState state = conference(event.conferenceId());
+        synchronized (state) {
+            state.version++;
+            if (!state.loaded) {
+                return;
+            }
+            AssignmentStatus current = state.statuses.get(event.assignmentId());
+            if (current == event.status()) {
+                return;
+            }
+            if (current != event.previousStatus()) {
+                state.reset();
+                return;
+            }
+            if (event.status() != null) {
+                state.statuses.put(event.assignmentId(), event.status());
+            } else {
+                state.statuses.remove(event.assignmentId());
+            }
+            for (WorkloadMetric metric : WorkloadMetric.of(event.previousStatus())) {
+                state.increment(event.reviewerId(), metric, -1);
+            }
+            for (WorkloadMetric metric : WorkloadMetric.of(event.status())) {
+                state.increment(event.reviewerId(), metric, 1);
+            }
+            ReviewerState reviewer = state.reviewer(event.reviewerId());
+            if (WorkloadMetric.isOpen(event.status())) {
+                reviewer.addDue(event.assignmentId(), event.dueDate());
+            } else {
+                reviewer.removeDue(event.assignmentId());
+            }
+        }
+    }
+
+    @Override
+    public List<Long> rank(Long conferenceId, WorkloadMetric metric, int limit, boolean descending) {
+        ConferenceState state = conference(conferenceId);
+        synchronized (state) {
+            NavigableSet<Entry> ranking = state.rankings.get(metric);
+            Iterator<Entry> it = descending ? ranking.descendingIterator() : ranking.iterator();
+            List<Long> result = new ArrayList<>(Math.min(limit, ranking.size()));
+            while (it.hasNext() && result.size() < limit) {
+                result.add(it.next().reviewerId());
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public List<ReviewerWorkload> get(Long conferenceId, List<Long> reviewerIds, LocalDateTime now) {
+        ConferenceState state = conference(conferenceId);
+        synchronized (state) {
+            List<ReviewerWorkload> result = new ArrayList<>(reviewerIds.size());
+            for (Long reviewerId : reviewerIds) {
+                ReviewerState reviewer = state.reviewers.getOrDefault(reviewerId, new ReviewerState());
+                result.add(new ReviewerWorkload(reviewerId, null, null,
+                    reviewer.count(WorkloadMetric.PENDING),
+                    reviewer.count(WorkloadMetric.ACCEPTED),
+                    reviewer.count(WorkloadMetric.COMPLETED),
+                    reviewer.count(WorkloadMetric.ACTIVE),
+                    reviewer.overdue(now)));
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public long size(Long conferenceId) {
+        ConferenceState state = conference(conferenceId);
+        synchronized (state) {
+            return state.reviewers.size();
+        }
+    }
+
+    @Override
+    public void evict(Long conferenceId) {
+        ConferenceState state = conference(conferenceId);
+        synchronized (state) {
+            state.version++;
+            state.reset();
+        }
+    }
+
+    private ConferenceState conference(Long conferenceId) {
+        return conferences.computeIfAbsent(conferenceId, id -> new ConferenceState());
+    }
+
+    private static Map<WorkloadMetric, NavigableSet<Entry>> emptyRankings() {
+        Map<WorkloadMetric, NavigableSet<Entry>> rankings = new EnumMap<>(WorkloadMetric.class);
+        for (WorkloadMetric metric : WorkloadMetric.values()) {
+            rankings.put(metric, new TreeSet<>(ORDER));
+        }
+        return rankings;
+    }
+}
@@ -0,0 +1,7 @@
+package edu.uth.backend.assignment;
+
+/**
+ * Một cặp (bài báo, reviewer), dùng làm khóa khi kiểm tra COI / phân công trùng theo tập
+ */
+public record PaperReviewerPair(Long paperId, Long reviewerId) {
+}
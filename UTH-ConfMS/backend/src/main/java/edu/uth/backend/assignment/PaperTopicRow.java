@@ -0,0 +1,7 @@
+package edu.uth.backend.assignment;
+
+/**
+ * Bài cần reviewer kèm tác giả chính và chủ đề (projection của PaperRepository, cho gợi ý phân công)
+ */
+public record PaperTopicRow(Long paperId, Long authorId, String authorAffiliation, String title, String keywords) {
+}
@@ -0,0 +1,275 @@
+package edu.uth.backend.assignment;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chỉ mục workload trong Redis để mọi node API dùng chung. Mỗi (hội nghị, metric) là một sorted set
+ * reviewerId -> số phân công (ZINCRBY khi đổi trạng thái, ZREVRANGE/ZRANGE cho top/bottom-K);
+ * hạn chấm của phân công đang mở nằm trong sorted set theo reviewer (ZCOUNT để đếm quá hạn),
+ * trạng thái từng phân công nằm trong hash workload:{conferenceId}:status.
+ * load so version, ghi dữ liệu và đánh dấu đã nạp trong một transaction WATCH/MULTI;
+ * apply là một Lua script nên không xen giữa được.
+ */
+@Component
+@ConditionalOnProperty(name = "app.assignment.workload.store", havingValue = "redis")
+public class RedisReviewerWorkloadIndex implements ReviewerWorkloadIndex {
+
+    private static final String KEY_PREFIX = "workload:";
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // KEYS: loaded, version, status, reviewers, due của reviewer, ranking theo thứ tự WorkloadMetric.values()
+    // ARGV: assignmentId, reviewerId, trạng thái cũ, trạng thái mới ('' là không có), '1' nếu đang mở,
+    // hạn chấm (epoch ms, '' là không có), delta theo từng metric
+    private static final DefaultRedisScript<Long> APPLY_SCRIPT = new DefaultRedisScript<>("""
+        redis.call('INCR', KEYS[2])
+        if redis.call('EXISTS', KEYS[1]) == 0 then
+            return 0
+        end
+        local current = redis.call('HGET', KEYS[3], ARGV[1]) or ''
+        if current == ARGV[4] then
+            return 0
+        end
+        if current ~= ARGV[3] then
+            redis.call('DEL', KEYS[1])
+            return -1
+        end
+        if ARGV[4] == '' then
+            redis.call('HDEL', KEYS[3], ARGV[1])
+        else
+            redis.call('HSET', KEYS[3], ARGV[1], ARGV[4])
+        end
+        redis.call('SADD', KEYS[4], ARGV[2])
+        for i = 6, #KEYS do
+            redis.call('ZINCRBY', KEYS[i], ARGV[i + 1], ARGV[2])
+        end
+        if ARGV[5] == '1' then
+            if ARGV[6] ~= '' then
+                redis.call('ZADD', KEYS[5], ARGV[6], ARGV[1])
+            end
+        else
+            redis.call('ZREM', KEYS[5], ARGV[1])
+        end
+        return 1
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisReviewerWorkloadIndex(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean isLoaded(Long conferenceId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(loadedKey(conferenceId)));
+    }
+
+    @Override
+    public long version(Long conferenceId) {
+        String version = redisTemplate.opsForValue().get(versionKey(conferenceId));
+        return version != null ? Long.parseLong(version) : 0;
+    }
+
+    @Override
+    public boolean load(Long conferenceId, Collection<Long> reviewerIds, List<AssignmentWorkloadRow> rows,
+                        long expectedVersion) {
+        Map<WorkloadMetric, Map<String, Double>> counts = new HashMap<>();
+        Map<String, Set<TypedTuple<String>>> dueDates = new HashMap<>();
+        Map<String, String> statuses = new HashMap<>();
+        Set<String> reviewers = new HashSet<>();
+        reviewerIds.forEach(id -> reviewers.add(id.toString()));
+        for (AssignmentWorkloadRow row : rows) {
+            String reviewer = row.reviewerId().toString();
+            reviewers.add(reviewer);
+            statuses.put(row.assignmentId().toString(), row.status().name());
+            for (WorkloadMetric metric : WorkloadMetric.of(row.status())) {
+                counts.computeIfAbsent(metric, m -> new HashMap<>()).merge(reviewer, 1.0, Double::sum);
+            }
+            if (WorkloadMetric.isOpen(row.status()) && row.dueDate() != null) {
+                dueDates.computeIfAbsent(dueKey(conferenceId, row.reviewerId()), k -> new HashSet<>())
+                    .add(TypedTuple.of(row.assignmentId().toString(), epochMillis(row.dueDate())));
+            }
+        }
+
+        List<Object> results = redisTemplate.execute(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                // Sự kiện (tăng version) hoặc lần nạp khác (đổi danh sách reviewer) xen vào thì EXEC bị hủy
+                redis.watch(List.of(versionKey(conferenceId), reviewersKey(conferenceId)));
+                String version = redis.opsForValue().get(versionKey(conferenceId));
+                if ((version != null ? Long.parseLong(version) : 0) != expectedVersion) {
+                    redis.unwatch();
+                    return null;
+                }
+                List<String> oldKeys = dataKeys(conferenceId, redis.opsForSet().members(reviewersKey(conferenceId)));
+
+                redis.multi();
+                redis.delete(oldKeys);
+                if (!reviewers.isEmpty()) {
+                    redis.opsForSet().add(reviewersKey(conferenceId), reviewers.toArray(String[]::new));
+                    for (WorkloadMetric metric : WorkloadMetric.values()) {
+                        Map<String, Double> metricCounts = counts.getOrDefault(metric, Map.of());
+                        Set<TypedTuple<String>> tuples = new HashSet<>();
+                        reviewers.forEach(r -> tuples.add(TypedTuple.of(r, metricCounts.getOrDefault(r, 0.0))));
+                        redis.opsForZSet().add(rankingKey(conferenceId, metric), tuples);
+                    }
+                }
+                if (!statuses.isEmpty()) {
+                    redis.opsForHash().putAll(statusKey(conferenceId), statuses);
+                }
+                dueDates.forEach((key, tuples) -> redis.opsForZSet().add(key, tuples));
+                redis.opsForValue().set(loadedKey(conferenceId), "1");
+                return redis.exec();
+            }
+        });
+        // EXEC bị hủy trả về danh sách rỗng: dữ liệu vừa đọc có thể đã cũ, lần đọc sau nạp lại
+        return results != null && !results.isEmpty();
+    }
+
+    @Override
+    public void apply(AssignmentChangedEvent event) {
+        Long conferenceId = event.conferenceId();
+        WorkloadMetric[] metrics = WorkloadMetric.values();
+        Set<WorkloadMetric> removed = WorkloadMetric.of(event.previousStatus());
+        Set<WorkloadMetric> added = WorkloadMetric.of(event.status());
+
+        List<String> keys = new ArrayList<>(List.of(loadedKey(conferenceId), versionKey(conferenceId),
+            statusKey(conferenceId), reviewersKey(conferenceId), dueKey(conferenceId, event.reviewerId())));
+        List<String> args = new ArrayList<>(List.of(
+            event.assignmentId().toString(),
+            event.reviewerId().toString(),
+            event.previousStatus() != null ? event.previousStatus().name() : "",
+            event.status() != null ? event.status().name() : "",
+            WorkloadMetric.isOpen(event.status()) ? "1" : "0",
+            event.dueDate() != null ? String.valueOf((long) epochMillis(event.dueDate())) : ""));
+        for (WorkloadMetric metric : metrics) {
+            keys.add(rankingKey(conferenceId, metric));
+            // delta 0 vẫn ZINCRBY để reviewer mới có mặt trong mọi bảng xếp hạng
+            args.add(String.valueOf((added.contains(metric) ? 1 : 0) - (removed.contains(metric) ? 1 : 0)));
+        }
+        redisTemplate.execute(APPLY_SCRIPT, keys, args.toArray());
+    }
+
+    @Override
+    public List<Long> rank(Long conferenceId, WorkloadMetric metric, int limit, boolean descending) {
+        String key = rankingKey(conferenceId, metric);
+        Set<String> members = descending
+            ? redisTemplate.opsForZSet().reverseRange(key, 0, limit - 1)
+            : redisTemplate.opsForZSet().range(key, 0, limit - 1);
+        if (members == null) {
+            return List.of();
+        }
+        return members.stream().map(Long::valueOf).toList();
+    }
+
+    @Override
+    public List<ReviewerWorkload> get(Long conferenceId, List<Long> reviewerIds, LocalDateTime now) {
+        if (reviewerIds.isEmpty()) {
+            return List.of();
+        }
+        WorkloadMetric[] metrics = WorkloadMetric.values();
+        double nowMillis = epochMillis(now);
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Long reviewerId : reviewerIds) {
+                for (WorkloadMetric metric : metrics) {
+                    redis.zScore(rankingKey(conferenceId, metric), reviewerId.toString());
+                }
+                // Hạn chấm trước now (không tính đúng now) là quá hạn
+                redis.zCount(dueKey(conferenceId, reviewerId), Double.NEGATIVE_INFINITY, Math.nextDown(nowMillis));
+            }
+            return null;
+        });
+
+        List<ReviewerWorkload> result = new ArrayList<>(reviewerIds.size());
+        int stride = metrics.length + 1;
+        for (int i = 0; i < reviewerIds.size(); i++) {
+            Map<WorkloadMetric, Long> counts = new HashMap<>();
+            for (int m = 0; m < metrics.length; m++) {
+                Object score = replies.get(i * stride + m);
+                counts.put(metrics[m], score instanceof Number n ? n.longValue() : 0L);
+            }
+            Object overdue = replies.get(i * stride + metrics.length);
+            result.add(new ReviewerWorkload(reviewerIds.get(i), null, null,
+                counts.get(WorkloadMetric.PENDING),
+                counts.get(WorkloadMetric.ACCEPTED),
+                counts.get(WorkloadMetric.COMPLETED),
+                counts.get(WorkloadMetric.ACTIVE),
+                overdue instanceof Number n ? n.longValue() : 0L));
+        }
+        return result;
+    }
+
+    @Override
+    public long size(Long conferenceId) {
+        Long size = redisTemplate.opsForZSet().zCard(rankingKey(conferenceId, WorkloadMetric.ACTIVE));
+        return size != null ? size : 0;
+    }
+
+    @Override
+    public void evict(Long conferenceId) {
+        redisTemplate.opsForValue().increment(versionKey(conferenceId));
+        redisTemplate.delete(dataKeys(conferenceId, redisTemplate.opsForSet().members(reviewersKey(conferenceId))));
+    }
+
+    private static List<String> dataKeys(Long conferenceId, Set<String> reviewers) {
+        List<String> keys = new ArrayList<>();
+        keys.add(loadedKey(conferenceId));
+        keys.add(reviewersKey(conferenceId));
+        keys.add(statusKey(conferenceId));
+        for (WorkloadMetric metric : WorkloadMetric.values()) {
+            keys.add(rankingKey(conferenceId, metric));
+        }
+        if (reviewers != null) {
+            reviewers.forEach(r -> keys.add(dueKey(conferenceId, Long.valueOf(r))));
+        }
+        return keys;
+    }
+
+    private static double epochMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static String versionKey(Long conferenceId) {
+        return KEY_PREFIX + conferenceId + ":version";
+    }
+
+    private static String loadedKey(Long conferenceId) {
+        return KEY_PREFIX + conferenceId + ":loaded";
+    }
+
+    private static String statusKey(Long conferenceId) {
+        return KEY_PREFIX + conferenceId + ":status";
+    }
+
+    private static String reviewersKey(Long conferenceId) {
+        return KEY_PREFIX + conferenceId + ":reviewers";
+    }
+
+    private static String rankingKey(Long conferenceId, WorkloadMetric metric) {
+        return KEY_PREFIX + conferenceId + ":" + metric;
+    }
+
+    private static String dueKey(Long conferenceId, Long reviewerId) {
+        return KEY_PREFIX + conferenceId + ":due:" + reviewerId;
+    }
+}
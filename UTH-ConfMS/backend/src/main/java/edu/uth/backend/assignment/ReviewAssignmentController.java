@@ -9,9 +9,17 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/assignments")
 public class ReviewAssignmentController {
 
+    private static final int MAX_WORKLOAD_LIMIT = 100;
+
     @Autowired
     private ReviewAssignmentService assignmentService;
 
+    @Autowired
+    private ReviewerWorkloadService workloadService;
+
+    @Autowired
+    private ReviewerSuggestionService suggestionService;
+
     // API: Phân công Reviewer (Admin/Chair dùng)
     // POST /api/assignments
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ROLE_CHAIR','ROLE_TRACK_CHAIR')")
@@ -81,6 +89,58 @@ public class ReviewAssignmentController {
         }
     }
 
+    // API: Xếp hạng tải reviewer của hội nghị (Chair dùng)
+    // GET /api/assignments/workload?conferenceId=1&metric=ACTIVE&order=desc&limit=10
+    // metric: PENDING | ACCEPTED | COMPLETED | ACTIVE (PENDING + ACCEPTED); order=asc để xem reviewer rảnh nhất
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ROLE_CHAIR','ROLE_TRACK_CHAIR')")
+    @GetMapping("/workload")
+    public ResponseEntity<?> getWorkload(
+            @RequestParam Long conferenceId,
+            @RequestParam(defaultValue = "ACTIVE") WorkloadMetric metric,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(defaultValue = "10") int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_WORKLOAD_LIMIT));
+        boolean descending = !"asc".equalsIgnoreCase(order);
+        return ResponseEntity.ok(workloadService.getWorkload(conferenceId, metric, size, descending));
+    }
+
+    // API: Nạp lại chỉ mục tải reviewer từ database (sau khi sửa dữ liệu trực tiếp, restore backup...)
+    // POST /api/assignments/workload/rebuild?conferenceId=1
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ROLE_CHAIR')")
+    @PostMapping("/workload/rebuild")
+    public ResponseEntity<?> rebuildWorkload(@RequestParam Long conferenceId) {
+        workloadService.rebuild(conferenceId);
+        return ResponseEntity.ok(workloadService.getWorkload(conferenceId, WorkloadMetric.ACTIVE, 10, true));
+    }
+
+    // API: Gợi ý phân công reviewer cho cả hội nghị (tính cục bộ, không gọi AI)
+    // GET /api/assignments/suggestions?conferenceId=1&maxPapersPerReviewer=5&minReviewersPerPaper=3
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ROLE_CHAIR','ROLE_TRACK_CHAIR')")
+    @GetMapping("/suggestions")
+    public ResponseEntity<?> suggestAssignments(
+            @RequestParam Long conferenceId,
+            @RequestParam(defaultValue = "5") int maxPapersPerReviewer,
+            @RequestParam(defaultValue = "3") int minReviewersPerPaper,
+            @RequestParam(required = false) java.util.List<Long> paperIds,
+            @RequestParam(required = false) java.util.List<Long> reviewerIds) {
+        return ResponseEntity.ok(suggestionService.suggest(
+            conferenceId, maxPapersPerReviewer, minReviewersPerPaper, paperIds, reviewerIds));
+    }
+
+    // API: Tính gợi ý và phân công luôn theo gợi ý (qua phân công hàng loạt)
+    // POST /api/assignments/suggestions/apply?conferenceId=1&maxPapersPerReviewer=5&minReviewersPerPaper=3
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ROLE_CHAIR','ROLE_TRACK_CHAIR')")
+    @PostMapping("/suggestions/apply")
+    public ResponseEntity<?> applySuggestions(
+            @RequestParam Long conferenceId,
+            @RequestParam(defaultValue = "5") int maxPapersPerReviewer,
+            @RequestParam(defaultValue = "3") int minReviewersPerPaper,
+            @RequestParam(required = false) java.util.List<Long> paperIds,
+            @RequestParam(required = false) java.util.List<Long> reviewerIds) {
+        return ResponseEntity.ok(suggestionService.apply(
+            conferenceId, maxPapersPerReviewer, minReviewersPerPaper, paperIds, reviewerIds));
+    }
+
     // API: Lấy assignment theo ID
     // GET /api/assignments/{assignmentId}
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ROLE_CHAIR','ROLE_TRACK_CHAIR','ROLE_REVIEWER','ROLE_PC')")
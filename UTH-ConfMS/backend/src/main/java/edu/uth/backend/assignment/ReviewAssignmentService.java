@@ -2,8 +2,10 @@ package edu.uth.backend.assignment;
 
 import edu.uth.backend.email.EmailService;
 import edu.uth.backend.entity.*;
+import edu.uth.backend.report.ReportDataChangedEvent;
 import edu.uth.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -17,6 +19,8 @@ public class ReviewAssignmentService {
     @Autowired private UserRepository userRepo;
     @Autowired private ConflictOfInterestRepository coiRepo;
     @Autowired private EmailService emailService; 
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private BulkAssignmentService bulkAssignmentService;
 
 
     // 1. Hàm Phân công (Assign) - TP4
@@ -26,45 +30,22 @@ public class ReviewAssignmentService {
         Paper paper = paperRepo.findById(paperId)
                 .orElseThrow(() -> new RuntimeException("Lỗi: Bài báo không tồn tại!"));
 
-        // Check if conference is locked
-        if (paper.getTrack() != null && paper.getTrack().getConference() != null) {
-            Conference conference = paper.getTrack().getConference();
-            if (conference.getIsLocked() != null && conference.getIsLocked()) {
-                throw new RuntimeException("Hội nghị đã bị khóa, không thể phân công reviewer!");
-            }
-            if (conference.getReviewDeadline() != null && 
-                LocalDateTime.now().isAfter(conference.getReviewDeadline())) {
-                throw new RuntimeException("Đã quá hạn chấm bài! Không thể phân công reviewer. Deadline: " + 
-                    conference.getReviewDeadline().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-            }
+        // Check if conference is locked / review deadline passed
+        String conferenceError = AssignmentRules.conferenceViolation(paper, LocalDateTime.now());
+        if (conferenceError != null) {
+            throw new RuntimeException(conferenceError);
         }
 
         // b. Kiểm tra người chấm có tồn tại không
         User reviewer = userRepo.findById(reviewerId)
                 .orElseThrow(() -> new RuntimeException("Lỗi: Reviewer không tồn tại!"));
 
-        // c. Check COI Cơ bản: Tác giả không được chấm bài mình
-        if (paper.getMainAuthor().getId().equals(reviewerId)) {
-            throw new RuntimeException("Lỗi COI: Tác giả không thể tự chấm bài của mình!");
-        }
-        // Nếu Reviewer đã khai báo xung đột trong bảng conflicts_of_interest thì chặn lại
-        if (coiRepo.existsByPaperIdAndReviewerId(paperId, reviewerId)) {
-             throw new RuntimeException("Lỗi COI: Không thể phân công vì Reviewer này đã khai báo Xung đột lợi ích!");
-        }
-        // -----------------------------------------------------------
-
-        // d. Check COI (Nâng cao): Nếu cùng đơn vị công tác (Affiliation)
-        // (Giữ lại logic này của bạn vì nó rất tốt)
-        String authorAffiliation = paper.getMainAuthor().getAffiliation();
-        String reviewerAffiliation = reviewer.getAffiliation();
-        if (authorAffiliation != null && reviewerAffiliation != null && 
-            authorAffiliation.equalsIgnoreCase(reviewerAffiliation)) {
-              throw new RuntimeException("Cảnh báo COI: Reviewer và Tác giả cùng đơn vị công tác (" + authorAffiliation + ")!");
-        }
-
-        // e. Kiểm tra xem đã phân công cho ông này chưa (Tránh trùng)
-        if (assignmentRepo.existsByPaperIdAndReviewerId(paperId, reviewerId)) {
-            throw new RuntimeException("Lỗi: Reviewer này đã được phân công cho bài báo này rồi!");
+        // c-e. COI (tự chấm, đã khai báo, cùng đơn vị) và phân công trùng
+        String reviewerError = AssignmentRules.reviewerViolation(paper, reviewer,
+                () -> coiRepo.existsByPaperIdAndReviewerId(paperId, reviewerId),
+                () -> assignmentRepo.existsByPaperIdAndReviewerId(paperId, reviewerId));
+        if (reviewerError != null) {
+            throw new RuntimeException(reviewerError);
         }
 
         // f. Lưu phân công
@@ -75,10 +56,7 @@ public class ReviewAssignmentService {
         assignment.setAssignedDate(LocalDateTime.now());
         
         // Set dueDate from conference reviewDeadline (via track)
-        if (paper.getTrack() != null && paper.getTrack().getConference() != null 
-            && paper.getTrack().getConference().getReviewDeadline() != null) {
-            assignment.setDueDate(paper.getTrack().getConference().getReviewDeadline());
-        }
+        assignment.setDueDate(AssignmentRules.dueDate(paper));
         
         // ✅ FIX: Save assignment FIRST to avoid race condition
         ReviewAssignment savedAssignment = assignmentRepo.save(assignment);
@@ -88,6 +66,8 @@ public class ReviewAssignmentService {
             paper.setStatus(PaperStatus.UNDER_REVIEW);
             paperRepo.save(paper);
         }
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(paper, "assign"));
+        eventPublisher.publishEvent(AssignmentChangedEvent.of(savedAssignment, null));
         
         // Send email notification
         try {
@@ -136,7 +116,10 @@ public class ReviewAssignmentService {
         }
         
         assignment.setStatus(AssignmentStatus.ACCEPTED);
-        return assignmentRepo.save(assignment);
+        ReviewAssignment saved = assignmentRepo.save(assignment);
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(assignment.getPaper(), "accept-assignment"));
+        eventPublisher.publishEvent(AssignmentChangedEvent.of(saved, AssignmentStatus.PENDING));
+        return saved;
     }
 
     // 5. Reviewer từ chối assignment
@@ -149,24 +132,16 @@ public class ReviewAssignmentService {
         }
         
         assignment.setStatus(AssignmentStatus.DECLINED);
-        return assignmentRepo.save(assignment);
+        ReviewAssignment saved = assignmentRepo.save(assignment);
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(assignment.getPaper(), "decline-assignment"));
+        eventPublisher.publishEvent(AssignmentChangedEvent.of(saved, AssignmentStatus.PENDING));
+        return saved;
     }
 
     // 6. Bulk assignment - phân công nhiều reviewer cho nhiều paper
-    public List<ReviewAssignment> bulkAssign(List<Long> paperIds, List<Long> reviewerIds) {
-        List<ReviewAssignment> results = new java.util.ArrayList<>();
-        for (Long paperId : paperIds) {
-            for (Long reviewerId : reviewerIds) {
-                try {
-                    ReviewAssignment assignment = assignReviewer(paperId, reviewerId);
-                    results.add(assignment);
-                } catch (RuntimeException e) {
-                    // Log error nhưng tiếp tục với các assignment khác
-                    System.err.println("Lỗi khi phân công paper " + paperId + " cho reviewer " + reviewerId + ": " + e.getMessage());
-                }
-            }
-        }
-        return results;
+    // Chạy ở bean riêng để @Transactional có hiệu lực (gọi nội bộ sẽ bỏ qua proxy)
+    public BulkAssignmentResult bulkAssign(List<Long> paperIds, List<Long> reviewerIds) {
+        return bulkAssignmentService.bulkAssign(paperIds, reviewerIds);
     }
 
     // 7. Lấy assignment theo ID
@@ -235,5 +210,7 @@ public class ReviewAssignmentService {
             paper.setStatus(PaperStatus.SUBMITTED);
             paperRepo.save(paper);
         }
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(paper, "delete-assignment"));
+        eventPublisher.publishEvent(AssignmentChangedEvent.deleted(assignment));
     }
 }
\ No newline at end of file
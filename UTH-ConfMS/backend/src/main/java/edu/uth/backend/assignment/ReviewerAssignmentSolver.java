@@ -0,0 +1,369 @@
+package edu.uth.backend.assignment;
+
+import java.util.Arrays;
+
+/**
+ * Bài toán phân công reviewer dạng luồng chi phí nhỏ nhất (min-cost max-flow), chỉ dùng mảng nguyên thủy:
+ * nguồn -> bài (sức chứa = số reviewer còn thiếu), bài -> reviewer (1 cạnh mỗi ứng viên hợp lệ,
+ * chi phí = độ "không hợp" của cặp), reviewer -> đích (sức chứa = số bài còn nhận được).
+ * Luồng cực đại là lấp được nhiều chỗ nhất; trong các cách đó chọn cách có tổng chi phí nhỏ nhất.
+ * <p>
+ * balanceCost > 0 thì bài thứ j của một reviewer tốn thêm j * balanceCost (chi phí lồi),
+ * nên tải được dàn đều khi độ hợp tương đương.
+ * <p>
+ * Thuật toán primal-dual: Dijkstra với thế vị tìm khoảng cách ngắn nhất, rồi một lượt DFS (current-arc)
+ * đẩy luồng trên các đường có chi phí rút gọn bằng 0, nên số vòng Dijkstra xấp xỉ số mức khoảng cách
+ * khác nhau chứ không bằng số chỗ cần lấp. Đồ thị lưu dạng CSR để duyệt cạnh liền bộ nhớ.
+ */
+public final class ReviewerAssignmentSolver {
+
+    private static final int NODE_BITS = 22;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+
+    /**
+     * Kết quả: chỉ số (theo thứ tự addCandidate) của các ứng viên được chọn, tổng chi phí và số chỗ chưa lấp
+     */
+    public record Result(int[] selected, long totalCost, int unfilled) {
+    }
+
+    private final int paperCount;
+    private final int reviewerCount;
+    private final int[] paperDemand;
+    private final int[] reviewerCapacity;
+    private final int balanceCost;
+
+    // Ứng viên (bài, reviewer, chi phí), thêm dần trước khi solve
+    private int[] candidatePaper = new int[1024];
+    private int[] candidateReviewer = new int[1024];
+    private int[] candidateCost = new int[1024];
+    private int candidateCount;
+
+    // Đồ thị dư dạng CSR: cạnh của đỉnh v nằm trong [start[v], start[v + 1]), rev[e] là cạnh ngược
+    private int nodeCount;
+    private int[] start;
+    private int[] to;
+    private int[] rev;
+    private int[] cap;
+    private int[] cost;
+    private int[] candidateEdge;
+
+    public ReviewerAssignmentSolver(int[] paperDemand, int[] reviewerCapacity, int balanceCost) {
+        this.paperCount = paperDemand.length;
+        this.reviewerCount = reviewerCapacity.length;
+        this.paperDemand = paperDemand;
+        this.reviewerCapacity = reviewerCapacity;
+        this.balanceCost = Math.max(0, balanceCost);
+        if (paperCount + reviewerCount + 2 >= (1 << NODE_BITS)) {
+            throw new IllegalArgumentException("Quá nhiều bài/reviewer: " + paperCount + " x " + reviewerCount);
+        }
+    }
+
+    /**
+     * Thêm cặp (bài, reviewer) hợp lệ, mỗi cặp một lần; cost >= 0, càng nhỏ càng hợp. Trả về chỉ số ứng viên
+     */
+    public int addCandidate(int paper, int reviewer, int cost) {
+        if (cost < 0) {
+            throw new IllegalArgumentException("cost phải >= 0");
+        }
+        if (candidateCount == candidatePaper.length) {
+            int size = candidateCount * 2;
+            candidatePaper = Arrays.copyOf(candidatePaper, size);
+            candidateReviewer = Arrays.copyOf(candidateReviewer, size);
+            candidateCost = Arrays.copyOf(candidateCost, size);
+        }
+        candidatePaper[candidateCount] = paper;
+        candidateReviewer[candidateCount] = reviewer;
+        candidateCost[candidateCount] = cost;
+        return candidateCount++;
+    }
+
+    public Result solve() {
+        int source = paperCount + reviewerCount;
+        int sink = source + 1;
+        int totalDemand = buildGraph(source, sink);
+
+        // Các mảng đánh dấu lưu số vòng thay vì boolean để khỏi xóa lại mỗi vòng
+        long[] potential = new long[nodeCount];
+        long[] dist = new long[nodeCount];
+        int[] seen = new int[nodeCount];
+        int[] settled = new int[nodeCount];
+        int[] visited = new int[nodeCount];
+        int[] dead = new int[nodeCount];
+        boolean[] onPath = new boolean[nodeCount];
+        int[] iter = new int[nodeCount];
+        int[] path = new int[nodeCount];
+        LongHeap heap = new LongHeap(to.length + 1);
+
+        long totalCost = 0;
+        int flow = 0;
+        for (int round = 1; flow < totalDemand
+            && shortestPaths(source, sink, round, potential, dist, seen, settled, heap); round++) {
+            long[] pushed = augment(source, sink, round, potential, settled, visited, dead, onPath, iter, path);
+            flow += (int) pushed[0];
+            totalCost += pushed[1];
+        }
+        return collect(totalCost, totalDemand);
+    }
+
+    /**
+     * Dựng đồ thị CSR; trả về tổng số chỗ cần lấp
+     */
+    private int buildGraph(int source, int sink) {
+        int totalDemand = 0;
+        for (int demand : paperDemand) {
+            totalDemand += Math.max(0, demand);
+        }
+        nodeCount = sink + 1;
+
+        // 1. Bậc của từng đỉnh (tính cả cạnh ngược)
+        int[] degree = new int[nodeCount];
+        for (int p = 0; p < paperCount; p++) {
+            if (paperDemand[p] > 0) {
+                degree[source]++;
+                degree[p]++;
+            }
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            degree[candidatePaper[i]]++;
+            degree[paperCount + candidateReviewer[i]]++;
+        }
+        for (int r = 0; r < reviewerCount; r++) {
+            int edges = sinkEdges(r, totalDemand);
+            degree[paperCount + r] += edges;
+            degree[sink] += edges;
+        }
+        start = new int[nodeCount + 1];
+        for (int v = 0; v < nodeCount; v++) {
+            start[v + 1] = start[v] + degree[v];
+        }
+        int edgeCount = start[nodeCount];
+        to = new int[edgeCount];
+        rev = new int[edgeCount];
+        cap = new int[edgeCount];
+        cost = new int[edgeCount];
+        candidateEdge = new int[candidateCount];
+
+        // 2. Đặt cạnh vào vị trí
+        int[] fill = Arrays.copyOf(start, nodeCount);
+        for (int p = 0; p < paperCount; p++) {
+            if (paperDemand[p] > 0) {
+                addEdge(fill, source, p, paperDemand[p], 0);
+            }
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            candidateEdge[i] = addEdge(fill, candidatePaper[i], paperCount + candidateReviewer[i], 1, candidateCost[i]);
+        }
+        for (int r = 0; r < reviewerCount; r++) {
+            int edges = sinkEdges(r, totalDemand);
+            if (balanceCost > 0) {
+                for (int j = 0; j < edges; j++) {
+                    addEdge(fill, paperCount + r, sink, 1, j * balanceCost);
+                }
+            } else if (edges > 0) {
+                addEdge(fill, paperCount + r, sink, Math.min(reviewerCapacity[r], totalDemand), 0);
+            }
+        }
+        return totalDemand;
+    }
+
+    /**
+     * Số cạnh reviewer -> đích: từng cạnh đơn vị khi có chi phí dàn tải, ngược lại một cạnh chung
+     */
+    private int sinkEdges(int reviewer, int totalDemand) {
+        int usable = Math.min(Math.max(0, reviewerCapacity[reviewer]), totalDemand);
+        if (usable == 0) {
+            return 0;
+        }
+        return balanceCost > 0 ? usable : 1;
+    }
+
+    private int addEdge(int[] fill, int from, int toNode, int capacity, int edgeCost) {
+        int forward = fill[from]++;
+        int backward = fill[toNode]++;
+        to[forward] = toNode;
+        rev[forward] = backward;
+        cap[forward] = capacity;
+        cost[forward] = edgeCost;
+        to[backward] = from;
+        rev[backward] = forward;
+        cost[backward] = -edgeCost;
+        return forward;
+    }
+
+    /**
+     * Dijkstra trên chi phí rút gọn rồi cập nhật thế vị; false nếu không còn đường tăng luồng.
+     * seen[v] == round: dist[v] có giá trị trong vòng này; settled[v] == round: dist[v] đã chốt
+     */
+    private boolean shortestPaths(int source, int sink, int round, long[] potential, long[] dist,
+                                  int[] seen, int[] settled, LongHeap heap) {
+        heap.clear();
+        dist[source] = 0;
+        seen[source] = round;
+        heap.push(source);
+        while (!heap.isEmpty()) {
+            int v = (int) (heap.pop() & NODE_MASK);
+            if (settled[v] == round) {
+                continue;
+            }
+            settled[v] = round;
+            if (v == sink) {
+                break;
+            }
+            long base = dist[v] + potential[v];
+            for (int e = start[v], end = start[v + 1]; e < end; e++) {
+                int w = to[e];
+                if (cap[e] == 0 || settled[w] == round) {
+                    continue;
+                }
+                long candidate = base + cost[e] - potential[w];
+                if (seen[w] != round || candidate < dist[w]) {
+                    seen[w] = round;
+                    dist[w] = candidate;
+                    heap.push((candidate << NODE_BITS) | w);
+                }
+            }
+        }
+        if (settled[sink] != round) {
+            return false;
+        }
+        long sinkDist = dist[sink];
+        for (int v = 0; v < nodeCount; v++) {
+            if (settled[v] == round) {
+                potential[v] -= sinkDist - dist[v];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Một lượt DFS không đệ quy trên các cạnh còn sức chứa, chi phí rút gọn 0, giữa các đỉnh đã chốt;
+     * đỉnh cụt bị loại đến hết lượt. Trả về {luồng, chi phí} đã đẩy
+     */
+    private long[] augment(int source, int sink, int round, long[] potential, int[] settled, int[] visited,
+                           int[] dead, boolean[] onPath, int[] iter, int[] path) {
+        long flow = 0;
+        long addedCost = 0;
+        int depth = 0;
+        int v = source;
+        visited[source] = round;
+        iter[source] = start[source];
+        onPath[source] = true;
+        while (true) {
+            if (v == sink) {
+                int amount = Integer.MAX_VALUE;
+                for (int i = 0; i < depth; i++) {
+                    amount = Math.min(amount, cap[path[i]]);
+                }
+                for (int i = 0; i < depth; i++) {
+                    int e = path[i];
+                    cap[e] -= amount;
+                    cap[rev[e]] += amount;
+                    addedCost += (long) amount * cost[e];
+                    onPath[to[e]] = false;
+                }
+                flow += amount;
+                depth = 0;
+                v = source;
+                continue;
+            }
+            int e = iter[v];
+            int end = start[v + 1];
+            while (e < end) {
+                int w = to[e];
+                if (cap[e] > 0 && settled[w] == round && dead[w] != round && !onPath[w]
+                    && cost[e] + potential[v] - potential[w] == 0) {
+                    break;
+                }
+                e++;
+            }
+            iter[v] = e;
+            if (e < end) {
+                int w = to[e];
+                path[depth++] = e;
+                if (visited[w] != round) {
+                    visited[w] = round;
+                    iter[w] = start[w];
+                }
+                if (w != sink) {
+                    onPath[w] = true;
+                }
+                v = w;
+                continue;
+            }
+            // Ngõ cụt: bỏ đỉnh này đến hết lượt và lùi lại
+            onPath[v] = false;
+            if (depth == 0) {
+                return new long[] {flow, addedCost};
+            }
+            dead[v] = round;
+            v = to[rev[path[--depth]]];
+        }
+    }
+
+    private Result collect(long totalCost, int totalDemand) {
+        int[] selected = new int[candidateCount];
+        int count = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            if (cap[candidateEdge[i]] == 0) {
+                selected[count++] = i;
+            }
+        }
+        return new Result(Arrays.copyOf(selected, count), totalCost, totalDemand - count);
+    }
+
+    /**
+     * Min-heap các khóa long (khoảng cách << NODE_BITS | đỉnh), không boxing
+     */
+    private static final class LongHeap {
+        private long[] keys;
+        private int size;
+
+        LongHeap(int capacity) {
+            keys = new long[Math.max(16, capacity)];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            keys[i] = key;
+        }
+
+        long pop() {
+            long top = keys[0];
+            long last = keys[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (last <= keys[child]) {
+                    break;
+                }
+                keys[i] = keys[child];
+                i = child;
+            }
+            keys[i] = last;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package edu.uth.backend.assignment;
+
+/**
+ * Reviewer rút gọn cho gợi ý phân công (projection của UserRepository)
+ */
+public record ReviewerProfileRow(Long reviewerId, String affiliation, String bio) {
+}
@@ -0,0 +1,23 @@
+package edu.uth.backend.assignment;
+
+import java.util.List;
+
+/**
+ * Kết quả gợi ý phân công của một hội nghị: các cặp (bài, reviewer) được chọn kèm độ phù hợp chủ đề,
+ * số chỗ cần lấp / chưa lấp được và các bài còn thiếu reviewer
+ */
+public record ReviewerSuggestionResult(
+    Long conferenceId,
+    int papers,
+    int reviewers,
+    int openSlots,
+    int suggested,
+    int unfilled,
+    List<Long> understaffedPaperIds,
+    long elapsedMs,
+    List<Item> suggestions
+) {
+
+    public record Item(Long paperId, Long reviewerId, double affinity) {
+    }
+}
@@ -0,0 +1,302 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.AssignmentStatus;
+import edu.uth.backend.entity.Conference;
+import edu.uth.backend.entity.PaperStatus;
+import edu.uth.backend.exception.ResourceNotFoundException;
+import edu.uth.backend.repository.ConferenceRepository;
+import edu.uth.backend.repository.ConflictOfInterestRepository;
+import edu.uth.backend.repository.PaperRepository;
+import edu.uth.backend.repository.ReviewAssignmentRepository;
+import edu.uth.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gợi ý phân công reviewer cho cả hội nghị, chạy cục bộ và tất định (không gọi AI):
+ * độ phù hợp chủ đề bài × reviewer (TopicAffinity) -> đồ thị ứng viên thưa -> ReviewerAssignmentSolver.
+ * Ràng buộc: mỗi bài đủ minReviewersPerPaper (tính cả phân công chưa bị từ chối), mỗi reviewer không quá
+ * maxPapersPerReviewer trong hội nghị, loại tác giả tự chấm, COI đã khai báo, cùng đơn vị với tác giả
+ * và cặp đã từng phân công (giống AssignmentRules).
+ * <p>
+ * Mỗi bài chỉ giữ candidatesPerSlot ứng viên phù hợp nhất cho mỗi chỗ cần lấp, cộng thêm fallbackPerSlot
+ * reviewer hợp lệ chọn xoay vòng (bù thêm nếu thiếu ứng viên cùng chủ đề) để bài không có từ khóa chung
+ * với ai vẫn được lấp.
+ */
+@Service
+public class ReviewerSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewerSuggestionService.class);
+
+    // Chi phí cặp = COST_SCALE * (1 - độ phù hợp)
+    private static final int COST_SCALE = 1000;
+    private static final long REVIEWER_MASK = (1L << 22) - 1;
+    private static final Set<PaperStatus> OPEN_PAPER_STATUSES = EnumSet.of(PaperStatus.SUBMITTED, PaperStatus.UNDER_REVIEW);
+    private static final Set<AssignmentStatus> REVIEWED_STATUSES = EnumSet.of(AssignmentStatus.ACCEPTED, AssignmentStatus.COMPLETED);
+
+    @Value("${app.assignment.suggest.candidates-per-slot:8}")
+    private int candidatesPerSlot;
+
+    @Value("${app.assignment.suggest.fallback-per-slot:2}")
+    private int fallbackPerSlot;
+
+    @Value("${app.assignment.suggest.balance-cost:20}")
+    private int balanceCost;
+
+    @Autowired private PaperRepository paperRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private ReviewAssignmentRepository assignmentRepo;
+    @Autowired private ConflictOfInterestRepository coiRepo;
+    @Autowired private ConferenceRepository conferenceRepo;
+    @Autowired private BulkAssignmentService bulkAssignmentService;
+
+    /**
+     * Gợi ý cho các bài SUBMITTED/UNDER_REVIEW của hội nghị; paperIds/reviewerIds null nghĩa là tất cả
+     */
+    @Transactional(readOnly = true)
+    public ReviewerSuggestionResult suggest(Long conferenceId, int maxPapersPerReviewer, int minReviewersPerPaper,
+                                            Collection<Long> paperIds, Collection<Long> reviewerIds) {
+        if (maxPapersPerReviewer < 1 || minReviewersPerPaper < 1) {
+            throw new IllegalArgumentException("maxPapersPerReviewer và minReviewersPerPaper phải >= 1");
+        }
+        Conference conference = conferenceRepo.findById(conferenceId)
+            .orElseThrow(() -> new ResourceNotFoundException("Conference", "id", conferenceId));
+        // Hội nghị đã khóa hoặc quá hạn chấm thì mọi cặp đều bị BulkAssignmentService từ chối
+        String conferenceError = AssignmentRules.conferenceViolation(conference, LocalDateTime.now());
+        if (conferenceError != null) {
+            throw new IllegalArgumentException(conferenceError);
+        }
+        long started = System.nanoTime();
+
+        // 1. Nạp bài, reviewer, phân công đã có và COI của hội nghị
+        Set<Long> paperFilter = paperIds != null ? new HashSet<>(paperIds) : null;
+        Set<Long> reviewerFilter = reviewerIds != null ? new HashSet<>(reviewerIds) : null;
+        List<PaperTopicRow> papers = paperRepo.findTopicRowsByConferenceIdAndStatusIn(conferenceId, OPEN_PAPER_STATUSES)
+            .stream().filter(row -> paperFilter == null || paperFilter.contains(row.paperId())).toList();
+        List<ReviewerProfileRow> reviewers = userRepo.findReviewerProfiles()
+            .stream().filter(row -> reviewerFilter == null || reviewerFilter.contains(row.reviewerId())).toList();
+        int paperCount = papers.size();
+        int reviewerCount = reviewers.size();
+
+        Map<Long, Integer> paperIndex = new HashMap<>(paperCount * 2);
+        for (int p = 0; p < paperCount; p++) {
+            paperIndex.put(papers.get(p).paperId(), p);
+        }
+        Map<Long, Integer> reviewerIndex = new HashMap<>(reviewerCount * 2);
+        for (int r = 0; r < reviewerCount; r++) {
+            reviewerIndex.put(reviewers.get(r).reviewerId(), r);
+        }
+
+        // 2. Chỗ còn trống: phân công chưa bị từ chối tính vào cả hai phía; mọi cặp đã có đều bị loại
+        int[] demand = new int[paperCount];
+        int[] capacity = new int[reviewerCount];
+        Arrays.fill(demand, minReviewersPerPaper);
+        Arrays.fill(capacity, maxPapersPerReviewer);
+        Set<Long> excluded = new HashSet<>();
+        for (AssignmentPairRow row : assignmentRepo.findPairRowsByConferenceId(conferenceId)) {
+            Integer p = paperIndex.get(row.paperId());
+            Integer r = reviewerIndex.get(row.reviewerId());
+            if (row.status() != AssignmentStatus.DECLINED) {
+                if (p != null) {
+                    demand[p]--;
+                }
+                if (r != null) {
+                    capacity[r]--;
+                }
+            }
+            if (p != null && r != null) {
+                excluded.add(pairKey(p, r, reviewerCount));
+            }
+        }
+        for (PaperReviewerPair pair : coiRepo.findPairsByConferenceId(conferenceId)) {
+            Integer p = paperIndex.get(pair.paperId());
+            Integer r = reviewerIndex.get(pair.reviewerId());
+            if (p != null && r != null) {
+                excluded.add(pairKey(p, r, reviewerCount));
+            }
+        }
+
+        // 3. Tác giả chính và đơn vị (cùng khóa so sánh với AssignmentRules)
+        Map<String, Integer> affiliationIds = new HashMap<>();
+        int[] reviewerAffiliation = new int[reviewerCount];
+        for (int r = 0; r < reviewerCount; r++) {
+            reviewerAffiliation[r] = affiliationId(reviewers.get(r).affiliation(), affiliationIds);
+        }
+        int[] paperAffiliation = new int[paperCount];
+        int[] paperAuthor = new int[paperCount];
+        for (int p = 0; p < paperCount; p++) {
+            PaperTopicRow row = papers.get(p);
+            paperAffiliation[p] = affiliationId(row.authorAffiliation(), affiliationIds);
+            paperAuthor[p] = reviewerIndex.getOrDefault(row.authorId(), -1);
+        }
+
+        // 4. Chủ đề: bài = tiêu đề + keywords; reviewer = bio + các bài đã viết / đã nhận chấm
+        List<Set<String>> paperTerms = new ArrayList<>(paperCount);
+        for (PaperTopicRow row : papers) {
+            Set<String> terms = new LinkedHashSet<>();
+            TopicAffinity.addTerms(terms, row.title(), false);
+            TopicAffinity.addTerms(terms, row.keywords(), true);
+            paperTerms.add(terms);
+        }
+        List<Set<String>> reviewerTerms = new ArrayList<>(reviewerCount);
+        for (ReviewerProfileRow row : reviewers) {
+            Set<String> terms = new LinkedHashSet<>();
+            TopicAffinity.addTerms(terms, row.bio(), false);
+            reviewerTerms.add(terms);
+        }
+        List<ReviewerTopicRow> history = new ArrayList<>(assignmentRepo.findReviewerTopicRowsByStatusIn(REVIEWED_STATUSES));
+        history.addAll(paperRepo.findReviewerAuthoredTopicRows());
+        for (ReviewerTopicRow row : history) {
+            Integer r = reviewerIndex.get(row.reviewerId());
+            if (r != null) {
+                TopicAffinity.addTerms(reviewerTerms.get(r), row.title(), false);
+                TopicAffinity.addTerms(reviewerTerms.get(r), row.keywords(), true);
+            }
+        }
+        TopicAffinity affinity = new TopicAffinity(paperTerms, reviewerTerms);
+
+        // 5. Đồ thị ứng viên thưa: top theo độ phù hợp + dự phòng xoay vòng
+        ReviewerAssignmentSolver solver = new ReviewerAssignmentSolver(demand, capacity, balanceCost);
+        int maxCandidates = 0;
+        for (int p = 0; p < paperCount; p++) {
+            maxCandidates += Math.max(0, demand[p]) * (candidatesPerSlot + fallbackPerSlot);
+        }
+        int[] candidatePaper = new int[maxCandidates];
+        int[] candidateReviewer = new int[maxCandidates];
+        float[] candidateScore = new float[maxCandidates];
+
+        float[] scores = new float[reviewerCount];
+        int[] touched = new int[reviewerCount];
+        long[] ranked = new long[reviewerCount];
+        int[] chosenFor = new int[reviewerCount];
+        for (int p = 0; p < paperCount; p++) {
+            if (demand[p] <= 0) {
+                continue;
+            }
+            int matched = affinity.score(p, scores, touched);
+            int valid = 0;
+            for (int i = 0; i < matched; i++) {
+                int r = touched[i];
+                if (allowed(p, r, capacity, paperAuthor, paperAffiliation, reviewerAffiliation, excluded, reviewerCount)) {
+                    ranked[valid++] = rankKey(scores[r], p, r);
+                } else {
+                    scores[r] = 0f;
+                }
+            }
+            Arrays.sort(ranked, 0, valid);
+            int top = Math.min(valid, demand[p] * candidatesPerSlot);
+            for (int i = 0; i < valid; i++) {
+                int r = (int) (ranked[i] & REVIEWER_MASK);
+                if (i < top) {
+                    int c = solver.addCandidate(p, r, COST_SCALE - Math.round(scores[r] * COST_SCALE));
+                    candidatePaper[c] = p;
+                    candidateReviewer[c] = r;
+                    candidateScore[c] = scores[r];
+                    chosenFor[r] = p + 1;
+                }
+                scores[r] = 0f;
+            }
+
+            // Bài ít ứng viên cùng chủ đề được bù cho đủ số ứng viên; điểm bắt đầu băm theo bài để các bài không dồn vào cùng reviewer
+            int fallback = demand[p] * (candidatesPerSlot + fallbackPerSlot) - top;
+            int start = reviewerCount == 0 ? 0 : (int) Math.floorMod(p * 0x9E3779B1L, (long) reviewerCount);
+            for (int step = 0; step < reviewerCount && fallback > 0; step++) {
+                int r = (start + step) % reviewerCount;
+                if (chosenFor[r] != p + 1
+                    && allowed(p, r, capacity, paperAuthor, paperAffiliation, reviewerAffiliation, excluded, reviewerCount)) {
+                    int c = solver.addCandidate(p, r, COST_SCALE);
+                    candidatePaper[c] = p;
+                    candidateReviewer[c] = r;
+                    chosenFor[r] = p + 1;
+                    fallback--;
+                }
+            }
+        }
+
+        // 6. Giải và dựng kết quả
+        ReviewerAssignmentSolver.Result solution = solver.solve();
+        int[] filled = new int[paperCount];
+        List<ReviewerSuggestionResult.Item> items = new ArrayList<>(solution.selected().length);
+        for (int c : solution.selected()) {
+            int p = candidatePaper[c];
+            filled[p]++;
+            items.add(new ReviewerSuggestionResult.Item(papers.get(p).paperId(),
+                reviewers.get(candidateReviewer[c]).reviewerId(), Math.round(candidateScore[c] * 1000) / 1000.0));
+        }
+        int openSlots = 0;
+        List<Long> understaffed = new ArrayList<>();
+        for (int p = 0; p < paperCount; p++) {
+            if (demand[p] > 0) {
+                openSlots += demand[p];
+                if (filled[p] < demand[p]) {
+                    understaffed.add(papers.get(p).paperId());
+                }
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Reviewer suggestion for conference {}: {} papers x {} reviewers, {} candidates, {}/{} slots filled in {} ms",
+            conferenceId, paperCount, reviewerCount, maxCandidates, items.size(), openSlots, elapsedMs);
+        return new ReviewerSuggestionResult(conferenceId, paperCount, reviewerCount, openSlots, items.size(),
+            solution.unfilled(), understaffed, elapsedMs, items);
+    }
+
+    /**
+     * Tính gợi ý rồi ghi luôn qua BulkAssignmentService (kiểm tra lại từng cặp, một batch, email sau commit)
+     */
+    @Transactional
+    public BulkAssignmentResult apply(Long conferenceId, int maxPapersPerReviewer, int minReviewersPerPaper,
+                                      Collection<Long> paperIds, Collection<Long> reviewerIds) {
+        ReviewerSuggestionResult suggestion =
+            suggest(conferenceId, maxPapersPerReviewer, minReviewersPerPaper, paperIds, reviewerIds);
+        List<PaperReviewerPair> pairs = suggestion.suggestions().stream()
+            .map(item -> new PaperReviewerPair(item.paperId(), item.reviewerId()))
+            .toList();
+        return bulkAssignmentService.assignPairs(pairs);
+    }
+
+    private static boolean allowed(int p, int r, int[] capacity, int[] paperAuthor, int[] paperAffiliation,
+                                   int[] reviewerAffiliation, Set<Long> excluded, int reviewerCount) {
+        return capacity[r] > 0
+            && paperAuthor[p] != r
+            && (paperAffiliation[p] < 0 || paperAffiliation[p] != reviewerAffiliation[r])
+            && !excluded.contains(pairKey(p, r, reviewerCount));
+    }
+
+    /**
+     * Khóa sắp xếp tăng dần = điểm giảm dần (điểm dương nên thứ tự bit float trùng thứ tự giá trị).
+     * Điểm bằng nhau thì xếp theo băm (bài, reviewer) thay vì id, để các bài cùng chủ đề không cùng dồn
+     * vào vài reviewer id nhỏ; 22 bit thấp là chỉ số reviewer
+     */
+    private static long rankKey(float score, int paper, int reviewer) {
+        long tie = ((reviewer * 0x9E3779B1L + paper * 0x85EBCA6BL) >>> 16) & 0x3FF;
+        return ((long) (Integer.MAX_VALUE - Float.floatToIntBits(score)) << 32) | (tie << 22) | reviewer;
+    }
+
+    private static long pairKey(int paper, int reviewer, int reviewerCount) {
+        return (long) paper * reviewerCount + reviewer;
+    }
+
+    private static int affiliationId(String affiliation, Map<String, Integer> ids) {
+        if (affiliation == null) {
+            return -1;
+        }
+        return ids.computeIfAbsent(AssignmentRules.affiliationKey(affiliation), key -> ids.size());
+    }
+}
@@ -0,0 +1,7 @@
+package edu.uth.backend.assignment;
+
+/**
+ * Một bài reviewer đã viết hoặc đã chấm, dùng làm chủ đề quen thuộc của reviewer khi gợi ý phân công
+ */
+public record ReviewerTopicRow(Long reviewerId, String title, String keywords) {
+}
@@ -0,0 +1,20 @@
+package edu.uth.backend.assignment;
+
+/**
+ * Tải của một reviewer trong một hội nghị. overdue: phân công đang mở đã quá dueDate
+ */
+public record ReviewerWorkload(
+    Long reviewerId,
+    String name,
+    String email,
+    long pending,
+    long accepted,
+    long completed,
+    long active,
+    long overdue
+) {
+
+    public ReviewerWorkload withReviewer(String name, String email) {
+        return new ReviewerWorkload(reviewerId, name, email, pending, accepted, completed, active, overdue);
+    }
+}
@@ -0,0 +1,52 @@
+package edu.uth.backend.assignment;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chỉ mục tải reviewer theo hội nghị: số phân công theo từng WorkloadMetric (sắp xếp được)
+ * và hạn chấm của các phân công đang mở. Cập nhật tăng dần theo AssignmentChangedEvent;
+ * mỗi sự kiện làm tăng version của hội nghị để phát hiện sự kiện xen vào lúc đang nạp.
+ * Chỉ mục giữ trạng thái hiện tại của từng phân công nên sự kiện của thay đổi đã có trong dữ liệu nạp
+ * (commit trước lúc đọc database nhưng sự kiện sau commit đến sau khi nạp xong) không bị cộng hai lần.
+ */
+public interface ReviewerWorkloadIndex {
+
+    boolean isLoaded(Long conferenceId);
+
+    long version(Long conferenceId);
+
+    /**
+     * Thay toàn bộ dữ liệu của hội nghị. Trả về false (và không đánh dấu đã nạp) nếu version
+     * đã khác expectedVersion, vì dữ liệu vừa đọc có thể thiếu sự kiện xảy ra trong lúc đọc.
+     * reviewerIds: reviewer chưa có phân công nào vẫn được xếp hạng với tải 0
+     */
+    boolean load(Long conferenceId, Collection<Long> reviewerIds, List<AssignmentWorkloadRow> rows, long expectedVersion);
+
+    /**
+     * Áp dụng một thay đổi; hội nghị chưa nạp thì chỉ tăng version. Phân công đã ở trạng thái mới thì bỏ qua;
+     * trạng thái đang giữ khác cả previousStatus thì bỏ đánh dấu đã nạp để lần đọc sau nạp lại
+     */
+    void apply(AssignmentChangedEvent event);
+
+    /**
+     * limit reviewer có tải cao nhất (descending) hoặc thấp nhất theo metric
+     */
+    List<Long> rank(Long conferenceId, WorkloadMetric metric, int limit, boolean descending);
+
+    /**
+     * Số liệu của các reviewer (cùng thứ tự reviewerIds), overdue tính tại thời điểm now
+     */
+    List<ReviewerWorkload> get(Long conferenceId, List<Long> reviewerIds, LocalDateTime now);
+
+    /**
+     * Số reviewer trong chỉ mục của hội nghị
+     */
+    long size(Long conferenceId);
+
+    /**
+     * Bỏ dữ liệu của hội nghị; lần đọc sau sẽ nạp lại từ database
+     */
+    void evict(Long conferenceId);
+}
@@ -0,0 +1,115 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.User;
+import edu.uth.backend.exception.ResourceNotFoundException;
+import edu.uth.backend.repository.ConferenceRepository;
+import edu.uth.backend.repository.ReviewAssignmentRepository;
+import edu.uth.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Xem tải reviewer theo hội nghị cho Chair. Chỉ mục được nạp từ database ở lần đọc đầu tiên
+ * (một query gộp) rồi cập nhật tăng dần theo AssignmentChangedEvent sau khi transaction commit.
+ */
+@Service
+public class ReviewerWorkloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewerWorkloadService.class);
+
+    // Số lần thử nạp lại khi có phân công thay đổi ngay trong lúc đang nạp
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    /**
+     * Bảng xếp hạng tải reviewer của một hội nghị
+     */
+    public record WorkloadView(
+        Long conferenceId,
+        WorkloadMetric metric,
+        String order,
+        long reviewerCount,
+        List<ReviewerWorkload> reviewers
+    ) {
+    }
+
+    @Autowired private ReviewerWorkloadIndex index;
+    @Autowired private ReviewAssignmentRepository assignmentRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private ConferenceRepository conferenceRepo;
+
+    /**
+     * limit reviewer có tải cao nhất (descending = true) hoặc thấp nhất theo metric
+     */
+    public WorkloadView getWorkload(Long conferenceId, WorkloadMetric metric, int limit, boolean descending) {
+        if (!conferenceRepo.existsById(conferenceId)) {
+            throw new ResourceNotFoundException("Conference", "id", conferenceId);
+        }
+        ensureLoaded(conferenceId);
+        List<Long> reviewerIds = index.rank(conferenceId, metric, limit, descending);
+        List<ReviewerWorkload> workloads = index.get(conferenceId, reviewerIds, LocalDateTime.now());
+
+        Map<Long, User> users = userRepo.findAllById(reviewerIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<ReviewerWorkload> named = workloads.stream()
+            .map(w -> {
+                User user = users.get(w.reviewerId());
+                return user != null ? w.withReviewer(user.getFullName(), user.getEmail()) : w;
+            })
+            .toList();
+        return new WorkloadView(conferenceId, metric, descending ? "desc" : "asc", index.size(conferenceId), named);
+    }
+
+    /**
+     * Bỏ chỉ mục của hội nghị để lần đọc sau nạp lại (sau khi sửa dữ liệu trực tiếp, restore backup...)
+     */
+    public void rebuild(Long conferenceId) {
+        index.evict(conferenceId);
+        ensureLoaded(conferenceId);
+    }
+
+    /**
+     * Cập nhật chỉ mục khi phân công đổi trạng thái; chạy sau commit, hoặc ngay nếu không có transaction
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssignmentChanged(AssignmentChangedEvent event) {
+        if (event.conferenceId() == null) {
+            return;
+        }
+        try {
+            index.apply(event);
+        } catch (RuntimeException e) {
+            // Bỏ chỉ mục để lần đọc sau nạp lại thay vì giữ số liệu sai
+            logger.error("Could not update reviewer workload for conference {} (assignment {})",
+                event.conferenceId(), event.assignmentId(), e);
+            try {
+                index.evict(event.conferenceId());
+            } catch (RuntimeException ignored) {
+                // store không truy cập được; lần đọc sau sẽ báo lỗi
+            }
+        }
+    }
+
+    private void ensureLoaded(Long conferenceId) {
+        for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS && !index.isLoaded(conferenceId); attempt++) {
+            long version = index.version(conferenceId);
+            List<AssignmentWorkloadRow> rows = assignmentRepo.findWorkloadRowsByConferenceId(conferenceId);
+            List<Long> reviewerIds = userRepo.findAllReviewerIds();
+            if (index.load(conferenceId, reviewerIds, rows, version)) {
+                logger.info("Loaded reviewer workload for conference {}: {} assignments, {} reviewers",
+                    conferenceId, rows.size(), index.size(conferenceId));
+            }
+        }
+        if (!index.isLoaded(conferenceId)) {
+            throw new RuntimeException("Không nạp được workload reviewer, vui lòng thử lại!");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package edu.uth.backend.assignment;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Độ phù hợp chủ đề giữa bài và reviewer, tính cục bộ: mỗi bên là một tập từ khóa (từ trong tiêu đề,
+ * keywords, bio, cả cụm keyword), trọng số IDF, điểm = cosine trong [0, 1].
+ * Reviewer được đánh chỉ mục ngược theo từ nên mỗi bài chỉ duyệt các reviewer có từ chung.
+ */
+final class TopicAffinity {
+
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+        "the", "and", "for", "with", "from", "into", "using", "based", "via", "towards", "toward", "approach",
+        "study", "method", "methods", "new", "its", "are", "our", "their", "this", "that", "between",
+        "cua", "cho", "voi", "trong", "nhung", "cac", "mot", "theo", "tren", "duoi", "nghien", "cuu");
+
+    // Từ của từng bài (id từ), trọng số bình phương theo id từ
+    private final int[][] paperTerms;
+    private final float[] squaredWeight;
+    private final float[] paperNorm;
+    private final float[] reviewerNorm;
+    // Danh sách reviewer theo id từ (chỉ mục ngược)
+    private final int[][] postings;
+
+    TopicAffinity(List<Set<String>> papers, List<Set<String>> reviewers) {
+        Map<String, Integer> ids = new HashMap<>();
+        int[][] reviewerTerms = toIds(reviewers, ids);
+        this.paperTerms = toIds(papers, ids);
+
+        int termCount = ids.size();
+        int[] documentFrequency = new int[termCount];
+        int[] postingSize = new int[termCount];
+        for (int[] terms : paperTerms) {
+            for (int t : terms) {
+                documentFrequency[t]++;
+            }
+        }
+        for (int[] terms : reviewerTerms) {
+            for (int t : terms) {
+                documentFrequency[t]++;
+                postingSize[t]++;
+            }
+        }
+
+        int documents = papers.size() + reviewers.size();
+        this.squaredWeight = new float[termCount];
+        for (int t = 0; t < termCount; t++) {
+            double idf = Math.log(1.0 + (double) documents / documentFrequency[t]);
+            squaredWeight[t] = (float) (idf * idf);
+        }
+        this.paperNorm = norms(paperTerms);
+        this.reviewerNorm = norms(reviewerTerms);
+
+        this.postings = new int[termCount][];
+        for (int t = 0; t < termCount; t++) {
+            postings[t] = new int[postingSize[t]];
+        }
+        int[] fill = new int[termCount];
+        for (int r = 0; r < reviewerTerms.length; r++) {
+            for (int t : reviewerTerms[r]) {
+                postings[t][fill[t]++] = r;
+            }
+        }
+    }
+
+    /**
+     * Cộng điểm của bài paper với mọi reviewer có từ chung vào scores (phải toàn 0 trước khi gọi),
+     * ghi các reviewer đó vào touched và trả về số lượng. Người gọi tự đặt lại scores về 0.
+     */
+    int score(int paper, float[] scores, int[] touched) {
+        int count = 0;
+        for (int t : paperTerms[paper]) {
+            float weight = squaredWeight[t];
+            for (int r : postings[t]) {
+                if (scores[r] == 0f) {
+                    touched[count++] = r;
+                }
+                scores[r] += weight;
+            }
+        }
+        float norm = paperNorm[paper];
+        for (int i = 0; i < count; i++) {
+            int r = touched[i];
+            scores[r] = norm == 0f || reviewerNorm[r] == 0f ? 0f : scores[r] / (norm * reviewerNorm[r]);
+        }
+        return count;
+    }
+
+    /**
+     * Tách từ khóa từ các đoạn văn bản: chữ thường, bỏ dấu, bỏ từ ngắn/từ phổ biến;
+     * mỗi cụm trong chuỗi keywords (phân tách bởi dấu phẩy/chấm phẩy) cũng là một từ khóa.
+     */
+    static void addTerms(Set<String> terms, String text, boolean keywordList) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .replace('đ', 'd').replace('Đ', 'D')
+            .toLowerCase(Locale.ROOT);
+        if (keywordList) {
+            for (String phrase : normalized.split("[,;\\n]")) {
+                String key = SPLIT.matcher(phrase).replaceAll(" ").trim();
+                if (key.indexOf(' ') > 0) {
+                    terms.add(key);
+                }
+            }
+        }
+        for (String word : SPLIT.split(normalized)) {
+            if (word.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(word)) {
+                terms.add(word);
+            }
+        }
+    }
+
+    private static int[][] toIds(List<Set<String>> documents, Map<String, Integer> ids) {
+        int[][] result = new int[documents.size()][];
+        for (int d = 0; d < result.length; d++) {
+            Set<String> terms = documents.get(d);
+            int[] termIds = new int[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                Integer id = ids.get(term);
+                if (id == null) {
+                    id = ids.size();
+                    ids.put(term, id);
+                }
+                termIds[i++] = id;
+            }
+            result[d] = termIds;
+        }
+        return result;
+    }
+
+    private float[] norms(int[][] documents) {
+        float[] result = new float[documents.length];
+        for (int d = 0; d < documents.length; d++) {
+            double sum = 0;
+            for (int t : documents[d]) {
+                sum += squaredWeight[t];
+            }
+            result[d] = (float) Math.sqrt(sum);
+        }
+        return result;
+    }
+}
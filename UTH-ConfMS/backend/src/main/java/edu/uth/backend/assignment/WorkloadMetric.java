@@ -0,0 +1,38 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.AssignmentStatus;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Tiêu chí xếp hạng tải reviewer trong một hội nghị
+ */
+public enum WorkloadMetric {
+    PENDING,    // Chờ reviewer đồng ý
+    ACCEPTED,   // Đã nhận, chưa chấm
+    COMPLETED,  // Đã chấm xong
+    ACTIVE;     // Đang mở = PENDING + ACCEPTED
+
+    /**
+     * Các tiêu chí mà một phân công ở trạng thái này được tính vào (DECLINED không tính)
+     */
+    public static Set<WorkloadMetric> of(AssignmentStatus status) {
+        if (status == null) {
+            return EnumSet.noneOf(WorkloadMetric.class);
+        }
+        return switch (status) {
+            case PENDING -> EnumSet.of(PENDING, ACTIVE);
+            case ACCEPTED -> EnumSet.of(ACCEPTED, ACTIVE);
+            case COMPLETED -> EnumSet.of(COMPLETED);
+            case DECLINED -> EnumSet.noneOf(WorkloadMetric.class);
+        };
+    }
+
+    /**
+     * Phân công đang mở thì mới có thể quá hạn
+     */
+    public static boolean isOpen(AssignmentStatus status) {
+        return status == AssignmentStatus.PENDING || status == AssignmentStatus.ACCEPTED;
+    }
+}
@@ -3,10 +3,16 @@ package edu.uth.backend.audit;
 import edu.uth.backend.entity.AuditLog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/audit-logs")
 @RequiredArgsConstructor
@@ -14,15 +20,23 @@ public class AuditLogController {
     
     private final AuditLogService auditLogService;
     
+    private static final int MAX_CURSOR_LIMIT = 100;
+
     /**
      * Get all audit logs (Admin only)
      * GET /api/audit-logs?page=0&size=20
+     * GET /api/audit-logs?limit=20&cursor=... (keyset, trả về nextCursor)
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<AuditLog>> getAllLogs(
+    public ResponseEntity<?> getAllLogs(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(auditLogService.getLogsPage(AuditLogFilter.NONE, cursor, clampLimit(limit)));
+        }
         Page<AuditLog> logs = auditLogService.getAllLogs(page, size);
         return ResponseEntity.ok(logs);
     }
@@ -30,15 +44,53 @@ public class AuditLogController {
     /**
      * Get audit logs with filters (Admin only)
      * GET /api/audit-logs/search?actor=admin&action=LOGIN_SUCCESS&page=0&size=20
+     * GET /api/audit-logs/search?actor=admin&limit=20&cursor=... (keyset)
+     * GET /api/audit-logs/search?q=paper&actions=LOGIN_SUCCESS,LOGIN_FAILED&from=2025-01-01T00:00:00&limit=20
+     * q: chuỗi con trong actor, target hoặc details; actions: danh sách action (gộp với action);
+     * from/to (ISO date-time, tùy chọn): chỉ tìm trong khoảng [from, to)
      */
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<AuditLog>> searchLogs(
+    public ResponseEntity<?> searchLogs(
             @RequestParam(required = false) String actor,
             @RequestParam(required = false) String action,
+            @RequestParam(required = false) List<String> actions,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        Page<AuditLog> logs = auditLogService.getLogsWithFilters(actor, action, page, size);
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Set<String> actionSet = new HashSet<>();
+        if (action != null && !action.isBlank()) {
+            actionSet.add(action);
+        }
+        if (actions != null) {
+            actions.stream().filter(a -> !a.isBlank()).map(String::trim).forEach(actionSet::add);
+        }
+        AuditLogFilter filter = new AuditLogFilter(actor, actionSet, q, from, to);
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(auditLogService.getLogsPage(filter, cursor, clampLimit(limit)));
+        }
+        Page<AuditLog> logs = auditLogService.getLogsWithFilters(filter, page, size);
         return ResponseEntity.ok(logs);
     }
+
+    /**
+     * Trạng thái pipeline ghi audit log bất đồng bộ (Admin only)
+     * GET /api/audit-logs/pipeline
+     */
+    @GetMapping("/pipeline")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditLogWriter.Stats> getPipelineStats() {
+        return ResponseEntity.ok(auditLogService.getWriterStats());
+    }
+
+    private static int clampLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return 20;
+        }
+        return Math.min(limit, MAX_CURSOR_LIMIT);
+    }
 }
@@ -0,0 +1,18 @@
+package edu.uth.backend.audit;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Điều kiện tìm kiếm audit log; trường null/rỗng thì bỏ qua.
+ *
+ * @param actor   actor chứa chuỗi này (không phân biệt hoa thường)
+ * @param actions action thuộc tập này
+ * @param text    chuỗi con xuất hiện trong actor, target hoặc details
+ * @param from    timestamp >= from
+ * @param to      timestamp < to
+ */
+public record AuditLogFilter(String actor, Set<String> actions, String text, LocalDateTime from, LocalDateTime to) {
+
+    public static final AuditLogFilter NONE = new AuditLogFilter(null, Set.of(), null, null, null);
+}
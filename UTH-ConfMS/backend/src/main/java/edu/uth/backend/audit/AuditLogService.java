@@ -1,26 +1,35 @@
 package edu.uth.backend.audit;
 
+import edu.uth.backend.common.CursorPage;
+import edu.uth.backend.common.KeysetCursor;
 import edu.uth.backend.entity.AuditLog;
 import edu.uth.backend.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class AuditLogService {
     
     private final AuditLogRepository auditLogRepository;
+
+    private final AuditLogWriter auditLogWriter;
+
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id"));
     
     /**
-     * Log an audit event to database
+     * Log an audit event to database.
+     * Với pipeline bất đồng bộ (mặc định), sự kiện được ghi theo batch ở thread nền
+     * nên không chiếm connection của request.
      */
-    @Transactional
     public void log(String actor, String action, String target, String ipAddress, String details, Long userId) {
         AuditLog log = AuditLog.builder()
                 .actor(actor)
@@ -31,7 +40,18 @@ public class AuditLogService {
                 .userId(userId)
                 .timestamp(LocalDateTime.now())
                 .build();
-        auditLogRepository.save(log);
+        if (auditLogWriter.isEnabled()) {
+            auditLogWriter.submit(log);
+        } else {
+            auditLogRepository.save(log);
+        }
+    }
+
+    /**
+     * Số liệu hàng đợi ghi audit log (độ sâu, số sự kiện ghi tràn, lỗi)
+     */
+    public AuditLogWriter.Stats getWriterStats() {
+        return auditLogWriter.getStats();
     }
     
     /**
@@ -43,22 +63,26 @@ public class AuditLogService {
     }
     
     /**
-     * Get audit logs with filters
+     * Get audit logs with filters.
+     * Khoảng thời gian [from, to) giúp chỉ quét các partition tháng liên quan;
+     * actor/text dùng index trigram nên không quét toàn bảng
      */
-    public Page<AuditLog> getLogsWithFilters(String actor, String action, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        
-        // Apply filters based on what's provided
-        if (actor != null && !actor.isEmpty() && action != null && !action.isEmpty()) {
-            return auditLogRepository.findByActorContainingIgnoreCaseAndActionOrderByTimestampDesc(
-                actor, action, pageable);
-        } else if (actor != null && !actor.isEmpty()) {
-            return auditLogRepository.findByActorContainingIgnoreCaseOrderByTimestampDesc(
-                actor, pageable);
-        } else if (action != null && !action.isEmpty()) {
-            return auditLogRepository.findByActionOrderByTimestampDesc(action, pageable);
-        } else {
-            return auditLogRepository.findAllByOrderByTimestampDesc(pageable);
-        }
+    public Page<AuditLog> getLogsWithFilters(AuditLogFilter filter, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
+        return auditLogRepository.findAll(AuditLogSpecifications.filter(filter), pageable);
+    }
+
+    /**
+     * Phân trang keyset (timestamp, id): chi phí mỗi trang không tăng theo độ sâu như offset
+     */
+    public CursorPage<AuditLog> getLogsPage(AuditLogFilter filter, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Specification<AuditLog> spec = AuditLogSpecifications.filter(filter)
+            .and(AuditLogSpecifications.after(after));
+        List<AuditLog> rows = auditLogRepository.findBy(spec, query -> query
+            .sortBy(KEYSET_ORDER)
+            .limit(limit + 1)
+            .all());
+        return CursorPage.of(rows, limit, AuditLog::getTimestamp, AuditLog::getId);
     }
 }
@@ -0,0 +1,72 @@
+package edu.uth.backend.audit;
+
+import edu.uth.backend.common.KeysetCursor;
+import edu.uth.backend.entity.AuditLog;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Điều kiện lọc audit log. Điều kiện theo timestamp giúp PostgreSQL chỉ quét các partition
+ * tháng liên quan (audit_logs được phân vùng theo timestamp).
+ */
+final class AuditLogSpecifications {
+
+    private AuditLogSpecifications() {
+    }
+
+    /**
+     * Điều kiện WHERE cho AuditLogFilter; các LIKE dùng lower(col) để khớp index trigram (V19)
+     */
+    static Specification<AuditLog> filter(AuditLogFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(filter.actor())) {
+                predicates.add(cb.like(cb.lower(root.get("actor")), containsPattern(filter.actor()), '\\'));
+            }
+            if (filter.actions() != null && !filter.actions().isEmpty()) {
+                predicates.add(root.get("action").in(filter.actions()));
+            }
+            if (hasText(filter.text())) {
+                String pattern = containsPattern(filter.text());
+                predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("actor")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("target")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("details")), pattern, '\\')));
+            }
+            if (filter.from() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), filter.from()));
+            }
+            if (filter.to() != null) {
+                predicates.add(cb.lessThan(root.get("timestamp"), filter.to()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Các dòng đứng sau cursor theo ORDER BY timestamp DESC, id DESC; điều kiện timestamp <= cursor
+     * lặp lại để PostgreSQL seek vào index thay vì lọc từng dòng
+     */
+    static Specification<AuditLog> after(KeysetCursor cursor) {
+        return (root, query, cb) -> cb.and(
+            cb.lessThanOrEqualTo(root.get("timestamp"), cursor.timestamp()),
+            cb.or(
+                cb.lessThan(root.get("timestamp"), cursor.timestamp()),
+                cb.lessThan(root.get("id"), cursor.id())));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String containsPattern(String value) {
+        return "%" + escapeLike(value.trim().toLowerCase()) + "%";
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
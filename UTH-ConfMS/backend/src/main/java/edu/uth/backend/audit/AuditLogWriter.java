@@ -0,0 +1,168 @@
+package edu.uth.backend.audit;
+
+import edu.uth.backend.common.BatchDrainer;
+import edu.uth.backend.entity.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ghi audit log bất đồng bộ: request chỉ đưa sự kiện vào hàng đợi có giới hạn, một thread nền
+ * gom tối đa batchSize sự kiện (hoặc chờ tối đa flushIntervalMs) rồi insert bằng JDBC batch.
+ * Hàng đợi đầy thì sự kiện được ghi đồng bộ trên thread gọi (không bỏ audit log);
+ * khi tắt ứng dụng, hàng đợi được ghi hết trước khi dừng.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_logs (timestamp, actor, action, target, ip_address, details, user_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+        Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT
+    };
+
+    /**
+     * Số liệu của pipeline để theo dõi backpressure
+     */
+    public record Stats(
+        boolean enabled,
+        int queueDepth,
+        int queueCapacity,
+        long maxQueueDepth,
+        long enqueued,
+        long written,
+        long overflowWrites,
+        long failed,
+        long batches
+    ) {
+    }
+
+    @Value("${app.audit.async.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.audit.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.audit.async.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.audit.async.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.async.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BatchDrainer<AuditLog> drainer;
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong overflowWrites = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!enabled) {
+            return;
+        }
+        drainer = new BatchDrainer<>("audit-log-writer", queueCapacity, batchSize, flushIntervalMs, this::writeBatch);
+        drainer.start();
+    }
+
+    /**
+     * Dừng nhận sự kiện mới và ghi hết hàng đợi (tối đa shutdownTimeoutMs)
+     */
+    @PreDestroy
+    void shutdown() {
+        if (drainer != null) {
+            drainer.shutdown(shutdownTimeoutMs);
+        }
+    }
+
+    /**
+     * Đưa sự kiện vào hàng đợi; ghi đồng bộ nếu pipeline tắt, đã dừng hoặc hàng đợi đầy
+     */
+    public void submit(AuditLog log) {
+        if (drainer != null && drainer.offer(log)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        if (enabled) {
+            overflowWrites.incrementAndGet();
+        }
+        writeBatch(List.of(log));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Stats getStats() {
+        return new Stats(
+            enabled,
+            drainer != null ? drainer.size() : 0,
+            drainer != null ? drainer.capacity() : 0,
+            drainer != null ? drainer.getMaxDepth() : 0,
+            enqueued.get(),
+            written.get(),
+            overflowWrites.get(),
+            failed.get(),
+            batches.get());
+    }
+
+    /**
+     * Insert cả batch trong một transaction; batch lỗi thì thử từng dòng để không mất các dòng hợp lệ
+     */
+    private void writeBatch(List<AuditLog> batch) {
+        try {
+            insert(batch);
+            batches.incrementAndGet();
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failed.incrementAndGet();
+                logger.error("Failed to write audit log {} by {}", batch.get(0).getAction(), batch.get(0).getActor(), e);
+                return;
+            }
+            logger.warn("Audit log batch of {} failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (AuditLog log : batch) {
+                writeBatch(List.of(log));
+            }
+        }
+    }
+
+    private void insert(List<AuditLog> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (AuditLog log : batch) {
+            rows.add(new Object[] {
+                log.getTimestamp(), log.getActor(), log.getAction(), log.getTarget(),
+                log.getIpAddress(), log.getDetails(), log.getUserId()
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES));
+    }
+}
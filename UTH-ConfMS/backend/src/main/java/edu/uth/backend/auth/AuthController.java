@@ -38,6 +38,25 @@ public class AuthController {
     return ResponseEntity.ok(response);
   }
 
+  @PostMapping("/refresh")
+  public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest req) {
+    log.info("POST /api/auth/refresh");
+
+    AuthResponse response = authService.refresh(req);
+
+    log.info("Refresh success - userId={}", response.getUser().id);
+    return ResponseEntity.ok(response);
+  }
+
+  @PostMapping("/logout")
+  public ResponseEntity<MessageResponse> logout(@Valid @RequestBody RefreshTokenRequest req) {
+    log.info("POST /api/auth/logout");
+
+    authService.logout(req);
+
+    return ResponseEntity.ok(new MessageResponse("Đăng xuất thành công"));
+  }
+
   @PostMapping("/firebase/google")
   public ResponseEntity<AuthResponse> firebaseGoogle(@Valid @RequestBody FirebaseLoginRequest req) throws Exception {
     log.info("POST /api/auth/firebase/google");
@@ -49,6 +49,7 @@ public class AuthService {
   private final JwtTokenProvider jwtTokenProvider;
   private final AuditLogger auditLogger;
   private final UserActivityHistoryService activityHistoryService;
+  private final RefreshTokenService refreshTokenService;
 
   // Service gửi email qua SMTP (MailService phải được implement trong package
   // common)
@@ -80,7 +81,8 @@ public class AuthService {
       JwtTokenProvider jwtTokenProvider,
       MailService mailService,
       AuditLogger auditLogger,
-      UserActivityHistoryService activityHistoryService) {
+      UserActivityHistoryService activityHistoryService,
+      RefreshTokenService refreshTokenService) {
     this.userRepository = userRepository;
     this.roleRepository = roleRepository;
     this.passwordResetTokenRepository = passwordResetTokenRepository;
@@ -91,6 +93,7 @@ public class AuthService {
     this.mailService = mailService;
     this.auditLogger = auditLogger;
     this.activityHistoryService = activityHistoryService;
+    this.refreshTokenService = refreshTokenService;
   }
   
   /**
@@ -328,6 +331,7 @@ public class AuthService {
 
       user = userRepository.save(user);
       System.out.println("✅ Đã tạo người dùng GOOGLE mới: " + email);
+      auditLogger.logRegistration(email, getClientIp());
       
       // Log login activity for new user
       activityHistoryService.logActivity(
@@ -526,6 +530,26 @@ public class AuthService {
 
     token.setUsedAt(Instant.now());
     passwordResetTokenRepository.save(token);
+
+    // Đổi mật khẩu thì các phiên đăng nhập cũ phải đăng nhập lại
+    refreshTokenService.revokeAll(user.getId());
+  }
+
+  /**
+   * Đổi refresh token lấy access token mới (không cần BCrypt như login).
+   * Refresh token cũ bị xoay vòng; dùng lại token cũ sẽ thu hồi cả chuỗi phiên.
+   */
+  @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+  public AuthResponse refresh(RefreshTokenRequest req) {
+    RefreshTokenService.Rotation rotation = refreshTokenService.rotate(req.getRefreshToken().trim());
+    return buildAuthResponse(rotation.user(), rotation.refreshToken());
+  }
+
+  /**
+   * Đăng xuất: thu hồi refresh token (access token hết hạn theo thời hạn của nó)
+   */
+  public void logout(RefreshTokenRequest req) {
+    refreshTokenService.revoke(req.getRefreshToken().trim());
   }
 
   /**
@@ -540,6 +564,10 @@ public class AuthService {
    * Frontend sẽ dùng role này để routing và phân quyền UI.
    */
   private AuthResponse buildAuthResponse(User user) {
+    return buildAuthResponse(user, refreshTokenService.issue(user));
+  }
+
+  private AuthResponse buildAuthResponse(User user, String refreshToken) {
     // 1. Phát hành JWT token
     String token = jwtTokenProvider.generateToken(user);
 
@@ -547,6 +575,8 @@ public class AuthService {
     AuthResponse res = new AuthResponse();
     res.setAccessToken(token);
     res.setExpiresInMs(jwtTokenProvider.getExpirationMs());
+    res.setRefreshToken(refreshToken);
+    res.setRefreshExpiresInMs(refreshTokenService.getRefreshTokenTtlMs());
 
     // 3. Build user info
     AuthResponse.UserInfo ui = new AuthResponse.UserInfo();
@@ -0,0 +1,13 @@
+package edu.uth.backend.auth;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Refresh token không hợp lệ, hết hạn, đã bị thu hồi hoặc bị dùng lại (trả về 401)
+ */
+public class InvalidRefreshTokenException extends AuthenticationException {
+
+  public InvalidRefreshTokenException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,122 @@
+package edu.uth.backend.auth;
+
+import edu.uth.backend.common.ResetTokenUtil;
+import edu.uth.backend.entity.RefreshToken;
+import edu.uth.backend.entity.User;
+import edu.uth.backend.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Phát hành và xoay vòng refresh token.
+ * - Mỗi lần refresh, token cũ bị đánh dấu đã dùng và một token mới cùng family được cấp.
+ * - Dùng lại một token đã xoay vòng (bị đánh cắp hoặc client lỗi) sẽ thu hồi cả family,
+ *   buộc đăng nhập lại.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+  /** Kết quả xoay vòng: user sở hữu token và refresh token thô mới */
+  public record Rotation(User user, String refreshToken) {
+  }
+
+  private final RefreshTokenRepository refreshTokenRepository;
+
+  /** Thời hạn refresh token (ngày) */
+  @Value("${app.jwt.refresh-token-days:7}")
+  private long refreshTokenDays;
+
+  public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+    this.refreshTokenRepository = refreshTokenRepository;
+  }
+
+  public long getRefreshTokenTtlMs() {
+    return refreshTokenDays * 24 * 60 * 60 * 1000;
+  }
+
+  /**
+   * Cấp refresh token cho một lần đăng nhập mới (family mới); trả về token thô
+   */
+  @Transactional
+  public String issue(User user) {
+    return issue(user, UUID.randomUUID().toString());
+  }
+
+  private String issue(User user, String familyId) {
+    String raw = ResetTokenUtil.generateRawToken();
+    Instant now = Instant.now();
+    refreshTokenRepository.save(RefreshToken.builder()
+        .tokenHash(ResetTokenUtil.sha256Hex(raw))
+        .familyId(familyId)
+        .user(user)
+        .createdAt(now)
+        .expiresAt(now.plus(refreshTokenDays, ChronoUnit.DAYS))
+        .build());
+    return raw;
+  }
+
+  /**
+   * Đổi refresh token lấy token mới cùng family.
+   * Thu hồi cả family khi token đã được dùng hoặc đã bị thu hồi (commit dù ném lỗi).
+   */
+  @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+  public Rotation rotate(String rawToken) {
+    RefreshToken token = refreshTokenRepository.findByTokenHash(ResetTokenUtil.sha256Hex(rawToken))
+        .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token không hợp lệ"));
+
+    Instant now = Instant.now();
+    if (token.getRevokedAt() != null || refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+      int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+      log.warn("Refresh token reuse detected - userId={}, family={}, revoked={}",
+          token.getUser().getId(), token.getFamilyId(), revoked);
+      throw new InvalidRefreshTokenException("Refresh token đã được sử dụng");
+    }
+    if (!token.getExpiresAt().isAfter(now)) {
+      throw new InvalidRefreshTokenException("Refresh token đã hết hạn");
+    }
+
+    User user = token.getUser();
+    if (!user.isEnabled()) {
+      refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+      throw new InvalidRefreshTokenException("Tài khoản đã bị khóa");
+    }
+    return new Rotation(user, issue(user, token.getFamilyId()));
+  }
+
+  /**
+   * Đăng xuất: thu hồi family của token (bỏ qua nếu token không tồn tại)
+   */
+  @Transactional
+  public void revoke(String rawToken) {
+    refreshTokenRepository.findByTokenHash(ResetTokenUtil.sha256Hex(rawToken))
+        .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), Instant.now()));
+  }
+
+  /**
+   * Thu hồi mọi refresh token của user (đặt lại mật khẩu; đổi role, khóa/mở khóa tài khoản qua AdminService)
+   */
+  @Transactional
+  public void revokeAll(Long userId) {
+    refreshTokenRepository.revokeAllByUserId(userId, Instant.now());
+  }
+
+  /**
+   * Dọn các refresh token đã hết hạn
+   */
+  @Scheduled(cron = "${app.jwt.refresh-token-cleanup-cron:0 30 3 * * *}")
+  @Transactional
+  public void purgeExpired() {
+    long deleted = refreshTokenRepository.deleteByExpiresAtBefore(Instant.now());
+    if (deleted > 0) {
+      log.info("Purged {} expired refresh tokens", deleted);
+    }
+  }
+}
@@ -4,6 +4,8 @@ public class AuthResponse {
   private String accessToken;
   private String tokenType = "Bearer";
   private long expiresInMs;
+  private String refreshToken;
+  private long refreshExpiresInMs;
 
   private UserInfo user;
 
@@ -25,6 +27,12 @@ public class AuthResponse {
   public long getExpiresInMs() { return expiresInMs; }
   public void setExpiresInMs(long expiresInMs) { this.expiresInMs = expiresInMs; }
 
+  public String getRefreshToken() { return refreshToken; }
+  public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+
+  public long getRefreshExpiresInMs() { return refreshExpiresInMs; }
+  public void setRefreshExpiresInMs(long refreshExpiresInMs) { this.refreshExpiresInMs = refreshExpiresInMs; }
+
   public UserInfo getUser() { return user; }
   public void setUser(UserInfo user) { this.user = user; }
 }
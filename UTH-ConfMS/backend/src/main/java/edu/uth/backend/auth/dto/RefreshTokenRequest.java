@@ -0,0 +1,11 @@
+package edu.uth.backend.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/** Request đổi refresh token lấy access token mới (và cho API đăng xuất) */
+@Data
+public class RefreshTokenRequest {
+  @NotBlank
+  private String refreshToken;
+}
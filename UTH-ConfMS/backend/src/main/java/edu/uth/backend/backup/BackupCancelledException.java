@@ -0,0 +1,14 @@
+package edu.uth.backend.backup;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Backup/restore bị hủy giữa chừng. Là IOException nên đi theo đúng đường dọn dẹp
+ * (xóa file dở, rollback transaction) như các lỗi I/O khác.
+ */
+public class BackupCancelledException extends InterruptedIOException {
+
+    public BackupCancelledException() {
+        super("Backup job was cancelled");
+    }
+}
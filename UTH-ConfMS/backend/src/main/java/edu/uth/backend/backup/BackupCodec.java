@@ -0,0 +1,87 @@
+package edu.uth.backend.backup;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codec nén dữ liệu JSON của backup. Codec được nhận diện theo phần mở rộng của file/entry
+ * (.gz, .zst) nên restore đọc được backup tạo bằng bất kỳ codec nào.
+ */
+public enum BackupCodec {
+
+    /**
+     * GZIP (mặc định, tương thích với các backup cũ); level 1-9
+     */
+    GZIP(".gz", 6) {
+        @Override
+        OutputStream compress(OutputStream out, int level, int bufferSize) throws IOException {
+            return new GZIPOutputStream(out, bufferSize) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        @Override
+        InputStream decompress(InputStream in, int bufferSize) throws IOException {
+            return new GZIPInputStream(in, bufferSize);
+        }
+    },
+
+    /**
+     * Zstandard: nhanh hơn GZIP nhiều lần ở tỉ lệ nén tương đương; level 1-19 (mặc định 3)
+     */
+    ZSTD(".zst", 3) {
+        @Override
+        OutputStream compress(OutputStream out, int level, int bufferSize) throws IOException {
+            return new ZstdOutputStream(out, level);
+        }
+
+        @Override
+        InputStream decompress(InputStream in, int bufferSize) throws IOException {
+            return new ZstdInputStream(in);
+        }
+    };
+
+    private final String extension;
+    private final int defaultLevel;
+
+    BackupCodec(String extension, int defaultLevel) {
+        this.extension = extension;
+        this.defaultLevel = defaultLevel;
+    }
+
+    abstract OutputStream compress(OutputStream out, int level, int bufferSize) throws IOException;
+
+    abstract InputStream decompress(InputStream in, int bufferSize) throws IOException;
+
+    /**
+     * Nén với level cấu hình; level <= 0 dùng level mặc định của codec
+     */
+    OutputStream compressWithLevel(OutputStream out, int level, int bufferSize) throws IOException {
+        return compress(out, level > 0 ? level : defaultLevel, bufferSize);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Codec tương ứng với tên file/entry, rỗng nếu không nén
+     */
+    static Optional<BackupCodec> forFilename(String filename) {
+        for (BackupCodec codec : values()) {
+            if (filename.endsWith(codec.extension)) {
+                return Optional.of(codec);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -4,15 +4,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/backups")
@@ -22,23 +26,63 @@ public class BackupController {
     @Autowired
     private BackupService backupService;
     
+    @Autowired
+    private BackupJobService backupJobService;
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+    
     /**
-     * Tạo backup mới
+     * Tạo backup mới: đưa vào hàng đợi job và trả về ngay jobId để theo dõi tiến độ
      */
     @PostMapping
-    public ResponseEntity<?> createBackup() {
+    public ResponseEntity<?> createBackup(@RequestParam(defaultValue = "STREAMING") BackupMode mode) {
         try {
-            String filename = backupService.createBackup();
-            return ResponseEntity.ok(Map.of(
-                "message", "Backup created successfully",
-                "filename", filename
-            ));
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                .body(Map.of("error", "Failed to create backup: " + e.getMessage()));
+            BackupJob job = backupJobService.submitBackup(mode);
+            return accepted("Backup job submitted", job);
+        } catch (RejectedExecutionException e) {
+            return tooManyJobs();
         }
     }
     
+    /**
+     * Danh sách job backup/restore gần đây
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<BackupJob>> listJobs() {
+        return ResponseEntity.ok(backupJobService.listJobs());
+    }
+    
+    /**
+     * Trạng thái và tiến độ của một job (bảng đã xong, số dòng, số byte, ETA)
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<BackupJob> getJob(@PathVariable String jobId) {
+        return backupJobService.getJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Theo dõi tiến độ job qua Server-Sent Events (event "progress")
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId) {
+        return backupJobService.getJob(jobId)
+            .map(job -> ResponseEntity.ok(backupJobService.streamProgress(job)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Hủy job đang chờ hoặc đang chạy
+     */
+    @PostMapping("/jobs/{jobId}/cancel")
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId) {
+        return backupJobService.cancelJob(jobId)
+            .<ResponseEntity<?>>map(job -> ResponseEntity.ok(Map.of("message", "Cancellation requested", "job", job)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
     /**
      * Lấy danh sách backup
      */
@@ -53,12 +97,37 @@ public class BackupController {
     }
     
     /**
-     * Tải file backup
+     * Lấy chuỗi backup (full + các incremental) cần để restore một archive
+     */
+    @GetMapping("/{filename}/chain")
+    public ResponseEntity<List<BackupInfo>> getBackupChain(@PathVariable String filename) {
+        try {
+            return ResponseEntity.ok(backupService.getBackupChain(filename));
+        } catch (IOException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Tải file backup; chain=true tải cả chuỗi backup của archive incremental trong một file .zip
      */
     @GetMapping("/download/{filename}")
-    public ResponseEntity<Resource> downloadBackup(@PathVariable String filename) {
+    public ResponseEntity<?> downloadBackup(@PathVariable String filename,
+                                            @RequestParam(defaultValue = "false") boolean chain) {
         try {
             Path filepath = backupService.getBackupFile(filename);
+            
+            if (chain) {
+                // Kiểm tra chuỗi trước khi bắt đầu stream để trả 404 nếu thiếu parent
+                backupService.getBackupChain(filename);
+                String chainFilename = filename.replaceFirst("\\.zip$", "") + "_chain.zip";
+                StreamingResponseBody body = out -> backupService.writeBackupChain(filename, out);
+                return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + chainFilename + "\"")
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(body);
+            }
+            
             Resource resource = new FileSystemResource(filepath);
             
             return ResponseEntity.ok()
@@ -71,19 +140,46 @@ public class BackupController {
     }
     
     /**
-     * Khôi phục từ backup
+     * Khôi phục từ backup (chạy nền dưới dạng job)
      */
     @PostMapping("/restore/{filename}")
     public ResponseEntity<?> restoreBackup(@PathVariable String filename) {
         try {
-            backupService.restoreBackup(filename);
-            return ResponseEntity.ok(Map.of("message", "Database restored successfully"));
+            BackupJob job = backupJobService.submitRestore(filename);
+            return accepted("Restore job submitted", job);
+        } catch (RejectedExecutionException e) {
+            return tooManyJobs();
+        } catch (IOException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Danh sách partition tháng của các bảng log (khoảng thời gian, số dòng ước tính)
+     */
+    @GetMapping("/partitions")
+    public ResponseEntity<?> listPartitions() {
+        try {
+            return ResponseEntity.ok(partitionMaintenanceService.listPartitions());
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
-                .body(Map.of("error", "Failed to restore backup: " + e.getMessage()));
+                .body(Map.of("error", "Failed to list partitions: " + e.getMessage()));
         }
     }
-    
+
+    /**
+     * Chạy bảo trì partition ngay: tạo partition tới, export và xóa partition hết hạn
+     */
+    @PostMapping("/partitions/maintenance")
+    public ResponseEntity<?> runPartitionMaintenance() {
+        try {
+            return ResponseEntity.ok(partitionMaintenanceService.runMaintenance());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Partition maintenance failed: " + e.getMessage()));
+        }
+    }
+
     /**
      * Xóa file backup
      */
@@ -111,17 +207,30 @@ public class BackupController {
             }
             
             String filename = file.getOriginalFilename();
-            if (filename == null || (!filename.endsWith(".json.gz") && !filename.endsWith(".json"))) {
+            if (filename == null || (!filename.endsWith(".json.gz") && !filename.endsWith(".json.zst")
+                    && !filename.endsWith(".json") && !filename.endsWith(".zip"))) {
                 return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Only .json or .json.gz files are accepted"));
+                    .body(Map.of("error", "Only .json, .json.gz, .json.zst or .zip files are accepted"));
             }
             
-            // Upload và restore
-            backupService.uploadAndRestore(file);
-            return ResponseEntity.ok(Map.of("message", "Backup uploaded and restored successfully"));
+            // Lưu file upload, restore chạy nền dưới dạng job
+            BackupJob job = backupJobService.submitUploadRestore(file);
+            return accepted("Backup uploaded, restore job submitted", job);
+        } catch (RejectedExecutionException e) {
+            return tooManyJobs();
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                 .body(Map.of("error", "Failed to upload and restore backup: " + e.getMessage()));
         }
     }
+    
+    private ResponseEntity<?> accepted(String message, BackupJob job) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(Map.of("message", message, "jobId", job.getId(), "job", job));
+    }
+    
+    private ResponseEntity<?> tooManyJobs() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .body(Map.of("error", "Too many backup jobs queued, try again later"));
+    }
 }
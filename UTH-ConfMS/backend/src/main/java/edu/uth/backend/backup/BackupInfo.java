@@ -6,6 +6,11 @@ public class BackupInfo {
     private String name;
     private long size;
     private Instant createdAt;
+    // Chỉ có với archive: FULL/INCREMENTAL, archive cha và bản full gốc của chuỗi
+    private String type;
+    private String parent;
+    private String base;
+    private String highWaterMark;
     
     public String getName() {
         return name;
@@ -31,6 +36,38 @@ public class BackupInfo {
         this.createdAt = createdAt;
     }
     
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getParent() {
+        return parent;
+    }
+    
+    public void setParent(String parent) {
+        this.parent = parent;
+    }
+    
+    public String getBase() {
+        return base;
+    }
+    
+    public void setBase(String base) {
+        this.base = base;
+    }
+    
+    public String getHighWaterMark() {
+        return highWaterMark;
+    }
+    
+    public void setHighWaterMark(String highWaterMark) {
+        this.highWaterMark = highWaterMark;
+    }
+    
     public String getFormattedSize() {
         if (size < 1024) return size + " B";
         if (size < 1024 * 1024) return String.format("%.2f KB", size / 1024.0);
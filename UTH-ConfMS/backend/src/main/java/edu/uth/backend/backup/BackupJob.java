@@ -0,0 +1,140 @@
+package edu.uth.backend.backup;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Một job backup/restore chạy nền: trạng thái, tiến độ và kết quả để client theo dõi qua API
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BackupJob {
+
+    public enum Type {
+        BACKUP,
+        RESTORE
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        CANCELLED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Type type;
+    private final BackupMode mode;
+    private final BackupProgress progress = new BackupProgress();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile String filename;
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile BackupResult result;
+    private volatile Future<?> future;
+    // Dọn tài nguyên riêng của job (file upload tạm) khi job kết thúc hoặc không bao giờ được chạy
+    private final AtomicReference<Runnable> cleanup = new AtomicReference<>();
+
+    public BackupJob(Type type, BackupMode mode, String filename) {
+        this.type = type;
+        this.mode = mode;
+        this.filename = filename;
+    }
+
+    void markRunning() {
+        this.startedAt = LocalDateTime.now();
+        this.status = Status.RUNNING;
+    }
+
+    void finish(Status status, String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+
+    public boolean isFinished() {
+        return status != Status.QUEUED && status != Status.RUNNING;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public BackupMode getMode() {
+        return mode;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public BackupProgress getProgress() {
+        return progress;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public BackupResult getResult() {
+        return result;
+    }
+
+    void setResult(BackupResult result) {
+        this.result = result;
+    }
+
+    @JsonIgnore
+    Future<?> getFuture() {
+        return future;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void setCleanup(Runnable cleanup) {
+        this.cleanup.set(cleanup);
+    }
+
+    /**
+     * Chạy cleanup đúng một lần dù được gọi từ worker, từ cancel hay lúc shutdown
+     */
+    void cleanup() {
+        Runnable task = cleanup.getAndSet(null);
+        if (task != null) {
+            task.run();
+        }
+    }
+}
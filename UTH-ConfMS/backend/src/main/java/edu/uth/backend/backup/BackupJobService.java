@@ -0,0 +1,243 @@
+package edu.uth.backend.backup;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Chạy backup/restore dưới dạng job nền thay vì giữ thread của request.
+ * Chỉ có một worker nên các job chạy tuần tự theo thứ tự submit; hàng đợi có giới hạn,
+ * vượt quá sẽ bị từ chối (RejectedExecutionException).
+ */
+@Service
+public class BackupJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupJobService.class);
+
+    @Value("${backup.jobs.queue-capacity:5}")
+    private int queueCapacity;
+
+    @Value("${backup.jobs.history-size:50}")
+    private int historySize;
+
+    @Value("${backup.jobs.progress-interval-ms:1000}")
+    private long progressIntervalMs;
+
+    @Autowired
+    private BackupService backupService;
+
+    private final Map<String, BackupJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    private ScheduledExecutorService progressScheduler;
+
+    @FunctionalInterface
+    private interface JobTask {
+        void run() throws Exception;
+    }
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("backup-job-"));
+        progressScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("backup-progress-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(job -> job.getProgress().cancel());
+        executor.shutdownNow();
+        progressScheduler.shutdownNow();
+        // Job còn trong hàng đợi bị shutdownNow bỏ đi, run() không bao giờ chạy để dọn file của nó
+        jobs.values().stream()
+            .filter(job -> job.getStatus() == BackupJob.Status.QUEUED)
+            .forEach(BackupJob::cleanup);
+    }
+
+    /**
+     * Đưa một job tạo backup vào hàng đợi
+     */
+    public BackupJob submitBackup(BackupMode mode) {
+        BackupJob job = new BackupJob(BackupJob.Type.BACKUP, mode, null);
+        return submit(job, () -> {
+            BackupResult result = backupService.createBackup(mode, job.getProgress());
+            job.setResult(result);
+            job.setFilename(result.getFilename());
+        });
+    }
+
+    /**
+     * Đưa một job restore từ file backup có sẵn vào hàng đợi
+     */
+    public BackupJob submitRestore(String filename) throws IOException {
+        // Kiểm tra file ngay để trả lỗi cho request thay vì job thất bại sau đó
+        backupService.getBackupFile(filename);
+        BackupJob job = new BackupJob(BackupJob.Type.RESTORE, null, filename);
+        return submit(job, () -> backupService.restoreBackup(filename, job.getProgress()));
+    }
+
+    /**
+     * Lưu file upload rồi đưa job restore vào hàng đợi. File tạm thuộc về job: restoreUpload đổi tên
+     * hoặc xóa nó, còn nếu job bị hủy/bỏ trước khi chạy thì cleanup của job xóa nó
+     */
+    public BackupJob submitUploadRestore(MultipartFile file) throws IOException {
+        Path tempFile = backupService.saveUpload(file);
+        String filename = file.getOriginalFilename();
+        BackupJob job = new BackupJob(BackupJob.Type.RESTORE, null, filename);
+        job.setCleanup(() -> deleteTempFile(tempFile));
+        try {
+            return submit(job, () -> backupService.restoreUpload(tempFile, filename, job.getProgress()));
+        } catch (RejectedExecutionException e) {
+            job.cleanup();
+            throw e;
+        }
+    }
+
+    private void deleteTempFile(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            logger.warn("Failed to delete temp upload {}", tempFile, e);
+        }
+    }
+
+    private BackupJob submit(BackupJob job, JobTask task) {
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job, task)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        logger.info("Submitted {} job {}", job.getType(), job.getId());
+        return job;
+    }
+
+    private void run(BackupJob job, JobTask task) {
+        try {
+            execute(job, task);
+        } finally {
+            job.cleanup();
+        }
+    }
+
+    private void execute(BackupJob job, JobTask task) {
+        if (job.getProgress().isCancelled()) {
+            job.finish(BackupJob.Status.CANCELLED, null);
+            return;
+        }
+
+        job.markRunning();
+        try {
+            task.run();
+            job.finish(BackupJob.Status.SUCCEEDED, null);
+            logger.info("{} job {} finished in {} ms", job.getType(), job.getId(), job.getProgress().getElapsedMs());
+        } catch (Exception e) {
+            if (job.getProgress().isCancelled()) {
+                job.finish(BackupJob.Status.CANCELLED, null);
+                logger.info("{} job {} cancelled", job.getType(), job.getId());
+            } else {
+                job.finish(BackupJob.Status.FAILED, e.getMessage());
+                logger.error("{} job {} failed", job.getType(), job.getId(), e);
+            }
+        }
+    }
+
+    public Optional<BackupJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Danh sách job, mới nhất trước
+     */
+    public List<BackupJob> listJobs() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing(BackupJob::getCreatedAt).reversed())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Hủy job: job đang chờ bị bỏ khỏi hàng đợi, job đang chạy dừng ở lần kiểm tra tiếp theo
+     * (sau mỗi fetch/batch) rồi dọn file dở hoặc rollback
+     */
+    public Optional<BackupJob> cancelJob(String id) {
+        BackupJob job = jobs.get(id);
+        if (job == null || job.isFinished()) {
+            return Optional.ofNullable(job);
+        }
+
+        job.getProgress().cancel();
+        Future<?> future = job.getFuture();
+        if (job.getStatus() == BackupJob.Status.QUEUED && future != null && future.cancel(false)) {
+            job.finish(BackupJob.Status.CANCELLED, null);
+            job.cleanup();
+        }
+        logger.info("Cancellation requested for {} job {}", job.getType(), id);
+        return Optional.of(job);
+    }
+
+    /**
+     * Đẩy trạng thái job qua Server-Sent Events mỗi progressIntervalMs cho tới khi job kết thúc
+     */
+    public SseEmitter streamProgress(BackupJob job) {
+        SseEmitter emitter = new SseEmitter(0L);
+        AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+        Runnable stop = () -> {
+            ScheduledFuture<?> scheduled = task.get();
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        };
+
+        task.set(progressScheduler.scheduleAtFixedRate(() -> {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(job));
+                if (job.isFinished()) {
+                    emitter.complete();
+                    stop.run();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client đã đóng kết nối
+                stop.run();
+            }
+        }, 0, progressIntervalMs, TimeUnit.MILLISECONDS));
+
+        emitter.onCompletion(stop);
+        emitter.onTimeout(stop);
+        emitter.onError(error -> stop.run());
+        return emitter;
+    }
+
+    /**
+     * Giữ tối đa historySize job đã kết thúc, bỏ các job cũ nhất
+     */
+    private void evictFinishedJobs() {
+        List<BackupJob> finished = jobs.values().stream()
+            .filter(BackupJob::isFinished)
+            .sorted(Comparator.comparing(BackupJob::getCreatedAt))
+            .collect(Collectors.toList());
+        for (int i = 0; i < finished.size() - historySize + 1; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package edu.uth.backend.backup;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manifest của backup dạng archive (.zip), lưu ở entry manifest.json.
+ * Danh sách bảng được ghi theo thứ tự import.
+ * Backup incremental trỏ tới parent (archive ngay trước nó) và base (bản full gốc của chuỗi).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BackupManifest {
+
+    public enum BackupType {
+        FULL,
+        INCREMENTAL
+    }
+
+    /**
+     * FULL: entry chứa toàn bộ bảng; DELTA: chỉ các dòng thay đổi kèm danh sách khóa hiện có
+     */
+    public enum TableMode {
+        FULL,
+        DELTA
+    }
+
+    private String version;
+    private String timestamp;
+    private BackupType type;
+    private String parent;
+    private String base;
+    private String highWaterMark;
+    private List<TableEntry> tables = new ArrayList<>();
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public BackupType getType() {
+        return type;
+    }
+
+    public void setType(BackupType type) {
+        this.type = type;
+    }
+
+    public String getParent() {
+        return parent;
+    }
+
+    public void setParent(String parent) {
+        this.parent = parent;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    public String getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public void setHighWaterMark(String highWaterMark) {
+        this.highWaterMark = highWaterMark;
+    }
+
+    public List<TableEntry> getTables() {
+        return tables;
+    }
+
+    public void setTables(List<TableEntry> tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Thông tin một bảng trong archive
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TableEntry {
+        private String name;
+        private String entry;
+        private long rows;
+        private TableMode mode = TableMode.FULL;
+        private String keyColumn;
+        private String keysEntry;
+
+        public TableEntry() {
+        }
+
+        public TableEntry(String name, String entry, long rows) {
+            this.name = name;
+            this.entry = entry;
+            this.rows = rows;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getEntry() {
+            return entry;
+        }
+
+        public void setEntry(String entry) {
+            this.entry = entry;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public void setRows(long rows) {
+            this.rows = rows;
+        }
+
+        public TableMode getMode() {
+            return mode;
+        }
+
+        public void setMode(TableMode mode) {
+            this.mode = mode;
+        }
+
+        public String getKeyColumn() {
+            return keyColumn;
+        }
+
+        public void setKeyColumn(String keyColumn) {
+            this.keyColumn = keyColumn;
+        }
+
+        public String getKeysEntry() {
+            return keysEntry;
+        }
+
+        public void setKeysEntry(String keysEntry) {
+            this.keysEntry = keysEntry;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package edu.uth.backend.backup;
+
+/**
+ * Chế độ tạo backup
+ */
+public enum BackupMode {
+    /** Một file .json.gz, các bảng được export tuần tự trên một connection */
+    STREAMING,
+    /** Archive .zip, mỗi bảng một entry, export song song trên cùng một snapshot */
+    PARALLEL,
+    /** Archive .zip chỉ chứa các dòng thay đổi kể từ archive gần nhất, nối vào chuỗi backup */
+    INCREMENTAL
+}
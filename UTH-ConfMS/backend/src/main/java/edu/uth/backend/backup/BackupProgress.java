@@ -0,0 +1,94 @@
+package edu.uth.backend.backup;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tiến độ của một lần backup/restore, được cập nhật từ các worker và đọc bởi API theo dõi job.
+ * Đồng thời là cờ hủy: engine gọi checkCancelled() định kỳ (mỗi fetch/batch) để dừng sớm.
+ */
+public class BackupProgress {
+
+    private final AtomicInteger tablesDone = new AtomicInteger();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private volatile int totalTables;
+    private volatile long estimatedRows;
+    private volatile long startedAt;
+    private volatile boolean cancelled;
+
+    /**
+     * Bắt đầu theo dõi; estimatedRows = 0 nếu không ước lượng được (khi đó không có ETA)
+     */
+    void start(int totalTables, long estimatedRows) {
+        this.totalTables = totalTables;
+        this.estimatedRows = estimatedRows;
+        this.startedAt = System.currentTimeMillis();
+    }
+
+    void addRows(long count) {
+        rows.addAndGet(count);
+    }
+
+    void addBytes(long count) {
+        bytes.addAndGet(count);
+    }
+
+    void tableCompleted() {
+        tablesDone.incrementAndGet();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Ném BackupCancelledException nếu job đã bị hủy
+     */
+    void checkCancelled() throws BackupCancelledException {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new BackupCancelledException();
+        }
+    }
+
+    public int getTablesDone() {
+        return tablesDone.get();
+    }
+
+    public int getTotalTables() {
+        return totalTables;
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getElapsedMs() {
+        return startedAt == 0 ? 0 : System.currentTimeMillis() - startedAt;
+    }
+
+    /**
+     * Thời gian còn lại ước tính theo tốc độ dòng hiện tại, null nếu chưa đủ dữ liệu
+     */
+    public Long getEtaSeconds() {
+        long done = rows.get();
+        long estimated = estimatedRows;
+        if (done == 0 || estimated == 0) {
+            return null;
+        }
+        long remaining = Math.max(0, estimated - done);
+        return getElapsedMs() * remaining / done / 1000;
+    }
+}
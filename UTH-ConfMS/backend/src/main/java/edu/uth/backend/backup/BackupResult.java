@@ -0,0 +1,40 @@
+package edu.uth.backend.backup;
+
+import java.util.List;
+
+/**
+ * Kết quả một lần tạo backup: tên file, dung lượng file nén và thống kê từng bảng
+ */
+public class BackupResult {
+    private final String filename;
+    private final long size;
+    private final long elapsedMs;
+    private final List<TableExportStats> tables;
+
+    public BackupResult(String filename, long size, long elapsedMs, List<TableExportStats> tables) {
+        this.filename = filename;
+        this.size = size;
+        this.elapsedMs = elapsedMs;
+        this.tables = tables;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public List<TableExportStats> getTables() {
+        return tables;
+    }
+
+    public long getTotalRows() {
+        return tables.stream().mapToLong(TableExportStats::getRows).sum();
+    }
+}
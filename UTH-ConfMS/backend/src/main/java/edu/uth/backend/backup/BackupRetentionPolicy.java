@@ -0,0 +1,92 @@
+package edu.uth.backend.backup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.WeekFields;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Chính sách giữ backup theo tầng: giữ bản mới nhất của mỗi giờ/ngày/tuần trong
+ * keepHourly giờ, keepDaily ngày, keepWeekly tuần gần nhất có backup.
+ * Bản incremental được giữ thì toàn bộ chuỗi cha của nó cũng được giữ để còn restore được.
+ */
+public final class BackupRetentionPolicy {
+
+    /**
+     * Một file backup cần xét: tên, thời điểm tạo và archive cha (null nếu không phải incremental)
+     */
+    public record Candidate(String name, LocalDateTime createdAt, String parent) {
+    }
+
+    private final int keepHourly;
+    private final int keepDaily;
+    private final int keepWeekly;
+
+    public BackupRetentionPolicy(int keepHourly, int keepDaily, int keepWeekly) {
+        this.keepHourly = keepHourly;
+        this.keepDaily = keepDaily;
+        this.keepWeekly = keepWeekly;
+    }
+
+    /**
+     * Các backup được giữ lại; bản mới nhất luôn được giữ
+     */
+    public Set<String> selectToKeep(List<Candidate> candidates) {
+        List<Candidate> newestFirst = sortNewestFirst(candidates);
+        Set<String> keep = new HashSet<>();
+        if (newestFirst.isEmpty()) {
+            return keep;
+        }
+
+        keep.add(newestFirst.get(0).name());
+        keepNewestPerBucket(newestFirst, keepHourly, c -> c.createdAt().truncatedTo(ChronoUnit.HOURS), keep);
+        keepNewestPerBucket(newestFirst, keepDaily, c -> c.createdAt().toLocalDate(), keep);
+        keepNewestPerBucket(newestFirst, keepWeekly,
+            c -> c.createdAt().toLocalDate().with(WeekFields.ISO.dayOfWeek(), 1), keep);
+
+        // Giữ các archive cha của bản incremental được giữ
+        Map<String, Candidate> byName = new HashMap<>();
+        for (Candidate candidate : candidates) {
+            byName.put(candidate.name(), candidate);
+        }
+        for (String name : new ArrayList<>(keep)) {
+            Candidate current = byName.get(name);
+            while (current != null && current.parent() != null && keep.add(current.parent())) {
+                current = byName.get(current.parent());
+            }
+        }
+        return keep;
+    }
+
+    /**
+     * Các backup cần xóa, mới nhất trước (bản incremental con luôn bị xóa trước bản cha)
+     */
+    public List<String> selectToDelete(List<Candidate> candidates) {
+        Set<String> keep = selectToKeep(candidates);
+        return sortNewestFirst(candidates).stream()
+            .map(Candidate::name)
+            .filter(name -> !keep.contains(name))
+            .collect(Collectors.toList());
+    }
+
+    private List<Candidate> sortNewestFirst(List<Candidate> candidates) {
+        List<Candidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparing(Candidate::createdAt).thenComparing(Candidate::name).reversed());
+        return sorted;
+    }
+
+    private void keepNewestPerBucket(List<Candidate> newestFirst, int count,
+                                     Function<Candidate, Object> bucket, Set<String> keep) {
+        Set<Object> buckets = new HashSet<>();
+        for (Candidate candidate : newestFirst) {
+            if (buckets.size() >= count) {
+                break;
+            }
+            if (buckets.add(bucket.apply(candidate))) {
+                keep.add(candidate.name());
+            }
+        }
+    }
+}
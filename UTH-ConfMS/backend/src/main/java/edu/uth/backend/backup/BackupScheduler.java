@@ -0,0 +1,75 @@
+package edu.uth.backend.backup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Backup tự động theo cron và dọn backup cũ theo tầng giờ/ngày/tuần.
+ * Các cron mặc định là "-" (tắt); job được đưa vào cùng hàng đợi với backup thủ công.
+ */
+@Component
+public class BackupScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupScheduler.class);
+
+    @Value("${backup.schedule.mode:PARALLEL}")
+    private BackupMode scheduledMode;
+
+    @Value("${backup.retention.keep-hourly:24}")
+    private int keepHourly;
+
+    @Value("${backup.retention.keep-daily:7}")
+    private int keepDaily;
+
+    @Value("${backup.retention.keep-weekly:4}")
+    private int keepWeekly;
+
+    @Autowired
+    private BackupService backupService;
+
+    @Autowired
+    private BackupJobService backupJobService;
+
+    /**
+     * Backup đầy đủ theo lịch (backup.schedule.cron)
+     */
+    @Scheduled(cron = "${backup.schedule.cron:-}")
+    public void runScheduledBackup() {
+        submit(scheduledMode);
+    }
+
+    /**
+     * Backup incremental theo lịch (backup.schedule.incremental-cron), nối vào archive gần nhất
+     */
+    @Scheduled(cron = "${backup.schedule.incremental-cron:-}")
+    public void runScheduledIncrementalBackup() {
+        submit(BackupMode.INCREMENTAL);
+    }
+
+    /**
+     * Dọn backup cũ theo chính sách giữ lại (backup.retention.cron)
+     */
+    @Scheduled(cron = "${backup.retention.cron:-}")
+    public void applyRetention() {
+        try {
+            backupService.applyRetention(new BackupRetentionPolicy(keepHourly, keepDaily, keepWeekly));
+        } catch (Exception e) {
+            logger.error("Backup retention failed", e);
+        }
+    }
+
+    private void submit(BackupMode mode) {
+        try {
+            BackupJob job = backupJobService.submitBackup(mode);
+            logger.info("Scheduled {} backup submitted as job {}", mode, job.getId());
+        } catch (RejectedExecutionException e) {
+            logger.warn("Scheduled {} backup skipped: backup job queue is full", mode);
+        }
+    }
+}
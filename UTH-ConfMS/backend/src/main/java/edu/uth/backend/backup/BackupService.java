@@ -1,10 +1,17 @@
 package edu.uth.backend.backup;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.uth.backend.util.DateTimeUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,35 +21,99 @@ import java.io.*;
 import java.nio.file.*;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPOutputStream;
-import java.util.zip.GZIPInputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 @Service
 public class BackupService {
     
     private static final Logger logger = LoggerFactory.getLogger(BackupService.class);
     
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private static final String ARCHIVE_VERSION = "2.1";
+    
+    private static final String MANIFEST_ENTRY = "manifest.json";
+    
+    private static final Pattern SNAPSHOT_ID_PATTERN = Pattern.compile("[0-9A-Fa-f-]+");
+    
     @Value("${backup.directory:./backups}")
     private String backupDirectory;
     
+    @Value("${backup.fetch-size:1000}")
+    private int fetchSize;
+    
+    @Value("${backup.restore.batch-size:1000}")
+    private int batchSize;
+    
+    // Codec nén dữ liệu backup (GZIP hoặc ZSTD); level <= 0 dùng level mặc định của codec
+    @Value("${backup.compression.codec:GZIP}")
+    private BackupCodec codec;
+    
+    @Value("${backup.compression.level:0}")
+    private int compressionLevel;
+    
+    @Value("${backup.parallel.threads:4}")
+    private int parallelThreads;
+    
+    // Số connection nạp song song khi restore archive .zip (1 = một transaction tuần tự)
+    @Value("${backup.restore.parallel-threads:1}")
+    private int restoreThreads;
+    
+    // Lùi high-water mark để không bỏ sót transaction commit trễ so với timestamp của dòng
+    @Value("${backup.incremental.overlap-seconds:300}")
+    private long incrementalOverlapSeconds;
+    
     @Autowired
     private DataSource dataSource;
     
     private final ObjectMapper objectMapper;
     
+    // Backup và restore không chạy đồng thời (restore xóa dữ liệu mà backup đang đọc)
+    private final ReentrantLock operationLock = new ReentrantLock();
+    
     public BackupService() {
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        // Giữ nguyên độ chính xác số thập phân trong giá trị JSONB/numeric khi restore
+        this.objectMapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.objectMapper.setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+    }
+    
+    /**
+     * Tạo backup theo chế độ được chọn
+     */
+    public BackupResult createBackup(BackupMode mode) throws IOException, SQLException {
+        return createBackup(mode, new BackupProgress());
     }
     
     /**
-     * Tạo backup bằng cách export dữ liệu thành JSON
+     * Tạo backup và cập nhật tiến độ vào progress; chờ nếu đang có backup/restore khác chạy
      */
-    public String createBackup() throws IOException, SQLException {
+    public BackupResult createBackup(BackupMode mode, BackupProgress progress) throws IOException, SQLException {
+        lockOperation();
+        try {
+            return doCreateBackup(mode, progress);
+        } finally {
+            operationLock.unlock();
+        }
+    }
+    
+    private BackupResult doCreateBackup(BackupMode mode, BackupProgress progress) throws IOException, SQLException {
         // Tạo thư mục backup nếu chưa có
         Path backupPath = Paths.get(backupDirectory);
         if (!Files.exists(backupPath)) {
@@ -52,52 +123,422 @@ public class BackupService {
         
         // Tạo tên file backup với timestamp
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-        String filename = "backup_" + timestamp + ".json.gz";
+        
+        if (mode == BackupMode.PARALLEL) {
+            return createArchiveBackup(backupPath, "backup_" + timestamp + ".zip", timestamp, null, progress);
+        }
+        if (mode == BackupMode.INCREMENTAL) {
+            ChainLink parent = findLatestArchive()
+                .orElseThrow(() -> new IllegalStateException(
+                    "No archive backup with a high-water mark found; create a PARALLEL backup first"));
+            return createArchiveBackup(backupPath, "backup_" + timestamp + "_incr.zip", timestamp, parent, progress);
+        }
+        return createStreamingBackup(backupPath, timestamp, progress);
+    }
+    
+    private void lockOperation() throws InterruptedIOException {
+        try {
+            operationLock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for another backup operation");
+        }
+    }
+    
+    /**
+     * Tạo backup bằng cách stream dữ liệu thành JSON.
+     * Mỗi bảng được đọc bằng cursor forward-only (fetch size giới hạn) và ghi thẳng
+     * từng dòng ra JsonGenerator trên stream nén (GZIP/ZSTD), nên bộ nhớ không phụ thuộc kích thước bảng.
+     */
+    private BackupResult createStreamingBackup(Path backupPath, String timestamp, BackupProgress progress)
+            throws IOException, SQLException {
+        String filename = "backup_" + timestamp + ".json" + codec.getExtension();
         Path filepath = backupPath.resolve(filename);
         
         logger.info("Starting JSON backup: {}", filename);
+        long startedAt = System.currentTimeMillis();
+        List<TableExportStats> stats = new ArrayList<>();
         
-        Map<String, Object> backupData = new HashMap<>();
-        backupData.put("timestamp", timestamp);
-        backupData.put("version", "1.0");
-        
-        try (Connection conn = dataSource.getConnection()) {
-            // Lấy danh sách tất cả các bảng
-            List<String> tables = getTableNames(conn);
-            logger.info("Found {} tables to backup", tables.size());
+        try (Connection conn = dataSource.getConnection();
+             FileOutputStream fos = new FileOutputStream(filepath.toFile());
+             OutputStream compressed = codec.compressWithLevel(
+                 new BufferedOutputStream(fos, BUFFER_SIZE), compressionLevel, BUFFER_SIZE);
+             CountingOutputStream out = new CountingOutputStream(compressed);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
             
-            Map<String, List<Map<String, Object>>> tablesData = new HashMap<>();
+            // Cursor của PostgreSQL chỉ hoạt động trong transaction (autocommit = false).
+            // REPEATABLE READ để tất cả các bảng cùng nhìn thấy một snapshot.
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
             
-            for (String table : tables) {
-                List<Map<String, Object>> rows = exportTable(conn, table);
-                tablesData.put(table, rows);
-                logger.info("Exported table: {} ({} rows)", table, rows.size());
+            try {
+                // Lấy danh sách tất cả các bảng, ghi theo thứ tự foreign key (bảng cha trước)
+                List<String> tables = TableDependencyGraph.load(conn, getTableNames(conn)).getOrder();
+                logger.info("Found {} tables to backup", tables.size());
+                progress.start(tables.size(), estimateRows(conn, tables));
+                
+                generator.writeStartObject();
+                generator.writeStringField("timestamp", timestamp);
+                generator.writeStringField("version", "1.1");
+                generator.writeObjectFieldStart("tables");
+                
+                for (String table : tables) {
+                    generator.writeFieldName(table);
+                    TableExportStats tableStats = exportTable(conn, table, null, null, generator, out, progress);
+                    stats.add(tableStats);
+                    progress.addBytes(tableStats.getBytes());
+                    progress.tableCompleted();
+                    logger.info("Exported table: {} ({} rows, {} bytes, {} rows/s)",
+                        table, tableStats.getRows(), tableStats.getBytes(), tableStats.getRowsPerSecond());
+                }
+                
+                generator.writeEndObject();
+                generator.writeEndObject();
+            } finally {
+                conn.rollback();
             }
+        } catch (IOException | SQLException e) {
+            Files.deleteIfExists(filepath);
+            throw e;
+        }
+        
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+        BackupResult result = new BackupResult(filename, Files.size(filepath), elapsedMs, stats);
+        logger.info("Backup created successfully: {} ({} rows, {} bytes compressed, {} ms)",
+            filename, result.getTotalRows(), result.getSize(), elapsedMs);
+        return result;
+    }
+    
+    /**
+     * Backup song song: connection điều phối export snapshot bằng pg_export_snapshot(),
+     * các worker cùng SET TRANSACTION SNAPSHOT nên dữ liệu giữa các bảng vẫn nhất quán.
+     * Mỗi bảng được nén vào file tạm riêng rồi gom thành một entry của archive .zip.
+     * Nếu có parent thì đây là backup incremental: bảng có created_at/updated_at và cột id
+     * chỉ export các dòng thay đổi sau high-water mark của parent, kèm danh sách id hiện có
+     * để restore phát hiện các dòng đã bị xóa.
+     */
+    private BackupResult createArchiveBackup(Path backupPath, String filename, String timestamp,
+                                             ChainLink parent, BackupProgress progress) throws IOException, SQLException {
+        Path filepath = backupPath.resolve(filename);
+        Path workDir = Files.createTempDirectory(backupPath, ".backup_");
+        Timestamp since = parent == null ? null
+            : Timestamp.valueOf(LocalDateTime.parse(parent.manifest().getHighWaterMark()).minusSeconds(incrementalOverlapSeconds));
+        
+        logger.info("Starting {} backup: {} ({} threads)", parent == null ? "parallel" : "incremental",
+            filename, parallelThreads);
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime highWaterMark;
+        List<ArchiveTable> archiveTables = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelThreads,
+            new CustomizableThreadFactory("backup-export-"));
+        
+        try {
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false);
+                
+                try {
+                    // Mốc thời gian lấy trước snapshot; dòng sửa sau mốc này sẽ vào lần incremental sau
+                    highWaterMark = DateTimeUtil.nowVietnam();
+                    String snapshotId = exportSnapshot(conn);
+                    List<String> tables = TableDependencyGraph.load(conn, getTableNames(conn)).getOrder();
+                    logger.info("Found {} tables to backup (snapshot {})", tables.size(), snapshotId);
+                    
+                    List<TablePlan> plans = new ArrayList<>();
+                    List<String> fullTables = new ArrayList<>();
+                    for (String table : tables) {
+                        TablePlan plan = planTable(conn, table, parent != null);
+                        plans.add(plan);
+                        if (plan.mode() == BackupManifest.TableMode.FULL) {
+                            fullTables.add(table);
+                        }
+                    }
+                    // Bảng DELTA thường chỉ có vài dòng thay đổi nên không tính vào ước lượng
+                    progress.start(plans.size(), estimateRows(conn, fullTables));
+                    
+                    List<Future<ArchiveTable>> futures = new ArrayList<>();
+                    for (TablePlan plan : plans) {
+                        futures.add(executor.submit(() -> exportTableToArchive(snapshotId, plan, since, workDir, progress)));
+                    }
+                    for (Future<ArchiveTable> future : futures) {
+                        archiveTables.add(awaitWorker(future));
+                    }
+                } finally {
+                    // Snapshot chỉ cần tồn tại tới khi mọi worker đã export xong
+                    conn.rollback();
+                }
+            }
+            
+            BackupManifest manifest = new BackupManifest();
+            manifest.setVersion(ARCHIVE_VERSION);
+            manifest.setTimestamp(timestamp);
+            manifest.setHighWaterMark(highWaterMark.toString());
+            if (parent == null) {
+                manifest.setType(BackupManifest.BackupType.FULL);
+            } else {
+                manifest.setType(BackupManifest.BackupType.INCREMENTAL);
+                manifest.setParent(parent.filename());
+                manifest.setBase(parent.manifest().getType() == BackupManifest.BackupType.INCREMENTAL
+                    ? parent.manifest().getBase() : parent.filename());
+            }
+            writeArchive(filepath, manifest, archiveTables);
+        } catch (IOException | SQLException e) {
+            Files.deleteIfExists(filepath);
+            throw e;
+        } finally {
+            shutdownExecutor(executor);
+            deleteDirectory(workDir);
+        }
+        
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+        List<TableExportStats> stats = archiveTables.stream().map(ArchiveTable::stats).collect(Collectors.toList());
+        BackupResult result = new BackupResult(filename, Files.size(filepath), elapsedMs, stats);
+        logger.info("Archive backup created successfully: {} ({} rows, {} bytes compressed, {} ms)",
+            filename, result.getTotalRows(), result.getSize(), elapsedMs);
+        return result;
+    }
+    
+    /**
+     * Mở transaction REPEATABLE READ và export snapshot để các worker dùng chung
+     */
+    private String exportSnapshot(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+            try (ResultSet rs = stmt.executeQuery("SELECT pg_export_snapshot()")) {
+                rs.next();
+                String snapshotId = rs.getString(1);
+                if (!SNAPSHOT_ID_PATTERN.matcher(snapshotId).matches()) {
+                    throw new SQLException("Unexpected snapshot id: " + snapshotId);
+                }
+                return snapshotId;
+            }
+        }
+    }
+    
+    /**
+     * Quyết định cách export một bảng trong archive: toàn bộ hoặc chỉ phần thay đổi
+     */
+    private TablePlan planTable(Connection conn, String table, boolean incremental) throws SQLException {
+        if (!incremental) {
+            return new TablePlan(table, BackupManifest.TableMode.FULL, null, null);
+        }
+        
+        Map<String, ColumnCodec> columns = getColumnCodecs(conn, table);
+        boolean hasUpdated = columns.containsKey("updated_at");
+        boolean hasCreated = columns.containsKey("created_at");
+        if (!columns.containsKey("id") || (!hasUpdated && !hasCreated)) {
+            // Không có timestamp hoặc khóa để so sánh, export toàn bộ bảng
+            return new TablePlan(table, BackupManifest.TableMode.FULL, null, null);
+        }
+        if (isPartitioned(conn, table)) {
+            // Khóa chính của bảng phân vùng gồm cả cột phân vùng nên không upsert theo id được
+            return new TablePlan(table, BackupManifest.TableMode.FULL, null, null);
+        }
+        
+        String changedAt = hasUpdated && hasCreated ? "COALESCE(updated_at, created_at)"
+            : hasUpdated ? "updated_at" : "created_at";
+        return new TablePlan(table, BackupManifest.TableMode.DELTA,
+            changedAt + " IS NULL OR " + changedAt + " > ?", "id");
+    }
+    
+    private boolean isPartitioned(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+    
+    /**
+     * Worker: export một bảng (và danh sách khóa nếu là DELTA) ra file JSON nén tạm
+     * trên snapshot đã được export
+     */
+    private ArchiveTable exportTableToArchive(String snapshotId, TablePlan plan, Timestamp since,
+                                             Path workDir, BackupProgress progress) throws IOException, SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
             
-            backupData.put("tables", tablesData);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+                    stmt.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+                }
+                
+                String table = plan.table();
+                TableExportStats[] stats = new TableExportStats[1];
+                ArchiveFile data = writeArchiveFile(workDir, "tables/" + table + ".json" + codec.getExtension(),
+                    (generator, out) -> stats[0] = exportTable(conn, table, plan.condition(), since, generator, out, progress));
+                
+                ArchiveFile keys = null;
+                if (plan.mode() == BackupManifest.TableMode.DELTA) {
+                    keys = writeArchiveFile(workDir, "tables/" + table + ".keys.json" + codec.getExtension(),
+                        (generator, out) -> exportKeys(conn, table, plan.keyColumn(), generator, progress));
+                }
+                progress.addBytes(stats[0].getBytes());
+                progress.tableCompleted();
+                
+                logger.info("Exported table: {} ({} rows, {} bytes, {} rows/s)",
+                    table, stats[0].getRows(), stats[0].getBytes(), stats[0].getRowsPerSecond());
+                return new ArchiveTable(plan, stats[0], data, keys);
+            } finally {
+                conn.rollback();
+            }
+        }
+    }
+    
+    /**
+     * Ghi một file JSON nén tạm cho archive, tính CRC và kích thước để ghi entry STORED
+     */
+    private ArchiveFile writeArchiveFile(Path workDir, String entry, JsonBody body) throws IOException, SQLException {
+        Path file = workDir.resolve(entry.replace('/', '_'));
+        CRC32 crc = new CRC32();
+        try (OutputStream fos = new CheckedOutputStream(new FileOutputStream(file.toFile()), crc);
+             OutputStream compressed = codec.compressWithLevel(
+                 new BufferedOutputStream(fos, BUFFER_SIZE), compressionLevel, BUFFER_SIZE);
+             CountingOutputStream out = new CountingOutputStream(compressed);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            body.write(generator, out);
+        }
+        return new ArchiveFile(entry, file, Files.size(file), crc.getValue());
+    }
+    
+    /**
+     * Chờ một worker export xong, ném lại lỗi gốc nếu worker thất bại
+     */
+    private <T> T awaitWorker(Future<T> future) throws IOException, SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Backup interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new IllegalStateException("Backup worker failed", cause);
+        }
+    }
+    
+    /**
+     * Gom manifest và các file bảng đã nén thành archive .zip.
+     * Dữ liệu đã được nén nên entry dùng STORED, không nén lại lần nữa.
+     */
+    private void writeArchive(Path filepath, BackupManifest manifest, List<ArchiveTable> archiveTables) throws IOException {
+        List<ArchiveFile> files = new ArrayList<>();
+        for (ArchiveTable archiveTable : archiveTables) {
+            BackupManifest.TableEntry entry = new BackupManifest.TableEntry(
+                archiveTable.plan().table(), archiveTable.data().entry(), archiveTable.stats().getRows());
+            entry.setMode(archiveTable.plan().mode());
+            files.add(archiveTable.data());
+            if (archiveTable.keys() != null) {
+                entry.setKeyColumn(archiveTable.plan().keyColumn());
+                entry.setKeysEntry(archiveTable.keys().entry());
+                files.add(archiveTable.keys());
+            }
+            manifest.getTables().add(entry);
         }
         
-        // Ghi ra file JSON và nén bằng GZIP
-        try (FileOutputStream fos = new FileOutputStream(filepath.toFile());
-             GZIPOutputStream gzos = new GZIPOutputStream(fos);
-             OutputStreamWriter writer = new OutputStreamWriter(gzos)) {
-            objectMapper.writeValue(writer, backupData);
+        Path partFile = filepath.resolveSibling(filepath.getFileName() + ".part");
+        try (ZipOutputStream zos = new ZipOutputStream(
+                new BufferedOutputStream(new FileOutputStream(partFile.toFile()), BUFFER_SIZE))) {
+            zos.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            zos.write(objectMapper.writeValueAsBytes(manifest));
+            zos.closeEntry();
+            
+            for (ArchiveFile file : files) {
+                ZipEntry entry = new ZipEntry(file.entry());
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(file.size());
+                entry.setCompressedSize(file.size());
+                entry.setCrc(file.crc());
+                zos.putNextEntry(entry);
+                Files.copy(file.file(), zos);
+                zos.closeEntry();
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(partFile);
+            throw e;
         }
         
-        logger.info("Backup created successfully: {}", filename);
-        return filename;
+        Files.move(partFile, filepath, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    private void shutdownExecutor(ExecutorService executor) {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warn("Backup workers did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void deleteDirectory(Path dir) {
+        try (java.util.stream.Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete temp file: {}", path);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Failed to clean up temp directory: {}", dir);
+        }
+    }
+    
+    /**
+     * Nội dung JSON của một file trong archive
+     */
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonGenerator generator, CountingOutputStream out) throws IOException, SQLException;
     }
     
     /**
-     * Lấy danh sách tên bảng trong database
+     * Cách export một bảng: condition là điều kiện WHERE (null = toàn bộ bảng)
+     */
+    private record TablePlan(String table, BackupManifest.TableMode mode, String condition, String keyColumn) {
+    }
+    
+    /**
+     * File tạm đã nén, sẽ được copy vào archive dưới tên entry
+     */
+    private record ArchiveFile(String entry, Path file, long size, long crc) {
+    }
+    
+    /**
+     * Kết quả export một bảng trong backup song song
+     */
+    private record ArchiveTable(TablePlan plan, TableExportStats stats, ArchiveFile data, ArchiveFile keys) {
+    }
+    
+    /**
+     * Một archive trong chuỗi backup
+     */
+    private record ChainLink(String filename, BackupManifest manifest) {
+    }
+    
+    /**
+     * Lấy danh sách tên bảng trong database. Bảng phân vùng được backup qua bảng cha
+     * (audit_logs, user_activity_history), không liệt kê từng partition.
      */
     private List<String> getTableNames(Connection conn) throws SQLException {
         List<String> tables = new ArrayList<>();
-        DatabaseMetaData metaData = conn.getMetaData();
+        String sql = "SELECT c.relname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace "
+            + "WHERE n.nspname = 'public' AND c.relkind IN ('r', 'p') AND NOT c.relispartition "
+            + "ORDER BY c.relname";
         
-        try (ResultSet rs = metaData.getTables(null, "public", "%", new String[]{"TABLE"})) {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                String tableName = rs.getString("TABLE_NAME");
+                String tableName = rs.getString(1);
                 // Bỏ qua bảng Flyway migration
                 if (!tableName.equals("flyway_schema_history")) {
                     tables.add(tableName);
@@ -109,282 +550,650 @@ public class BackupService {
     }
     
     /**
-     * Export dữ liệu từ một bảng
+     * Ước lượng số dòng từ thống kê của PostgreSQL (pg_class.reltuples) để tính ETA;
+     * bảng phân vùng được tính bằng tổng các partition
      */
-    private List<Map<String, Object>> exportTable(Connection conn, String tableName) throws SQLException {
-        List<Map<String, Object>> rows = new ArrayList<>();
+    private long estimateRows(Connection conn, Collection<String> tables) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(GREATEST(c.reltuples, 0)), 0) FROM pg_class c "
+            + "JOIN pg_namespace n ON n.oid = c.relnamespace "
+            + "WHERE n.nspname = 'public' AND (c.relname = ANY (?) OR c.oid IN ("
+            + "SELECT i.inhrelid FROM pg_inherits i JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ANY (?)))";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("text", tables.toArray()));
+            stmt.setArray(2, conn.createArrayOf("text", tables.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+    
+    /**
+     * Export dữ liệu từ một bảng, ghi trực tiếp từng dòng ra generator
+     */
+    private TableExportStats exportTable(Connection conn, String tableName, String condition, Timestamp since,
+                                         JsonGenerator generator, CountingOutputStream out,
+                                         BackupProgress progress) throws SQLException, IOException {
+        long startedAt = System.currentTimeMillis();
+        generator.flush();
+        long bytesBefore = out.getCount();
+        long rowCount = 0;
         
-        String query = "SELECT * FROM " + tableName;
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
+        String query = "SELECT * FROM " + tableName + (condition != null ? " WHERE " + condition : "");
+        try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize);
+            if (condition != null) {
+                stmt.setTimestamp(1, since);
+            }
             
-            while (rs.next()) {
-                Map<String, Object> row = new LinkedHashMap<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                String[] columnNames = new String[columnCount];
                 for (int i = 1; i <= columnCount; i++) {
-                    String columnName = metaData.getColumnName(i);
-                    Object value = rs.getObject(i);
-                    row.put(columnName, value);
+                    columnNames[i - 1] = metaData.getColumnName(i);
+                }
+                ColumnCodec[] codecs = ColumnCodecs.forResultSet(metaData);
+                
+                generator.writeStartArray();
+                while (rs.next()) {
+                    generator.writeStartObject();
+                    for (int i = 1; i <= columnCount; i++) {
+                        generator.writeFieldName(columnNames[i - 1]);
+                        codecs[i - 1].write(generator, rs, i);
+                    }
+                    generator.writeEndObject();
+                    
+                    // Cập nhật tiến độ và kiểm tra hủy sau mỗi lần fetch
+                    if (++rowCount % fetchSize == 0) {
+                        progress.addRows(fetchSize);
+                        progress.checkCancelled();
+                    }
                 }
-                rows.add(row);
+                generator.writeEndArray();
+                progress.addRows(rowCount % fetchSize);
             }
         }
         
-        return rows;
+        generator.flush();
+        return new TableExportStats(tableName, rowCount, out.getCount() - bytesBefore,
+            System.currentTimeMillis() - startedAt);
+    }
+    
+    /**
+     * Ghi danh sách khóa hiện có của bảng (dùng để phát hiện dòng bị xóa khi restore incremental)
+     */
+    private void exportKeys(Connection conn, String tableName, String keyColumn, JsonGenerator generator,
+                            BackupProgress progress) throws SQLException, IOException {
+        progress.checkCancelled();
+        String query = "SELECT " + keyColumn + " FROM " + tableName;
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize * 10);
+            
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                ColumnCodec codec = ColumnCodecs.forResultSet(rs.getMetaData())[0];
+                generator.writeStartArray();
+                while (rs.next()) {
+                    codec.write(generator, rs, 1);
+                }
+                generator.writeEndArray();
+            }
+        }
     }
     
     /**
      * Khôi phục database từ file JSON backup
      */
     public void restoreBackup(String filename) throws IOException, SQLException {
+        restoreBackup(filename, new BackupProgress());
+    }
+    
+    /**
+     * Khôi phục database và cập nhật tiến độ vào progress
+     */
+    public void restoreBackup(String filename, BackupProgress progress) throws IOException, SQLException {
         Path filepath = Paths.get(backupDirectory).resolve(filename);
         if (!Files.exists(filepath)) {
             throw new FileNotFoundException("Backup file not found: " + filename);
         }
         
-        logger.info("Starting restore from: {}", filename);
-        
-        // Đọc file JSON
-        Map<String, Object> backupData;
-        try (FileInputStream fis = new FileInputStream(filepath.toFile());
-             GZIPInputStream gzis = new GZIPInputStream(fis);
-             InputStreamReader reader = new InputStreamReader(gzis)) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> temp = (Map<String, Object>) objectMapper.readValue(reader, Map.class);
-            backupData = temp;
+        restoreFromFile(filepath, progress);
+    }
+    
+    /**
+     * Import các bảng khi parser đang đứng ở object "tables" của file JSON.
+     * Mỗi bảng được xóa rồi nạp lại ngay khi đọc tới, không giữ cả file trong bộ nhớ.
+     */
+    private void importTables(Connection conn, JsonParser parser, BackupProgress progress) throws IOException, SQLException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String tableName = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Invalid backup format: table " + tableName + " is not an array");
+            }
+            importTableData(conn, tableName, parser, progress);
+        }
+    }
+    
+    /**
+     * Import các bảng từ archive .zip theo thứ tự trong manifest.
+     * Bảng FULL được xóa và nạp lại; bảng DELTA được upsert theo khóa rồi xóa các dòng
+     * không còn trong danh sách khóa.
+     */
+    private void importArchive(Connection conn, Path filepath, BackupProgress progress) throws IOException, SQLException {
+        try (ZipFile zip = new ZipFile(filepath.toFile())) {
+            BackupManifest manifest = readManifest(zip);
+            logger.info("Applying {} archive: {}", manifest.getType(), filepath.getFileName());
+            
+            for (BackupManifest.TableEntry table : manifest.getTables()) {
+                applyArchiveTable(conn, zip, table, progress);
+            }
+        }
+    }
+    
+    /**
+     * Nạp một bảng của archive: bảng FULL được xóa và nạp lại, bảng DELTA được upsert
+     */
+    private void applyArchiveTable(Connection conn, ZipFile zip, BackupManifest.TableEntry table,
+                                   BackupProgress progress) throws IOException, SQLException {
+        try (JsonParser parser = openArchiveArray(zip, table.getEntry())) {
+            if (table.getMode() != BackupManifest.TableMode.DELTA) {
+                importTableData(conn, table.getName(), parser, progress);
+                return;
+            }
+            
+            long startedAt = System.currentTimeMillis();
+            long rowCount = importTable(conn, table.getName(), parser, table.getKeyColumn(), progress);
+            long deleted = 0;
+            if (table.getKeysEntry() != null) {
+                try (JsonParser keysParser = openArchiveArray(zip, table.getKeysEntry())) {
+                    deleted = deleteMissingKeys(conn, table.getName(), table.getKeyColumn(), keysParser);
+                }
+            }
+            progress.tableCompleted();
+            logger.info("Applied changes to table: {} ({} upserted, {} deleted, {} ms)",
+                table.getName(), rowCount, deleted, System.currentTimeMillis() - startedAt);
+        }
+    }
+    
+    /**
+     * Restore song song một chuỗi archive theo level của đồ thị foreign key.
+     * Các worker (backup.restore.parallel-threads connection) nạp vào schema tạm gồm các bảng UNLOGGED
+     * cùng cấu trúc, không có foreign key; mỗi bảng luôn dùng cùng một connection để các bản incremental
+     * sau không phải chờ khóa của transaction khác. Sau khi nạp xong cả chuỗi, một transaction duy nhất
+     * thay dữ liệu bảng thật bằng dữ liệu trong schema tạm và kiểm tra foreign key trước khi commit,
+     * nên lỗi nạp, lỗi commit hay vi phạm foreign key đều để database nguyên như cũ.
+     */
+    private void restoreArchivesParallel(List<Path> chain, BackupProgress progress) throws IOException, SQLException {
+        // Lần xuất hiện đầu tiên của mỗi bảng trong chuỗi và khóa upsert (nếu có bản DELTA)
+        Map<String, BackupManifest.TableEntry> firstEntries = new LinkedHashMap<>();
+        Map<String, String> upsertKeys = new HashMap<>();
+        for (Path archive : chain) {
+            for (BackupManifest.TableEntry table : readManifest(archive).getTables()) {
+                firstEntries.putIfAbsent(table.getName(), table);
+                if (table.getMode() == BackupManifest.TableMode.DELTA) {
+                    upsertKeys.put(table.getName(), table.getKeyColumn());
+                }
+            }
         }
         
-        @SuppressWarnings("unchecked")
-        Map<String, List<Map<String, Object>>> tablesData = 
-            (Map<String, List<Map<String, Object>>>) backupData.get("tables");
+        List<String> staged = new ArrayList<>();
+        String stage = "backup_restore_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        try {
+            TableDependencyGraph graph;
+            try (Connection conn = dataSource.getConnection()) {
+                // Schema tạm phải được commit trước để các worker nhìn thấy (pool mặc định auto-commit=false)
+                conn.setAutoCommit(true);
+                graph = TableDependencyGraph.load(conn, getTableNames(conn));
+                for (String table : graph.getOrder()) {
+                    if (firstEntries.containsKey(table)) {
+                        staged.add(table);
+                    }
+                }
+                createStagingTables(conn, stage, staged, firstEntries, upsertKeys);
+            }
+            if (!graph.getCyclicTables().isEmpty()) {
+                logger.warn("Tables in foreign key cycles are restored in the last level: {}", graph.getCyclicTables());
+            }
+            
+            loadStagingTables(chain, graph, stage, progress);
+            publishStagingTables(stage, staged, progress);
+        } finally {
+            dropStagingSchema(stage);
+        }
+    }
+    
+    /**
+     * Tạo schema tạm với một bảng UNLOGGED (LIKE bảng thật, không foreign key/trigger) cho mỗi bảng sẽ restore.
+     * Bảng có bản DELTA được thêm unique index trên khóa để upsert; bảng mà chuỗi bắt đầu bằng DELTA
+     * (bảng mới sau bản full gốc) được chép sẵn dữ liệu hiện tại để upsert lên như restore tuần tự.
+     */
+    private void createStagingTables(Connection conn, String stage, List<String> tables,
+                                     Map<String, BackupManifest.TableEntry> firstEntries,
+                                     Map<String, String> upsertKeys) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE SCHEMA " + stage);
+            for (String table : tables) {
+                stmt.execute(String.format("CREATE UNLOGGED TABLE %s.%s (LIKE public.%s INCLUDING DEFAULTS)",
+                    stage, table, table));
+                String key = upsertKeys.get(table);
+                if (key != null) {
+                    stmt.execute(String.format("CREATE UNIQUE INDEX ON %s.%s (%s)", stage, table, key));
+                }
+                if (firstEntries.get(table).getMode() == BackupManifest.TableMode.DELTA) {
+                    String columns = String.join(", ", getInsertableColumns(conn, table));
+                    stmt.execute(String.format("INSERT INTO %s.%s (%s) SELECT %s FROM public.%s",
+                        stage, table, columns, columns, table));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Nạp cả chuỗi archive vào schema tạm, các bảng trong cùng level chạy song song.
+     * Worker đặt search_path = schema tạm trong transaction của mình nên importTable/clearTable/deleteMissingKeys
+     * ghi vào bảng tạm; dữ liệu tạm chỉ được commit khi mọi bảng đã nạp xong.
+     */
+    private void loadStagingTables(List<Path> chain, TableDependencyGraph graph, String stage,
+                                   BackupProgress progress) throws IOException, SQLException {
+        List<String> order = graph.getOrder();
+        List<Connection> connections = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(restoreThreads,
+            new CustomizableThreadFactory("backup-restore-"));
+        boolean committed = false;
         
+        try {
+            for (int i = 0; i < restoreThreads; i++) {
+                Connection conn = dataSource.getConnection();
+                connections.add(conn);
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement()) {
+                    // SET LOCAL: tự hết hiệu lực khi transaction kết thúc, connection trả về pool sạch
+                    stmt.execute("SET LOCAL search_path TO " + stage + ", public");
+                    // search_path bỏ qua schema không tồn tại: không được để worker ghi thẳng vào bảng thật
+                    try (ResultSet rs = stmt.executeQuery("SELECT current_schema()")) {
+                        if (!rs.next() || !stage.equals(rs.getString(1))) {
+                            throw new SQLException("Restore staging schema is not visible: " + stage);
+                        }
+                    }
+                }
+            }
+            
+            for (Path archive : chain) {
+                try (ZipFile zip = new ZipFile(archive.toFile())) {
+                    BackupManifest manifest = readManifest(zip);
+                    logger.info("Applying {} archive in parallel: {} ({} levels, {} threads)",
+                        manifest.getType(), archive.getFileName(), graph.getLevels().size(), restoreThreads);
+                    
+                    Map<String, BackupManifest.TableEntry> entries = new LinkedHashMap<>();
+                    for (BackupManifest.TableEntry table : manifest.getTables()) {
+                        entries.put(table.getName(), table);
+                    }
+                    List<List<String>> levels = new ArrayList<>(graph.getLevels());
+                    List<String> unknown = new ArrayList<>(entries.keySet());
+                    unknown.removeAll(order);
+                    if (!unknown.isEmpty()) {
+                        // Bảng không còn trong database: để importTable báo lỗi như restore tuần tự
+                        levels.add(unknown);
+                    }
+                    
+                    for (List<String> level : levels) {
+                        List<Future<Void>> futures = new ArrayList<>();
+                        for (String tableName : level) {
+                            BackupManifest.TableEntry table = entries.get(tableName);
+                            if (table == null) {
+                                continue;
+                            }
+                            int slot = Math.floorMod(order.contains(tableName) ? order.indexOf(tableName) : tableName.hashCode(),
+                                connections.size());
+                            Connection conn = connections.get(slot);
+                            futures.add(executor.submit(() -> {
+                                synchronized (conn) {
+                                    applyArchiveTable(conn, zip, table, progress);
+                                }
+                                return null;
+                            }));
+                        }
+                        for (Future<Void> future : futures) {
+                            awaitWorker(future);
+                        }
+                    }
+                }
+            }
+            
+            for (Connection conn : connections) {
+                conn.commit();
+            }
+            committed = true;
+        } finally {
+            shutdownExecutor(executor);
+            for (Connection conn : connections) {
+                try {
+                    if (!committed) {
+                        conn.rollback();
+                    }
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.warn("Failed to release restore connection", e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Thay dữ liệu các bảng thật bằng bảng tạm trong một transaction, kiểm tra foreign key rồi mới commit
+     */
+    private void publishStagingTables(String stage, List<String> tables, BackupProgress progress)
+            throws IOException, SQLException {
+        long startedAt = System.currentTimeMillis();
         try (Connection conn = dataSource.getConnection()) {
             conn.setAutoCommit(false);
-            
             try {
-                // Xóa dữ liệu cũ (theo thứ tự để tránh foreign key constraint)
-                deleteAllData(conn, tablesData.keySet());
-                
-                // Import dữ liệu mới theo thứ tự dependency
-                List<String> orderedTables = getTableImportOrder(tablesData.keySet());
-                logger.info("Tables to import: {}", orderedTables);
-                for (String tableName : orderedTables) {
-                    List<Map<String, Object>> rows = tablesData.get(tableName);
-                    if (rows != null) {
-                        logger.info("Importing table: {} with {} rows", tableName, rows.size());
-                        importTable(conn, tableName, rows);
-                        logger.info("Imported table: {} ({} rows)", tableName, rows.size());
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SET LOCAL session_replication_role = 'replica'");
+                }
+                for (String table : tables) {
+                    progress.checkCancelled();
+                    clearTable(conn, table);
+                    String columns = String.join(", ", getInsertableColumns(conn, table));
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.executeUpdate(String.format("INSERT INTO public.%s (%s) SELECT %s FROM %s.%s",
+                            table, columns, columns, stage, table));
                     }
                 }
-                
+                validateForeignKeys(conn);
                 conn.commit();
-                logger.info("Restore completed successfully");
+                logger.info("Published {} restored tables in {} ms", tables.size(), System.currentTimeMillis() - startedAt);
             } catch (Exception e) {
                 conn.rollback();
-                logger.error("Restore failed, rolled back", e);
                 throw e;
             }
         }
     }
     
     /**
-     * Xóa toàn bộ dữ liệu từ các bảng
+     * Các cột ghi được của bảng thật (bỏ cột đã xóa và cột generated), theo thứ tự trong bảng
+     */
+    private List<String> getInsertableColumns(Connection conn, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT attname FROM pg_attribute WHERE attrelid = ?::regclass AND attnum > 0 "
+                    + "AND NOT attisdropped AND attgenerated = '' ORDER BY attnum")) {
+            stmt.setString(1, "public." + table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    columns.add(rs.getString(1));
+                }
+            }
+        }
+        return columns;
+    }
+    
+    private void dropStagingSchema(String stage) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(true);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP SCHEMA IF EXISTS " + stage + " CASCADE");
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to drop restore staging schema {}", stage, e);
+        }
+    }
+    
+    /**
+     * Kiểm tra toàn bộ foreign key một lần sau khi nạp dữ liệu với session_replication_role = replica
+     * (lúc nạp không có trigger kiểm tra constraint). Dòng vi phạm được đếm bằng anti-join.
      */
-    private void deleteAllData(Connection conn, Set<String> tables) throws SQLException {
-        // Tắt foreign key checks tạm thời
+    private void validateForeignKeys(Connection conn) throws SQLException {
+        long startedAt = System.currentTimeMillis();
+        TableDependencyGraph graph = TableDependencyGraph.load(conn, getTableNames(conn));
+        List<String> violations = new ArrayList<>();
+        
         try (Statement stmt = conn.createStatement()) {
-            stmt.execute("SET session_replication_role = 'replica'");
-            
-            for (String table : tables) {
-                // Skip tables with JSONB columns due to complexity
-                if (!table.equals("ai_audit_logs") && !table.equals("paper_synopses") && 
-                    !table.equals("email_drafts") && !table.equals("user_activity_history") &&
-                    !table.equals("ai_feature_flags")) {
-                    stmt.execute("DELETE FROM " + table);
-                    logger.info("Cleared table: {}", table);
-                } else {
-                    logger.warn("Skipped clearing table {} due to JSONB complexity", table);
+            for (TableDependencyGraph.ForeignKey fk : graph.getForeignKeys()) {
+                try (ResultSet rs = stmt.executeQuery(buildForeignKeyCheck(fk))) {
+                    rs.next();
+                    long count = rs.getLong(1);
+                    if (count > 0) {
+                        violations.add(String.format("%s.%s -> %s (%d rows)", fk.table(), fk.name(), fk.referencedTable(), count));
+                    }
                 }
             }
-            
-            stmt.execute("SET session_replication_role = 'origin'");
         }
+        
+        if (!violations.isEmpty()) {
+            throw new SQLException("Foreign key violations after restore: " + String.join(", ", violations), "23503");
+        }
+        logger.info("Validated {} foreign keys in {} ms", graph.getForeignKeys().size(),
+            System.currentTimeMillis() - startedAt);
+    }
+    
+    private String buildForeignKeyCheck(TableDependencyGraph.ForeignKey fk) {
+        List<String> notNull = new ArrayList<>();
+        List<String> join = new ArrayList<>();
+        for (int i = 0; i < fk.columns().size(); i++) {
+            notNull.add("c." + fk.columns().get(i) + " IS NOT NULL");
+            join.add("p." + fk.referencedColumns().get(i) + " = c." + fk.columns().get(i));
+        }
+        // MATCH SIMPLE: dòng có cột khóa NULL không cần tham chiếu
+        return String.format("SELECT COUNT(*) FROM %s c WHERE %s AND NOT EXISTS (SELECT 1 FROM %s p WHERE %s)",
+            fk.table(), String.join(" AND ", notNull), fk.referencedTable(), String.join(" AND ", join));
     }
     
     /**
-     * Import dữ liệu vào một bảng
+     * Mở một entry JSON nén (.json.gz/.json.zst) trong archive, parser đứng ở đầu mảng
      */
-    private void importTable(Connection conn, String tableName, List<Map<String, Object>> rows) throws SQLException {
-        logger.info("Starting import for table: {} with {} rows", tableName, rows.size());
+    private JsonParser openArchiveArray(ZipFile zip, String entryName) throws IOException {
+        ZipEntry entry = zip.getEntry(entryName);
+        if (entry == null) {
+            throw new IOException("Invalid backup archive: missing entry " + entryName);
+        }
         
-        if (rows.isEmpty()) {
-            logger.info("Table {} is empty, skipping", tableName);
-            return;
+        JsonParser parser = objectMapper.getFactory().createParser(
+            decompress(entryName, new BufferedInputStream(zip.getInputStream(entry), BUFFER_SIZE)));
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("Invalid backup format: entry " + entryName + " is not an array");
+        }
+        return parser;
+    }
+    
+    /**
+     * Xóa các dòng có khóa không nằm trong danh sách khóa của backup incremental
+     */
+    private long deleteMissingKeys(Connection conn, String tableName, String keyColumn, JsonParser parser)
+            throws IOException, SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TEMP TABLE IF NOT EXISTS backup_keys (k TEXT) ON COMMIT DROP");
+            stmt.execute("TRUNCATE backup_keys");
         }
         
-        // Skip ai_audit_logs due to JSONB complexity
-        if (tableName.equals("ai_audit_logs") || tableName.equals("paper_synopses") || 
-            tableName.equals("email_drafts") || tableName.equals("user_activity_history") ||
-            tableName.equals("ai_feature_flags")) {
-            logger.warn("Skipping table {} due to JSONB complexity", tableName);
-            return;
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO backup_keys (k) VALUES (?)")) {
+            int pending = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                pstmt.setString(1, parser.getValueAsString());
+                pstmt.addBatch();
+                if (++pending >= batchSize) {
+                    pstmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                pstmt.executeBatch();
+            }
+        }
+        
+        try (Statement stmt = conn.createStatement()) {
+            return stmt.executeUpdate(String.format(
+                "DELETE FROM %s t WHERE NOT EXISTS (SELECT 1 FROM backup_keys k WHERE k.k = t.%s::text)",
+                tableName, keyColumn));
+        }
+    }
+    
+    private BackupManifest readManifest(ZipFile zip) throws IOException {
+        ZipEntry manifestEntry = zip.getEntry(MANIFEST_ENTRY);
+        if (manifestEntry == null) {
+            throw new IOException("Invalid backup archive: missing " + MANIFEST_ENTRY);
+        }
+        try (InputStream in = zip.getInputStream(manifestEntry)) {
+            return objectMapper.readValue(in, BackupManifest.class);
+        }
+    }
+    
+    private BackupManifest readManifest(Path filepath) throws IOException {
+        try (ZipFile zip = new ZipFile(filepath.toFile())) {
+            return readManifest(zip);
+        }
+    }
+    
+    /**
+     * Dựng chuỗi backup từ bản full gốc tới archive được chọn (theo parent trong manifest)
+     */
+    private List<Path> resolveChain(Path filepath) throws IOException {
+        LinkedList<Path> chain = new LinkedList<>();
+        Path current = filepath;
+        
+        while (true) {
+            if (chain.contains(current)) {
+                throw new IOException("Backup chain contains a cycle at " + current.getFileName());
+            }
+            chain.addFirst(current);
+            
+            BackupManifest manifest = readManifest(current);
+            if (manifest.getType() != BackupManifest.BackupType.INCREMENTAL) {
+                return chain;
+            }
+            if (manifest.getParent() == null) {
+                throw new IOException("Incremental backup has no parent: " + current.getFileName());
+            }
+            
+            current = Paths.get(backupDirectory).resolve(manifest.getParent());
+            if (!Files.exists(current)) {
+                throw new FileNotFoundException("Parent backup not found: " + manifest.getParent());
+            }
+        }
+    }
+    
+    /**
+     * Tìm archive mới nhất có high-water mark để làm parent cho backup incremental
+     */
+    private Optional<ChainLink> findLatestArchive() throws IOException {
+        for (BackupInfo info : listBackups()) {
+            if (info.getType() != null && info.getHighWaterMark() != null) {
+                Path path = Paths.get(backupDirectory).resolve(info.getName());
+                return Optional.of(new ChainLink(info.getName(), readManifest(path)));
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Xóa và nạp lại một bảng, parser đang đứng ở đầu mảng rows
+     */
+    private void importTableData(Connection conn, String tableName, JsonParser parser, BackupProgress progress)
+            throws IOException, SQLException {
+        long startedAt = System.currentTimeMillis();
+        clearTable(conn, tableName);
+        long rowCount = importTable(conn, tableName, parser, null, progress);
+        progress.tableCompleted();
+        logger.info("Imported table: {} ({} rows, {} ms)", tableName, rowCount,
+            System.currentTimeMillis() - startedAt);
+    }
+    
+    /**
+     * Xóa dữ liệu cũ của một bảng trước khi import
+     */
+    private void clearTable(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM " + table);
+            logger.info("Cleared table: {}", table);
+        }
+    }
+    
+    /**
+     * Import dữ liệu vào một bảng khi parser đang đứng ở đầu mảng rows.
+     * Các dòng được gom thành batch (backup.restore.batch-size) rồi executeBatch.
+     * Nếu có conflictKey thì dùng INSERT ... ON CONFLICT DO UPDATE (upsert).
+     */
+    private long importTable(Connection conn, String tableName, JsonParser parser, String conflictKey,
+                             BackupProgress progress) throws IOException, SQLException {
+        if (parser.nextToken() == JsonToken.END_ARRAY) {
+            logger.info("Table {} is empty, skipping", tableName);
+            return 0;
         }
         
         // Lấy danh sách cột từ row đầu tiên
-        Map<String, Object> firstRow = rows.get(0);
-        List<String> columns = new ArrayList<>(firstRow.keySet());
+        JsonNode firstRow = objectMapper.readTree(parser);
+        List<String> columns = new ArrayList<>();
+        firstRow.fieldNames().forEachRemaining(columns::add);
         
-        // Lấy metadata của bảng để biết kiểu dữ liệu của từng cột
-        Map<String, String> columnTypes = getColumnTypes(conn, tableName);
+        // Chọn codec cho từng cột theo metadata của bảng (JSONB, mảng, timestamp, enum...)
+        Map<String, ColumnCodec> columnCodecs = getColumnCodecs(conn, tableName);
+        ColumnCodec[] codecs = new ColumnCodec[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            codecs[i] = columnCodecs.getOrDefault(columns.get(i).toLowerCase(), ColumnCodecs.generic());
+        }
         
-        // Tạo INSERT statement với cast cho JSONB columns
         String columnList = String.join(", ", columns);
-        StringBuilder placeholderBuilder = new StringBuilder();
-        for (int i = 0; i < columns.size(); i++) {
-            if (i > 0) placeholderBuilder.append(", ");
-            String columnName = columns.get(i);
-            String columnType = columnTypes.get(columnName.toLowerCase());
-            
-            if (columnType != null && (columnType.contains("jsonb") || columnType.contains("json"))) {
-                placeholderBuilder.append("CAST(? AS JSONB)");
-            } else {
-                placeholderBuilder.append("?");
-            }
+        String placeholders = Arrays.stream(codecs)
+            .map(ColumnCodec::placeholder)
+            .collect(Collectors.joining(", "));
+        String sql = String.format("INSERT INTO %s (%s) VALUES (%s)", tableName, columnList, placeholders);
+        if (conflictKey != null) {
+            String updates = columns.stream()
+                .filter(column -> !column.equalsIgnoreCase(conflictKey))
+                .map(column -> column + " = EXCLUDED." + column)
+                .collect(Collectors.joining(", "));
+            sql += " ON CONFLICT (" + conflictKey + ") DO " + (updates.isEmpty() ? "NOTHING" : "UPDATE SET " + updates);
         }
-        String sql = String.format("INSERT INTO %s (%s) VALUES (%s)", tableName, columnList, placeholderBuilder.toString());
         
+        long rowCount = 0;
+        int pending = 0;
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            for (Map<String, Object> row : rows) {
+            JsonNode row = firstRow;
+            while (row != null) {
                 for (int i = 0; i < columns.size(); i++) {
-                    String columnName = columns.get(i);
-                    Object value = row.get(columnName);
-                    String columnType = columnTypes.get(columnName.toLowerCase());
-                    
-                    // Xử lý các kiểu dữ liệu đặc biệt
-                    if (value != null && columnType != null) {
-                        if (columnType.contains("timestamp")) {
-                            // Chuyển đổi timestamp từ các định dạng khác nhau
-                            if (value instanceof Number) {
-                                // Nếu là số (milliseconds hoặc seconds)
-                                long timestamp = ((Number) value).longValue();
-                                if (timestamp > 1000000000000L) {
-                                    // Milliseconds
-                                    value = new Timestamp(timestamp);
-                                } else {
-                                    // Seconds
-                                    value = new Timestamp(timestamp * 1000);
-                                }
-                            } else if (value instanceof String) {
-                                // Nếu là string, thử parse
-                                try {
-                                    value = Timestamp.valueOf((String) value);
-                                } catch (Exception e) {
-                                    // Nếu không parse được, để nguyên
-                                }
-                            }
-                        } else if (columnType.contains("date")) {
-                            // Xử lý kiểu date
-                            if (value instanceof Number) {
-                                // Nếu là số (milliseconds hoặc seconds)
-                                long timestamp = ((Number) value).longValue();
-                                if (timestamp > 1000000000000L) {
-                                    // Milliseconds
-                                    value = new java.sql.Date(timestamp);
-                                } else {
-                                    // Seconds
-                                    value = new java.sql.Date(timestamp * 1000);
-                                }
-                            } else if (value instanceof String) {
-                                // Nếu là string, thử parse
-                                try {
-                                    value = java.sql.Date.valueOf((String) value);
-                                } catch (Exception e) {
-                                    // Nếu không parse được, để nguyên
-                                }
-                            }
-                        } else if (columnType.contains("jsonb") || columnType.contains("json")) {
-                            // Xử lý JSONB - chuyển đổi từ nested object thành JSON string
-                            if (value instanceof Map) {
-                                @SuppressWarnings("unchecked")
-                                Map<String, Object> jsonMap = (Map<String, Object>) value;
-                                
-                                // Kiểm tra nếu có cấu trúc đặc biệt từ backup
-                                if (jsonMap.containsKey("type") && "jsonb".equals(jsonMap.get("type"))) {
-                                    // Lấy giá trị thực từ trường "value"
-                                    Object actualValue = jsonMap.get("value");
-                                    if (actualValue instanceof String) {
-                                        value = actualValue; // Đã là JSON string
-                                    } else {
-                                        try {
-                                            value = objectMapper.writeValueAsString(actualValue);
-                                        } catch (Exception e) {
-                                            logger.warn("Failed to serialize nested JSON value: " + e.getMessage());
-                                            value = actualValue.toString();
-                                        }
-                                    }
-                                } else {
-                                    // Map thông thường, serialize thành JSON
-                                    try {
-                                        value = objectMapper.writeValueAsString(jsonMap);
-                                    } catch (Exception e) {
-                                        logger.warn("Failed to serialize JSON map: " + e.getMessage());
-                                        value = jsonMap.toString();
-                                    }
-                                }
-                            } else if (value instanceof List) {
-                                // List, serialize thành JSON
-                                try {
-                                    value = objectMapper.writeValueAsString(value);
-                                } catch (Exception e) {
-                                    logger.warn("Failed to serialize JSON list: " + e.getMessage());
-                                    value = value.toString();
-                                }
-                            } else if (value instanceof String) {
-                                // Đã là string, kiểm tra xem có phải JSON hợp lệ không
-                                String strValue = (String) value;
-                                try {
-                                    // Thử parse để validate JSON
-                                    objectMapper.readTree(strValue);
-                                    // Nếu parse được thì để nguyên
-                                } catch (Exception e) {
-                                    // Nếu không phải JSON hợp lệ, wrap trong quotes
-                                    value = "\"" + strValue.replace("\"", "\\\"") + "\"";
-                                }
-                            }
-                            // Để PostgreSQL tự động cast string thành JSONB
-                        }
-                    }
-                    
-                    pstmt.setObject(i + 1, value);
+                    codecs[i].bind(pstmt, i + 1, row.get(columns.get(i)));
                 }
                 pstmt.addBatch();
+                rowCount++;
+                
+                if (++pending >= batchSize) {
+                    pstmt.executeBatch();
+                    progress.addRows(pending);
+                    progress.checkCancelled();
+                    pending = 0;
+                }
+                
+                row = parser.nextToken() == JsonToken.START_OBJECT ? objectMapper.readTree(parser) : null;
+            }
+            
+            if (pending > 0) {
+                pstmt.executeBatch();
+                progress.addRows(pending);
             }
-            pstmt.executeBatch();
         }
+        
+        return rowCount;
     }
     
     /**
-     * Lấy kiểu dữ liệu của các cột trong bảng
+     * Lấy codec cho các cột trong bảng (key là tên cột viết thường)
      */
-    private Map<String, String> getColumnTypes(Connection conn, String tableName) throws SQLException {
-        Map<String, String> columnTypes = new HashMap<>();
+    private Map<String, ColumnCodec> getColumnCodecs(Connection conn, String tableName) throws SQLException {
+        Map<String, ColumnCodec> columnCodecs = new HashMap<>();
         DatabaseMetaData metaData = conn.getMetaData();
         
         try (ResultSet rs = metaData.getColumns(null, "public", tableName, null)) {
             while (rs.next()) {
                 String columnName = rs.getString("COLUMN_NAME").toLowerCase();
-                String typeName = rs.getString("TYPE_NAME").toLowerCase();
-                columnTypes.put(columnName, typeName);
+                columnCodecs.put(columnName, ColumnCodecs.of(rs.getString("TYPE_NAME"), rs.getInt("DATA_TYPE")));
             }
         }
         
-        return columnTypes;
+        return columnCodecs;
     }
     
     /**
-     * Lấy danh sách các file backup
+     * Lấy danh sách các file backup, kèm thông tin chuỗi (type/parent/base) với archive
      */
     public List<BackupInfo> listBackups() throws IOException {
         Path backupPath = Paths.get(backupDirectory);
@@ -393,23 +1202,67 @@ public class BackupService {
             return new ArrayList<>();
         }
         
-        return Files.list(backupPath)
-            .filter(path -> path.toString().endsWith(".json.gz"))
-            .map(path -> {
-                try {
-                    BackupInfo info = new BackupInfo();
-                    info.setName(path.getFileName().toString());
-                    info.setSize(Files.size(path));
-                    info.setCreatedAt(Files.getLastModifiedTime(path).toInstant());
-                    return info;
-                } catch (IOException e) {
-                    logger.error("Error reading backup file: " + path, e);
-                    return null;
-                }
-            })
-            .filter(Objects::nonNull)
-            .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-            .collect(Collectors.toList());
+        try (java.util.stream.Stream<Path> paths = Files.list(backupPath)) {
+            return paths
+                .filter(this::isBackupFile)
+                .map(this::toBackupInfo)
+                .filter(Objects::nonNull)
+                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
+                .collect(Collectors.toList());
+        }
+    }
+    
+    private BackupInfo toBackupInfo(Path path) {
+        try {
+            BackupInfo info = new BackupInfo();
+            info.setName(path.getFileName().toString());
+            info.setSize(Files.size(path));
+            info.setCreatedAt(Files.getLastModifiedTime(path).toInstant());
+            if (isArchive(path)) {
+                BackupManifest manifest = readManifest(path);
+                BackupManifest.BackupType type = manifest.getType() != null
+                    ? manifest.getType() : BackupManifest.BackupType.FULL;
+                info.setType(type.name());
+                info.setParent(manifest.getParent());
+                info.setBase(manifest.getBase());
+                info.setHighWaterMark(manifest.getHighWaterMark());
+            }
+            return info;
+        } catch (IOException e) {
+            logger.error("Error reading backup file: " + path, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Lấy chuỗi backup cần để restore một archive, từ bản full gốc tới chính nó
+     */
+    public List<BackupInfo> getBackupChain(String filename) throws IOException {
+        Path filepath = getBackupFile(filename);
+        if (!isArchive(filepath)) {
+            return List.of(toBackupInfo(filepath));
+        }
+        
+        List<BackupInfo> chain = new ArrayList<>();
+        for (Path path : resolveChain(filepath)) {
+            chain.add(toBackupInfo(path));
+        }
+        return chain;
+    }
+    
+    /**
+     * Ghi toàn bộ chuỗi backup của một archive thành một file .zip để tải về
+     */
+    public void writeBackupChain(String filename, OutputStream out) throws IOException {
+        List<Path> chain = resolveChain(getBackupFile(filename));
+        ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        for (Path path : chain) {
+            zos.putNextEntry(new ZipEntry(path.getFileName().toString()));
+            Files.copy(path, zos);
+            zos.closeEntry();
+        }
+        zos.finish();
+        zos.flush();
     }
     
     /**
@@ -431,14 +1284,58 @@ public class BackupService {
         if (!Files.exists(filepath)) {
             throw new FileNotFoundException("Backup file not found: " + filename);
         }
+        for (BackupInfo info : listBackups()) {
+            if (filename.equals(info.getParent())) {
+                throw new IllegalStateException("Backup " + filename + " is the parent of " + info.getName()
+                    + "; delete the incremental backups first");
+            }
+        }
         Files.delete(filepath);
         logger.info("Backup deleted: " + filename);
     }
     
+    /**
+     * Xóa các backup do hệ thống tạo (backup_*) không còn nằm trong chính sách giữ lại.
+     * Bỏ qua lần này nếu đang có backup/restore chạy.
+     */
+    public List<String> applyRetention(BackupRetentionPolicy policy) throws IOException {
+        if (!operationLock.tryLock()) {
+            logger.info("Backup retention skipped: another backup operation is running");
+            return List.of();
+        }
+        try {
+            List<BackupRetentionPolicy.Candidate> candidates = new ArrayList<>();
+            for (BackupInfo info : listBackups()) {
+                if (info.getName().startsWith("backup_")) {
+                    candidates.add(new BackupRetentionPolicy.Candidate(info.getName(),
+                        LocalDateTime.ofInstant(info.getCreatedAt(), ZoneId.systemDefault()), info.getParent()));
+                }
+            }
+            
+            List<String> deleted = new ArrayList<>();
+            for (String name : policy.selectToDelete(candidates)) {
+                Files.deleteIfExists(Paths.get(backupDirectory).resolve(name));
+                deleted.add(name);
+            }
+            logger.info("Backup retention: kept {}, deleted {} {}", candidates.size() - deleted.size(),
+                deleted.size(), deleted);
+            return deleted;
+        } finally {
+            operationLock.unlock();
+        }
+    }
+    
     /**
      * Upload và restore backup từ file
      */
     public void uploadAndRestore(org.springframework.web.multipart.MultipartFile file) throws IOException, SQLException {
+        restoreUpload(saveUpload(file), file.getOriginalFilename(), new BackupProgress());
+    }
+    
+    /**
+     * Lưu file upload vào file tạm trong thư mục backup (để restore chạy sau khi request kết thúc)
+     */
+    public Path saveUpload(org.springframework.web.multipart.MultipartFile file) throws IOException {
         // Tạo thư mục backup nếu chưa có
         Path backupPath = Paths.get(backupDirectory).toAbsolutePath();
         logger.info("Backup directory (absolute): {}", backupPath);
@@ -448,31 +1345,34 @@ public class BackupService {
             logger.info("Created backup directory: {}", backupPath);
         }
         
-        // Lưu file tạm
-        String filename = file.getOriginalFilename();
-        Path tempFile = backupPath.resolve("temp_" + filename);
+        // Lưu file tạm, tên duy nhất để các job upload không ghi đè lên nhau
+        String filename = Paths.get(String.valueOf(file.getOriginalFilename())).getFileName().toString();
+        Path tempFile = Files.createTempFile(backupPath, "temp_", "_" + filename);
         logger.info("Temp file path: {}", tempFile.toAbsolutePath());
         
+        try (InputStream inputStream = file.getInputStream()) {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        logger.info("Uploaded backup file to temp: {} ({} bytes)", tempFile, Files.size(tempFile));
+        return tempFile;
+    }
+    
+    /**
+     * Restore từ file upload đã lưu; thành công thì giữ lại file với tên uploaded_*, lỗi thì xóa file tạm
+     */
+    public void restoreUpload(Path tempFile, String originalFilename, BackupProgress progress)
+            throws IOException, SQLException {
         try {
-            // Save uploaded file using Files.copy instead of transferTo
-            try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
-            }
-            logger.info("Uploaded backup file to temp: {}", tempFile);
-            
-            // Verify file exists
-            if (!Files.exists(tempFile)) {
-                throw new IOException("Failed to save uploaded file to: " + tempFile);
-            }
-            logger.info("Verified temp file exists, size: {} bytes", Files.size(tempFile));
-            
-            // Restore from uploaded file
-            restoreFromFile(tempFile);
+            restoreFromFile(tempFile, progress);
             
             // Sau khi restore thành công, đổi tên file tạm thành file chính thức
+            String filename = Paths.get(String.valueOf(originalFilename)).getFileName().toString();
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
             String finalFilename = "uploaded_" + timestamp + "_" + filename;
-            Path finalPath = backupPath.resolve(finalFilename);
+            Path finalPath = tempFile.resolveSibling(finalFilename);
             Files.move(tempFile, finalPath, StandardCopyOption.REPLACE_EXISTING);
             
             logger.info("Backup uploaded and restored successfully: {}", finalFilename);
@@ -480,9 +1380,7 @@ public class BackupService {
             logger.error("Failed to upload and restore backup", e);
             // Xóa file tạm nếu có lỗi
             try {
-                if (Files.exists(tempFile)) {
-                    Files.delete(tempFile);
-                }
+                Files.deleteIfExists(tempFile);
             } catch (IOException deleteErr) {
                 logger.error("Failed to delete temp file", deleteErr);
             }
@@ -491,51 +1389,64 @@ public class BackupService {
     }
     
     /**
-     * Restore từ file path cụ thể
+     * Restore từ file path cụ thể (.json, .json.gz, .json.zst hoặc archive .zip), đọc bằng streaming JsonParser.
+     * Toàn bộ quá trình chạy trong một transaction, lỗi ở bất kỳ bảng nào sẽ rollback tất cả.
      */
-    private void restoreFromFile(Path filepath) throws IOException, SQLException {
+    private void restoreFromFile(Path filepath, BackupProgress progress) throws IOException, SQLException {
         if (!Files.exists(filepath)) {
             throw new FileNotFoundException("Backup file not found: " + filepath);
         }
         
+        lockOperation();
+        try {
+            doRestoreFromFile(filepath, progress);
+        } finally {
+            operationLock.unlock();
+        }
+    }
+    
+    private void doRestoreFromFile(Path filepath, BackupProgress progress) throws IOException, SQLException {
         logger.info("Starting restore from: {}", filepath);
+        long startedAt = System.currentTimeMillis();
+        List<Path> chain = isArchive(filepath) ? resolveChain(filepath) : List.of(filepath);
+        startRestoreProgress(chain, progress);
         
-        // Đọc file JSON
-        Map<String, Object> backupData;
-        try (FileInputStream fis = new FileInputStream(filepath.toFile());
-             InputStreamReader reader = filepath.toString().endsWith(".gz") 
-                 ? new InputStreamReader(new GZIPInputStream(fis))
-                 : new InputStreamReader(fis)) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> temp = (Map<String, Object>) objectMapper.readValue(reader, Map.class);
-            backupData = temp;
+        if (isArchive(filepath) && restoreThreads > 1) {
+            restoreArchivesParallel(chain, progress);
+            logger.info("Parallel restore completed successfully in {} ms", System.currentTimeMillis() - startedAt);
+            return;
         }
         
-        @SuppressWarnings("unchecked")
-        Map<String, List<Map<String, Object>>> tablesData = 
-            (Map<String, List<Map<String, Object>>>) backupData.get("tables");
-        
         try (Connection conn = dataSource.getConnection()) {
             conn.setAutoCommit(false);
             
             try {
-                // Xóa dữ liệu cũ
-                deleteAllData(conn, tablesData.keySet());
+                // Thứ tự bảng trong file có thể bất kỳ (backup cũ) nên tắt foreign key checks
+                // trong lúc nạp, sau đó kiểm tra lại toàn bộ foreign key một lần trước khi commit
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SET session_replication_role = 'replica'");
+                }
                 
-                // Import dữ liệu mới
-                List<String> orderedTables = getTableImportOrder(tablesData.keySet());
-                logger.info("Tables to import: {}", orderedTables);
-                for (String tableName : orderedTables) {
-                    List<Map<String, Object>> rows = tablesData.get(tableName);
-                    if (rows != null) {
-                        logger.info("Importing table: {} with {} rows", tableName, rows.size());
-                        importTable(conn, tableName, rows);
-                        logger.info("Imported table: {} ({} rows)", tableName, rows.size());
+                if (isArchive(filepath)) {
+                    // Backup incremental: restore bản full gốc rồi áp dụng lần lượt các bản incremental
+                    for (Path archive : chain) {
+                        importArchive(conn, archive, progress);
                     }
+                } else {
+                    importJsonFile(conn, filepath, progress);
+                }
+                
+                validateForeignKeys(conn);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SET session_replication_role = 'origin'");
                 }
                 
                 conn.commit();
-                logger.info("Restore completed successfully");
+                logger.info("Restore completed successfully in {} ms", System.currentTimeMillis() - startedAt);
+            } catch (BackupCancelledException e) {
+                conn.rollback();
+                logger.info("Restore cancelled, rolled back");
+                throw e;
             } catch (Exception e) {
                 conn.rollback();
                 logger.error("Restore failed, rolled back", e);
@@ -545,64 +1456,72 @@ public class BackupService {
     }
     
     /**
-     * Sắp xếp thứ tự import các bảng để tránh foreign key constraint
+     * Archive có số dòng từng bảng trong manifest nên tính được ETA; file JSON thì không
      */
-    private List<String> getTableImportOrder(Set<String> tables) {
-        List<String> orderedTables = new ArrayList<>();
-        
-        // Thứ tự ưu tiên: các bảng không có dependency trước, có dependency sau
-        String[] preferredOrder = {
-            // Core tables first (no dependencies)
-            "roles",
-            "users", 
-            "user_roles",
-            
-            // Conference related
-            "conferences",
-            "tracks",
-            
-            // Papers and submissions
-            "papers",
-            "co_authors",
-            
-            // Reviews and assignments
-            "review_assignments",
-            "reviews",
-            
-            // Decisions and notifications
-            "decisions",
-            "notifications",
-            
-            // Auth and security
-            "password_reset_tokens",
-            "otps",
-            
-            // Audit and logs
-            "audit_logs",
-            
-            // Other tables (skip ai_audit_logs due to JSONB complexity)
-            "discussions",
-            "feature_flags"
-        };
-        
-        // Add tables in preferred order if they exist
-        for (String table : preferredOrder) {
-            if (tables.contains(table)) {
-                orderedTables.add(table);
+    private void startRestoreProgress(List<Path> chain, BackupProgress progress) throws IOException {
+        int tables = 0;
+        long rows = 0;
+        for (Path path : chain) {
+            if (!isArchive(path)) {
+                continue;
+            }
+            for (BackupManifest.TableEntry table : readManifest(path).getTables()) {
+                tables++;
+                rows += table.getRows();
             }
         }
-        
-        // Add any remaining tables that weren't in the preferred order
-        // Skip tables with JSONB columns due to complexity
-        for (String table : tables) {
-            if (!orderedTables.contains(table) && 
-                !table.equals("ai_audit_logs") && !table.equals("paper_synopses") && 
-                !table.equals("email_drafts") && !table.equals("user_activity_history") &&
-                !table.equals("ai_feature_flags")) {
-                orderedTables.add(table);
+        progress.start(tables, rows);
+    }
+    
+    /**
+     * Import từ file JSON một khối (.json, .json.gz hoặc .json.zst).
+     * Không có manifest nên tiến độ chỉ đếm bảng/dòng đã nạp, không có ETA.
+     */
+    private void importJsonFile(Connection conn, Path filepath, BackupProgress progress) throws IOException, SQLException {
+        try (InputStream in = openBackupStream(filepath);
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Invalid backup format: expected JSON object");
+            }
+            
+            boolean foundTables = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("tables".equals(field) && token == JsonToken.START_OBJECT) {
+                    importTables(conn, parser, progress);
+                    foundTables = true;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            
+            if (!foundTables) {
+                throw new IOException("Invalid backup format: missing tables");
             }
         }
-        
-        return orderedTables;
+    }
+    
+    private boolean isArchive(Path filepath) {
+        return filepath.toString().endsWith(".zip");
+    }
+    
+    private boolean isBackupFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(".zip")
+            || Arrays.stream(BackupCodec.values()).anyMatch(c -> name.endsWith(".json" + c.getExtension()));
+    }
+    
+    /**
+     * Mở stream đọc file backup, giải nén theo phần mở rộng (.gz, .zst)
+     */
+    private InputStream openBackupStream(Path filepath) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(filepath.toFile()), BUFFER_SIZE);
+        return decompress(filepath.getFileName().toString(), in);
+    }
+    
+    private InputStream decompress(String name, InputStream in) throws IOException {
+        Optional<BackupCodec> entryCodec = BackupCodec.forFilename(name);
+        return entryCodec.isPresent() ? entryCodec.get().decompress(in, BUFFER_SIZE) : in;
     }
 }
@@ -0,0 +1,33 @@
+package edu.uth.backend.backup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Chuyển đổi giá trị của một kiểu cột PostgreSQL giữa JDBC và JSON trong file backup.
+ * Codec được chọn một lần cho mỗi cột (theo metadata), không phải cho mỗi giá trị.
+ */
+interface ColumnCodec {
+
+    /**
+     * Ghi giá trị cột ở vị trí index của dòng hiện tại ra JSON
+     */
+    void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException;
+
+    /**
+     * Bind giá trị JSON (có thể null hoặc NullNode) vào tham số index của câu INSERT
+     */
+    void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException;
+
+    /**
+     * Placeholder của cột trong câu INSERT (ví dụ CAST(? AS JSONB))
+     */
+    default String placeholder() {
+        return "?";
+    }
+}
@@ -0,0 +1,548 @@
+package edu.uth.backend.backup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Chọn ColumnCodec theo kiểu cột (TYPE_NAME / java.sql.Types) của PostgreSQL.
+ *
+ * Định dạng ghi ra: JSON/JSONB được nhúng nguyên văn, mảng thành mảng JSON,
+ * timestamp/date/time theo ISO-8601 (giữ microseconds và offset), bytea base64,
+ * enum và các kiểu khác dạng chuỗi. Khi đọc vẫn chấp nhận định dạng cũ
+ * (epoch milliseconds, PGobject {"type","value","null"}).
+ */
+final class ColumnCodecs {
+
+    private static final Set<String> INTEGER_TYPES = Set.of("int2", "int4", "int8", "serial", "bigserial", "smallserial", "oid");
+    private static final Set<String> FLOAT_TYPES = Set.of("float4", "float8");
+    private static final Set<String> JSON_TYPES = Set.of("json", "jsonb");
+    private static final Set<String> TEXT_TYPES = Set.of("varchar", "text", "bpchar", "char", "name", "citext");
+    private static final Pattern SIMPLE_TYPE_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final ColumnCodec STRING = new StringCodec();
+    private static final ColumnCodec INTEGER = new IntegerCodec();
+    private static final ColumnCodec DECIMAL = new DecimalCodec();
+    private static final ColumnCodec FLOAT = new FloatCodec();
+    private static final ColumnCodec BOOLEAN = new BooleanCodec();
+    private static final ColumnCodec TIMESTAMP = new TimestampCodec();
+    private static final ColumnCodec TIMESTAMPTZ = new TimestampTzCodec();
+    private static final ColumnCodec DATE = new DateCodec();
+    private static final ColumnCodec TIME = new TimeCodec();
+    private static final ColumnCodec BYTES = new BytesCodec();
+    private static final ColumnCodec GENERIC = new GenericCodec();
+
+    private ColumnCodecs() {
+    }
+
+    /**
+     * Codec cho các cột của một ResultSet (khi export)
+     */
+    static ColumnCodec[] forResultSet(ResultSetMetaData metaData) throws SQLException {
+        ColumnCodec[] codecs = new ColumnCodec[metaData.getColumnCount()];
+        for (int i = 1; i <= codecs.length; i++) {
+            codecs[i - 1] = of(metaData.getColumnTypeName(i), metaData.getColumnType(i));
+        }
+        return codecs;
+    }
+
+    /**
+     * Codec cho một kiểu cột PostgreSQL
+     */
+    static ColumnCodec of(String typeName, int sqlType) {
+        String type = typeName == null ? "" : typeName.toLowerCase();
+
+        if (JSON_TYPES.contains(type)) {
+            return new JsonCodec(type);
+        }
+        if (sqlType == Types.ARRAY || type.startsWith("_")) {
+            return new ArrayCodec(type.startsWith("_") ? type.substring(1) : "text");
+        }
+        if (type.equals("timestamptz") || sqlType == Types.TIMESTAMP_WITH_TIMEZONE) {
+            return TIMESTAMPTZ;
+        }
+        if (INTEGER_TYPES.contains(type)) {
+            return INTEGER;
+        }
+        if (FLOAT_TYPES.contains(type)) {
+            return FLOAT;
+        }
+
+        switch (sqlType) {
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            case Types.DATE:
+                return DATE;
+            case Types.TIME:
+                return TIME;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return DECIMAL;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return BYTES;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+                // Enum được driver báo là VARCHAR, cần CAST khi insert
+                return TEXT_TYPES.contains(type) || type.isEmpty() ? STRING : new CastStringCodec(type);
+            case Types.OTHER:
+            case Types.DISTINCT:
+            case Types.STRUCT:
+                // uuid, enum do người dùng định nghĩa, inet, interval...: ghi dạng chuỗi, cast khi insert
+                return new CastStringCodec(type);
+            default:
+                return GENERIC;
+        }
+    }
+
+    /**
+     * Codec mặc định cho cột không tìm thấy trong metadata
+     */
+    static ColumnCodec generic() {
+        return GENERIC;
+    }
+
+    /**
+     * Ghi giá trị bất kỳ từ rs.getObject (dùng cho kiểu không có codec riêng)
+     */
+    static void writeObject(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String str) {
+            generator.writeString(str);
+        } else if (value instanceof Long l) {
+            generator.writeNumber(l);
+        } else if (value instanceof Integer n) {
+            generator.writeNumber(n);
+        } else if (value instanceof Short n) {
+            generator.writeNumber(n);
+        } else if (value instanceof BigDecimal d) {
+            generator.writeNumber(d);
+        } else if (value instanceof Double d) {
+            generator.writeNumber(d);
+        } else if (value instanceof Float f) {
+            generator.writeNumber(f);
+        } else if (value instanceof Boolean b) {
+            generator.writeBoolean(b);
+        } else if (value instanceof byte[] bytes) {
+            generator.writeBinary(bytes);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    private static boolean isNull(JsonNode value) {
+        return value == null || value.isNull() || value.isMissingNode();
+    }
+
+    /**
+     * Backup cũ ghi thời gian dạng epoch (milliseconds hoặc seconds)
+     */
+    private static long legacyEpochMillis(JsonNode value) {
+        long timestamp = value.asLong();
+        return timestamp > 1000000000000L ? timestamp : timestamp * 1000;
+    }
+
+    private static class StringCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            String value = rs.getString(index);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(value);
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.VARCHAR);
+            } else {
+                stmt.setString(index, value.isValueNode() ? value.asText() : value.toString());
+            }
+        }
+    }
+
+    private static class IntegerCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            long value = rs.getLong(index);
+            if (rs.wasNull()) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(value);
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.BIGINT);
+            } else {
+                stmt.setLong(index, value.isTextual() ? Long.parseLong(value.asText()) : value.asLong());
+            }
+        }
+    }
+
+    private static class DecimalCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            BigDecimal value = rs.getBigDecimal(index);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(value);
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.NUMERIC);
+            } else {
+                stmt.setBigDecimal(index, value.isTextual() ? new BigDecimal(value.asText()) : value.decimalValue());
+            }
+        }
+    }
+
+    private static class FloatCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            double value = rs.getDouble(index);
+            if (rs.wasNull()) {
+                generator.writeNull();
+            } else if (Double.isNaN(value) || Double.isInfinite(value)) {
+                generator.writeString(Double.toString(value));
+            } else {
+                generator.writeNumber(value);
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.DOUBLE);
+            } else {
+                stmt.setDouble(index, value.isTextual() ? Double.parseDouble(value.asText()) : value.asDouble());
+            }
+        }
+    }
+
+    private static class BooleanCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            boolean value = rs.getBoolean(index);
+            if (rs.wasNull()) {
+                generator.writeNull();
+            } else {
+                generator.writeBoolean(value);
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.BOOLEAN);
+            } else {
+                stmt.setBoolean(index, value.isBoolean() ? value.booleanValue() : Boolean.parseBoolean(value.asText()));
+            }
+        }
+    }
+
+    private static class TimestampCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            LocalDateTime value = rs.getObject(index, LocalDateTime.class);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.TIMESTAMP);
+            } else if (value.isNumber()) {
+                stmt.setTimestamp(index, new Timestamp(legacyEpochMillis(value)));
+            } else {
+                String text = value.asText();
+                stmt.setObject(index, text.indexOf('T') > 0
+                    ? LocalDateTime.parse(text) : Timestamp.valueOf(text).toLocalDateTime());
+            }
+        }
+    }
+
+    private static class TimestampTzCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            OffsetDateTime value = rs.getObject(index, OffsetDateTime.class);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
+            } else if (value.isNumber()) {
+                stmt.setTimestamp(index, new Timestamp(legacyEpochMillis(value)));
+            } else {
+                String text = value.asText();
+                if (text.indexOf('T') < 0) {
+                    stmt.setTimestamp(index, Timestamp.valueOf(text));
+                } else if (text.endsWith("Z") || text.lastIndexOf('+') > 10 || text.lastIndexOf('-') > 10) {
+                    stmt.setObject(index, OffsetDateTime.parse(text));
+                } else {
+                    stmt.setObject(index, LocalDateTime.parse(text));
+                }
+            }
+        }
+    }
+
+    private static class DateCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            LocalDate value = rs.getObject(index, LocalDate.class);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.DATE);
+            } else if (value.isNumber()) {
+                stmt.setDate(index, new Date(legacyEpochMillis(value)));
+            } else {
+                stmt.setObject(index, LocalDate.parse(value.asText()));
+            }
+        }
+    }
+
+    private static class TimeCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            LocalTime value = rs.getObject(index, LocalTime.class);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.TIME);
+            } else if (value.isNumber()) {
+                stmt.setTime(index, new Time(legacyEpochMillis(value)));
+            } else {
+                stmt.setObject(index, LocalTime.parse(value.asText()));
+            }
+        }
+    }
+
+    private static class BytesCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            byte[] value = rs.getBytes(index);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeBinary(value);
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.BINARY);
+            } else {
+                try {
+                    stmt.setBytes(index, value.binaryValue());
+                } catch (IOException e) {
+                    throw new SQLException("Invalid base64 value for bytea column", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * JSON/JSONB: ghi nguyên văn nội dung JSON vào file backup, khi import CAST(? AS JSONB)
+     */
+    private static class JsonCodec implements ColumnCodec {
+        private final String type;
+
+        JsonCodec(String type) {
+            this.type = type;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            String value = rs.getString(index);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeRawValue(value);
+            }
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.VARCHAR);
+            } else if (isLegacyPgObject(value)) {
+                // Backup cũ: PGobject được serialize thành {"type":"jsonb","value":"...","null":false}
+                JsonNode raw = value.get("value");
+                if (isNull(raw) || value.path("null").asBoolean(false)) {
+                    stmt.setNull(index, Types.VARCHAR);
+                } else {
+                    stmt.setString(index, raw.isTextual() ? raw.asText() : raw.toString());
+                }
+            } else {
+                stmt.setString(index, value.toString());
+            }
+        }
+
+        @Override
+        public String placeholder() {
+            return "CAST(? AS " + type.toUpperCase() + ")";
+        }
+
+        private static boolean isLegacyPgObject(JsonNode value) {
+            return value.isObject() && value.size() <= 3 && value.has("value")
+                && JSON_TYPES.contains(value.path("type").asText());
+        }
+    }
+
+    /**
+     * Mảng PostgreSQL (text[], int8[]...): ghi thành mảng JSON, khi import dùng createArrayOf
+     */
+    private static class ArrayCodec implements ColumnCodec {
+        private final String elementType;
+
+        ArrayCodec(String elementType) {
+            this.elementType = elementType;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            Array array = rs.getArray(index);
+            if (array == null) {
+                generator.writeNull();
+                return;
+            }
+            try {
+                writeElements(generator, (Object[]) array.getArray());
+            } finally {
+                array.free();
+            }
+        }
+
+        private void writeElements(JsonGenerator generator, Object[] elements) throws IOException {
+            generator.writeStartArray();
+            for (Object element : elements) {
+                if (element instanceof Object[] nested) {
+                    writeElements(generator, nested);
+                } else {
+                    writeObject(generator, element);
+                }
+            }
+            generator.writeEndArray();
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setNull(index, Types.ARRAY);
+                return;
+            }
+            stmt.setArray(index, stmt.getConnection().createArrayOf(elementType, toElements(value)));
+        }
+
+        private Object[] toElements(JsonNode value) {
+            Object[] elements = new Object[value.size()];
+            for (int i = 0; i < elements.length; i++) {
+                JsonNode element = value.get(i);
+                if (isNull(element)) {
+                    elements[i] = null;
+                } else if (element.isArray()) {
+                    elements[i] = toElements(element);
+                } else if (element.isIntegralNumber()) {
+                    elements[i] = element.longValue();
+                } else if (element.isNumber()) {
+                    elements[i] = element.decimalValue();
+                } else if (element.isBoolean()) {
+                    elements[i] = element.booleanValue();
+                } else {
+                    elements[i] = element.isValueNode() ? element.asText() : element.toString();
+                }
+            }
+            return elements;
+        }
+    }
+
+    /**
+     * uuid, enum và các kiểu đặc thù khác: lưu dạng chuỗi, khi import CAST sang đúng kiểu
+     */
+    private static class CastStringCodec extends StringCodec {
+        private final String placeholder;
+
+        CastStringCodec(String type) {
+            String typeName = SIMPLE_TYPE_NAME.matcher(type).matches() ? type : "\"" + type.replace("\"", "\"\"") + "\"";
+            this.placeholder = "CAST(? AS " + typeName + ")";
+        }
+
+        @Override
+        public String placeholder() {
+            return placeholder;
+        }
+    }
+
+    private static class GenericCodec implements ColumnCodec {
+        @Override
+        public void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+            writeObject(generator, rs.getObject(index));
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, JsonNode value) throws SQLException {
+            if (isNull(value)) {
+                stmt.setObject(index, null);
+            } else if (value.isIntegralNumber()) {
+                stmt.setLong(index, value.longValue());
+            } else if (value.isNumber()) {
+                stmt.setBigDecimal(index, value.decimalValue());
+            } else if (value.isBoolean()) {
+                stmt.setBoolean(index, value.booleanValue());
+            } else {
+                stmt.setString(index, value.isValueNode() ? value.asText() : value.toString());
+            }
+        }
+    }
+}
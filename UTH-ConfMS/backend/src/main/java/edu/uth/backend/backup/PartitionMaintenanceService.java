@@ -0,0 +1,438 @@
+package edu.uth.backend.backup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bảo trì các bảng log phân vùng theo tháng (audit_logs, user_activity_history - xem V18):
+ * tạo trước partition cho các tháng tới và xóa partition cũ hơn số tháng giữ lại.
+ * Trước khi xóa, dữ liệu của partition được export ra thư mục backup/partitions
+ * (JSON nén theo backup.compression.codec, cùng cách mã hóa cột với file backup).
+ * Bảng chưa được phân vùng thì bỏ qua, retention xóa dòng cũ theo từng lô.
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int DELETE_CHUNK_SIZE = 10_000;
+
+    private static final String EXPIRED_IDS_TABLE = "partition_maintenance_expired_ids";
+
+    private static final Pattern MONTH_SUFFIX = Pattern.compile("_p(\\d{6})$");
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    /**
+     * Một partition tháng của bảng log; estimatedRows lấy từ thống kê của PostgreSQL
+     */
+    public record PartitionInfo(String table, String partition, LocalDate from, LocalDate to, long estimatedRows) {
+    }
+
+    /**
+     * Kết quả một lần bảo trì
+     */
+    public record MaintenanceReport(List<String> created, List<String> dropped, List<String> exported, long deletedRows) {
+    }
+
+    private record ManagedTable(String name, int retentionMonths) {
+    }
+
+    @Value("${backup.partitions.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${backup.partitions.audit-retention-months:0}")
+    private int auditRetentionMonths;
+
+    @Value("${backup.partitions.activity-retention-months:0}")
+    private int activityRetentionMonths;
+
+    @Value("${backup.partitions.export-before-drop:true}")
+    private boolean exportBeforeDrop;
+
+    @Value("${backup.directory:./backups}")
+    private String backupDirectory;
+
+    @Value("${backup.compression.codec:GZIP}")
+    private BackupCodec codec;
+
+    @Value("${backup.compression.level:0}")
+    private int compressionLevel;
+
+    @Value("${backup.fetch-size:1000}")
+    private int fetchSize;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Bảo trì theo lịch (backup.partitions.cron)
+     */
+    @Scheduled(cron = "${backup.partitions.cron:0 0 2 * * *}")
+    public void runScheduledMaintenance() {
+        try {
+            runMaintenance();
+        } catch (Exception e) {
+            logger.error("Partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Khi khởi động chỉ tạo partition còn thiếu, không xóa dữ liệu
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        try (Connection conn = dataSource.getConnection()) {
+            for (ManagedTable table : managedTables()) {
+                if (isPartitioned(conn, table.name())) {
+                    ensureFuturePartitions(conn, table.name(), new ArrayList<>());
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Could not create upcoming log partitions", e);
+        }
+    }
+
+    /**
+     * Tạo partition cho tháng hiện tại và premakeMonths tháng tới, rồi áp dụng retention
+     */
+    public synchronized MaintenanceReport runMaintenance() throws SQLException, IOException {
+        List<String> created = new ArrayList<>();
+        List<String> dropped = new ArrayList<>();
+        List<String> exported = new ArrayList<>();
+        long deletedRows = 0;
+
+        try (Connection conn = dataSource.getConnection()) {
+            for (ManagedTable table : managedTables()) {
+                boolean partitioned = isPartitioned(conn, table.name());
+                if (partitioned) {
+                    ensureFuturePartitions(conn, table.name(), created);
+                }
+                if (table.retentionMonths() <= 0) {
+                    continue;
+                }
+                LocalDate cutoff = YearMonth.now().minusMonths(table.retentionMonths()).atDay(1);
+                if (partitioned) {
+                    deletedRows += dropExpiredPartitions(conn, table.name(), cutoff, dropped, exported);
+                } else {
+                    deletedRows += deleteExpiredRows(conn, table.name(), cutoff, exported);
+                }
+            }
+        }
+
+        MaintenanceReport report = new MaintenanceReport(created, dropped, exported, deletedRows);
+        if (!created.isEmpty() || !dropped.isEmpty() || deletedRows > 0) {
+            logger.info("Partition maintenance: created {}, dropped {}, exported {}, deleted {} rows",
+                created, dropped, exported, deletedRows);
+        }
+        return report;
+    }
+
+    /**
+     * Danh sách partition tháng của các bảng log (cũ nhất trước)
+     */
+    public List<PartitionInfo> listPartitions() throws SQLException {
+        List<PartitionInfo> partitions = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection()) {
+            for (ManagedTable table : managedTables()) {
+                partitions.addAll(loadPartitions(conn, table.name()));
+            }
+        }
+        return partitions;
+    }
+
+    private List<ManagedTable> managedTables() {
+        return List.of(
+            new ManagedTable("audit_logs", auditRetentionMonths),
+            new ManagedTable("user_activity_history", activityRetentionMonths));
+    }
+
+    private boolean isPartitioned(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private List<PartitionInfo> loadPartitions(Connection conn, String table) throws SQLException {
+        String sql = "SELECT c.relname, GREATEST(c.reltuples, 0)::bigint FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?) ORDER BY c.relname";
+        List<PartitionInfo> partitions = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Matcher matcher = MONTH_SUFFIX.matcher(rs.getString(1));
+                    if (!matcher.find()) {
+                        continue;
+                    }
+                    LocalDate from = YearMonth.parse(matcher.group(1), MONTH_FORMAT).atDay(1);
+                    partitions.add(new PartitionInfo(table, rs.getString(1), from, from.plusMonths(1), rs.getLong(2)));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Tạo partition còn thiếu; dòng đã rơi vào partition DEFAULT của tháng đó được chuyển sang
+     */
+    private void ensureFuturePartitions(Connection conn, String table, List<String> created) throws SQLException {
+        List<String> existing = loadPartitions(conn, table).stream().map(PartitionInfo::partition).toList();
+        String defaultPartition = table + "_default";
+        YearMonth current = YearMonth.now();
+
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = table + "_p" + month.format(MONTH_FORMAT);
+            if (existing.contains(partition)) {
+                continue;
+            }
+            String range = rangeCondition(month.atDay(1), month.plusMonths(1).atDay(1));
+            inTransaction(conn, stmt -> {
+                boolean hasDefault = exists(stmt, "SELECT to_regclass('" + defaultPartition + "') IS NOT NULL");
+                boolean moveRows = hasDefault
+                    && exists(stmt, "SELECT EXISTS (SELECT 1 FROM " + quote(defaultPartition) + " WHERE " + range + ")");
+                if (moveRows) {
+                    stmt.execute("ALTER TABLE " + quote(table) + " DETACH PARTITION " + quote(defaultPartition));
+                }
+                stmt.execute("CREATE TABLE " + quote(partition) + " PARTITION OF " + quote(table)
+                    + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+                if (moveRows) {
+                    stmt.execute("INSERT INTO " + quote(partition) + " SELECT * FROM " + quote(defaultPartition) + " WHERE " + range);
+                    stmt.execute("DELETE FROM " + quote(defaultPartition) + " WHERE " + range);
+                    stmt.execute("ALTER TABLE " + quote(table) + " ATTACH PARTITION " + quote(defaultPartition) + " DEFAULT");
+                }
+            });
+            created.add(partition);
+        }
+    }
+
+    /**
+     * Xóa các partition có toàn bộ dữ liệu cũ hơn cutoff; dòng cũ trong partition DEFAULT bị xóa theo lô
+     */
+    private long dropExpiredPartitions(Connection conn, String table, LocalDate cutoff,
+                                       List<String> dropped, List<String> exported) throws SQLException, IOException {
+        for (PartitionInfo partition : loadPartitions(conn, table)) {
+            if (partition.to().isAfter(cutoff)) {
+                continue;
+            }
+            String name = partition.partition();
+            inTransaction(conn, stmt -> {
+                // Chặn ghi vào partition trong lúc export, sau đó mới detach (khóa bảng cha rất ngắn)
+                stmt.execute("LOCK TABLE " + quote(name) + " IN SHARE MODE");
+                if (exportBeforeDrop) {
+                    exported.add(export(conn, table, name, "SELECT * FROM " + quote(name), partition.from(), partition.to()));
+                }
+                stmt.execute("ALTER TABLE " + quote(table) + " DETACH PARTITION " + quote(name));
+                stmt.execute("DROP TABLE " + quote(name));
+            });
+            dropped.add(name);
+        }
+
+        String defaultPartition = table + "_default";
+        try (Statement stmt = conn.createStatement()) {
+            if (!exists(stmt, "SELECT to_regclass('" + defaultPartition + "') IS NOT NULL")) {
+                return 0;
+            }
+        }
+        return deleteExpiredRows(conn, defaultPartition, cutoff, exported);
+    }
+
+    /**
+     * Export rồi xóa các dòng cũ hơn cutoff theo từng lô (bảng chưa phân vùng hoặc partition DEFAULT).
+     * Id của các dòng được chốt vào bảng tạm trong cùng transaction với export, các lô DELETE chỉ xóa
+     * đúng các id đó: dòng cũ đến sau (ActivitySpool replay giữ timestamp gốc) để lại cho lần chạy sau
+     * thay vì bị xóa mà chưa được export
+     */
+    private long deleteExpiredRows(Connection conn, String table, LocalDate cutoff, List<String> exported)
+            throws SQLException, IOException {
+        String condition = "\"timestamp\" < '" + cutoff + "'";
+        try (Statement stmt = conn.createStatement()) {
+            if (!exists(stmt, "SELECT EXISTS (SELECT 1 FROM " + quote(table) + " WHERE " + condition + ")")) {
+                return 0;
+            }
+        }
+        if (!exportBeforeDrop) {
+            return deleteInChunks(conn, "DELETE FROM " + quote(table) + " WHERE ctid = ANY (ARRAY(SELECT ctid FROM "
+                + quote(table) + " WHERE " + condition + " LIMIT " + DELETE_CHUNK_SIZE + "))");
+        }
+
+        try {
+            String[] name = {null};
+            inTransaction(conn, stmt -> {
+                stmt.execute("DROP TABLE IF EXISTS " + EXPIRED_IDS_TABLE);
+                stmt.execute("CREATE TEMP TABLE " + EXPIRED_IDS_TABLE + " (id bigint PRIMARY KEY)");
+                stmt.execute("INSERT INTO " + EXPIRED_IDS_TABLE + " SELECT id FROM " + quote(table) + " WHERE " + condition);
+                name[0] = export(conn, table, table + "_before_" + cutoff.format(DateTimeFormatter.BASIC_ISO_DATE),
+                    "SELECT * FROM " + quote(table) + " WHERE " + condition
+                        + " AND id IN (SELECT id FROM " + EXPIRED_IDS_TABLE + ")", null, cutoff);
+            });
+            exported.add(name[0]);
+
+            // Duyệt bảng tạm theo id tăng dần, mỗi lô trả về id lớn nhất đã xử lý
+            String sql = "WITH batch AS (SELECT id FROM " + EXPIRED_IDS_TABLE + " WHERE id > ? ORDER BY id LIMIT "
+                + DELETE_CHUNK_SIZE + "), deleted AS (DELETE FROM " + quote(table) + " WHERE " + condition
+                + " AND id IN (SELECT id FROM batch) RETURNING 1) "
+                + "SELECT (SELECT max(id) FROM batch), (SELECT count(*) FROM deleted)";
+            long deleted = 0;
+            long lastId = Long.MIN_VALUE;
+            while (true) {
+                long[] result = {0, 0};
+                long after = lastId;
+                inTransaction(conn, stmt -> {
+                    try (PreparedStatement delete = conn.prepareStatement(sql)) {
+                        delete.setLong(1, after);
+                        try (ResultSet rs = delete.executeQuery()) {
+                            rs.next();
+                            long maxId = rs.getLong(1);
+                            // max(id) NULL: đã duyệt hết bảng tạm
+                            result[0] = rs.wasNull() ? -1 : maxId;
+                            result[1] = rs.getLong(2);
+                        }
+                    }
+                });
+                if (result[0] < 0) {
+                    return deleted;
+                }
+                lastId = result[0];
+                deleted += result[1];
+            }
+        } finally {
+            inTransaction(conn, stmt -> stmt.execute("DROP TABLE IF EXISTS " + EXPIRED_IDS_TABLE));
+        }
+    }
+
+    private long deleteInChunks(Connection conn, String sql) throws SQLException {
+        long deleted = 0;
+        int count;
+        do {
+            int[] result = {0};
+            inTransaction(conn, stmt -> result[0] = stmt.executeUpdate(sql));
+            count = result[0];
+            deleted += count;
+        } while (count == DELETE_CHUNK_SIZE);
+        return deleted;
+    }
+
+    /**
+     * Ghi kết quả query ra file JSON nén trong thư mục backup/partitions, trả về tên file
+     */
+    private String export(Connection conn, String table, String name, String query, LocalDate from, LocalDate to)
+            throws SQLException, IOException {
+        Path dir = Paths.get(backupDirectory).resolve("partitions");
+        Files.createDirectories(dir);
+        String filename = name + "_" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".json" + codec.getExtension();
+        Path file = dir.resolve(filename);
+        long rows = 0;
+
+        try (OutputStream out = codec.compressWithLevel(
+                 new BufferedOutputStream(new FileOutputStream(file.toFile()), BUFFER_SIZE), compressionLevel, BUFFER_SIZE);
+             JsonGenerator generator = jsonFactory.createGenerator(out);
+             PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize);
+            generator.writeStartObject();
+            generator.writeStringField("table", table);
+            generator.writeStringField("partition", name);
+            generator.writeStringField("from", from != null ? from.toString() : null);
+            generator.writeStringField("to", to.toString());
+            generator.writeStringField("exportedAt", LocalDateTime.now().toString());
+            generator.writeArrayFieldStart("rows");
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                ColumnCodec[] codecs = ColumnCodecs.forResultSet(metaData);
+                while (rs.next()) {
+                    generator.writeStartObject();
+                    for (int i = 1; i <= codecs.length; i++) {
+                        generator.writeFieldName(metaData.getColumnName(i));
+                        codecs[i - 1].write(generator, rs, i);
+                    }
+                    generator.writeEndObject();
+                    rows++;
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException | SQLException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        logger.info("Exported {} rows of {} to {}", rows, name, file);
+        return filename;
+    }
+
+    private interface SqlWork {
+        void run(Statement stmt) throws SQLException, IOException;
+    }
+
+    private void inTransaction(Connection conn, SqlWork work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            work.run(stmt);
+            conn.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            conn.rollback();
+            if (e instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Partition maintenance step failed", e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static boolean exists(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static String rangeCondition(LocalDate from, LocalDate to) {
+        return "\"timestamp\" >= '" + from + "' AND \"timestamp\" < '" + to + "'";
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
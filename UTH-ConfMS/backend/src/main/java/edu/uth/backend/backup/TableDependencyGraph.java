@@ -0,0 +1,162 @@
+package edu.uth.backend.backup;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Đồ thị phụ thuộc giữa các bảng theo foreign key (lấy từ DatabaseMetaData.getImportedKeys).
+ *
+ * Các bảng được chia thành từng level: bảng ở level sau chỉ tham chiếu tới bảng ở level trước,
+ * nên các bảng trong cùng một level có thể restore song song. Bảng nằm trong chu trình
+ * foreign key được đưa vào level cuối cùng.
+ */
+final class TableDependencyGraph {
+
+    /**
+     * Một foreign key (có thể nhiều cột) từ table tới referencedTable
+     */
+    record ForeignKey(String name, String table, List<String> columns,
+                      String referencedTable, List<String> referencedColumns) {
+    }
+
+    private final List<List<String>> levels;
+    private final List<ForeignKey> foreignKeys;
+    private final Set<String> cyclicTables;
+
+    private TableDependencyGraph(List<List<String>> levels, List<ForeignKey> foreignKeys, Set<String> cyclicTables) {
+        this.levels = levels;
+        this.foreignKeys = foreignKeys;
+        this.cyclicTables = cyclicTables;
+    }
+
+    /**
+     * Đọc toàn bộ foreign key của schema public bằng một lần gọi getImportedKeys
+     */
+    static TableDependencyGraph load(Connection conn, Collection<String> tables) throws SQLException {
+        Set<String> tableSet = new HashSet<>(tables);
+        Map<String, ForeignKeyBuilder> builders = new LinkedHashMap<>();
+        DatabaseMetaData metaData = conn.getMetaData();
+
+        try (ResultSet rs = metaData.getImportedKeys(null, "public", null)) {
+            while (rs.next()) {
+                String table = rs.getString("FKTABLE_NAME");
+                String referencedTable = rs.getString("PKTABLE_NAME");
+                if (!tableSet.contains(table) || !tableSet.contains(referencedTable)) {
+                    continue;
+                }
+                String name = rs.getString("FK_NAME");
+                ForeignKeyBuilder builder = builders.computeIfAbsent(table + "." + name,
+                    key -> new ForeignKeyBuilder(name, table, referencedTable));
+                builder.add(rs.getInt("KEY_SEQ"), rs.getString("FKCOLUMN_NAME"), rs.getString("PKCOLUMN_NAME"));
+            }
+        }
+
+        List<ForeignKey> foreignKeys = new ArrayList<>();
+        for (ForeignKeyBuilder builder : builders.values()) {
+            foreignKeys.add(builder.build());
+        }
+        return of(tables, foreignKeys);
+    }
+
+    /**
+     * Xếp level theo thuật toán Kahn; thứ tự trong mỗi level giữ theo thứ tự của tables
+     */
+    static TableDependencyGraph of(Collection<String> tables, List<ForeignKey> foreignKeys) {
+        Map<String, Set<String>> parents = new LinkedHashMap<>();
+        for (String table : tables) {
+            parents.put(table, new HashSet<>());
+        }
+        for (ForeignKey fk : foreignKeys) {
+            // Bảng tự tham chiếu không tạo phụ thuộc giữa các level
+            if (!fk.table().equals(fk.referencedTable()) && parents.containsKey(fk.referencedTable())) {
+                Set<String> tableParents = parents.get(fk.table());
+                if (tableParents != null) {
+                    tableParents.add(fk.referencedTable());
+                }
+            }
+        }
+
+        List<List<String>> levels = new ArrayList<>();
+        Set<String> placed = new HashSet<>();
+        List<String> remaining = new ArrayList<>(parents.keySet());
+        while (!remaining.isEmpty()) {
+            List<String> level = new ArrayList<>();
+            for (String table : remaining) {
+                if (placed.containsAll(parents.get(table))) {
+                    level.add(table);
+                }
+            }
+            if (level.isEmpty()) {
+                break;
+            }
+            levels.add(level);
+            placed.addAll(level);
+            remaining.removeAll(level);
+        }
+
+        Set<String> cyclicTables = new LinkedHashSet<>(remaining);
+        if (!remaining.isEmpty()) {
+            levels.add(remaining);
+        }
+
+        return new TableDependencyGraph(
+            Collections.unmodifiableList(levels), List.copyOf(foreignKeys), Collections.unmodifiableSet(cyclicTables));
+    }
+
+    /**
+     * Các level theo thứ tự restore (bảng cha trước bảng con)
+     */
+    List<List<String>> getLevels() {
+        return levels;
+    }
+
+    /**
+     * Thứ tự topo của tất cả các bảng
+     */
+    List<String> getOrder() {
+        List<String> order = new ArrayList<>();
+        levels.forEach(order::addAll);
+        return order;
+    }
+
+    List<ForeignKey> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    /**
+     * Các bảng nằm trong chu trình foreign key (không xếp được thứ tự)
+     */
+    Set<String> getCyclicTables() {
+        return cyclicTables;
+    }
+
+    private static class ForeignKeyBuilder {
+        private final String name;
+        private final String table;
+        private final String referencedTable;
+        private final SortedMap<Integer, String[]> columns = new TreeMap<>();
+
+        ForeignKeyBuilder(String name, String table, String referencedTable) {
+            this.name = name;
+            this.table = table;
+            this.referencedTable = referencedTable;
+        }
+
+        void add(int keySeq, String column, String referencedColumn) {
+            columns.put(keySeq, new String[]{column, referencedColumn});
+        }
+
+        ForeignKey build() {
+            List<String> fkColumns = new ArrayList<>();
+            List<String> pkColumns = new ArrayList<>();
+            for (String[] pair : columns.values()) {
+                fkColumns.add(pair[0]);
+                pkColumns.add(pair[1]);
+            }
+            return new ForeignKey(name, table, List.copyOf(fkColumns), referencedTable, List.copyOf(pkColumns));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package edu.uth.backend.backup;
+
+/**
+ * Thống kê export của một bảng: số dòng, số byte JSON đã ghi và thời gian
+ */
+public class TableExportStats {
+    private final String table;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedMs;
+
+    public TableExportStats(String table, long rows, long bytes, long elapsedMs) {
+        this.table = table;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedMs = elapsedMs;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMs > 0 ? rows * 1000 / elapsedMs : rows;
+    }
+}
@@ -0,0 +1,145 @@
+package edu.uth.backend.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hàng đợi có giới hạn được một thread nền gom thành batch: mỗi batch có tối đa batchSize phần tử
+ * hoặc được ghi sau tối đa flushIntervalMs kể từ phần tử đầu tiên. Dùng cho các pipeline ghi
+ * write-behind (audit log, lịch sử hoạt động); sink tự xử lý lỗi của batch.
+ */
+public class BatchDrainer<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchDrainer.class);
+
+    // Chờ theo từng lát ngắn để thread nền thấy yêu cầu dừng mà không phải chờ hết flushIntervalMs
+    private static final long POLL_SLICE_MS = 100;
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Consumer<List<T>> sink;
+    private final AtomicLong maxDepth = new AtomicLong();
+    private volatile boolean running;
+    private Thread worker;
+
+    public BatchDrainer(String name, int capacity, int batchSize, long flushIntervalMs, Consumer<List<T>> sink) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.sink = sink;
+    }
+
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Đưa phần tử vào hàng đợi; false nếu hàng đợi đầy hoặc đã dừng
+     */
+    public boolean offer(T item) {
+        if (!running || !queue.offer(item)) {
+            return false;
+        }
+        maxDepth.accumulateAndGet(queue.size(), Math::max);
+        return true;
+    }
+
+    /**
+     * Dừng nhận phần tử mới và ghi hết hàng đợi; false nếu chưa ghi xong trong timeoutMs
+     */
+    public boolean shutdown(long timeoutMs) {
+        if (worker == null) {
+            return true;
+        }
+        running = false;
+        try {
+            worker.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            logger.warn("{} did not finish within {} ms, {} items left", name, timeoutMs, queue.size());
+            return false;
+        }
+        // Phần tử được đưa vào ngay trước khi running chuyển sang false
+        flushRemaining();
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public int capacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(Math.min(flushIntervalMs, POLL_SLICE_MS), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<T> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                collectBatch(batch);
+                sink.accept(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("{} error", name, e);
+            }
+        }
+        flushRemaining();
+    }
+
+    /**
+     * Gom thêm phần tử tới khi đủ batchSize hoặc hết flushIntervalMs (khi đang dừng thì không chờ)
+     */
+    private void collectBatch(List<T> batch) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + flushIntervalMs;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long waitMs = deadline - System.currentTimeMillis();
+            if (batch.size() >= batchSize || waitMs <= 0 || !running) {
+                return;
+            }
+            T next = queue.poll(Math.min(waitMs, POLL_SLICE_MS), TimeUnit.MILLISECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void flushRemaining() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            sink.accept(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+}
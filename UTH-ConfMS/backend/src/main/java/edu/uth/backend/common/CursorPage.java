@@ -0,0 +1,30 @@
+package edu.uth.backend.common;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Một trang kết quả phân trang keyset; nextCursor là null khi đã hết dữ liệu
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasMore) {
+
+    /**
+     * Tạo trang từ kết quả truy vấn limit + 1 dòng: dòng dư chỉ dùng để biết còn trang sau
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit,
+                                       Function<T, LocalDateTime> timestamp, Function<T, Long> id) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            T last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(timestamp.apply(last), id.apply(last)).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,44 @@
+package edu.uth.backend.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Vị trí (timestamp, id) của bản ghi cuối trang trước, dùng cho phân trang keyset theo
+ * ORDER BY timestamp DESC, id DESC. Client chỉ nhận chuỗi token (base64url) và gửi lại nguyên vẹn.
+ */
+public record KeysetCursor(LocalDateTime timestamp, Long id) {
+
+    // Mốc cho trang đầu: lớn hơn mọi timestamp/id thật, vẫn nằm trong miền giá trị của PostgreSQL
+    public static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giải mã token; null/rỗng là trang đầu, token sai định dạng ném IllegalArgumentException (400)
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor không hợp lệ");
+            }
+            return new KeysetCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+    }
+}
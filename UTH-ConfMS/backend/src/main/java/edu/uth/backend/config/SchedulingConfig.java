@@ -0,0 +1,12 @@
+package edu.uth.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Bật @Scheduled cho các tác vụ định kỳ (backup theo lịch, dọn backup cũ)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -3,7 +3,9 @@ package edu.uth.backend.decision;
 import edu.uth.backend.entity.*;
 import edu.uth.backend.repository.*;
 import edu.uth.backend.email.EmailService;
+import edu.uth.backend.report.ReportDataChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import edu.uth.backend.notification.NotificationService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +19,7 @@ public class DecisionService {
     @Autowired private ReviewRepository reviewRepo;
     @Autowired private NotificationService notificationService;
     @Autowired private EmailService emailService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     // 1. Hàm tính điểm trung bình (Để Chair xem trước khi quyết định)
     @Transactional(readOnly = true)
@@ -57,6 +60,7 @@ public class DecisionService {
         // Cập nhật trạng thái
         paper.setStatus(decision);
         Paper savedPaper = paperRepo.save(paper);
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(savedPaper, "decision"));
         
         // Chỉ gửi email tự động nếu Chair không dùng AI
         if (!skipEmail) {
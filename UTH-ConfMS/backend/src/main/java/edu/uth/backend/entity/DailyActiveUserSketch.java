@@ -0,0 +1,31 @@
+package edu.uth.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Sketch HyperLogLog các user có hoạt động trong một ngày (DAU). Gộp các ngày thành WAU/MAU
+ * mà không cần quét user_activity_history.
+ */
+@Entity
+@Table(name = "dashboard_daily_active_users")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyActiveUserSketch {
+
+    @Id
+    @Column(name = "activity_date")
+    private LocalDate activityDate;
+
+    @Column(name = "registers", nullable = false)
+    private byte[] registers;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
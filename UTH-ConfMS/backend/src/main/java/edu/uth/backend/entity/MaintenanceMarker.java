@@ -0,0 +1,26 @@
+package edu.uth.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Đánh dấu một tác vụ dựng dữ liệu một lần (backfill) đã chạy xong, ghi cùng transaction với tác vụ
+ */
+@Entity
+@Table(name = "maintenance_markers")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MaintenanceMarker {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,26 @@
+package edu.uth.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Số user đăng ký mới theo tháng (month_start là ngày đầu tháng), cộng dồn khi có đăng ký
+ */
+@Entity
+@Table(name = "dashboard_monthly_registrations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlyRegistrationCount {
+
+    @Id
+    @Column(name = "month_start")
+    private LocalDate monthStart;
+
+    @Column(name = "registrations", nullable = false)
+    private long registrations;
+}
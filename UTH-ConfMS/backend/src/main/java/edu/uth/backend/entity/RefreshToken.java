@@ -0,0 +1,57 @@
+package edu.uth.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * Bảng lưu refresh token.
+ * - tokenHash: SHA-256(token thô), DB không lưu token thô
+ * - familyId: chuỗi token sinh ra từ cùng một lần đăng nhập (mỗi lần refresh tạo token mới cùng family)
+ * - usedAt: đã đổi lấy token mới (null = còn dùng được)
+ * - revokedAt: bị thu hồi (đăng xuất hoặc phát hiện dùng lại token cũ)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(
+    name = "refresh_tokens",
+    indexes = {
+        @Index(name = "idx_rt_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_rt_family_id", columnList = "familyId"),
+        @Index(name = "idx_rt_user_id", columnList = "user_id")
+    }
+)
+public class RefreshToken {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, unique = true, length = 64)
+  private String tokenHash;
+
+  @Column(nullable = false, length = 36)
+  private String familyId;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "user_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private User user;
+
+  @Column(nullable = false)
+  private Instant expiresAt;
+
+  private Instant usedAt;
+
+  private Instant revokedAt;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+}
@@ -0,0 +1,39 @@
+package edu.uth.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Số hoạt động của user theo loại và theo ngày, cộng dồn mỗi khi ghi lịch sử hoạt động.
+ * Dùng cho thống kê thay vì COUNT(*) trên user_activity_history.
+ */
+@Entity
+@Table(name = "user_activity_daily_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_uadc_user_type_date", columnNames = {"user_id", "activity_type", "activity_date"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserActivityDailyCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "activity_type", nullable = false, length = 50)
+    private ActivityType activityType;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    @Column(name = "activity_count", nullable = false)
+    private long activityCount;
+}
@@ -13,9 +13,11 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "user_activity_history", indexes = {
-        @Index(name = "idx_user_timestamp", columnList = "user_id,timestamp"),
         @Index(name = "idx_activity_type", columnList = "activity_type"),
-        @Index(name = "idx_timestamp", columnList = "timestamp")
+        @Index(name = "idx_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_uah_user_ts_id", columnList = "user_id,timestamp DESC,id DESC"),
+        @Index(name = "idx_uah_user_type_ts_id", columnList = "user_id,activity_type,timestamp DESC,id DESC"),
+        @Index(name = "idx_uah_user_entity_ts_id", columnList = "user_id,entity_id,timestamp DESC,id DESC")
 })
 @Getter
 @Setter
@@ -0,0 +1,170 @@
+package edu.uth.backend.history;
+
+import edu.uth.backend.entity.ActivityType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bảng đếm user_activity_daily_counts (user, loại hoạt động, ngày): được cộng dồn trong cùng
+ * transaction với lần ghi lịch sử, thống kê chỉ cần đọc vài dòng thay vì COUNT(*) trên bảng lịch sử.
+ * Job đối soát định kỳ tính lại các ngày đã qua từ dữ liệu gốc.
+ */
+@Service
+@Slf4j
+public class ActivityCounterService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_activity_daily_counts (user_id, activity_type, activity_date, activity_count) "
+                    + "VALUES (?, ?, ?, ?) "
+                    + "ON CONFLICT (user_id, activity_type, activity_date) "
+                    + "DO UPDATE SET activity_count = user_activity_daily_counts.activity_count + EXCLUDED.activity_count";
+
+    private static final String SUM_BY_TYPE_SQL =
+            "SELECT activity_type, SUM(activity_count) FROM user_activity_daily_counts "
+                    + "WHERE user_id = ? GROUP BY activity_type";
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM user_activity_daily_counts WHERE activity_date >= ? AND activity_date < ?";
+
+    private static final String BACKFILL_MARKER = "activity-daily-counts-backfill";
+
+    private static final String REBUILD_RANGE_SQL =
+            "INSERT INTO user_activity_daily_counts (user_id, activity_type, activity_date, activity_count) "
+                    + "SELECT user_id, activity_type, CAST(timestamp AS date), COUNT(*) FROM user_activity_history "
+                    + "WHERE timestamp >= ? AND timestamp < ? "
+                    + "GROUP BY user_id, activity_type, CAST(timestamp AS date)";
+
+    /**
+     * Khóa của một dòng đếm
+     */
+    public record Key(Long userId, ActivityType activityType, LocalDate day) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.history.stats.reconcile-days:30}")
+    private int reconcileDays;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Cộng một hoạt động vào bảng đếm (tham gia transaction của caller nếu có)
+     */
+    @Transactional
+    public void increment(Long userId, ActivityType activityType, LocalDate day) {
+        jdbcTemplate.update(UPSERT_SQL, userId, activityType.name(), Date.valueOf(day), 1L);
+    }
+
+    /**
+     * Cộng dồn cả batch trong transaction đang mở của caller (thread ghi lịch sử);
+     * caller gom theo khóa trước để mỗi dòng đếm chỉ bị cập nhật một lần
+     */
+    public void incrementAll(Map<Key, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[] {
+                key.userId(), key.activityType().name(), Date.valueOf(key.day()), delta
+        }));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    /**
+     * Gom danh sách khóa (mỗi khóa là một hoạt động) thành số lượng theo khóa
+     */
+    public static Map<Key, Long> countByKey(List<Key> keys) {
+        Map<Key, Long> deltas = new HashMap<>();
+        for (Key key : keys) {
+            deltas.merge(key, 1L, Long::sum);
+        }
+        return deltas;
+    }
+
+    /**
+     * Tổng số hoạt động của user theo từng loại
+     */
+    public Map<ActivityType, Long> getCountsByType(Long userId) {
+        Map<ActivityType, Long> counts = new EnumMap<>(ActivityType.class);
+        jdbcTemplate.query(SUM_BY_TYPE_SQL, rs -> {
+            counts.put(ActivityType.valueOf(rs.getString(1)), rs.getLong(2));
+        }, userId);
+        return counts;
+    }
+
+    /**
+     * Tính lại bảng đếm của các ngày [from, to) từ user_activity_history
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        Integer rows = transactionTemplate.execute(status -> rebuildRange(from, to));
+        return rows != null ? rows : 0;
+    }
+
+    private int rebuildRange(LocalDate from, LocalDate to) {
+        jdbcTemplate.update(DELETE_RANGE_SQL, Date.valueOf(from), Date.valueOf(to));
+        return jdbcTemplate.update(REBUILD_RANGE_SQL,
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+    }
+
+    /**
+     * Đối soát định kỳ reconcileDays ngày gần nhất, không gồm hôm nay (hôm nay vẫn đang được cộng dồn)
+     */
+    @Scheduled(cron = "${app.history.stats.reconcile-cron:0 15 3 * * *}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        int rows = rebuild(today.minusDays(reconcileDays), today);
+        log.info("Reconciled activity counters for the last {} days ({} rows)", reconcileDays, rows);
+    }
+
+    /**
+     * Dựng bảng đếm từ toàn bộ lịch sử một lần (lần deploy đầu). Việc đã xong được ghi vào maintenance_markers
+     * cùng transaction với lần dựng, nên bảng đếm đã có vài dòng (hoạt động mới, spool phát lại) không làm
+     * bỏ qua backfill, và backfill bị ngắt giữa chừng sẽ được chạy lại ở lần khởi động sau
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnce() {
+        Boolean done = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM maintenance_markers WHERE name = ?)", Boolean.class, BACKFILL_MARKER);
+        if (Boolean.TRUE.equals(done)) {
+            return;
+        }
+        LocalDate from = jdbcTemplate.queryForObject(
+                "SELECT CAST(MIN(timestamp) AS date) FROM user_activity_history", LocalDate.class);
+        Integer rows = transactionTemplate.execute(status -> {
+            int rebuilt = from != null ? rebuildRange(from, LocalDate.now().plusDays(1)) : 0;
+            jdbcTemplate.update("INSERT INTO maintenance_markers (name, completed_at) VALUES (?, ?) "
+                    + "ON CONFLICT (name) DO NOTHING", BACKFILL_MARKER, Timestamp.valueOf(LocalDateTime.now()));
+            return rebuilt;
+        });
+        log.info("Backfilled activity counters from {} ({} rows)", from, rows);
+    }
+}
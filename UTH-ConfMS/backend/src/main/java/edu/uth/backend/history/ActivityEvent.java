@@ -0,0 +1,23 @@
+package edu.uth.backend.history;
+
+import edu.uth.backend.entity.ActivityStatus;
+import edu.uth.backend.entity.ActivityType;
+import edu.uth.backend.entity.EntityType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Một hoạt động chờ ghi vào user_activity_history; metadata được chuyển sang JSON ở thread ghi
+ */
+public record ActivityEvent(
+        Long userId,
+        ActivityType activityType,
+        EntityType entityType,
+        Long entityId,
+        String description,
+        Map<String, Object> metadata,
+        String ipAddress,
+        LocalDateTime timestamp,
+        ActivityStatus status) {
+}
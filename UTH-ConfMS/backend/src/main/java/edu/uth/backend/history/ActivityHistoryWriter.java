@@ -0,0 +1,286 @@
+package edu.uth.backend.history;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.uth.backend.common.BatchDrainer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ghi lịch sử hoạt động theo kiểu write-behind: request chỉ đưa hoạt động vào hàng đợi có giới hạn,
+ * một thread nền insert theo JDBC batch. Khác audit log, lịch sử hoạt động là best-effort:
+ * hàng đợi đầy thì hoạt động bị bỏ và được đếm vào dropped. Bật spool để hoạt động trong hàng đợi
+ * không bị mất khi process bị crash (có thể bị ghi trùng khi phát lại).
+ */
+@Component
+public class ActivityHistoryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityHistoryWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO user_activity_history (user_id, activity_type, entity_type, entity_id, description, "
+            + "metadata, timestamp, status, ip_address, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+        Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.VARCHAR,
+        Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP
+    };
+
+    /**
+     * Số liệu của pipeline để theo dõi backpressure
+     */
+    public record Stats(
+        boolean enabled,
+        int queueDepth,
+        int queueCapacity,
+        long maxQueueDepth,
+        long enqueued,
+        long written,
+        long dropped,
+        long failed,
+        long batches,
+        boolean spoolEnabled,
+        long recovered
+    ) {
+    }
+
+    /**
+     * Hoạt động trong hàng đợi cùng segment spool chứa nó (null nếu không dùng spool)
+     */
+    private record Pending(ActivityEvent event, ActivitySpool.Segment segment) {
+    }
+
+    @Value("${app.activity.async.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.activity.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.activity.async.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.activity.async.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.activity.async.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${app.activity.spool.enabled:false}")
+    private boolean spoolEnabled;
+
+    @Value("${app.activity.spool.dir:./data/activity-spool}")
+    private String spoolDir;
+
+    @Value("${app.activity.spool.segment-size:1000}")
+    private int spoolSegmentSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ActivityCounterService activityCounterService;
+
+    private BatchDrainer<Pending> drainer;
+    private ActivitySpool spool;
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (spoolEnabled) {
+            openSpool();
+        }
+        drainer = new BatchDrainer<>("activity-history-writer", queueCapacity, batchSize, flushIntervalMs, this::writeBatch);
+        drainer.start();
+    }
+
+    /**
+     * Dừng nhận hoạt động mới, ghi hết hàng đợi (tối đa shutdownTimeoutMs) rồi đóng spool
+     */
+    @PreDestroy
+    void shutdown() {
+        if (drainer != null) {
+            drainer.shutdown(shutdownTimeoutMs);
+        }
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    /**
+     * Đưa hoạt động vào hàng đợi; trả về false nếu hoạt động bị bỏ (pipeline đã dừng hoặc hàng đợi đầy)
+     */
+    public boolean submit(ActivityEvent event) {
+        ActivitySpool.Segment segment = null;
+        if (spool != null) {
+            try {
+                segment = spool.append(event);
+            } catch (IOException e) {
+                logger.warn("Could not spool activity {} of user {}: {}", event.activityType(), event.userId(), e.getMessage());
+            }
+        }
+        if (drainer != null && drainer.offer(new Pending(event, segment))) {
+            enqueued.incrementAndGet();
+            return true;
+        }
+        dropped.incrementAndGet();
+        release(segment);
+        return false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Stats getStats() {
+        return new Stats(
+            enabled,
+            drainer != null ? drainer.size() : 0,
+            drainer != null ? drainer.capacity() : 0,
+            drainer != null ? drainer.getMaxDepth() : 0,
+            enqueued.get(),
+            written.get(),
+            dropped.get(),
+            failed.get(),
+            batches.get(),
+            spool != null,
+            recovered.get());
+    }
+
+    /**
+     * Mở spool và ghi lại các hoạt động còn sót từ lần chạy trước trước khi nhận hoạt động mới
+     */
+    private void openSpool() {
+        try {
+            spool = new ActivitySpool(Paths.get(spoolDir), spoolSegmentSize, objectMapper);
+            ActivitySpool.Recovery recovery = spool.recover();
+            if (!recovery.events().isEmpty()) {
+                logger.info("Replaying {} spooled activities from {} segment(s)", recovery.events().size(), recovery.files().size());
+            }
+            List<Pending> batch = new ArrayList<>(batchSize);
+            for (ActivityEvent event : recovery.events()) {
+                batch.add(new Pending(event, null));
+                if (batch.size() == batchSize) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+            recovered.addAndGet(recovery.events().size());
+            for (Path file : recovery.files()) {
+                spool.delete(file);
+            }
+        } catch (IOException e) {
+            logger.error("Activity spool at {} unavailable, continuing without it", spoolDir, e);
+            spool = null;
+        }
+    }
+
+    /**
+     * Insert cả batch trong một transaction; batch lỗi thì thử từng dòng để không mất các dòng hợp lệ
+     */
+    private void writeBatch(List<Pending> batch) {
+        try {
+            insert(batch);
+            batches.incrementAndGet();
+            written.addAndGet(batch.size());
+            batch.forEach(pending -> release(pending.segment()));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                ActivityEvent event = batch.get(0).event();
+                failed.incrementAndGet();
+                logger.error("Failed to write activity {} of user {}", event.activityType(), event.userId(), e);
+                release(batch.get(0).segment());
+                return;
+            }
+            logger.warn("Activity history batch of {} failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                writeBatch(List.of(pending));
+            }
+        }
+    }
+
+    private void insert(List<Pending> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            ActivityEvent event = pending.event();
+            rows.add(new Object[] {
+                event.userId(),
+                event.activityType() != null ? event.activityType().name() : null,
+                event.entityType() != null ? event.entityType().name() : null,
+                event.entityId(),
+                event.description(),
+                toJson(event),
+                event.timestamp() != null ? event.timestamp() : now,
+                event.status() != null ? event.status().name() : null,
+                event.ipAddress(),
+                now
+            });
+        }
+        Map<ActivityCounterService.Key, Long> counts = ActivityCounterService.countByKey(batch.stream()
+            .map(pending -> new ActivityCounterService.Key(pending.event().userId(), pending.event().activityType(),
+                (pending.event().timestamp() != null ? pending.event().timestamp() : now).toLocalDate()))
+            .toList());
+        // Bảng đếm được cộng trong cùng transaction nên luôn khớp với số dòng đã ghi
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES);
+            activityCounterService.incrementAll(counts);
+        });
+    }
+
+    private String toJson(ActivityEvent event) {
+        if (event.metadata() == null || event.metadata().isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(event.metadata());
+        } catch (JsonProcessingException e) {
+            logger.warn("Dropping unserializable metadata of activity {}: {}", event.activityType(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void release(ActivitySpool.Segment segment) {
+        if (segment != null) {
+            spool.release(segment);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package edu.uth.backend.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spool trên đĩa cho các hoạt động đang chờ ghi: mỗi hoạt động được ghi thêm một dòng JSON vào
+ * segment hiện tại trước khi vào hàng đợi. Chỉ append() mới xoay vòng segment (khi đầy); segment đã
+ * đóng bị xóa khi mọi hoạt động trong nó đã được ghi vào DB (hoặc bị bỏ). Khi segment hiện tại hết
+ * hoạt động chờ, một dòng đánh dấu được ghi thêm để lần phát lại sau crash bỏ qua các dòng phía trước.
+ * Một hoạt động có thể bị ghi hai lần nếu crash xảy ra giữa lúc commit batch và lúc release.
+ */
+final class ActivitySpool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivitySpool.class);
+
+    private static final String SEGMENT_PREFIX = "activity-";
+    private static final String SEGMENT_SUFFIX = ".jsonl";
+    // Mọi dòng phía trước trong segment đã được ghi xong
+    private static final String DRAINED_MARKER = "#drained";
+
+    /**
+     * Một file segment và số hoạt động trong nó chưa được ghi xong
+     */
+    static final class Segment {
+        private final Path path;
+        private final BufferedWriter writer;
+        private int appended;
+        private int pending;
+        private boolean closed;
+
+        private Segment(Path path, BufferedWriter writer) {
+            this.path = path;
+            this.writer = writer;
+        }
+    }
+
+    /**
+     * Các hoạt động đọc lại từ spool của lần chạy trước và các file chứa chúng
+     */
+    record Recovery(List<ActivityEvent> events, List<Path> files) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ObjectMapper objectMapper;
+    private Segment current;
+    private long sequence;
+
+    ActivitySpool(Path directory, int segmentSize, ObjectMapper objectMapper) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.objectMapper = objectMapper;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Đọc các segment còn lại từ lần chạy trước; dòng hỏng (ví dụ ghi dở lúc crash) bị bỏ qua
+     */
+    synchronized Recovery recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+
+        List<ActivityEvent> events = new ArrayList<>();
+        for (Path file : files) {
+            List<ActivityEvent> pending = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (DRAINED_MARKER.equals(line)) {
+                    pending.clear();
+                    continue;
+                }
+                try {
+                    pending.add(objectMapper.readValue(line, ActivityEvent.class));
+                } catch (IOException e) {
+                    logger.warn("Skipping corrupt activity spool line in {}: {}", file.getFileName(), e.getMessage());
+                }
+            }
+            events.addAll(pending);
+        }
+        return new Recovery(events, files);
+    }
+
+    /**
+     * Ghi hoạt động vào segment hiện tại; trả về segment để release khi đã ghi xong
+     */
+    synchronized Segment append(ActivityEvent event) throws IOException {
+        if (current == null || current.appended >= segmentSize) {
+            roll();
+        }
+        current.writer.write(objectMapper.writeValueAsString(event));
+        current.writer.newLine();
+        current.writer.flush();
+        current.appended++;
+        current.pending++;
+        return current;
+    }
+
+    /**
+     * Đánh dấu một hoạt động của segment đã xong. Segment đã đóng bị xóa khi không còn hoạt động chờ;
+     * segment hiện tại vẫn nhận thêm dòng nên không đóng ở đây, chỉ ghi dòng đánh dấu đã ghi xong
+     */
+    synchronized void release(Segment segment) {
+        segment.pending--;
+        if (segment.pending > 0) {
+            return;
+        }
+        if (segment.closed) {
+            delete(segment.path);
+            return;
+        }
+        try {
+            segment.writer.write(DRAINED_MARKER);
+            segment.writer.newLine();
+            segment.writer.flush();
+        } catch (IOException e) {
+            logger.warn("Could not mark activity spool segment {} as drained", segment.path, e);
+        }
+    }
+
+    /**
+     * Đóng segment hiện tại (khi tắt ứng dụng); segment còn hoạt động chờ được giữ lại để phát lại
+     */
+    synchronized void close() {
+        if (current != null) {
+            Segment segment = current;
+            current = null;
+            close(segment);
+            if (segment.pending == 0) {
+                delete(segment.path);
+            }
+        }
+    }
+
+    void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete activity spool segment {}", path, e);
+        }
+    }
+
+    private void roll() throws IOException {
+        if (current != null) {
+            Segment previous = current;
+            current = null;
+            close(previous);
+            if (previous.pending == 0) {
+                delete(previous.path);
+            }
+        }
+        Path path = directory.resolve(String.format("%s%d-%06d%s",
+                SEGMENT_PREFIX, System.currentTimeMillis(), sequence++, SEGMENT_SUFFIX));
+        current = new Segment(path, Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    private void close(Segment segment) {
+        segment.closed = true;
+        try {
+            segment.writer.close();
+        } catch (IOException e) {
+            logger.warn("Could not close activity spool segment {}", segment.path, e);
+        }
+    }
+}
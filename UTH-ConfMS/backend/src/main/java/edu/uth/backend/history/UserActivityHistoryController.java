@@ -1,5 +1,6 @@
 package edu.uth.backend.history;
 
+import edu.uth.backend.common.CursorPage;
 import edu.uth.backend.entity.ActivityType;
 import edu.uth.backend.entity.User;
 import edu.uth.backend.entity.UserActivityHistory;
@@ -8,14 +9,18 @@ import edu.uth.backend.repository.UserRepository;
 import edu.uth.backend.history.dto.UserActivityHistoryDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -33,30 +38,35 @@ public class UserActivityHistoryController {
     @Autowired
     private UserRepository userRepository;
 
+    private static final int DEFAULT_CURSOR_LIMIT = 20;
+    private static final int MAX_CURSOR_LIMIT = 100;
+
+    @Value("${app.history.max-list-size:1000}")
+    private int maxListSize;
+
     /**
      * Lấy tất cả lịch sử của user hiện tại
      * GET /api/history/my-activities
+     * GET /api/history/my-activities?limit=20&cursor=... (keyset, dùng nextCursor cho trang sau)
      */
     @GetMapping("/my-activities")
     public ResponseEntity<?> getMyActivities(
             Authentication authentication,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
         Long userId = getCurrentUserId(authentication);
         log.info("Get my activities - userId={}, page={}, size={}", userId, page, size);
 
-        if (page != null && size != null) {
+        if (page != null && size != null && cursor == null && limit == null) {
             Page<UserActivityHistory> historyPage = historyService.getUserHistory(userId, page, size);
             Page<UserActivityHistoryDTO> dtoPage = historyPage.map(this::convertToDTO);
             return ResponseEntity.ok(dtoPage);
-        } else {
-            List<UserActivityHistory> histories = historyService.getUserHistory(userId);
-            List<UserActivityHistoryDTO> dtos = histories.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(dtos);
         }
+        return keysetOrList(cursor, limit,
+                (after, max) -> historyService.getUserHistoryPage(userId, after, max));
     }
 
     /**
@@ -65,16 +75,15 @@ public class UserActivityHistoryController {
     @GetMapping("/my-activities/by-type")
     public ResponseEntity<?> getMyActivitiesByType(
             Authentication authentication,
-            @RequestParam ActivityType type) {
+            @RequestParam ActivityType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
         Long userId = getCurrentUserId(authentication);
         log.info("Get activities by type - userId={}, type={}", userId, type);
 
-        List<UserActivityHistory> histories = historyService.getUserHistoryByType(userId, type);
-        List<UserActivityHistoryDTO> dtos = histories.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return keysetOrList(cursor, limit,
+                (after, max) -> historyService.getUserHistoryByTypesPage(userId, List.of(type), after, max));
     }
 
     /**
@@ -83,33 +92,33 @@ public class UserActivityHistoryController {
     @GetMapping("/my-activities/by-group")
     public ResponseEntity<?> getMyActivitiesByGroup(
             Authentication authentication,
-            @RequestParam String group) {
+            @RequestParam String group,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
         Long userId = getCurrentUserId(authentication);
         log.info("Get activities by group - userId={}, group={}", userId, group);
 
-        List<UserActivityHistory> histories;
+        List<ActivityType> types;
 
         switch (group.toLowerCase()) {
             case "paper":
-                histories = historyService.getPaperActivities(userId);
+                types = UserActivityHistoryService.PAPER_ACTIVITY_TYPES;
                 break;
             case "review":
-                histories = historyService.getReviewActivities(userId);
+                types = UserActivityHistoryService.REVIEW_ACTIVITY_TYPES;
                 break;
             case "auth":
             case "system":
-                histories = historyService.getAuthActivities(userId);
+                types = UserActivityHistoryService.AUTH_ACTIVITY_TYPES;
                 break;
             default:
                 log.warn("Invalid activity group - userId={}, group={}", userId, group);
                 return ResponseEntity.badRequest().body("Invalid group: " + group);
         }
 
-        List<UserActivityHistoryDTO> dtos = histories.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return keysetOrList(cursor, limit,
+                (after, max) -> historyService.getUserHistoryByTypesPage(userId, types, after, max));
     }
 
     /**
@@ -121,24 +130,21 @@ public class UserActivityHistoryController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
         Long userId = getCurrentUserId(authentication);
         log.info("Get activities by date range - userId={}, from={}, to={}", userId, from, to);
 
-        if (page != null && size != null) {
+        if (page != null && size != null && cursor == null && limit == null) {
             Page<UserActivityHistory> historyPage =
                     historyService.getUserHistoryByDateRange(userId, from, to, page, size);
             Page<UserActivityHistoryDTO> dtoPage = historyPage.map(this::convertToDTO);
             return ResponseEntity.ok(dtoPage);
-        } else {
-            List<UserActivityHistory> histories =
-                    historyService.getUserHistoryByDateRange(userId, from, to);
-            List<UserActivityHistoryDTO> dtos = histories.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(dtos);
         }
+        return keysetOrList(cursor, limit,
+                (after, max) -> historyService.getUserHistoryByDateRangePage(userId, from, to, after, max));
     }
 
     /**
@@ -147,7 +153,9 @@ public class UserActivityHistoryController {
     @GetMapping("/my-activities/recent")
     public ResponseEntity<?> getRecentActivities(
             Authentication authentication,
-            @RequestParam(defaultValue = "week") String range) {
+            @RequestParam(defaultValue = "week") String range,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
         Long userId = getCurrentUserId(authentication);
         log.info("Get recent activities - userId={}, range={}", userId, range);
@@ -170,12 +178,8 @@ public class UserActivityHistoryController {
                 return ResponseEntity.badRequest().body("Invalid range: " + range);
         }
 
-        List<UserActivityHistory> histories =
-                historyService.getUserHistoryByDateRange(userId, startTime, now);
-        List<UserActivityHistoryDTO> dtos = histories.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return keysetOrList(cursor, limit,
+                (after, max) -> historyService.getUserHistoryByDateRangePage(userId, startTime, now, after, max));
     }
 
     /**
@@ -184,17 +188,15 @@ public class UserActivityHistoryController {
     @GetMapping("/my-activities/by-entity")
     public ResponseEntity<?> getMyActivitiesByEntity(
             Authentication authentication,
-            @RequestParam Long entityId) {
+            @RequestParam Long entityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
         Long userId = getCurrentUserId(authentication);
         log.info("Get activities by entity - userId={}, entityId={}", userId, entityId);
 
-        List<UserActivityHistory> histories =
-                historyService.getUserHistoryByEntity(userId, entityId);
-        List<UserActivityHistoryDTO> dtos = histories.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return keysetOrList(cursor, limit,
+                (after, max) -> historyService.getUserHistoryByEntityPage(userId, entityId, after, max));
     }
 
     /**
@@ -206,25 +208,46 @@ public class UserActivityHistoryController {
         Long userId = getCurrentUserId(authentication);
         log.info("Get activity stats - userId={}", userId);
 
-        long totalActivities = historyService.countUserActivities(userId);
-        long paperActivities =
-                historyService.countUserActivitiesByType(userId, ActivityType.SUBMIT_PAPER)
-                        + historyService.countUserActivitiesByType(userId, ActivityType.EDIT_PAPER)
-                        + historyService.countUserActivitiesByType(userId, ActivityType.WITHDRAW_PAPER)
-                        + historyService.countUserActivitiesByType(userId, ActivityType.UPLOAD_CAMERA_READY);
-        long reviewActivities =
-                historyService.countUserActivitiesByType(userId, ActivityType.VIEW_REVIEW)
-                        + historyService.countUserActivitiesByType(userId, ActivityType.SUBMIT_REVIEW)
-                        + historyService.countUserActivitiesByType(userId, ActivityType.UPDATE_REVIEW);
-        long loginCount =
-                historyService.countUserActivitiesByType(userId, ActivityType.LOGIN);
+        Map<ActivityType, Long> counts = historyService.getActivityCountsByType(userId);
+        long totalActivities = counts.values().stream().mapToLong(Long::longValue).sum();
+        long paperActivities = sumCounts(counts, UserActivityHistoryService.PAPER_ACTIVITY_TYPES);
+        long reviewActivities = sumCounts(counts, UserActivityHistoryService.REVIEW_ACTIVITY_TYPES);
+        long loginCount = counts.getOrDefault(ActivityType.LOGIN, 0L);
 
         return ResponseEntity.ok(
                 new ActivityStats(totalActivities, paperActivities, reviewActivities, loginCount));
     }
 
+    /**
+     * Trạng thái pipeline ghi lịch sử hoạt động (Admin only)
+     * GET /api/history/pipeline
+     */
+    @GetMapping("/pipeline")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ActivityHistoryWriter.Stats> getPipelineStats() {
+        return ResponseEntity.ok(historyService.getWriterStats());
+    }
+
     // ================= Helper =================
 
+    /**
+     * Có cursor/limit thì trả về CursorPage; không có thì trả về danh sách như cũ
+     * nhưng giới hạn ở maxListSize bản ghi mới nhất
+     */
+    private ResponseEntity<?> keysetOrList(
+            String cursor,
+            Integer limit,
+            BiFunction<String, Integer, CursorPage<UserActivityHistory>> query) {
+        if (cursor != null || limit != null) {
+            int pageSize = (limit == null || limit < 1) ? DEFAULT_CURSOR_LIMIT : Math.min(limit, MAX_CURSOR_LIMIT);
+            return ResponseEntity.ok(query.apply(cursor, pageSize).map(this::convertToDTO));
+        }
+        List<UserActivityHistoryDTO> dtos = query.apply(null, maxListSize).items().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(dtos);
+    }
+
     private Long getCurrentUserId(Authentication authentication) {
         if (authentication == null) {
             throw new IllegalArgumentException("Vui lòng đăng nhập!");
@@ -237,6 +260,10 @@ public class UserActivityHistoryController {
         return user.getId();
     }
 
+    private static long sumCounts(Map<ActivityType, Long> counts, List<ActivityType> types) {
+        return types.stream().mapToLong(type -> counts.getOrDefault(type, 0L)).sum();
+    }
+
     private UserActivityHistoryDTO convertToDTO(UserActivityHistory history) {
         return UserActivityHistoryDTO.builder()
                 .id(history.getId())
@@ -2,15 +2,21 @@ package edu.uth.backend.history;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.uth.backend.admin.DashboardMetricsService;
+import edu.uth.backend.common.CursorPage;
+import edu.uth.backend.common.KeysetCursor;
 import edu.uth.backend.entity.*;
 import edu.uth.backend.repository.UserActivityHistoryRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -22,17 +28,89 @@ import java.util.*;
 @Slf4j
 public class UserActivityHistoryService {
 
+    /** Nhóm hoạt động Paper (Submit, Edit, Withdraw, Upload Camera Ready) */
+    public static final List<ActivityType> PAPER_ACTIVITY_TYPES = List.of(
+            ActivityType.SUBMIT_PAPER,
+            ActivityType.EDIT_PAPER,
+            ActivityType.WITHDRAW_PAPER,
+            ActivityType.UPLOAD_CAMERA_READY);
+
+    /** Nhóm hoạt động Review */
+    public static final List<ActivityType> REVIEW_ACTIVITY_TYPES = List.of(
+            ActivityType.VIEW_REVIEW,
+            ActivityType.SUBMIT_REVIEW,
+            ActivityType.UPDATE_REVIEW);
+
+    /** Nhóm hoạt động Auth/System */
+    public static final List<ActivityType> AUTH_ACTIVITY_TYPES = List.of(
+            ActivityType.LOGIN,
+            ActivityType.LOGOUT,
+            ActivityType.UPDATE_PROFILE,
+            ActivityType.CHANGE_PASSWORD);
+
     @Autowired
     private UserActivityHistoryRepository historyRepository;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ActivityHistoryWriter activityHistoryWriter;
+
+    @Autowired
+    private ActivityCounterService activityCounterService;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetrics;
+
     /**
-     * Ghi lại một hoạt động của người dùng
+     * Ghi lại một hoạt động của người dùng. Khi pipeline write-behind bật, hoạt động được đưa vào
+     * hàng đợi sau khi transaction của caller commit (rollback thì không ghi); ngược lại dòng lịch sử
+     * và bộ đếm được ghi đồng bộ trong cùng một transaction
      */
     @Transactional
-    public UserActivityHistory logActivity(
+    public void logActivity(
+            Long userId,
+            ActivityType activityType,
+            EntityType entityType,
+            Long entityId,
+            String description,
+            Map<String, Object> metadata,
+            String ipAddress) {
+        dashboardMetrics.recordActivity(userId);
+        if (!activityHistoryWriter.isEnabled()) {
+            saveActivity(userId, activityType, entityType, entityId, description, metadata, ipAddress);
+            return;
+        }
+
+        ActivityEvent event = new ActivityEvent(
+                userId,
+                activityType,
+                entityType,
+                entityId,
+                description,
+                metadata != null ? new HashMap<>(metadata) : null,
+                ipAddress,
+                LocalDateTime.now(),
+                ActivityStatus.SUCCESS);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activityHistoryWriter.submit(event);
+                }
+            });
+        } else {
+            activityHistoryWriter.submit(event);
+        }
+        log.debug("Queued activity: userId={}, type={}, description={}", userId, activityType, description);
+    }
+
+    /**
+     * Ghi đồng bộ dòng lịch sử và bộ đếm trong transaction của logActivity (khi pipeline write-behind tắt)
+     */
+    private void saveActivity(
             Long userId,
             ActivityType activityType,
             EntityType entityType,
@@ -58,10 +136,10 @@ public class UserActivityHistoryService {
                     .status(ActivityStatus.SUCCESS)
                     .build();
 
-            UserActivityHistory saved = historyRepository.save(history);
+            historyRepository.save(history);
+            activityCounterService.increment(userId, activityType, history.getTimestamp().toLocalDate());
             log.info("Logged activity: userId={}, type={}, description={}",
                     userId, activityType, description);
-            return saved;
 
         } catch (JsonProcessingException e) {
             log.error("Error converting metadata to JSON", e);
@@ -99,7 +177,9 @@ public class UserActivityHistoryService {
                     .status(ActivityStatus.FAILED)
                     .build();
 
-            return historyRepository.save(history);
+            UserActivityHistory saved = historyRepository.save(history);
+            activityCounterService.increment(userId, activityType, saved.getTimestamp().toLocalDate());
+            return saved;
 
         } catch (JsonProcessingException e) {
             log.error("Error converting metadata to JSON", e);
@@ -107,6 +187,13 @@ public class UserActivityHistoryService {
         }
     }
 
+    /**
+     * Số liệu pipeline ghi lịch sử hoạt động
+     */
+    public ActivityHistoryWriter.Stats getWriterStats() {
+        return activityHistoryWriter.getStats();
+    }
+
     /**
      * Lấy tất cả lịch sử của user
      */
@@ -174,60 +261,59 @@ public class UserActivityHistoryService {
     }
 
     /**
-     * Lấy lịch sử theo entity cụ thể (ví dụ: tất cả hoạt động liên quan đến paper
-     * ID 123)
+     * Số hoạt động của user theo từng loại, đọc từ bảng đếm theo ngày
      */
-    public List<UserActivityHistory> getUserHistoryByEntity(Long userId, Long entityId) {
-        return historyRepository.findByUserIdAndEntityIdOrderByTimestampDesc(userId, entityId);
+    public Map<ActivityType, Long> getActivityCountsByType(Long userId) {
+        return activityCounterService.getCountsByType(userId);
     }
 
+    // ================= Phân trang keyset (timestamp, id) =================
+
     /**
-     * Đếm tổng số hoạt động của user
+     * Trang lịch sử của user sau cursor (null = trang đầu)
      */
-    public long countUserActivities(Long userId) {
-        return historyRepository.countByUserId(userId);
+    public CursorPage<UserActivityHistory> getUserHistoryPage(Long userId, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<UserActivityHistory> rows = historyRepository.findPageByUserId(
+                userId, after.timestamp(), after.id(), Limit.of(limit + 1));
+        return toPage(rows, limit);
     }
 
     /**
-     * Đếm số hoạt động theo loại
+     * Trang lịch sử theo một hoặc nhiều loại hoạt động
      */
-    public long countUserActivitiesByType(Long userId, ActivityType activityType) {
-        return historyRepository.countByUserIdAndActivityType(userId, activityType);
+    public CursorPage<UserActivityHistory> getUserHistoryByTypesPage(
+            Long userId, List<ActivityType> activityTypes, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<UserActivityHistory> rows = historyRepository.findPageByUserIdAndActivityTypes(
+                userId, activityTypes, after.timestamp(), after.id(), Limit.of(limit + 1));
+        return toPage(rows, limit);
     }
 
     /**
-     * Lấy nhóm hoạt động Paper (Submit, Edit, Withdraw, Upload Camera Ready)
+     * Trang lịch sử trong khoảng thời gian
      */
-    public List<UserActivityHistory> getPaperActivities(Long userId) {
-        List<ActivityType> paperTypes = Arrays.asList(
-                ActivityType.SUBMIT_PAPER,
-                ActivityType.EDIT_PAPER,
-                ActivityType.WITHDRAW_PAPER,
-                ActivityType.UPLOAD_CAMERA_READY);
-        return getUserHistoryByTypes(userId, paperTypes);
+    public CursorPage<UserActivityHistory> getUserHistoryByDateRangePage(
+            Long userId, LocalDateTime startTime, LocalDateTime endTime, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<UserActivityHistory> rows = historyRepository.findPageByUserIdAndTimeRange(
+                userId, startTime, endTime, after.timestamp(), after.id(), Limit.of(limit + 1));
+        return toPage(rows, limit);
     }
 
     /**
-     * Lấy nhóm hoạt động Review
+     * Trang lịch sử liên quan đến một entity
      */
-    public List<UserActivityHistory> getReviewActivities(Long userId) {
-        List<ActivityType> reviewTypes = Arrays.asList(
-                ActivityType.VIEW_REVIEW,
-                ActivityType.SUBMIT_REVIEW,
-                ActivityType.UPDATE_REVIEW);
-        return getUserHistoryByTypes(userId, reviewTypes);
+    public CursorPage<UserActivityHistory> getUserHistoryByEntityPage(
+            Long userId, Long entityId, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<UserActivityHistory> rows = historyRepository.findPageByUserIdAndEntityId(
+                userId, entityId, after.timestamp(), after.id(), Limit.of(limit + 1));
+        return toPage(rows, limit);
     }
 
-    /**
-     * Lấy nhóm hoạt động Auth/System
-     */
-    public List<UserActivityHistory> getAuthActivities(Long userId) {
-        List<ActivityType> authTypes = Arrays.asList(
-                ActivityType.LOGIN,
-                ActivityType.LOGOUT,
-                ActivityType.UPDATE_PROFILE,
-                ActivityType.CHANGE_PASSWORD);
-        return getUserHistoryByTypes(userId, authTypes);
+    private CursorPage<UserActivityHistory> toPage(List<UserActivityHistory> rows, int limit) {
+        return CursorPage.of(rows, limit, UserActivityHistory::getTimestamp, UserActivityHistory::getId);
     }
 
     /**
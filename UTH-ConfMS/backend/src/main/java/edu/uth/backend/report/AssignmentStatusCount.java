@@ -0,0 +1,9 @@
+package edu.uth.backend.report;
+
+import edu.uth.backend.entity.AssignmentStatus;
+
+/**
+ * Số phân công review theo trạng thái (kết quả GROUP BY status)
+ */
+public record AssignmentStatusCount(AssignmentStatus status, Long count) {
+}
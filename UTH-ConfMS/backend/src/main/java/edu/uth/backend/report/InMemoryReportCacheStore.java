@@ -0,0 +1,102 @@
+package edu.uth.backend.report;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache báo cáo trong bộ nhớ của node hiện tại (mặc định): LRU có giới hạn số entry và TTL.
+ * Chạy nhiều node thì dùng store "redis" để việc xóa cache có hiệu lực trên mọi node.
+ */
+@Component
+@ConditionalOnProperty(name = "app.report.cache.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryReportCacheStore implements ReportCacheStore {
+
+    private final long ttlMs;
+    private final Map<String, Entry> entries;
+    // Generation theo hội nghị và của cả cache, được bảo vệ bởi khóa của entries
+    private final Map<Long, Long> generations = new HashMap<>();
+    private long clearGeneration;
+
+    public InMemoryReportCacheStore(
+        @Value("${app.report.cache.ttl-seconds:300}") long ttlSeconds,
+        @Value("${app.report.cache.max-size:500}") int maxSize
+    ) {
+        this.ttlMs = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public Optional<Object> get(Long conferenceId, ReportType type) {
+        String key = key(conferenceId, type);
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            if (cached.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(cached.report);
+        }
+    }
+
+    @Override
+    public String generation(Long conferenceId) {
+        synchronized (entries) {
+            return clearGeneration + ":" + generations.getOrDefault(conferenceId, 0L);
+        }
+    }
+
+    @Override
+    public boolean put(Long conferenceId, ReportType type, Object report, String generation) {
+        synchronized (entries) {
+            if (!generation(conferenceId).equals(generation)) {
+                return false;
+            }
+            entries.put(key(conferenceId, type), new Entry(conferenceId, report, System.currentTimeMillis() + ttlMs));
+            return true;
+        }
+    }
+
+    @Override
+    public void evict(Long conferenceId) {
+        synchronized (entries) {
+            generations.merge(conferenceId, 1L, Long::sum);
+            entries.values().removeIf(entry -> entry.conferenceId.equals(conferenceId));
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            clearGeneration++;
+            entries.clear();
+        }
+    }
+
+    @Override
+    public long size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String key(Long conferenceId, ReportType type) {
+        return conferenceId + ":" + type;
+    }
+
+    private record Entry(Long conferenceId, Object report, long expiresAt) {
+    }
+}
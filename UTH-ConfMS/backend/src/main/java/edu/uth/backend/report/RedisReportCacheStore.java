@@ -0,0 +1,161 @@
+package edu.uth.backend.report;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache báo cáo trong Redis (JSON, có TTL) để mọi node API dùng chung và cùng thấy việc xóa cache.
+ * Generation của cache cũng nằm trong Redis (report:gen cho toàn bộ, report:gen:{conferenceId} theo hội nghị);
+ * put so generation và ghi trong cùng một script nên báo cáo tính trước lúc node khác xóa cache không được lưu.
+ * Các key báo cáo được ghi vào sorted set report:index (điểm = thời điểm hết hạn) để clear/size không cần KEYS.
+ * Redis lỗi thì coi như cache miss, báo cáo vẫn được tính từ database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.report.cache.store", havingValue = "redis")
+public class RedisReportCacheStore implements ReportCacheStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisReportCacheStore.class);
+
+    private static final String KEY_PREFIX = "report:";
+    private static final String INDEX_KEY = KEY_PREFIX + "index";
+    private static final String CLEAR_GENERATION_KEY = KEY_PREFIX + "gen";
+
+    // KEYS: entry, gen toàn bộ, gen hội nghị, index; ARGV: generation đã đọc, json, ttl (ms), thời điểm hết hạn
+    private static final DefaultRedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+        local generation = (redis.call('GET', KEYS[2]) or '0') .. ':' .. (redis.call('GET', KEYS[3]) or '0')
+        if generation ~= ARGV[1] then
+            return 0
+        end
+        redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+        redis.call('ZADD', KEYS[4], ARGV[4], KEYS[1])
+        return 1
+        """, Long.class);
+
+    // KEYS: gen hội nghị, index, các entry của hội nghị
+    private static final DefaultRedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>("""
+        redis.call('INCR', KEYS[1])
+        for i = 3, #KEYS do
+            redis.call('DEL', KEYS[i])
+            redis.call('ZREM', KEYS[2], KEYS[i])
+        end
+        return 1
+        """, Long.class);
+
+    // KEYS: gen toàn bộ, index; xóa theo từng lô để không vượt giới hạn unpack của Lua
+    private static final DefaultRedisScript<Long> CLEAR_SCRIPT = new DefaultRedisScript<>("""
+        redis.call('INCR', KEYS[1])
+        local keys = redis.call('ZRANGE', KEYS[2], 0, -1)
+        for i = 1, #keys, 500 do
+            redis.call('DEL', unpack(keys, i, math.min(i + 499, #keys)))
+        end
+        redis.call('DEL', KEYS[2])
+        return #keys
+        """, Long.class);
+
+    // KEYS: index; ARGV: thời điểm hiện tại. Bỏ các key đã hết hạn khỏi index rồi đếm
+    private static final DefaultRedisScript<Long> SIZE_SCRIPT = new DefaultRedisScript<>("""
+        redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[1])
+        return redis.call('ZCARD', KEYS[1])
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public RedisReportCacheStore(
+        StringRedisTemplate redisTemplate,
+        ObjectMapper objectMapper,
+        @Value("${app.report.cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    @Override
+    public Optional<Object> get(Long conferenceId, ReportType type) {
+        try {
+            String json = redisTemplate.opsForValue().get(key(conferenceId, type));
+            return json != null ? Optional.of(objectMapper.readValue(json, Object.class)) : Optional.empty();
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("Report cache read failed for conference {} {}: {}", conferenceId, type, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String generation(Long conferenceId) {
+        try {
+            List<String> values = redisTemplate.opsForValue()
+                .multiGet(List.of(CLEAR_GENERATION_KEY, generationKey(conferenceId)));
+            if (values == null) {
+                return null;
+            }
+            return orZero(values.get(0)) + ":" + orZero(values.get(1));
+        } catch (RuntimeException e) {
+            logger.warn("Report cache generation read failed for conference {}: {}", conferenceId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean put(Long conferenceId, ReportType type, Object report, String generation) {
+        try {
+            long now = System.currentTimeMillis();
+            Long stored = redisTemplate.execute(PUT_SCRIPT,
+                List.of(key(conferenceId, type), CLEAR_GENERATION_KEY, generationKey(conferenceId), INDEX_KEY),
+                generation, objectMapper.writeValueAsString(report),
+                String.valueOf(ttl.toMillis()), String.valueOf(now + ttl.toMillis()));
+            return stored != null && stored == 1L;
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("Report cache write failed for conference {} {}: {}", conferenceId, type, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void evict(Long conferenceId) {
+        List<String> keys = new ArrayList<>();
+        keys.add(generationKey(conferenceId));
+        keys.add(INDEX_KEY);
+        for (ReportType type : ReportType.values()) {
+            keys.add(key(conferenceId, type));
+        }
+        redisTemplate.execute(EVICT_SCRIPT, keys);
+    }
+
+    @Override
+    public void clear() {
+        redisTemplate.execute(CLEAR_SCRIPT, List.of(CLEAR_GENERATION_KEY, INDEX_KEY));
+    }
+
+    @Override
+    public long size() {
+        Long size = redisTemplate.execute(SIZE_SCRIPT, List.of(INDEX_KEY), String.valueOf(System.currentTimeMillis()));
+        return size != null ? size : 0;
+    }
+
+    private static String key(Long conferenceId, ReportType type) {
+        return KEY_PREFIX + conferenceId + ":" + type;
+    }
+
+    private static String generationKey(Long conferenceId) {
+        return CLEAR_GENERATION_KEY + ":" + conferenceId;
+    }
+
+    private static String orZero(String value) {
+        return value != null ? value : "0";
+    }
+}
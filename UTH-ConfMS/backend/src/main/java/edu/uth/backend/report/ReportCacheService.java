@@ -0,0 +1,104 @@
+package edu.uth.backend.report;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache báo cáo theo (conferenceId, loại báo cáo). Entry bị xóa khi có ReportDataChangedEvent
+ * (sau khi transaction phát sự kiện commit) và hết hạn sau ttl-seconds để giới hạn độ cũ.
+ * Báo cáo tính trong lúc có sự kiện xóa cache sẽ không được lưu, tránh ghi đè cache bằng dữ liệu cũ.
+ */
+@Service
+public class ReportCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCacheService.class);
+
+    /**
+     * Số liệu cache báo cáo
+     */
+    public record Stats(
+        boolean enabled,
+        String store,
+        long size,
+        long hits,
+        long misses,
+        long puts,
+        long invalidations,
+        double hitRate
+    ) {
+    }
+
+    @Value("${app.report.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Autowired
+    private ReportCacheStore store;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Lấy báo cáo từ cache, tính bằng loader khi chưa có; ttl-seconds <= 0 sẽ tắt cache
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long conferenceId, ReportType type, Supplier<T> loader) {
+        if (ttlSeconds <= 0) {
+            return loader.get();
+        }
+        var cached = store.get(conferenceId, type);
+        if (cached.isPresent()) {
+            hits.incrementAndGet();
+            return (T) cached.get();
+        }
+        misses.incrementAndGet();
+
+        // Generation nằm trong store nên việc xóa cache ở node khác cũng chặn lưu báo cáo đã cũ
+        String generation = store.generation(conferenceId);
+        T report = loader.get();
+        if (generation != null && store.put(conferenceId, type, report, generation)) {
+            puts.incrementAndGet();
+        }
+        return report;
+    }
+
+    /**
+     * Xóa cache khi dữ liệu báo cáo đổi; chạy sau commit, hoặc ngay nếu không có transaction
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportDataChanged(ReportDataChangedEvent event) {
+        invalidations.incrementAndGet();
+        try {
+            if (event.conferenceId() == null) {
+                store.clear();
+            } else {
+                store.evict(event.conferenceId());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not invalidate report cache for conference {} ({})",
+                event.conferenceId(), event.reason(), e);
+        }
+    }
+
+    public Stats getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        return new Stats(
+            ttlSeconds > 0,
+            store.getClass().getSimpleName(),
+            store.size(),
+            hitCount,
+            misses.get(),
+            puts.get(),
+            invalidations.get(),
+            lookups > 0 ? Math.round(hitCount * 10000.0 / lookups) / 100.0 : 0.0);
+    }
+}
@@ -0,0 +1,33 @@
+package edu.uth.backend.report;
+
+import java.util.Optional;
+
+/**
+ * Nơi lưu báo cáo đã tính theo (conferenceId, loại báo cáo). Mỗi entry hết hạn sau TTL
+ * (app.report.cache.ttl-seconds) để giới hạn độ cũ khi dữ liệu đổi mà không phát sự kiện.
+ * Store giữ luôn generation của cache (đổi sau mỗi evict/clear) để báo cáo tính trước lúc xóa cache
+ * không được lưu đè, kể cả khi việc xóa cache đến từ node khác.
+ */
+public interface ReportCacheStore {
+
+    Optional<Object> get(Long conferenceId, ReportType type);
+
+    /**
+     * Generation hiện tại của cache hội nghị, đọc trước khi tính báo cáo; null nếu không đọc được
+     */
+    String generation(Long conferenceId);
+
+    /**
+     * Lưu báo cáo nếu cache của hội nghị chưa bị xóa kể từ lúc đọc generation
+     */
+    boolean put(Long conferenceId, ReportType type, Object report, String generation);
+
+    /**
+     * Xóa mọi báo cáo của hội nghị
+     */
+    void evict(Long conferenceId);
+
+    void clear();
+
+    long size();
+}
@@ -14,6 +14,9 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportCacheService reportCache;
+
     // API: Báo cáo tổng hợp conference
     // GET /api/reports/conference/{conferenceId}
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ROLE_CHAIR','ROLE_TRACK_CHAIR')")
@@ -21,7 +24,8 @@ public class ReportController {
     public ResponseEntity<?> getConferenceReport(@PathVariable Long conferenceId) {
         log.info("Get conference report - conferenceId={}", conferenceId);
         try {
-            Object result = reportService.getConferenceReport(conferenceId);
+            Object result = reportCache.get(conferenceId, ReportType.CONFERENCE,
+                    () -> reportService.getConferenceReport(conferenceId));
             log.info("Get conference report success - conferenceId={}", conferenceId);
             return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
@@ -37,7 +41,8 @@ public class ReportController {
     public ResponseEntity<?> getTrackReport(@PathVariable Long conferenceId) {
         log.info("Get track report - conferenceId={}", conferenceId);
         try {
-            Object result = reportService.getTrackReport(conferenceId);
+            Object result = reportCache.get(conferenceId, ReportType.TRACKS,
+                    () -> reportService.getTrackReport(conferenceId));
             log.info("Get track report success - conferenceId={}", conferenceId);
             return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
@@ -53,7 +58,8 @@ public class ReportController {
     public ResponseEntity<?> getReviewProgressReport(@PathVariable Long conferenceId) {
         log.info("Get review progress report - conferenceId={}", conferenceId);
         try {
-            Object result = reportService.getReviewProgressReport(conferenceId);
+            Object result = reportCache.get(conferenceId, ReportType.REVIEW_PROGRESS,
+                    () -> reportService.getReviewProgressReport(conferenceId));
             log.info("Get review progress report success - conferenceId={}", conferenceId);
             return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
@@ -69,7 +75,8 @@ public class ReportController {
     public ResponseEntity<?> exportProceedings(@PathVariable Long conferenceId) {
         log.info("Export proceedings - conferenceId={}", conferenceId);
         try {
-            Object result = reportService.exportPapersForProceedings(conferenceId);
+            Object result = reportCache.get(conferenceId, ReportType.PROCEEDINGS,
+                    () -> reportService.exportPapersForProceedings(conferenceId));
             log.info("Export proceedings success - conferenceId={}", conferenceId);
             return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
@@ -77,4 +84,12 @@ public class ReportController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    // API: Số liệu cache báo cáo (hit/miss, số lần xóa cache)
+    // GET /api/reports/cache/stats
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ReportCacheService.Stats> getCacheStats() {
+        return ResponseEntity.ok(reportCache.getStats());
+    }
 }
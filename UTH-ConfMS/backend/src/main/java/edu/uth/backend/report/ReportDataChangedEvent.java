@@ -0,0 +1,17 @@
+package edu.uth.backend.report;
+
+import edu.uth.backend.entity.Paper;
+
+/**
+ * Sự kiện miền: dữ liệu báo cáo của một hội nghị đã thay đổi (nộp/rút bài, phân công, review, quyết định).
+ * conferenceId null nghĩa là không xác định được hội nghị, khi đó toàn bộ cache báo cáo bị xóa.
+ */
+public record ReportDataChangedEvent(Long conferenceId, String reason) {
+
+    public static ReportDataChangedEvent forPaper(Paper paper, String reason) {
+        Long conferenceId = paper != null && paper.getTrack() != null && paper.getTrack().getConference() != null
+            ? paper.getTrack().getConference().getId()
+            : null;
+        return new ReportDataChangedEvent(conferenceId, reason);
+    }
+}
@@ -9,6 +9,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Báo cáo hội nghị. Số liệu được đếm bằng GROUP BY trong database (TrackStatusCount,
+ * AssignmentStatusCount) nên mỗi báo cáo chạy số query cố định, không phụ thuộc số track/bài.
+ */
 @Service
 @Transactional(readOnly = true)
 public class ReportService {
@@ -20,20 +24,19 @@ public class ReportService {
 
     // 1. Báo cáo tổng hợp theo conference
     public Map<String, Object> getConferenceReport(Long conferenceId) {
-        Conference conference = conferenceRepo.findById(conferenceId)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy hội nghị"));
+        Conference conference = findConference(conferenceId);
 
-        // Lấy tất cả papers của conference thông qua tracks
-        List<Track> tracks = conference.getTracks();
-        List<Paper> papers = new ArrayList<>();
-        for (Track track : tracks) {
-            papers.addAll(paperRepo.findByTrackId(track.getId()));
+        Map<PaperStatus, Long> byStatus = new EnumMap<>(PaperStatus.class);
+        for (TrackStatusCount row : paperRepo.countByConferenceGroupByTrackAndStatus(conferenceId)) {
+            if (row.status() != null) {
+                byStatus.merge(row.status(), row.count(), Long::sum);
+            }
         }
-        
-        long totalSubmissions = papers.size();
-        long acceptedCount = papers.stream().filter(p -> p.getStatus() == PaperStatus.ACCEPTED).count();
-        long rejectedCount = papers.stream().filter(p -> p.getStatus() == PaperStatus.REJECTED).count();
-        long underReviewCount = papers.stream().filter(p -> p.getStatus() == PaperStatus.UNDER_REVIEW).count();
+
+        long totalSubmissions = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        long acceptedCount = byStatus.getOrDefault(PaperStatus.ACCEPTED, 0L);
+        long rejectedCount = byStatus.getOrDefault(PaperStatus.REJECTED, 0L);
+        long underReviewCount = byStatus.getOrDefault(PaperStatus.UNDER_REVIEW, 0L);
         
         double acceptanceRate = totalSubmissions > 0 ? (acceptedCount * 100.0 / totalSubmissions) : 0.0;
         
@@ -52,35 +55,35 @@ public class ReportService {
 
     // 2. Báo cáo theo track
     public Map<String, Object> getTrackReport(Long conferenceId) {
-        Conference conference = conferenceRepo.findById(conferenceId)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy hội nghị"));
+        Conference conference = findConference(conferenceId);
 
-        // Lấy tất cả papers của conference thông qua tracks
-        List<Track> conferenceTracks = conference.getTracks();
-        List<Paper> papers = new ArrayList<>();
-        for (Track track : conferenceTracks) {
-            papers.addAll(paperRepo.findByTrackId(track.getId()));
+        // Gom các dòng (track, status, count) theo track; track chưa có bài vẫn có một dòng count 0
+        Map<Long, String> trackNames = new LinkedHashMap<>();
+        Map<Long, Map<PaperStatus, Long>> countsByTrack = new HashMap<>();
+        for (TrackStatusCount row : paperRepo.countByConferenceGroupByTrackAndStatus(conferenceId)) {
+            trackNames.put(row.trackId(), row.trackName());
+            Map<PaperStatus, Long> counts = countsByTrack.computeIfAbsent(row.trackId(), id -> new EnumMap<>(PaperStatus.class));
+            if (row.status() != null) {
+                counts.merge(row.status(), row.count(), Long::sum);
+            }
         }
         
         Map<String, Map<String, Object>> trackStats = new HashMap<>();
         
-        for (Track track : conferenceTracks) {
-            List<Paper> trackPapers = papers.stream()
-                    .filter(p -> p.getTrack() != null && p.getTrack().getId().equals(track.getId()))
-                    .collect(Collectors.toList());
-            
-            long total = trackPapers.size();
-            long accepted = trackPapers.stream().filter(p -> p.getStatus() == PaperStatus.ACCEPTED).count();
-            long rejected = trackPapers.stream().filter(p -> p.getStatus() == PaperStatus.REJECTED).count();
+        for (Map.Entry<Long, String> track : trackNames.entrySet()) {
+            Map<PaperStatus, Long> counts = countsByTrack.get(track.getKey());
+            long total = counts.values().stream().mapToLong(Long::longValue).sum();
+            long accepted = counts.getOrDefault(PaperStatus.ACCEPTED, 0L);
+            long rejected = counts.getOrDefault(PaperStatus.REJECTED, 0L);
             
             Map<String, Object> stats = new HashMap<>();
-            stats.put("trackName", track.getName());
+            stats.put("trackName", track.getValue());
             stats.put("total", total);
             stats.put("accepted", accepted);
             stats.put("rejected", rejected);
             stats.put("acceptanceRate", total > 0 ? Math.round((accepted * 100.0 / total) * 100.0) / 100.0 : 0.0);
             
-            trackStats.put(track.getName(), stats);
+            trackStats.put(track.getValue(), stats);
         }
         
         Map<String, Object> report = new HashMap<>();
@@ -94,30 +97,18 @@ public class ReportService {
 
     // 3. Báo cáo tiến độ review
     public Map<String, Object> getReviewProgressReport(Long conferenceId) {
-        Conference conference = conferenceRepo.findById(conferenceId)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy hội nghị"));
+        Conference conference = findConference(conferenceId);
 
-        // Lấy tất cả papers của conference thông qua tracks
-        List<Track> tracks = conference.getTracks();
-        List<Paper> papers = new ArrayList<>();
-        for (Track track : tracks) {
-            papers.addAll(paperRepo.findByTrackId(track.getId()));
+        Map<AssignmentStatus, Long> byStatus = new EnumMap<>(AssignmentStatus.class);
+        for (AssignmentStatusCount row : assignmentRepo.countByConferenceGroupByStatus(conferenceId)) {
+            byStatus.merge(row.status(), row.count(), Long::sum);
         }
-        List<ReviewAssignment> allAssignments = new ArrayList<>();
         
-        for (Paper paper : papers) {
-            allAssignments.addAll(assignmentRepo.findByPaperId(paper.getId()));
-        }
-        
-        long totalAssignments = allAssignments.size();
-        long completed = allAssignments.stream()
-                .filter(a -> a.getStatus() == AssignmentStatus.COMPLETED).count();
-        long pending = allAssignments.stream()
-                .filter(a -> a.getStatus() == AssignmentStatus.PENDING).count();
-        long accepted = allAssignments.stream()
-                .filter(a -> a.getStatus() == AssignmentStatus.ACCEPTED).count();
-        long declined = allAssignments.stream()
-                .filter(a -> a.getStatus() == AssignmentStatus.DECLINED).count();
+        long totalAssignments = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        long completed = byStatus.getOrDefault(AssignmentStatus.COMPLETED, 0L);
+        long pending = byStatus.getOrDefault(AssignmentStatus.PENDING, 0L);
+        long accepted = byStatus.getOrDefault(AssignmentStatus.ACCEPTED, 0L);
+        long declined = byStatus.getOrDefault(AssignmentStatus.DECLINED, 0L);
         
         double completionRate = totalAssignments > 0 ? (completed * 100.0 / totalAssignments) : 0.0;
         
@@ -137,17 +128,12 @@ public class ReportService {
 
     // 4. Export danh sách papers (cho proceedings)
     public List<Map<String, Object>> exportPapersForProceedings(Long conferenceId) {
-        Conference conference = conferenceRepo.findById(conferenceId)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy hội nghị"));
+        findConference(conferenceId);
         
-        // Lấy tất cả papers của conference thông qua tracks
-        List<Track> tracks = conference.getTracks();
-        List<Paper> papers = new ArrayList<>();
-        for (Track track : tracks) {
-            papers.addAll(paperRepo.findByTrackId(track.getId()));
-        }
-        papers = papers.stream()
-                .filter(p -> p.getStatus() == PaperStatus.ACCEPTED)
+        // Một query lấy bài ACCEPTED kèm tác giả, track, đồng tác giả (không lazy load từng bài)
+        List<Paper> papers = paperRepo.findAllWithDetailsByConferenceIdAndStatus(conferenceId, PaperStatus.ACCEPTED)
+                .stream()
+                .sorted(Comparator.comparing((Paper p) -> p.getTrack().getId()).thenComparing(Paper::getId))
                 .collect(Collectors.toList());
         
         return papers.stream().map(paper -> {
@@ -170,4 +156,9 @@ public class ReportService {
             return data;
         }).collect(Collectors.toList());
     }
+
+    private Conference findConference(Long conferenceId) {
+        return conferenceRepo.findById(conferenceId)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy hội nghị"));
+    }
 }
@@ -0,0 +1,11 @@
+package edu.uth.backend.report;
+
+/**
+ * Loại báo cáo trong ReportController, dùng làm một phần khóa cache
+ */
+public enum ReportType {
+    CONFERENCE,
+    TRACKS,
+    REVIEW_PROGRESS,
+    PROCEEDINGS
+}
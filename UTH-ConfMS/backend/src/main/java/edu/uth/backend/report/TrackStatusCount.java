@@ -0,0 +1,10 @@
+package edu.uth.backend.report;
+
+import edu.uth.backend.entity.PaperStatus;
+
+/**
+ * Số bài của một track theo trạng thái (kết quả GROUP BY track, status).
+ * Track chưa có bài trả về một dòng với status null và count 0.
+ */
+public record TrackStatusCount(Long trackId, String trackName, PaperStatus status, Long count) {
+}
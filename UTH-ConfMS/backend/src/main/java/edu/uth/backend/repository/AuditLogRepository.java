@@ -4,17 +4,14 @@ import edu.uth.backend.entity.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, JpaSpecificationExecutor<AuditLog> {
     
     Page<AuditLog> findAllByOrderByTimestampDesc(Pageable pageable);
-    
-    Page<AuditLog> findByActorContainingIgnoreCaseOrderByTimestampDesc(String actor, Pageable pageable);
-    
-    Page<AuditLog> findByActionOrderByTimestampDesc(String action, Pageable pageable);
-    
-    Page<AuditLog> findByActorContainingIgnoreCaseAndActionOrderByTimestampDesc(
-        String actor, String action, Pageable pageable);
+
+    // Tìm kiếm theo actor/action/khoảng thời gian và phân trang keyset đi qua Specification
+    // (xem AuditLogSpecifications) để mọi tổ hợp filter dùng chung một chỗ
 }
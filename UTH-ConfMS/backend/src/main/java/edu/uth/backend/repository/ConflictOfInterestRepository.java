@@ -1,8 +1,12 @@
 package edu.uth.backend.repository;
 
+import edu.uth.backend.assignment.PaperReviewerPair;
 import edu.uth.backend.entity.ConflictOfInterest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,4 +20,22 @@ public interface ConflictOfInterestRepository extends JpaRepository<ConflictOfIn
 
     // Kiểm tra nhanh xem 2 người này có bị xung đột với bài này không
     boolean existsByPaperIdAndReviewerId(Long paperId, Long reviewerId);
-}
\ No newline at end of file
+
+    // Các cặp (bài, reviewer) đã khai báo xung đột trong tập bài × tập reviewer (cho phân công hàng loạt)
+    @Query("""
+        select new edu.uth.backend.assignment.PaperReviewerPair(c.paper.id, c.reviewer.id)
+        from ConflictOfInterest c
+        where c.paper.id in :paperIds and c.reviewer.id in :reviewerIds
+    """)
+    List<PaperReviewerPair> findPairsByPaperIdInAndReviewerIdIn(
+            @Param("paperIds") Collection<Long> paperIds,
+            @Param("reviewerIds") Collection<Long> reviewerIds);
+
+    // Mọi cặp (bài, reviewer) đã khai báo xung đột trong một hội nghị (cho gợi ý phân công)
+    @Query("""
+        select new edu.uth.backend.assignment.PaperReviewerPair(c.paper.id, c.reviewer.id)
+        from ConflictOfInterest c
+        where c.paper.track.conference.id = :conferenceId
+    """)
+    List<PaperReviewerPair> findPairsByConferenceId(@Param("conferenceId") Long conferenceId);
+}
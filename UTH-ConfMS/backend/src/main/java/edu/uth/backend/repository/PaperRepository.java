@@ -1,11 +1,16 @@
 package edu.uth.backend.repository;
 
+import edu.uth.backend.assignment.PaperTopicRow;
+import edu.uth.backend.assignment.ReviewerTopicRow;
 import edu.uth.backend.entity.Paper;
 import edu.uth.backend.entity.PaperStatus;
+import edu.uth.backend.report.TrackStatusCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -91,4 +96,56 @@ public interface PaperRepository extends JpaRepository<Paper, Long> {
     """)
     List<Paper> findAllWithDetailsByStatus(@Param("status") PaperStatus status);
 
-}
\ No newline at end of file
+    // 9. Đếm bài theo track và trạng thái của một hội nghị trong một query (cho báo cáo)
+    @Query("""
+        select new edu.uth.backend.report.TrackStatusCount(t.id, t.name, p.status, count(p.id))
+        from Track t
+        left join Paper p on p.track = t
+        where t.conference.id = :conferenceId
+        group by t.id, t.name, p.status
+    """)
+    List<TrackStatusCount> countByConferenceGroupByTrackAndStatus(@Param("conferenceId") Long conferenceId);
+
+    // 10. Lấy nhiều bài kèm track, hội nghị, tác giả (và role) trong một query (cho phân công hàng loạt)
+    @Query("""
+        select distinct p
+        from Paper p
+        join fetch p.track t
+        join fetch t.conference c
+        left join fetch c.organizer o
+        left join fetch o.roles
+        join fetch p.mainAuthor a
+        left join fetch a.roles
+        where p.id in :ids
+    """)
+    List<Paper> findAllForAssignmentByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 11. Chuyển các bài còn SUBMITTED sang UNDER_REVIEW sau khi được phân công.
+    // Bỏ các Paper đang quản lý sau khi cập nhật để lần đọc sau trong transaction không thấy trạng thái cũ
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Paper p set p.status = :to where p.id in :ids and p.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("from") PaperStatus from,
+                           @Param("to") PaperStatus to);
+
+    // 12. Bài của hội nghị ở các trạng thái cho trước, kèm tác giả chính và chủ đề (cho gợi ý phân công)
+    @Query("""
+        select new edu.uth.backend.assignment.PaperTopicRow(p.id, a.id, a.affiliation, p.title, p.keywords)
+        from Paper p
+        join p.mainAuthor a
+        where p.track.conference.id = :conferenceId and p.status in :statuses
+        order by p.id
+    """)
+    List<PaperTopicRow> findTopicRowsByConferenceIdAndStatusIn(
+            @Param("conferenceId") Long conferenceId,
+            @Param("statuses") Collection<PaperStatus> statuses);
+
+    // 13. Tiêu đề/keywords các bài do reviewer/PC viết (chủ đề quen thuộc của reviewer)
+    @Query("""
+        select new edu.uth.backend.assignment.ReviewerTopicRow(p.mainAuthor.id, p.title, p.keywords)
+        from Paper p
+        where p.mainAuthor.id in (
+            select u.id from User u join u.roles r where r.name in ('ROLE_REVIEWER', 'ROLE_PC'))
+    """)
+    List<ReviewerTopicRow> findReviewerAuthoredTopicRows();
+}
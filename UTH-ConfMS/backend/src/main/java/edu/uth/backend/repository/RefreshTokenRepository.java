@@ -0,0 +1,30 @@
+package edu.uth.backend.repository;
+
+import edu.uth.backend.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+  Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+  /** Đánh dấu token đã dùng; trả về 0 nếu token đã được dùng/thu hồi trước đó (kể cả do request song song) */
+  @Modifying
+  @Query("update RefreshToken t set t.usedAt = :now where t.id = :id and t.usedAt is null and t.revokedAt is null")
+  int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+  @Modifying
+  @Query("update RefreshToken t set t.revokedAt = :now where t.familyId = :familyId and t.revokedAt is null")
+  int revokeFamily(@Param("familyId") String familyId, @Param("now") Instant now);
+
+  @Modifying
+  @Query("update RefreshToken t set t.revokedAt = :now where t.user.id = :userId and t.revokedAt is null")
+  int revokeAllByUserId(@Param("userId") Long userId, @Param("now") Instant now);
+
+  long deleteByExpiresAtBefore(Instant now);
+}
@@ -1,9 +1,17 @@
 package edu.uth.backend.repository;
 
+import edu.uth.backend.assignment.AssignmentPairRow;
+import edu.uth.backend.assignment.AssignmentWorkloadRow;
+import edu.uth.backend.assignment.PaperReviewerPair;
+import edu.uth.backend.assignment.ReviewerTopicRow;
 import edu.uth.backend.entity.ReviewAssignment;
 import edu.uth.backend.entity.AssignmentStatus; 
+import edu.uth.backend.report.AssignmentStatusCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,4 +31,48 @@ public interface ReviewAssignmentRepository extends JpaRepository<ReviewAssignme
 
     // 4. (Optional) Tìm theo trạng thái
     List<ReviewAssignment> findByPaperIdAndStatus(Long paperId, AssignmentStatus status);
-}
\ No newline at end of file
+
+    // 5. Đếm phân công theo trạng thái của một hội nghị trong một query (cho báo cáo)
+    @Query("""
+        select new edu.uth.backend.report.AssignmentStatusCount(a.status, count(a.id))
+        from ReviewAssignment a
+        where a.paper.track.conference.id = :conferenceId
+        group by a.status
+    """)
+    List<AssignmentStatusCount> countByConferenceGroupByStatus(@Param("conferenceId") Long conferenceId);
+
+    // 6. Toàn bộ phân công của một hội nghị, rút gọn để nạp chỉ mục workload reviewer
+    @Query("""
+        select new edu.uth.backend.assignment.AssignmentWorkloadRow(a.id, a.reviewer.id, a.status, a.dueDate)
+        from ReviewAssignment a
+        where a.paper.track.conference.id = :conferenceId
+    """)
+    List<AssignmentWorkloadRow> findWorkloadRowsByConferenceId(@Param("conferenceId") Long conferenceId);
+
+    // 7. Các cặp (bài, reviewer) đã được phân công trong tập bài × tập reviewer (cho phân công hàng loạt)
+    @Query("""
+        select new edu.uth.backend.assignment.PaperReviewerPair(a.paper.id, a.reviewer.id)
+        from ReviewAssignment a
+        where a.paper.id in :paperIds and a.reviewer.id in :reviewerIds
+    """)
+    List<PaperReviewerPair> findPairsByPaperIdInAndReviewerIdIn(
+            @Param("paperIds") Collection<Long> paperIds,
+            @Param("reviewerIds") Collection<Long> reviewerIds);
+
+    // 8. Mọi phân công của một hội nghị dạng (bài, reviewer, trạng thái), cho gợi ý phân công
+    @Query("""
+        select new edu.uth.backend.assignment.AssignmentPairRow(a.paper.id, a.reviewer.id, a.status)
+        from ReviewAssignment a
+        where a.paper.track.conference.id = :conferenceId
+    """)
+    List<AssignmentPairRow> findPairRowsByConferenceId(@Param("conferenceId") Long conferenceId);
+
+    // 9. Tiêu đề/keywords của các bài reviewer đã nhận chấm (chủ đề quen thuộc của reviewer)
+    @Query("""
+        select new edu.uth.backend.assignment.ReviewerTopicRow(a.reviewer.id, p.title, p.keywords)
+        from ReviewAssignment a
+        join a.paper p
+        where a.status in :statuses
+    """)
+    List<ReviewerTopicRow> findReviewerTopicRowsByStatusIn(@Param("statuses") Collection<AssignmentStatus> statuses);
+}
@@ -2,6 +2,7 @@ package edu.uth.backend.repository;
 
 import edu.uth.backend.entity.ActivityType;
 import edu.uth.backend.entity.UserActivityHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -69,20 +70,61 @@ public interface UserActivityHistoryRepository extends JpaRepository<UserActivit
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    // ===== Phân trang keyset theo (timestamp, id) giảm dần, dùng index (user_id, ..., timestamp, id) =====
+    // Điều kiện "timestamp <= :timestamp" lặp lại để PostgreSQL dùng nó làm index condition
+
     /**
-     * Đếm số hoạt động của user
+     * Trang hoạt động của user sau vị trí (timestamp, id)
      */
-    long countByUserId(Long userId);
+    @Query("SELECT h FROM UserActivityHistory h WHERE h.userId = :userId " +
+            "AND h.timestamp <= :timestamp AND (h.timestamp < :timestamp OR h.id < :id) " +
+            "ORDER BY h.timestamp DESC, h.id DESC")
+    List<UserActivityHistory> findPageByUserId(
+            @Param("userId") Long userId,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Limit limit);
 
     /**
-     * Đếm số hoạt động theo loại
+     * Trang hoạt động của user theo loại
      */
-    long countByUserIdAndActivityType(Long userId, ActivityType activityType);
+    @Query("SELECT h FROM UserActivityHistory h WHERE h.userId = :userId " +
+            "AND h.activityType IN :activityTypes " +
+            "AND h.timestamp <= :timestamp AND (h.timestamp < :timestamp OR h.id < :id) " +
+            "ORDER BY h.timestamp DESC, h.id DESC")
+    List<UserActivityHistory> findPageByUserIdAndActivityTypes(
+            @Param("userId") Long userId,
+            @Param("activityTypes") List<ActivityType> activityTypes,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Limit limit);
 
     /**
-     * Lấy hoạt động liên quan đến một entity cụ thể
+     * Trang hoạt động của user trong khoảng thời gian
      */
-    List<UserActivityHistory> findByUserIdAndEntityIdOrderByTimestampDesc(
-            Long userId,
-            Long entityId);
+    @Query("SELECT h FROM UserActivityHistory h WHERE h.userId = :userId " +
+            "AND h.timestamp BETWEEN :startTime AND :endTime " +
+            "AND h.timestamp <= :timestamp AND (h.timestamp < :timestamp OR h.id < :id) " +
+            "ORDER BY h.timestamp DESC, h.id DESC")
+    List<UserActivityHistory> findPageByUserIdAndTimeRange(
+            @Param("userId") Long userId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Limit limit);
+
+    /**
+     * Trang hoạt động của user liên quan đến một entity
+     */
+    @Query("SELECT h FROM UserActivityHistory h WHERE h.userId = :userId " +
+            "AND h.entityId = :entityId " +
+            "AND h.timestamp <= :timestamp AND (h.timestamp < :timestamp OR h.id < :id) " +
+            "ORDER BY h.timestamp DESC, h.id DESC")
+    List<UserActivityHistory> findPageByUserIdAndEntityId(
+            @Param("userId") Long userId,
+            @Param("entityId") Long entityId,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Limit limit);
 }
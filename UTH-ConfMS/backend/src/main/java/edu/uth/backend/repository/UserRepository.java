@@ -1,11 +1,17 @@
 package edu.uth.backend.repository;
 
+import edu.uth.backend.admin.dto.AdminUserResponse;
+import edu.uth.backend.assignment.ReviewerProfileRow;
 import edu.uth.backend.entity.Role;
 import edu.uth.backend.entity.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
@@ -16,6 +22,50 @@ public interface UserRepository extends JpaRepository<User, Long> {
   @Query("SELECT DISTINCT u FROM User u JOIN u.roles r WHERE r.name IN ('ROLE_REVIEWER', 'ROLE_PC')")
   List<User> findAllReviewers();
 
+  // Lấy nhiều users kèm roles trong một query (roles là EAGER, findAllById sẽ nạp roles từng user)
+  @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+  List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+
+  // Chỉ lấy id của users có role REVIEWER hoặc PC
+  @Query("SELECT DISTINCT u.id FROM User u JOIN u.roles r WHERE r.name IN ('ROLE_REVIEWER', 'ROLE_PC')")
+  List<Long> findAllReviewerIds();
+
+  // Reviewer/PC đang hoạt động kèm đơn vị và bio, không nạp entity (cho gợi ý phân công)
+  @Query("""
+      SELECT DISTINCT new edu.uth.backend.assignment.ReviewerProfileRow(u.id, u.affiliation, u.bio)
+      FROM User u JOIN u.roles r
+      WHERE r.name IN ('ROLE_REVIEWER', 'ROLE_PC') AND u.enabled = true
+      ORDER BY u.id
+      """)
+  List<ReviewerProfileRow> findReviewerProfiles();
+
   // Đếm số users có role cụ thể
   long countByRolesContaining(Role role);
+
+  // Danh sách user trang admin: projection + một join user_roles, không nạp entity.
+  // Role hiển thị là MIN trên mọi role của user (giống AdminUserResponse(User)); lọc role bằng EXISTS
+  // để không làm thay đổi role hiển thị. prefix đã được escape và chuyển thường, "%" nghĩa là không lọc.
+  @Query(value = """
+      SELECT new edu.uth.backend.admin.dto.AdminUserResponse(u.id, u.email, u.fullName, u.enabled, MIN(r.name))
+      FROM User u LEFT JOIN u.roles r
+      WHERE (:role IS NULL OR EXISTS (SELECT r2 FROM u.roles r2 WHERE r2.name = :role))
+        AND (:enabled IS NULL OR u.enabled = :enabled)
+        AND (:provider IS NULL OR u.provider = :provider)
+        AND (LOWER(u.email) LIKE :prefix ESCAPE '\\' OR LOWER(u.fullName) LIKE :prefix ESCAPE '\\')
+      GROUP BY u.id, u.email, u.fullName, u.enabled
+      ORDER BY u.id
+      """,
+      countQuery = """
+      SELECT COUNT(u)
+      FROM User u
+      WHERE (:role IS NULL OR EXISTS (SELECT r2 FROM u.roles r2 WHERE r2.name = :role))
+        AND (:enabled IS NULL OR u.enabled = :enabled)
+        AND (:provider IS NULL OR u.provider = :provider)
+        AND (LOWER(u.email) LIKE :prefix ESCAPE '\\' OR LOWER(u.fullName) LIKE :prefix ESCAPE '\\')
+      """)
+  Page<AdminUserResponse> findAdminUsers(@Param("role") String role,
+                                         @Param("enabled") Boolean enabled,
+                                         @Param("provider") User.AuthProvider provider,
+                                         @Param("prefix") String prefix,
+                                         Pageable pageable);
 }
@@ -1,9 +1,12 @@
 package edu.uth.backend.review;
 
+import edu.uth.backend.assignment.AssignmentChangedEvent;
 import edu.uth.backend.entity.*;
 import edu.uth.backend.repository.*;
 import edu.uth.backend.email.EmailService;
+import edu.uth.backend.report.ReportDataChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -17,6 +20,7 @@ public class ReviewService {
     @Autowired private ReviewRepository reviewRepo;
     @Autowired private ReviewAssignmentRepository assignmentRepo;
     @Autowired private EmailService emailService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     // Hàm Chấm điểm (Submit Review)
     public Review submitReview(Long assignmentId, int score, int confidence, String commentAuthor, String commentPC) {
@@ -62,8 +66,11 @@ public class ReviewService {
         Review savedReview = reviewRepo.save(review);
 
         // 5. Cập nhật trạng thái phân công thành ĐÃ XONG (COMPLETED)
+        AssignmentStatus previousStatus = assignment.getStatus();
         assignment.setStatus(AssignmentStatus.COMPLETED);
         assignmentRepo.save(assignment);
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(assignment.getPaper(), "submit-review"));
+        eventPublisher.publishEvent(AssignmentChangedEvent.of(assignment, previousStatus));
 
         // 6. Gửi email thông báo cho Chair
         try {
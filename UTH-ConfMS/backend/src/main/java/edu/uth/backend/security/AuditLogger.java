@@ -1,5 +1,6 @@
 package edu.uth.backend.security;
 
+import edu.uth.backend.admin.DashboardMetricsService;
 import edu.uth.backend.audit.AuditLogService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +33,8 @@ public class AuditLogger {
     
     private final AuditLogService auditLogService;
 
+    private final DashboardMetricsService dashboardMetrics;
+
     /**
      * Log successful login
      */
@@ -57,6 +60,7 @@ public class AuditLogger {
         log.info("[AUDIT] REGISTRATION | User: {} | IP: {} | Time: {}", 
             email, ipAddress, getCurrentTimestamp());
         auditLogService.log(email, "REGISTRATION", null, ipAddress, null, null);
+        dashboardMetrics.recordRegistration();
     }
 
     /**
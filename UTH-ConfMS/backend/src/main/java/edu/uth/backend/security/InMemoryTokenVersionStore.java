@@ -0,0 +1,28 @@
+package edu.uth.backend.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lưu phiên bản token trong bộ nhớ của node hiện tại (mặc định).
+ * Chỉ phù hợp khi chạy một node; phiên bản bị reset khi khởi động lại nên token đã thu hồi
+ * có thể dùng lại tới khi hết hạn. Chạy nhiều node thì dùng store "redis".
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.token-version.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenVersionStore implements TokenVersionStore {
+
+  private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+  @Override
+  public long currentVersion(Long userId) {
+    return versions.getOrDefault(userId, 0L);
+  }
+
+  @Override
+  public long bump(Long userId) {
+    return versions.merge(userId, 1L, Long::sum);
+  }
+}
@@ -1,9 +1,14 @@
 package edu.uth.backend.security;
 
+import edu.uth.backend.entity.Role;
+import edu.uth.backend.entity.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.*;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,10 +21,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
   private final JwtTokenProvider jwtTokenProvider;
   private final CustomUserDetailsService userDetailsService;
+  private final PrincipalCache principalCache;
+  private final TokenVersionStore tokenVersionStore;
+  private final boolean statelessAuth;
 
-  public JwtAuthFilter(JwtTokenProvider jwtTokenProvider, CustomUserDetailsService userDetailsService) {
+  public JwtAuthFilter(JwtTokenProvider jwtTokenProvider, CustomUserDetailsService userDetailsService,
+      PrincipalCache principalCache, TokenVersionStore tokenVersionStore,
+      @Value("${app.security.stateless-auth.enabled:false}") boolean statelessAuth) {
     this.jwtTokenProvider = jwtTokenProvider;
     this.userDetailsService = userDetailsService;
+    this.principalCache = principalCache;
+    this.tokenVersionStore = tokenVersionStore;
+    this.statelessAuth = statelessAuth;
   }
 
   @Override
@@ -29,10 +42,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     String header = request.getHeader("Authorization");
     if (header != null && header.startsWith("Bearer ")) {
       String token = header.substring(7);
-      if (jwtTokenProvider.validate(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
-        String email = jwtTokenProvider.getEmailFromToken(token);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
+      JwtClaims claims = SecurityContextHolder.getContext().getAuthentication() == null
+          ? jwtTokenProvider.parseAndValidate(token).orElse(null)
+          : null;
+      UserDetails userDetails = claims != null ? resolvePrincipal(claims) : null;
+      if (userDetails != null && userDetails.isEnabled()) {
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
             userDetails, null, userDetails.getAuthorities());
         auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -43,4 +57,35 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     chain.doFilter(request, response);
   }
+
+  /**
+   * Stateless auth dựng principal từ claims đã ký, chỉ kiểm tra phiên bản token;
+   * token cũ không có claim user id thì vẫn nạp user qua cache/DB
+   */
+  private UserDetails resolvePrincipal(JwtClaims claims) {
+    if (!statelessAuth || claims.userId() == null) {
+      return principalCache.get(claims.email(),
+          e -> (CustomUserDetails) userDetailsService.loadUserByUsername(e));
+    }
+
+    if (claims.version() < tokenVersionStore.currentVersion(claims.userId())) {
+      // Token đã bị thu hồi do đổi role hoặc khóa tài khoản
+      return null;
+    }
+    return principalFromClaims(claims);
+  }
+
+  private CustomUserDetails principalFromClaims(JwtClaims claims) {
+    User user = new User();
+    user.setId(claims.userId());
+    user.setEmail(claims.email());
+    user.setEnabled(claims.enabled());
+
+    Set<Role> roles = new HashSet<>();
+    for (String name : claims.roles()) {
+      roles.add(new Role(name));
+    }
+    user.setRoles(roles);
+    return new CustomUserDetails(user);
+  }
 }
@@ -0,0 +1,21 @@
+package edu.uth.backend.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims đã xác thực của access token. userId null với token phát hành trước khi có claim "uid".
+ */
+public record JwtClaims(
+    String email,
+    Long userId,
+    List<String> roles,
+    boolean enabled,
+    long version,
+    Instant expiresAt
+) {
+
+  public boolean isExpired(Instant now) {
+    return expiresAt != null && !expiresAt.isAfter(now);
+  }
+}
@@ -6,27 +6,64 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtTokenProvider {
 
+  public static final String CLAIM_ROLES = "roles";
+  public static final String CLAIM_USER_ID = "uid";
+  public static final String CLAIM_ENABLED = "enabled";
+  public static final String CLAIM_VERSION = "ver";
+
   private final Key key;
   private final long expirationMs;
+  // JwtParser là immutable và thread-safe nên chỉ cần tạo một lần
+  private final JwtParser parser;
+  private final int verifiedCacheSize;
+  private final long verifiedCacheTtlMs;
+  private final Map<String, VerifiedToken> verifiedTokens;
+  private TokenVersionStore tokenVersionStore;
+
+  public JwtTokenProvider(String secret, long expirationMs) {
+    this(secret, expirationMs, 0, 0);
+  }
 
-    public JwtTokenProvider(
+  @Autowired
+  public JwtTokenProvider(
       @Value("${app.jwt.secret}") String secret,
-      @Value("${app.jwt.expiration-ms}") long expirationMs
+      @Value("${app.jwt.expiration-ms}") long expirationMs,
+      @Value("${app.jwt.verified-cache.size:1024}") int verifiedCacheSize,
+      @Value("${app.jwt.verified-cache.ttl-seconds:5}") long verifiedCacheTtlSeconds
   ) {
     if (secret == null || secret.length() < 32) {
       throw new IllegalArgumentException("JWT secret phải có ít nhất 32 ký tự.");
     }
     this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     this.expirationMs = expirationMs;
+    this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    this.verifiedCacheSize = verifiedCacheSize;
+    this.verifiedCacheTtlMs = verifiedCacheTtlSeconds * 1000;
+    this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+        return size() > JwtTokenProvider.this.verifiedCacheSize;
+      }
+    };
+  }
+
+  @Autowired(required = false)
+  public void setTokenVersionStore(TokenVersionStore tokenVersionStore) {
+    this.tokenVersionStore = tokenVersionStore;
   }
 
   public long getExpirationMs() {
@@ -41,9 +78,16 @@ public class JwtTokenProvider {
         .map(Role::getName)
         .collect(Collectors.toList());
 
+    long version = tokenVersionStore != null && user.getId() != null
+        ? tokenVersionStore.currentVersion(user.getId())
+        : 0L;
+
     return Jwts.builder()
         .setSubject(user.getEmail())
-        .claim("roles", roles)
+        .claim(CLAIM_ROLES, roles)
+        .claim(CLAIM_USER_ID, user.getId())
+        .claim(CLAIM_ENABLED, user.isEnabled())
+        .claim(CLAIM_VERSION, version)
         .setIssuedAt(now)
         .setExpiration(exp)
         .signWith(key, SignatureAlgorithm.HS256)
@@ -51,22 +95,71 @@ public class JwtTokenProvider {
   }
 
   public String getEmailFromToken(String token) {
-    return parseClaims(token).getBody().getSubject();
+    return parseAndValidate(token)
+        .map(JwtClaims::email)
+        .orElseThrow(() -> new JwtException("Token không hợp lệ"));
   }
 
   public boolean validate(String token) {
+    return parseAndValidate(token).isPresent();
+  }
+
+  /**
+   * Kiểm tra chữ ký/hạn và đọc claims trong một lần parse; rỗng nếu token không hợp lệ.
+   * Token vừa xác thực được giữ trong một LRU nhỏ trong verified-cache.ttl-seconds
+   * nên các request lặp lại cùng bearer token bỏ qua bước tính HMAC.
+   */
+  public Optional<JwtClaims> parseAndValidate(String token) {
+    if (token == null || token.isEmpty()) {
+      return Optional.empty();
+    }
+
+    long now = System.currentTimeMillis();
+    boolean cacheEnabled = verifiedCacheSize > 0 && verifiedCacheTtlMs > 0;
+    if (cacheEnabled) {
+      VerifiedToken cached;
+      synchronized (verifiedTokens) {
+        cached = verifiedTokens.get(token);
+      }
+      if (cached != null && cached.cachedUntil > now) {
+        // Token trong cache vẫn có thể vừa hết hạn
+        return cached.claims.isExpired(Instant.ofEpochMilli(now)) ? Optional.empty() : Optional.of(cached.claims);
+      }
+    }
+
+    JwtClaims claims;
     try {
-      parseClaims(token);
-      return true;
+      claims = toJwtClaims(parser.parseClaimsJws(token).getBody());
     } catch (JwtException | IllegalArgumentException ex) {
-      return false;
+      return Optional.empty();
+    }
+
+    if (cacheEnabled) {
+      synchronized (verifiedTokens) {
+        verifiedTokens.put(token, new VerifiedToken(claims, now + verifiedCacheTtlMs));
+      }
     }
+    return Optional.of(claims);
+  }
+
+  private JwtClaims toJwtClaims(Claims claims) {
+    Number userId = claims.get(CLAIM_USER_ID, Number.class);
+    Number version = claims.get(CLAIM_VERSION, Number.class);
+    Object roleClaim = claims.get(CLAIM_ROLES);
+    List<String> roles = roleClaim instanceof List<?> names
+        ? names.stream().map(String::valueOf).toList()
+        : List.of();
+    Date expiration = claims.getExpiration();
+
+    return new JwtClaims(
+        claims.getSubject(),
+        userId != null ? userId.longValue() : null,
+        roles,
+        !Boolean.FALSE.equals(claims.get(CLAIM_ENABLED, Boolean.class)),
+        version != null ? version.longValue() : 0L,
+        expiration != null ? expiration.toInstant() : null);
   }
 
-  private Jws<Claims> parseClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(key)
-        .build()
-        .parseClaimsJws(token);
+  private record VerifiedToken(JwtClaims claims, long cachedUntil) {
   }
 }
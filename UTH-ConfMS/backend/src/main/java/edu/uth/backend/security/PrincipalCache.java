@@ -0,0 +1,101 @@
+package edu.uth.backend.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache principal đã xác thực theo email để JwtAuthFilter không phải truy vấn DB mỗi request.
+ * Có giới hạn số phần tử (LRU) và TTL; AdminService xóa entry khi đổi role/trạng thái user.
+ */
+@Component
+public class PrincipalCache {
+
+  private final long ttlMs;
+  private final int maxSize;
+  private final Map<String, Entry> entries;
+  // Tăng mỗi lần evict/evictUser/clear; lần nạp bắt đầu trước đó không được ghi vào cache
+  private long generation;
+
+  public PrincipalCache(
+      @Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+      @Value("${app.security.principal-cache.max-size:10000}") int maxSize
+  ) {
+    this.ttlMs = ttlSeconds * 1000;
+    this.maxSize = maxSize;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > PrincipalCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * Lấy principal từ cache, nạp bằng loader khi chưa có hoặc đã hết hạn.
+   * ttl-seconds <= 0 hoặc max-size <= 0 sẽ tắt cache.
+   */
+  public CustomUserDetails get(String email, Function<String, CustomUserDetails> loader) {
+    if (ttlMs <= 0 || maxSize <= 0) {
+      return loader.apply(email);
+    }
+
+    long now = System.currentTimeMillis();
+    long loadGeneration;
+    synchronized (entries) {
+      Entry cached = entries.get(email);
+      if (cached != null && cached.expiresAt > now) {
+        return cached.principal;
+      }
+      loadGeneration = generation;
+    }
+
+    // Nạp ngoài khóa để các request khác không phải chờ DB. Nếu có evict trong lúc nạp thì bản vừa đọc
+    // có thể là dữ liệu trước khi đổi role/khóa tài khoản, chỉ dùng cho request này chứ không cache lại
+    CustomUserDetails principal = loader.apply(email);
+    synchronized (entries) {
+      if (generation == loadGeneration) {
+        entries.put(email, new Entry(principal, now + ttlMs));
+      }
+    }
+    return principal;
+  }
+
+  public void evict(String email) {
+    if (email == null) {
+      return;
+    }
+    synchronized (entries) {
+      generation++;
+      entries.remove(email);
+    }
+  }
+
+  public void evictUser(Long userId) {
+    if (userId == null) {
+      return;
+    }
+    synchronized (entries) {
+      generation++;
+      entries.values().removeIf(entry -> userId.equals(entry.principal.getUser().getId()));
+    }
+  }
+
+  public void clear() {
+    synchronized (entries) {
+      generation++;
+      entries.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  private record Entry(CustomUserDetails principal, long expiresAt) {
+  }
+}
@@ -0,0 +1,33 @@
+package edu.uth.backend.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lưu phiên bản token trong Redis để mọi node API thấy cùng trạng thái thu hồi
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.token-version.store", havingValue = "redis")
+public class RedisTokenVersionStore implements TokenVersionStore {
+
+  private static final String KEY_PREFIX = "auth:token-version:";
+
+  private final StringRedisTemplate redisTemplate;
+
+  public RedisTokenVersionStore(StringRedisTemplate redisTemplate) {
+    this.redisTemplate = redisTemplate;
+  }
+
+  @Override
+  public long currentVersion(Long userId) {
+    String value = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+    return value != null ? Long.parseLong(value) : 0L;
+  }
+
+  @Override
+  public long bump(Long userId) {
+    Long version = redisTemplate.opsForValue().increment(KEY_PREFIX + userId);
+    return version != null ? version : 0L;
+  }
+}
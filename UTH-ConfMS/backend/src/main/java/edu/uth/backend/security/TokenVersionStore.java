@@ -0,0 +1,19 @@
+package edu.uth.backend.security;
+
+/**
+ * Lưu phiên bản token của từng user. Token mang claim "ver" lúc phát hành;
+ * khi đổi role/khóa tài khoản, phiên bản được tăng để các token cũ hết hiệu lực
+ * trong chế độ stateless auth.
+ */
+public interface TokenVersionStore {
+
+  /**
+   * Phiên bản hiện tại của user (0 nếu chưa từng bị tăng)
+   */
+  long currentVersion(Long userId);
+
+  /**
+   * Tăng phiên bản, thu hồi mọi token đã phát hành trước đó; trả về phiên bản mới
+   */
+  long bump(Long userId);
+}
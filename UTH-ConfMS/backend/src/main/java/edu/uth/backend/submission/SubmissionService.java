@@ -7,7 +7,9 @@ import edu.uth.backend.submission.dto.CoAuthorDTO;
 import edu.uth.backend.submission.dto.PaperResponseDTO;
 import edu.uth.backend.entity.*;
 import edu.uth.backend.repository.*;
+import edu.uth.backend.report.ReportDataChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDateTime;
@@ -35,6 +37,8 @@ public class SubmissionService {
     private ReviewAssignmentRepository reviewAssignmentRepo;
     @Autowired
     private edu.uth.backend.history.UserActivityHistoryService activityHistoryService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @org.springframework.beans.factory.annotation.Value("${app.base.url:http://localhost:8080}")
     private String baseUrl;
@@ -89,6 +93,7 @@ public class SubmissionService {
                 coAuthorRepo.save(coAuthor);
             }
         }
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(savedPaper, "submit"));
 
         // Log activity
         try {
@@ -226,6 +231,7 @@ public class SubmissionService {
         }
 
         Paper updatedPaper = paperRepo.save(paper);
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(updatedPaper, "edit"));
 
         // Log activity
         try {
@@ -258,7 +264,9 @@ public class SubmissionService {
         }
 
         paper.setAbstractText(newAbstract);
-        return paperRepo.save(paper);
+        Paper updatedPaper = paperRepo.save(paper);
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(updatedPaper, "edit-abstract"));
+        return updatedPaper;
     }
 
     // --- 5. RÚT BÀI (WITHDRAW) - Đã thêm check User ---
@@ -286,6 +294,7 @@ public class SubmissionService {
 
         paper.setStatus(PaperStatus.WITHDRAWN);
         Paper withdrawnPaper = paperRepo.save(paper);
+        eventPublisher.publishEvent(ReportDataChangedEvent.forPaper(withdrawnPaper, "withdraw"));
 
         // Log activity
         try {
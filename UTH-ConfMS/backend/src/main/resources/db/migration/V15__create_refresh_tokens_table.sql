@@ -0,0 +1,21 @@
+-- V15__create_refresh_tokens_table.sql
+-- Refresh token (lưu hash) cho cơ chế xoay vòng token
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id VARCHAR(36) NOT NULL,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    used_at TIMESTAMP WITH TIME ZONE,
+    revoked_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_rt_family_id ON refresh_tokens(family_id);
+CREATE INDEX IF NOT EXISTS idx_rt_user_id ON refresh_tokens(user_id);
+
+COMMENT ON TABLE refresh_tokens IS 'Refresh token đã phát hành (chỉ lưu SHA-256)';
+COMMENT ON COLUMN refresh_tokens.family_id IS 'Chuỗi token sinh ra từ cùng một lần đăng nhập';
+COMMENT ON COLUMN refresh_tokens.used_at IS 'Thời điểm token được đổi lấy token mới';
+COMMENT ON COLUMN refresh_tokens.revoked_at IS 'Thời điểm bị thu hồi (đăng xuất / phát hiện dùng lại)';
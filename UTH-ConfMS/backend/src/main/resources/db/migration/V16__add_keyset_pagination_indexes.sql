@@ -0,0 +1,24 @@
+-- V16__add_keyset_pagination_indexes.sql
+-- Index composite cho phân trang keyset theo (timestamp, id) giảm dần
+-- trên user_activity_history và audit_logs
+
+-- Lịch sử hoạt động: mọi truy vấn đều lọc theo user_id trước
+CREATE INDEX IF NOT EXISTS idx_uah_user_ts_id
+    ON user_activity_history (user_id, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_uah_user_type_ts_id
+    ON user_activity_history (user_id, activity_type, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_uah_user_entity_ts_id
+    ON user_activity_history (user_id, entity_id, timestamp DESC, id DESC);
+
+-- idx_user_timestamp bị thay bởi idx_uah_user_ts_id
+DROP INDEX IF EXISTS idx_user_timestamp;
+
+-- Audit log: toàn bộ và lọc theo action
+CREATE INDEX IF NOT EXISTS idx_audit_logs_ts_id
+    ON audit_logs (timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_action_ts_id
+    ON audit_logs (action, timestamp DESC, id DESC);
+
+-- Các index đơn cột bị thay bởi index composite ở trên
+DROP INDEX IF EXISTS idx_audit_logs_timestamp;
+DROP INDEX IF EXISTS idx_audit_logs_action;
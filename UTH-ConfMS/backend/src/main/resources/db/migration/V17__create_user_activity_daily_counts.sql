@@ -0,0 +1,20 @@
+-- V17__create_user_activity_daily_counts.sql
+-- Bảng đếm hoạt động theo (user, loại, ngày) cho thống kê lịch sử hoạt động
+
+CREATE TABLE IF NOT EXISTS user_activity_daily_counts (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    activity_type VARCHAR(50) NOT NULL,
+    activity_date DATE NOT NULL,
+    activity_count BIGINT NOT NULL,
+    CONSTRAINT uk_uadc_user_type_date UNIQUE (user_id, activity_type, activity_date)
+);
+
+-- Dựng từ lịch sử hiện có
+INSERT INTO user_activity_daily_counts (user_id, activity_type, activity_date, activity_count)
+SELECT user_id, activity_type, CAST(timestamp AS date), COUNT(*)
+FROM user_activity_history
+GROUP BY user_id, activity_type, CAST(timestamp AS date)
+ON CONFLICT (user_id, activity_type, activity_date) DO NOTHING;
+
+COMMENT ON TABLE user_activity_daily_counts IS 'Số hoạt động theo user/loại/ngày, cộng dồn khi ghi user_activity_history';
@@ -0,0 +1,73 @@
+-- V18__partition_audit_and_activity_tables.sql
+-- Chuyển audit_logs và user_activity_history sang bảng phân vùng theo tháng (RANGE trên timestamp).
+-- Partition đặt tên <bảng>_pYYYYMM, thêm một partition DEFAULT cho dữ liệu ngoài các tháng đã tạo.
+-- PartitionMaintenanceService tạo trước partition cho các tháng tới và xóa partition hết hạn.
+--
+-- Bảng phân vùng yêu cầu khóa chính chứa cột phân vùng nên khóa chính đổi thành (id, timestamp);
+-- id vẫn lấy từ identity nên vẫn duy nhất. Khóa ngoại audit_logs.user_id -> users được bỏ
+-- (audit log giữ nguyên user_id sau khi user bị xóa).
+--
+-- Chạy trong một transaction; dữ liệu được copy sang bảng mới nên cần dung lượng tạm gấp đôi.
+
+BEGIN;
+
+CREATE OR REPLACE FUNCTION uth_partition_by_month(p_table text) RETURNS void
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_legacy text := p_table || '_unpartitioned';
+    v_month date;
+    v_until date := (date_trunc('month', now()) + interval '4 months')::date;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(p_table)) THEN
+        RETURN;
+    END IF;
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', p_table, v_legacy);
+    EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I', v_legacy, p_table || '_pkey', v_legacy || '_pkey');
+
+    -- Giữ nguyên kiểu cột, NOT NULL, default và CHECK của bảng cũ
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS) '
+        'PARTITION BY RANGE ("timestamp")', p_table, v_legacy);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', p_table);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY', p_table);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (id, "timestamp")', p_table, p_table || '_pkey');
+
+    -- Một partition cho mỗi tháng từ dữ liệu cũ nhất tới 3 tháng sau tháng hiện tại
+    EXECUTE format('SELECT date_trunc(''month'', min("timestamp"))::date FROM %I', v_legacy) INTO v_month;
+    v_month := least(coalesce(v_month, date_trunc('month', now())::date), date_trunc('month', now())::date);
+    WHILE v_month < v_until LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+            p_table || '_p' || to_char(v_month, 'YYYYMM'), p_table, v_month, (v_month + interval '1 month')::date);
+        v_month := (v_month + interval '1 month')::date;
+    END LOOP;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', p_table || '_default', p_table);
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', p_table, v_legacy);
+    EXECUTE format('SELECT setval(pg_get_serial_sequence(%L, ''id''), (SELECT COALESCE(max(id), 0) + 1 FROM %I), false)',
+        p_table, p_table);
+    EXECUTE format('DROP TABLE %I', v_legacy);
+    EXECUTE format('ALTER SEQUENCE %s RENAME TO %I', pg_get_serial_sequence(p_table, 'id'), p_table || '_id_seq');
+END;
+$$;
+
+SELECT uth_partition_by_month('audit_logs');
+SELECT uth_partition_by_month('user_activity_history');
+
+DROP FUNCTION uth_partition_by_month(text);
+
+-- Index trên bảng cha được tạo cho từng partition (kể cả partition tạo sau này)
+CREATE INDEX IF NOT EXISTS idx_audit_logs_ts_id ON audit_logs (timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_action_ts_id ON audit_logs (action, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_actor ON audit_logs (actor);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_user ON audit_logs (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_uah_user_ts_id ON user_activity_history (user_id, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_uah_user_type_ts_id ON user_activity_history (user_id, activity_type, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_uah_user_entity_ts_id ON user_activity_history (user_id, entity_id, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_activity_type ON user_activity_history (activity_type);
+CREATE INDEX IF NOT EXISTS idx_timestamp ON user_activity_history (timestamp);
+
+COMMENT ON TABLE audit_logs IS 'System-wide audit log for security and compliance (partitioned by month)';
+COMMENT ON TABLE user_activity_history IS 'Lịch sử hoạt động người dùng (phân vùng theo tháng)';
+
+COMMIT;
@@ -0,0 +1,16 @@
+-- V19__audit_logs_trigram_search.sql
+-- Tìm kiếm audit log theo chuỗi con (actor, target, details) bằng index trigram:
+-- lower(col) LIKE '%x%' dùng được GIN index thay vì quét toàn bảng.
+-- Index tạo trên bảng cha nên partition tháng mới (V18) tự có index tương ứng.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_actor_trgm
+    ON audit_logs USING gin (lower(actor) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_target_trgm
+    ON audit_logs USING gin (lower(target) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_details_trgm
+    ON audit_logs USING gin (lower(details) gin_trgm_ops);
+
+-- Index btree trên actor không phục vụ được LIKE '%x%', chỉ làm chậm insert
+DROP INDEX IF EXISTS idx_audit_logs_actor;
@@ -0,0 +1,18 @@
+-- V20__create_dashboard_metrics_tables.sql
+-- Số liệu dashboard admin: sketch HyperLogLog user hoạt động theo ngày và số đăng ký theo tháng.
+-- Sketch được ứng dụng dựng từ user_activity_daily_counts khi bảng còn trống, số đăng ký dựng từ audit log
+-- REGISTRATION một lần (DashboardMetricsService, đánh dấu trong maintenance_markers).
+
+CREATE TABLE IF NOT EXISTS dashboard_daily_active_users (
+    activity_date DATE PRIMARY KEY,
+    registers BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS dashboard_monthly_registrations (
+    month_start DATE PRIMARY KEY,
+    registrations BIGINT NOT NULL
+);
+
+COMMENT ON TABLE dashboard_daily_active_users IS 'Sketch HyperLogLog user hoạt động theo ngày (DAU), gộp thành WAU/MAU';
+COMMENT ON TABLE dashboard_monthly_registrations IS 'Số user đăng ký mới theo tháng';
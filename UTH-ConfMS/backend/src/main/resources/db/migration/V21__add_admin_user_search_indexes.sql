@@ -0,0 +1,12 @@
+-- V21__add_admin_user_search_indexes.sql
+-- Danh sách user trang admin lọc theo tiền tố email / họ tên (lower(col) LIKE 'x%').
+-- text_pattern_ops để btree phục vụ được LIKE tiền tố với mọi collation.
+
+CREATE INDEX IF NOT EXISTS idx_users_email_lower_prefix
+    ON users (lower(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_full_name_lower_prefix
+    ON users (lower(full_name) text_pattern_ops);
+
+-- Lọc theo role đi từ role_id sang user_id
+CREATE INDEX IF NOT EXISTS idx_user_roles_role_user
+    ON user_roles (role_id, user_id);
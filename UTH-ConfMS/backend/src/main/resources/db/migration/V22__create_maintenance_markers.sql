@@ -0,0 +1,10 @@
+-- V22__create_maintenance_markers.sql
+-- Đánh dấu các tác vụ backfill một lần đã hoàn tất (ví dụ dựng user_activity_daily_counts từ lịch sử),
+-- để lần khởi động sau không bỏ dở hoặc chạy lại tác vụ chỉ vì bảng đích đã có vài dòng.
+
+CREATE TABLE IF NOT EXISTS maintenance_markers (
+    name VARCHAR(100) PRIMARY KEY,
+    completed_at TIMESTAMP NOT NULL
+);
+
+COMMENT ON TABLE maintenance_markers IS 'Tác vụ backfill một lần đã hoàn tất';
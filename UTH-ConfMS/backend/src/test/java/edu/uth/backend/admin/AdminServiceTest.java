@@ -1,17 +1,24 @@
 package edu.uth.backend.admin;
 
 import edu.uth.backend.admin.dto.AdminUserResponse;
+import edu.uth.backend.auth.RefreshTokenService;
 import edu.uth.backend.entity.Role;
 import edu.uth.backend.entity.User;
 import edu.uth.backend.repository.PaperRepository;
 import edu.uth.backend.repository.RoleRepository;
 import edu.uth.backend.repository.UserRepository;
+import edu.uth.backend.security.PrincipalCache;
+import edu.uth.backend.security.TokenVersionStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.*;
 
@@ -31,6 +38,15 @@ class AdminServiceTest {
     @Mock
     private RoleRepository roleRepo;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenVersionStore tokenVersionStore;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AdminService adminService;
 
@@ -58,13 +74,45 @@ class AdminServiceTest {
 
     @Test
     void testGetAllUsers() {
-        when(userRepo.findAll()).thenReturn(Arrays.asList(user));
+        AdminUserResponse row = new AdminUserResponse(1L, "user@example.com", "User Name", true, "ROLE_USER");
+        when(userRepo.findAdminUsers(null, null, null, "%", Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(List.of(row)));
 
-        List<AdminUserResponse> result = adminService.getAllUsers();
+        List<AdminUserResponse> result = adminService.getAllUsers(AdminUserFilter.NONE);
 
         assertEquals(1, result.size());
         assertEquals(user.getEmail(), result.get(0).getEmail());
-        verify(userRepo).findAll();
+        assertEquals("USER", result.get(0).getRole());
+        verify(userRepo, never()).findAll();
+    }
+
+    @Test
+    void testGetUser_RoleIsMinOverAllRoles() {
+        // Arrange: user có nhiều role, cùng quy tắc MIN(r.name) với danh sách admin
+        Role roleReviewer = new Role();
+        roleReviewer.setName("ROLE_REVIEWER");
+        user.setRoles(new LinkedHashSet<>(List.of(roleUser, roleReviewer, roleAdmin)));
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        AdminUserResponse result = adminService.getUser(1L);
+
+        // Assert
+        assertEquals("ADMIN", result.getRole());
+    }
+
+    @Test
+    void testGetUsers_NormalizesFilter() {
+        // Arrange
+        AdminUserFilter filter = new AdminUserFilter(" reviewer ", true, User.AuthProvider.GOOGLE, " Ng_uyen%");
+        when(userRepo.findAdminUsers(any(), any(), any(), any(), any())).thenReturn(Page.empty());
+
+        // Act
+        adminService.getUsers(filter, 2, 10);
+
+        // Assert: role đầy đủ, tiền tố chuyển thường và escape ký tự đại diện của LIKE
+        verify(userRepo).findAdminUsers("ROLE_REVIEWER", true, User.AuthProvider.GOOGLE,
+                "ng\\_uyen\\%%", PageRequest.of(2, 10));
     }
 
     @Test
@@ -89,6 +137,8 @@ class AdminServiceTest {
         
         assertEquals("Disabled", result.getStatus());
         verify(userRepo).save(user);
+        verify(principalCache).evict("user@example.com");
+        verify(refreshTokenService).revokeAll(1L);
     }
 
     @Test
@@ -117,6 +167,9 @@ class AdminServiceTest {
         AdminUserResponse result = adminService.updateUserRole(1L, "ADMIN");
 
         assertEquals("ADMIN", result.getRole());
+        verify(principalCache).evict("user@example.com");
+        verify(tokenVersionStore).bump(1L);
+        verify(refreshTokenService).revokeAll(1L);
     }
 
     @Test
@@ -0,0 +1,176 @@
+package edu.uth.backend.admin;
+
+import edu.uth.backend.common.HyperLogLog;
+import edu.uth.backend.repository.UserRepository;
+import edu.uth.backend.util.DateTimeUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests cho DashboardMetricsService
+ * Test các chức năng: chỉ đếm sau commit, gộp sketch khi dòng đã có, đồng bộ số đăng ký với database, giữ số chưa ghi khi lỗi,
+ * đọc sketch trong cùng transaction với số đăng ký
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardMetricsServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private DashboardMetricsService metrics;
+
+    private LocalDate today;
+    private YearMonth thisMonth;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(metrics, "precision", 14);
+        ReflectionTestUtils.setField(metrics, "retentionDays", 62);
+        metrics.init();
+        today = DateTimeUtil.nowVietnam().toLocalDate();
+        thisMonth = YearMonth.from(today);
+    }
+
+    @Test
+    void testRecordActivity_CountedOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            metrics.recordActivity(1L);
+            metrics.recordRegistration();
+
+            // Assert: chưa commit thì chưa tính
+            assertEquals(0, metrics.dailyActiveUsers(today));
+            assertEquals(0, metrics.registrations(thisMonth));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, metrics.dailyActiveUsers(today));
+            assertEquals(1, metrics.registrations(thisMonth));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_MergesWithSketchInsertedByAnotherNode() {
+        // Arrange: node khác đã chèn sketch của hôm nay với user 2
+        HyperLogLog other = new HyperLogLog(14);
+        other.add(2L);
+        metrics.recordActivity(1L);
+        when(jdbcTemplate.update(startsWith("INSERT INTO dashboard_daily_active_users"), any(), any(), any()))
+                .thenReturn(0);
+        when(jdbcTemplate.query(contains("FOR UPDATE"), any(RowMapper.class), eq(Date.valueOf(today))))
+                .thenReturn(List.of(other.toBytes()));
+
+        // Act
+        metrics.flush();
+
+        // Assert: ghi sketch đã gộp bằng UPDATE chứ không ghi đè
+        ArgumentCaptor<byte[]> registers = ArgumentCaptor.forClass(byte[].class);
+        verify(jdbcTemplate).update(startsWith("UPDATE dashboard_daily_active_users"), registers.capture(), any(),
+                eq(Date.valueOf(today)));
+        assertEquals(2, HyperLogLog.fromBytes(registers.getValue()).cardinality());
+        assertEquals(2, metrics.dailyActiveUsers(today));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_RegistrationsFollowDatabaseTotals() {
+        // Arrange: node này có 2 đăng ký, database sau khi cộng có 5 (3 từ node khác)
+        metrics.recordRegistration();
+        metrics.recordRegistration();
+        when(jdbcTemplate.query(startsWith("SELECT month_start"), any(RowMapper.class)))
+                .thenReturn(List.of(Map.entry(thisMonth, 5L)));
+
+        // Act
+        metrics.flush();
+
+        // Assert
+        verify(jdbcTemplate).update(startsWith("INSERT INTO dashboard_monthly_registrations"),
+                eq(Date.valueOf(thisMonth.atDay(1))), eq(2L));
+        assertEquals(5, metrics.registrations(thisMonth));
+
+        // Lần flush sau không cộng lại 2 đăng ký đã ghi
+        metrics.flush();
+        verify(jdbcTemplate, times(1)).update(startsWith("INSERT INTO dashboard_monthly_registrations"),
+                eq(Date.valueOf(thisMonth.atDay(1))), eq(2L));
+        assertEquals(5, metrics.registrations(thisMonth));
+    }
+
+    @Test
+    void testFlush_FailureKeepsPendingRegistrations() {
+        // Arrange
+        metrics.recordRegistration();
+        when(jdbcTemplate.update(startsWith("INSERT INTO dashboard_monthly_registrations"), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        metrics.flush();
+
+        // Assert: vẫn đếm và lần sau ghi lại
+        assertEquals(1, metrics.registrations(thisMonth));
+        metrics.flush();
+        verify(jdbcTemplate, times(2)).update(startsWith("INSERT INTO dashboard_monthly_registrations"),
+                eq(Date.valueOf(thisMonth.atDay(1))), eq(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_SketchReadFailureRollsBackRegistrations() {
+        // Arrange: đọc sketch của node khác lỗi sau khi đã cộng số đăng ký
+        metrics.recordRegistration();
+        when(jdbcTemplate.query(startsWith("SELECT month_start"), any(RowMapper.class)))
+                .thenReturn(List.of(Map.entry(thisMonth, 1L)));
+        when(jdbcTemplate.query(startsWith("SELECT activity_date"), any(RowMapper.class), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(List.of());
+
+        // Act
+        metrics.flush();
+
+        // Assert: phép cộng bị rollback cùng lần đọc, số chưa ghi được giữ lại và chỉ ghi lại đúng một lần
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertEquals(1, metrics.registrations(thisMonth));
+
+        metrics.flush();
+        verify(transactionManager).commit(any());
+        verify(jdbcTemplate, times(2)).update(startsWith("INSERT INTO dashboard_monthly_registrations"),
+                eq(Date.valueOf(thisMonth.atDay(1))), eq(1L));
+        assertEquals(1, metrics.registrations(thisMonth));
+        metrics.flush();
+        verify(jdbcTemplate, times(2)).update(startsWith("INSERT INTO dashboard_monthly_registrations"),
+                eq(Date.valueOf(thisMonth.atDay(1))), eq(1L));
+    }
+}
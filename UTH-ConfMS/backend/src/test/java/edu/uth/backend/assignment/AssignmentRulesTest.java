@@ -0,0 +1,106 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.Conference;
+import edu.uth.backend.entity.Paper;
+import edu.uth.backend.entity.Track;
+import edu.uth.backend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho AssignmentRules
+ * Test các chức năng: khóa hội nghị, quá hạn chấm, COI tác giả/khai báo/cùng đơn vị, phân công trùng, hạn chấm
+ */
+class AssignmentRulesTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 5, 1, 12, 0);
+    private static final BooleanSupplier NO = () -> false;
+    private static final BooleanSupplier YES = () -> true;
+
+    private Conference conference;
+    private Paper paper;
+    private User reviewer;
+
+    @BeforeEach
+    void setUp() {
+        conference = new Conference();
+        conference.setId(1L);
+        conference.setReviewDeadline(NOW.plusDays(10));
+        conference.setIsLocked(false);
+
+        Track track = new Track();
+        track.setConference(conference);
+
+        User author = new User();
+        author.setId(1L);
+        author.setAffiliation("Đại học GTVT TP.HCM");
+
+        paper = new Paper();
+        paper.setId(10L);
+        paper.setMainAuthor(author);
+        paper.setTrack(track);
+
+        reviewer = new User();
+        reviewer.setId(2L);
+        reviewer.setAffiliation("HCMUS");
+    }
+
+    @Test
+    void testConferenceViolation_LockedOrDeadlinePassed() {
+        assertNull(AssignmentRules.conferenceViolation(paper, NOW));
+
+        conference.setReviewDeadline(NOW.minusMinutes(1));
+        assertTrue(AssignmentRules.conferenceViolation(paper, NOW).contains("quá hạn chấm"));
+
+        conference.setIsLocked(true);
+        assertTrue(AssignmentRules.conferenceViolation(paper, NOW).contains("khóa"));
+    }
+
+    @Test
+    void testConferenceViolation_PaperWithoutConferenceAllowed() {
+        paper.setTrack(null);
+
+        assertNull(AssignmentRules.conferenceViolation(paper, NOW));
+        assertNull(AssignmentRules.dueDate(paper));
+    }
+
+    @Test
+    void testReviewerViolation_ChecksInOrder() {
+        // Tác giả tự chấm: không cần tra COI/phân công
+        BooleanSupplier mustNotBeCalled = () -> fail("không được tra database");
+        assertTrue(AssignmentRules.reviewerViolation(paper, paper.getMainAuthor(), mustNotBeCalled, mustNotBeCalled)
+            .contains("Tác giả"));
+
+        assertTrue(AssignmentRules.reviewerViolation(paper, reviewer, YES, NO).contains("Xung đột lợi ích"));
+        assertTrue(AssignmentRules.reviewerViolation(paper, reviewer, NO, YES).contains("đã được phân công"));
+        assertNull(AssignmentRules.reviewerViolation(paper, reviewer, NO, NO));
+    }
+
+    @Test
+    void testReviewerViolation_SameAffiliationIgnoresCase() {
+        reviewer.setAffiliation("đại học gtvt tp.hcm");
+
+        assertTrue(AssignmentRules.reviewerViolation(paper, reviewer, NO, NO).contains("cùng đơn vị"));
+    }
+
+    @Test
+    void testAffiliationKey_MatchesEqualsIgnoreCase() {
+        // "Σ" cuối từ thành "ς" khi toLowerCase cả chuỗi nhưng equalsIgnoreCase vẫn coi là bằng "σ"
+        String[][] pairs = {{"ΟΔΟΣ", "οδοσ"}, {"UTH", "uth"}, {"Đại Học", "đại học"}, {"HCMUS", "HCMUT"}};
+        for (String[] pair : pairs) {
+            assertEquals(pair[0].equalsIgnoreCase(pair[1]),
+                AssignmentRules.affiliationKey(pair[0]).equals(AssignmentRules.affiliationKey(pair[1])), pair[0]);
+        }
+        assertNull(AssignmentRules.affiliationKey(null));
+    }
+
+    @Test
+    void testDueDate_FromConferenceReviewDeadline() {
+        assertEquals(NOW.plusDays(10), AssignmentRules.dueDate(paper));
+    }
+}
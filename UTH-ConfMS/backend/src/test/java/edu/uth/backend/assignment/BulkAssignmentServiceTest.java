@@ -0,0 +1,208 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.email.EmailService;
+import edu.uth.backend.entity.*;
+import edu.uth.backend.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests cho BulkAssignmentService
+ * Test các chức năng: báo lỗi theo từng cặp, bỏ cặp trùng, ghi batch JDBC lấy id sinh ra, chuyển bài sang UNDER_REVIEW
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkAssignmentServiceTest {
+
+    @Mock
+    private PaperRepository paperRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private ConflictOfInterestRepository coiRepo;
+
+    @Mock
+    private ReviewAssignmentRepository assignmentRepo;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BulkAssignmentService bulkAssignmentService;
+
+    private Conference conference;
+    private User author;
+    private Paper paper10;
+    private Paper paper11;
+
+    // (paperId, reviewerId) của từng dòng trong batch INSERT
+    private final List<List<Long>> insertedRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        conference = new Conference();
+        conference.setId(1L);
+        conference.setReviewDeadline(LocalDateTime.now().plusDays(30));
+        conference.setIsLocked(false);
+
+        Track track = new Track();
+        track.setId(1L);
+        track.setConference(conference);
+
+        author = user(1L, "UTH");
+        paper10 = paper(10L, track);
+        paper11 = paper(11L, track);
+    }
+
+    @Test
+    void testAssignPairs_ReportsErrorPerPairAndInsertsValidOnes() {
+        // Arrange
+        User reviewer2 = user(2L, "HCMUS");
+        User sameAffiliation = user(3L, "uth");
+        User conflicted = user(4L, "HUST");
+        User alreadyAssigned = user(5L, "HUST");
+        when(paperRepo.findAllForAssignmentByIdIn(any())).thenReturn(List.of(paper10));
+        when(userRepo.findAllWithRolesByIdIn(any()))
+            .thenReturn(List.of(author, reviewer2, sameAffiliation, conflicted, alreadyAssigned));
+        when(coiRepo.findPairsByPaperIdInAndReviewerIdIn(any(), any()))
+            .thenReturn(List.of(new PaperReviewerPair(10L, 4L)));
+        when(assignmentRepo.findPairsByPaperIdInAndReviewerIdIn(any(), any()))
+            .thenReturn(List.of(new PaperReviewerPair(10L, 5L)));
+        stubBatchInsert();
+
+        // Act
+        BulkAssignmentResult result = bulkAssignmentService.assignPairs(List.of(
+            new PaperReviewerPair(10L, 2L),
+            new PaperReviewerPair(10L, 3L),
+            new PaperReviewerPair(10L, 4L),
+            new PaperReviewerPair(10L, 1L),
+            new PaperReviewerPair(10L, 5L),
+            new PaperReviewerPair(99L, 2L),
+            new PaperReviewerPair(10L, 98L)));
+
+        // Assert: kết quả giữ thứ tự cặp yêu cầu, mỗi cặp lỗi có lý do riêng
+        assertEquals(7, result.requested());
+        assertEquals(1, result.assigned());
+        assertEquals(6, result.failed());
+        List<BulkAssignmentResult.Item> items = result.items();
+        assertTrue(items.get(0).success());
+        assertEquals(100L, items.get(0).assignmentId());
+        assertTrue(items.get(1).error().contains("cùng đơn vị"));
+        assertTrue(items.get(2).error().contains("Xung đột lợi ích"));
+        assertTrue(items.get(3).error().contains("Tác giả không thể tự chấm"));
+        assertTrue(items.get(4).error().contains("đã được phân công"));
+        assertTrue(items.get(5).error().contains("Bài báo không tồn tại"));
+        assertTrue(items.get(6).error().contains("Reviewer không tồn tại"));
+        assertEquals(List.of(List.of(10L, 2L)), insertedRows);
+    }
+
+    @Test
+    void testAssignPairs_DeduplicatesInputAndFlipsStatus() {
+        // Arrange
+        User reviewer2 = user(2L, "HCMUS");
+        when(paperRepo.findAllForAssignmentByIdIn(Set.of(10L, 11L))).thenReturn(List.of(paper10, paper11));
+        when(userRepo.findAllWithRolesByIdIn(Set.of(2L))).thenReturn(List.of(reviewer2));
+        stubBatchInsert();
+
+        // Act: cặp trùng và cặp thiếu id bị bỏ trước khi kiểm tra
+        BulkAssignmentResult result = bulkAssignmentService.assignPairs(List.of(
+            new PaperReviewerPair(10L, 2L),
+            new PaperReviewerPair(10L, 2L),
+            new PaperReviewerPair(11L, 2L),
+            new PaperReviewerPair(null, 2L)));
+
+        // Assert: một batch hai dòng, id sinh ra gán đúng thứ tự
+        assertEquals(2, result.requested());
+        assertEquals(List.of(List.of(10L, 2L), List.of(11L, 2L)), insertedRows);
+        assertEquals(List.of(100L, 101L),
+            result.items().stream().map(BulkAssignmentResult.Item::assignmentId).toList());
+        verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class),
+            any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        verify(paperRepo).updateStatusByIdIn(Set.of(10L, 11L), PaperStatus.SUBMITTED, PaperStatus.UNDER_REVIEW);
+        verify(eventPublisher, times(2)).publishEvent(any(AssignmentChangedEvent.class));
+    }
+
+    @Test
+    void testBulkAssign_LockedConferenceWritesNothing() {
+        // Arrange
+        conference.setIsLocked(true);
+        when(paperRepo.findAllForAssignmentByIdIn(any())).thenReturn(List.of(paper10));
+        when(userRepo.findAllWithRolesByIdIn(any())).thenReturn(List.of(user(2L, "HCMUS")));
+
+        // Act
+        BulkAssignmentResult result = bulkAssignmentService.bulkAssign(List.of(10L), List.of(2L));
+
+        // Assert
+        assertEquals(1, result.failed());
+        assertTrue(result.items().get(0).error().contains("khóa"));
+        verifyNoInteractions(jdbcTemplate);
+        verify(paperRepo, never()).updateStatusByIdIn(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private void stubBatchInsert() {
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+            any(KeyHolder.class))).thenAnswer(invocation -> {
+                BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                KeyHolder keyHolder = invocation.getArgument(2);
+                int[] counts = new int[setter.getBatchSize()];
+                for (int i = 0; i < counts.length; i++) {
+                    PreparedStatement ps = mock(PreparedStatement.class);
+                    setter.setValues(ps, i);
+                    ArgumentCaptor<Long> ids = ArgumentCaptor.forClass(Long.class);
+                    verify(ps, times(2)).setLong(anyInt(), ids.capture());
+                    verify(ps).setString(3, "PENDING");
+                    insertedRows.add(ids.getAllValues());
+                    keyHolder.getKeyList().add(Map.of("id", 100L + i));
+                    counts[i] = 1;
+                }
+                return counts;
+            });
+    }
+
+    private User user(Long id, String affiliation) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setAffiliation(affiliation);
+        return user;
+    }
+
+    private Paper paper(Long id, Track track) {
+        Paper paper = new Paper();
+        paper.setId(id);
+        paper.setTitle("Paper " + id);
+        paper.setMainAuthor(author);
+        paper.setTrack(track);
+        paper.setStatus(PaperStatus.SUBMITTED);
+        return paper;
+    }
+}
@@ -0,0 +1,136 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.AssignmentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho InMemoryReviewerWorkloadIndex
+ * Test các chức năng: nạp dữ liệu, cập nhật theo sự kiện, xếp hạng top/bottom-K, đếm quá hạn
+ */
+class InMemoryReviewerWorkloadIndexTest {
+
+    private static final Long CONFERENCE_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+    private InMemoryReviewerWorkloadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryReviewerWorkloadIndex();
+    }
+
+    @Test
+    void testLoad_RanksReviewersIncludingIdleOnes() {
+        // Arrange: reviewer 10 có 2 phân công mở, 20 có 1, 30 chưa có phân công nào
+        List<AssignmentWorkloadRow> rows = List.of(
+            new AssignmentWorkloadRow(1L, 10L, AssignmentStatus.PENDING, NOW.plusDays(3)),
+            new AssignmentWorkloadRow(2L, 10L, AssignmentStatus.ACCEPTED, NOW.minusDays(1)),
+            new AssignmentWorkloadRow(3L, 20L, AssignmentStatus.ACCEPTED, NOW.plusDays(3)),
+            new AssignmentWorkloadRow(4L, 20L, AssignmentStatus.COMPLETED, NOW.minusDays(5)),
+            new AssignmentWorkloadRow(5L, 20L, AssignmentStatus.DECLINED, NOW.minusDays(5)));
+
+        // Act
+        boolean loaded = index.load(CONFERENCE_ID, List.of(10L, 20L, 30L), rows, 0);
+
+        // Assert
+        assertTrue(loaded);
+        assertEquals(3, index.size(CONFERENCE_ID));
+        assertEquals(List.of(10L, 20L), index.rank(CONFERENCE_ID, WorkloadMetric.ACTIVE, 2, true));
+        assertEquals(List.of(30L), index.rank(CONFERENCE_ID, WorkloadMetric.ACTIVE, 1, false));
+
+        ReviewerWorkload busiest = index.get(CONFERENCE_ID, List.of(10L), NOW).get(0);
+        assertEquals(1, busiest.pending());
+        assertEquals(1, busiest.accepted());
+        assertEquals(2, busiest.active());
+        assertEquals(1, busiest.overdue());
+    }
+
+    @Test
+    void testApply_UpdatesCountsOnEveryTransition() {
+        // Arrange
+        index.load(CONFERENCE_ID, List.of(10L), List.of(), 0);
+
+        // Act: phân công mới -> nhận -> chấm xong
+        index.apply(new AssignmentChangedEvent(CONFERENCE_ID, 1L, 10L, null, AssignmentStatus.PENDING, NOW.minusDays(1)));
+        ReviewerWorkload pending = index.get(CONFERENCE_ID, List.of(10L), NOW).get(0);
+        index.apply(new AssignmentChangedEvent(CONFERENCE_ID, 1L, 10L,
+            AssignmentStatus.PENDING, AssignmentStatus.ACCEPTED, NOW.minusDays(1)));
+        index.apply(new AssignmentChangedEvent(CONFERENCE_ID, 1L, 10L,
+            AssignmentStatus.ACCEPTED, AssignmentStatus.COMPLETED, NOW.minusDays(1)));
+        ReviewerWorkload completed = index.get(CONFERENCE_ID, List.of(10L), NOW).get(0);
+
+        // Assert
+        assertEquals(1, pending.pending());
+        assertEquals(1, pending.overdue());
+        assertEquals(0, completed.active());
+        assertEquals(1, completed.completed());
+        assertEquals(0, completed.overdue());
+    }
+
+    @Test
+    void testApply_DeletedAssignmentIsRemoved() {
+        // Arrange
+        index.load(CONFERENCE_ID, List.of(), List.of(
+            new AssignmentWorkloadRow(1L, 10L, AssignmentStatus.PENDING, NOW.minusDays(1))), 0);
+
+        // Act
+        index.apply(new AssignmentChangedEvent(CONFERENCE_ID, 1L, 10L,
+            AssignmentStatus.PENDING, null, NOW.minusDays(1)));
+
+        // Assert
+        ReviewerWorkload workload = index.get(CONFERENCE_ID, List.of(10L), NOW).get(0);
+        assertEquals(0, workload.pending());
+        assertEquals(0, workload.overdue());
+    }
+
+    @Test
+    void testApply_SkipsChangeAlreadyInLoadedRows() {
+        // Arrange: phân công 1 đã được nhận và commit trước lúc đọc database, sự kiện đến sau khi nạp xong
+        index.load(CONFERENCE_ID, List.of(10L), List.of(
+            new AssignmentWorkloadRow(1L, 10L, AssignmentStatus.ACCEPTED, NOW.plusDays(1))), 0);
+
+        // Act
+        index.apply(new AssignmentChangedEvent(CONFERENCE_ID, 1L, 10L,
+            AssignmentStatus.PENDING, AssignmentStatus.ACCEPTED, NOW.plusDays(1)));
+
+        // Assert: không cộng hai lần
+        ReviewerWorkload workload = index.get(CONFERENCE_ID, List.of(10L), NOW).get(0);
+        assertEquals(0, workload.pending());
+        assertEquals(1, workload.accepted());
+        assertEquals(1, workload.active());
+    }
+
+    @Test
+    void testApply_UnexpectedPreviousStatusForcesReload() {
+        // Arrange
+        index.load(CONFERENCE_ID, List.of(10L), List.of(
+            new AssignmentWorkloadRow(1L, 10L, AssignmentStatus.PENDING, NOW.plusDays(1))), 0);
+
+        // Act: sự kiện ACCEPTED -> COMPLETED nhưng chỉ mục chưa thấy ACCEPTED
+        index.apply(new AssignmentChangedEvent(CONFERENCE_ID, 1L, 10L,
+            AssignmentStatus.ACCEPTED, AssignmentStatus.COMPLETED, NOW.plusDays(1)));
+
+        // Assert
+        assertFalse(index.isLoaded(CONFERENCE_ID));
+    }
+
+    @Test
+    void testLoad_RejectedWhenVersionChangedDuringLoad() {
+        // Arrange: đọc version, rồi có sự kiện xảy ra trước khi nạp xong
+        long version = index.version(CONFERENCE_ID);
+        index.apply(new AssignmentChangedEvent(CONFERENCE_ID, 1L, 10L, null, AssignmentStatus.PENDING, null));
+
+        // Act
+        boolean loaded = index.load(CONFERENCE_ID, List.of(10L), List.of(), version);
+
+        // Assert
+        assertFalse(loaded);
+        assertFalse(index.isLoaded(CONFERENCE_ID));
+    }
+}
@@ -0,0 +1,132 @@
+package edu.uth.backend.assignment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho ReviewerAssignmentSolver
+ * Test các chức năng: tối ưu tổng chi phí, ưu tiên lấp đủ chỗ, giới hạn tải reviewer, dàn tải, quy mô lớn
+ */
+class ReviewerAssignmentSolverTest {
+
+    @Test
+    void testSolve_FindsGlobalOptimumWhereGreedyFails() {
+        // Arrange: tham lam sẽ cho bài 0 lấy reviewer 0 (chi phí 0) rồi bài 1 phải lấy reviewer 1 (chi phí 10)
+        ReviewerAssignmentSolver solver = new ReviewerAssignmentSolver(new int[] {1, 1}, new int[] {1, 1}, 0);
+        solver.addCandidate(0, 0, 0);
+        int paper0Reviewer1 = solver.addCandidate(0, 1, 1);
+        int paper1Reviewer0 = solver.addCandidate(1, 0, 0);
+        solver.addCandidate(1, 1, 10);
+
+        // Act
+        ReviewerAssignmentSolver.Result result = solver.solve();
+
+        // Assert
+        assertArrayEquals(new int[] {paper0Reviewer1, paper1Reviewer0}, result.selected());
+        assertEquals(1, result.totalCost());
+        assertEquals(0, result.unfilled());
+    }
+
+    @Test
+    void testSolve_PrefersMoreFilledSlotsOverLowerCost() {
+        // Arrange: chỉ một cách lấp đủ cả hai bài, dù tốn hơn cách chỉ lấp một bài
+        ReviewerAssignmentSolver solver = new ReviewerAssignmentSolver(new int[] {1, 1}, new int[] {1, 1}, 0);
+        solver.addCandidate(0, 0, 0);
+        solver.addCandidate(0, 1, 900);
+        solver.addCandidate(1, 0, 900);
+
+        // Act
+        ReviewerAssignmentSolver.Result result = solver.solve();
+
+        // Assert
+        assertEquals(2, result.selected().length);
+        assertEquals(1800, result.totalCost());
+        assertEquals(0, result.unfilled());
+    }
+
+    @Test
+    void testSolve_RespectsReviewerCapacityAndReportsUnfilled() {
+        // Arrange: 3 bài cần 2 reviewer mỗi bài, chỉ có 2 reviewer nhận tối đa 2 bài
+        ReviewerAssignmentSolver solver = new ReviewerAssignmentSolver(new int[] {2, 2, 2}, new int[] {2, 2}, 0);
+        for (int p = 0; p < 3; p++) {
+            solver.addCandidate(p, 0, 0);
+            solver.addCandidate(p, 1, 0);
+        }
+
+        // Act
+        ReviewerAssignmentSolver.Result result = solver.solve();
+
+        // Assert
+        assertEquals(4, result.selected().length);
+        assertEquals(2, result.unfilled());
+    }
+
+    @Test
+    void testSolve_BalanceCostSpreadsLoad() {
+        // Arrange: reviewer 0 hợp hơn một chút với cả 4 bài
+        ReviewerAssignmentSolver solver = new ReviewerAssignmentSolver(new int[] {1, 1, 1, 1}, new int[] {4, 4}, 20);
+        int[] reviewerOf = new int[8];
+        for (int p = 0; p < 4; p++) {
+            reviewerOf[solver.addCandidate(p, 0, 100)] = 0;
+            reviewerOf[solver.addCandidate(p, 1, 110)] = 1;
+        }
+
+        // Act
+        ReviewerAssignmentSolver.Result result = solver.solve();
+
+        // Assert: 2 - 2 (chi phí 100+100+110+110 + phạt 20+20) rẻ hơn 4 - 0 (400 + phạt 0+20+40+60)
+        int[] load = new int[2];
+        for (int c : result.selected()) {
+            load[reviewerOf[c]]++;
+        }
+        assertArrayEquals(new int[] {2, 2}, load);
+        assertEquals(460, result.totalCost());
+    }
+
+    @Test
+    void testSolve_LargeInstanceFillsAllSlotsWithinLimits() {
+        // Arrange: 5000 bài x 3 reviewer, 1000 reviewer nhận tối đa 16 bài, 30 ứng viên mỗi bài
+        int papers = 5000;
+        int reviewers = 1000;
+        int[] demand = new int[papers];
+        int[] capacity = new int[reviewers];
+        Arrays.fill(demand, 3);
+        Arrays.fill(capacity, 16);
+        ReviewerAssignmentSolver solver = new ReviewerAssignmentSolver(demand, capacity, 20);
+        Random random = new Random(42);
+        int[] candidatePaper = new int[papers * 30];
+        int[] candidateReviewer = new int[papers * 30];
+        for (int p = 0; p < papers; p++) {
+            int start = random.nextInt(reviewers);
+            for (int k = 0; k < 30; k++) {
+                int r = (start + k * 31) % reviewers;
+                int c = solver.addCandidate(p, r, random.nextInt(1001));
+                candidatePaper[c] = p;
+                candidateReviewer[c] = r;
+            }
+        }
+
+        // Act
+        ReviewerAssignmentSolver.Result result = solver.solve();
+
+        // Assert
+        assertEquals(0, result.unfilled());
+        assertEquals(papers * 3, result.selected().length);
+        int[] paperLoad = new int[papers];
+        int[] reviewerLoad = new int[reviewers];
+        for (int c : result.selected()) {
+            paperLoad[candidatePaper[c]]++;
+            reviewerLoad[candidateReviewer[c]]++;
+        }
+        for (int load : paperLoad) {
+            assertEquals(3, load);
+        }
+        for (int load : reviewerLoad) {
+            assertTrue(load <= 16);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package edu.uth.backend.assignment;
+
+import edu.uth.backend.entity.AssignmentStatus;
+import edu.uth.backend.entity.Conference;
+import edu.uth.backend.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests cho ReviewerSuggestionService
+ * Test các chức năng: loại tác giả/COI/cùng đơn vị, trừ chỗ theo phân công đã có, lấp bài không có chủ đề chung, chặn hội nghị đã khóa
+ */
+@ExtendWith(MockitoExtension.class)
+class ReviewerSuggestionServiceTest {
+
+    private static final Long CONFERENCE_ID = 1L;
+    private static final String TOPIC_TITLE = "Deep learning for medical image segmentation";
+    private static final String TOPIC_KEYWORDS = "deep learning, image segmentation";
+    private static final String TOPIC_BIO = "Research on deep learning and medical image segmentation";
+
+    @Mock
+    private PaperRepository paperRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private ReviewAssignmentRepository assignmentRepo;
+
+    @Mock
+    private ConflictOfInterestRepository coiRepo;
+
+    @Mock
+    private ConferenceRepository conferenceRepo;
+
+    @Mock
+    private BulkAssignmentService bulkAssignmentService;
+
+    @InjectMocks
+    private ReviewerSuggestionService suggestionService;
+
+    private Conference conference;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(suggestionService, "candidatesPerSlot", 8);
+        ReflectionTestUtils.setField(suggestionService, "fallbackPerSlot", 2);
+        ReflectionTestUtils.setField(suggestionService, "balanceCost", 20);
+
+        conference = new Conference();
+        conference.setId(CONFERENCE_ID);
+        conference.setReviewDeadline(LocalDateTime.now().plusDays(30));
+        conference.setIsLocked(false);
+        when(conferenceRepo.findById(CONFERENCE_ID)).thenReturn(Optional.of(conference));
+    }
+
+    @Test
+    void testSuggest_NeverSuggestsAuthorConflictOrSameAffiliation() {
+        // Arrange: mọi reviewer đều cùng chủ đề với bài; tác giả 1 (UTH) cũng là reviewer
+        papers(new PaperTopicRow(100L, 1L, "UTH", TOPIC_TITLE, TOPIC_KEYWORDS));
+        reviewers(
+            new ReviewerProfileRow(1L, "UTH", TOPIC_BIO),
+            new ReviewerProfileRow(2L, "uth", TOPIC_BIO),
+            new ReviewerProfileRow(3L, "HCMUS", TOPIC_BIO),
+            new ReviewerProfileRow(4L, "HCMUS", TOPIC_BIO),
+            new ReviewerProfileRow(5L, null, TOPIC_BIO));
+        when(coiRepo.findPairsByConferenceId(CONFERENCE_ID)).thenReturn(List.of(new PaperReviewerPair(100L, 3L)));
+
+        // Act
+        ReviewerSuggestionResult result = suggestionService.suggest(CONFERENCE_ID, 5, 3, null, null);
+
+        // Assert: chỉ còn 4 và 5 hợp lệ, bài thiếu một reviewer
+        assertEquals(Set.of(4L, 5L), reviewerIds(result));
+        assertEquals(3, result.openSlots());
+        assertEquals(1, result.unfilled());
+        assertEquals(List.of(100L), result.understaffedPaperIds());
+    }
+
+    @Test
+    void testSuggest_ExistingAssignmentsReduceDemandAndCapacity() {
+        // Arrange: mỗi reviewer nhận tối đa 1 bài, mỗi bài cần 2 reviewer
+        papers(
+            new PaperTopicRow(100L, 1L, "UTH", TOPIC_TITLE, TOPIC_KEYWORDS),
+            new PaperTopicRow(101L, 1L, "UTH", TOPIC_TITLE, TOPIC_KEYWORDS));
+        reviewers(
+            new ReviewerProfileRow(4L, "HCMUS", TOPIC_BIO),
+            new ReviewerProfileRow(5L, "HUST", TOPIC_BIO),
+            new ReviewerProfileRow(6L, "VNU", TOPIC_BIO));
+        // 4 đã nhận bài 100 (hết chỗ, bài 100 chỉ cần thêm 1); 5 từ chối bài 101 (không tính, nhưng không gợi ý lại)
+        when(assignmentRepo.findPairRowsByConferenceId(CONFERENCE_ID)).thenReturn(List.of(
+            new AssignmentPairRow(100L, 4L, AssignmentStatus.ACCEPTED),
+            new AssignmentPairRow(101L, 5L, AssignmentStatus.DECLINED)));
+
+        // Act
+        ReviewerSuggestionResult result = suggestionService.suggest(CONFERENCE_ID, 1, 2, null, null);
+
+        // Assert
+        assertEquals(3, result.openSlots());
+        assertEquals(Set.of("100-5", "101-6"), result.suggestions().stream()
+            .map(item -> item.paperId() + "-" + item.reviewerId())
+            .collect(Collectors.toSet()));
+        assertEquals(1, result.unfilled());
+        assertEquals(List.of(101L), result.understaffedPaperIds());
+    }
+
+    @Test
+    void testSuggest_FallbackFillsPaperWithoutSharedTopic() {
+        // Arrange: không reviewer nào có từ khóa chung với bài
+        papers(new PaperTopicRow(100L, 1L, "UTH", "Quantum key distribution protocols", "quantum cryptography"));
+        reviewers(
+            new ReviewerProfileRow(4L, "HCMUS", "Database indexing and query processing"),
+            new ReviewerProfileRow(5L, "HUST", "Compiler optimization"));
+
+        // Act
+        ReviewerSuggestionResult result = suggestionService.suggest(CONFERENCE_ID, 5, 2, null, null);
+
+        // Assert
+        assertEquals(Set.of(4L, 5L), reviewerIds(result));
+        assertEquals(0, result.unfilled());
+        assertTrue(result.suggestions().stream().allMatch(item -> item.affinity() == 0.0));
+    }
+
+    @Test
+    void testSuggest_LockedConferenceRejectedUpFront() {
+        // Arrange
+        conference.setIsLocked(true);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> suggestionService.suggest(CONFERENCE_ID, 5, 3, null, null));
+        assertTrue(exception.getMessage().contains("khóa"));
+        verifyNoInteractions(paperRepo, userRepo, assignmentRepo, coiRepo);
+    }
+
+    private void papers(PaperTopicRow... rows) {
+        when(paperRepo.findTopicRowsByConferenceIdAndStatusIn(eq(CONFERENCE_ID), any())).thenReturn(List.of(rows));
+    }
+
+    private void reviewers(ReviewerProfileRow... rows) {
+        when(userRepo.findReviewerProfiles()).thenReturn(List.of(rows));
+    }
+
+    private static Set<Long> reviewerIds(ReviewerSuggestionResult result) {
+        return result.suggestions().stream().map(ReviewerSuggestionResult.Item::reviewerId).collect(Collectors.toSet());
+    }
+}
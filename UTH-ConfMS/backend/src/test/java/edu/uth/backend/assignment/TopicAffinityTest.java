@@ -0,0 +1,67 @@
+package edu.uth.backend.assignment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho TopicAffinity
+ * Test các chức năng: bỏ dấu tiếng Việt, cụm keyword, bỏ từ ngắn/từ phổ biến, điểm cosine theo chỉ mục ngược
+ */
+class TopicAffinityTest {
+
+    @Test
+    void testAddTerms_FoldsAccentsAndCase() {
+        Set<String> terms = new LinkedHashSet<>();
+
+        TopicAffinity.addTerms(terms, "Học Máy và Điều khiển", false);
+
+        assertEquals(Set.of("hoc", "may", "dieu", "khien"), terms);
+    }
+
+    @Test
+    void testAddTerms_KeywordPhrasesKeptAsTerms() {
+        Set<String> terms = new LinkedHashSet<>();
+
+        TopicAffinity.addTerms(terms, "Machine Learning; Thị giác máy tính, AI", true);
+
+        // Cụm nhiều từ là một từ khóa, từ đơn "AI" quá ngắn nên bị bỏ
+        assertTrue(terms.contains("machine learning"));
+        assertTrue(terms.contains("thi giac may tinh"));
+        assertTrue(terms.containsAll(Set.of("machine", "learning", "thi", "giac", "may", "tinh")));
+        assertFalse(terms.contains("ai"));
+    }
+
+    @Test
+    void testAddTerms_DropsStopWords() {
+        Set<String> terms = new LinkedHashSet<>();
+
+        TopicAffinity.addTerms(terms, "A study of the new approach using graphs", false);
+        TopicAffinity.addTerms(terms, "Nghiên cứu của nhóm", false);
+
+        assertEquals(Set.of("graphs", "nhom"), terms);
+    }
+
+    @Test
+    void testScore_OnlyReviewersSharingTermsAreTouched() {
+        // Arrange
+        TopicAffinity affinity = new TopicAffinity(
+            List.of(Set.of("graph", "neural")),
+            List.of(Set.of("graph", "neural"), Set.of("database"), Set.of("graph", "compiler")));
+        float[] scores = new float[3];
+        int[] touched = new int[3];
+
+        // Act
+        int count = affinity.score(0, scores, touched);
+
+        // Assert: trùng hoàn toàn = 1, trùng một phần nằm giữa 0 và 1, không có từ chung thì không được duyệt
+        assertEquals(2, count);
+        assertEquals(1f, scores[0], 1e-5f);
+        assertTrue(scores[2] > 0f && scores[2] < 1f);
+        assertEquals(0f, scores[1]);
+    }
+}
@@ -0,0 +1,125 @@
+package edu.uth.backend.audit;
+
+import edu.uth.backend.entity.AuditLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests cho AuditLogWriter
+ * Test các chức năng: ghi theo batch, flush khi tắt, ghi đồng bộ khi hàng đợi đầy, thử lại từng dòng
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AuditLogWriter writer;
+
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "batchSize", 50);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMs", 5_000L);
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(1);
+            batchSizes.add(rows.size());
+            return new int[rows.size()];
+        });
+    }
+
+    private static AuditLog event(String actor) {
+        return AuditLog.builder()
+            .actor(actor)
+            .action("LOGIN_SUCCESS")
+            .timestamp(LocalDateTime.now())
+            .build();
+    }
+
+    @Test
+    void testShutdown_FlushesQueuedEventsInBatches() {
+        // Arrange: flush interval dài nên sự kiện chỉ được ghi khi đủ batch hoặc khi tắt
+        ReflectionTestUtils.setField(writer, "queueCapacity", 1000);
+        writer.start();
+
+        // Act
+        for (int i = 0; i < 120; i++) {
+            writer.submit(event("user" + i));
+        }
+        writer.shutdown();
+
+        // Assert
+        assertEquals(120, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 50));
+        AuditLogWriter.Stats stats = writer.getStats();
+        assertEquals(120, stats.written());
+        assertEquals(0, stats.queueDepth());
+        assertEquals(0, stats.overflowWrites());
+    }
+
+    @Test
+    void testSubmit_AfterShutdown_WritesSynchronously() {
+        // Arrange
+        ReflectionTestUtils.setField(writer, "queueCapacity", 10);
+        writer.start();
+        writer.shutdown();
+
+        // Act
+        writer.submit(event("late"));
+
+        // Assert
+        assertEquals(List.of(1), batchSizes);
+        assertEquals(1, writer.getStats().overflowWrites());
+    }
+
+    @Test
+    void testWriteBatch_FailedBatchRetriedRowByRow() {
+        // Arrange: batch nhiều dòng lỗi, dòng "bad" lỗi khi ghi riêng
+        ReflectionTestUtils.setField(writer, "queueCapacity", 100);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            boolean hasBad = rows.stream().anyMatch(row -> "bad".equals(row[1]));
+            if (hasBad) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            batchSizes.add(rows.size());
+            return new int[rows.size()];
+        });
+        writer.start();
+
+        // Act
+        writer.submit(event("a"));
+        writer.submit(event("bad"));
+        writer.submit(event("b"));
+        writer.shutdown();
+
+        // Assert
+        AuditLogWriter.Stats stats = writer.getStats();
+        assertEquals(2, stats.written());
+        assertEquals(1, stats.failed());
+    }
+}
@@ -67,6 +67,9 @@ class AuthServiceTest {
     @Mock
     private UserActivityHistoryService activityHistoryService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthService authService;
 
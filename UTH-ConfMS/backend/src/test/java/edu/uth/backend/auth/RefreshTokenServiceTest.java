@@ -0,0 +1,122 @@
+package edu.uth.backend.auth;
+
+import edu.uth.backend.common.ResetTokenUtil;
+import edu.uth.backend.entity.RefreshToken;
+import edu.uth.backend.entity.User;
+import edu.uth.backend.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests cho RefreshTokenService
+ * Test các chức năng: phát hành, xoay vòng, phát hiện dùng lại token, token hết hạn
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        user.setEnabled(true);
+    }
+
+    private RefreshToken storedToken(String raw, Instant expiresAt) {
+        return RefreshToken.builder()
+            .id(10L)
+            .tokenHash(ResetTokenUtil.sha256Hex(raw))
+            .familyId("family-1")
+            .user(user)
+            .createdAt(Instant.now())
+            .expiresAt(expiresAt)
+            .build();
+    }
+
+    @Test
+    void testIssue_StoresOnlyHash() {
+        // Act
+        String raw = refreshTokenService.issue(user);
+
+        // Assert
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(ResetTokenUtil.sha256Hex(raw), captor.getValue().getTokenHash());
+        assertNotEquals(raw, captor.getValue().getTokenHash());
+    }
+
+    @Test
+    void testRotate_Success_IssuesTokenInSameFamily() {
+        // Arrange
+        RefreshToken token = storedToken("raw-token", Instant.now().plus(1, ChronoUnit.DAYS));
+        when(refreshTokenRepository.findByTokenHash(ResetTokenUtil.sha256Hex("raw-token"))).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.markUsed(eq(10L), any(Instant.class))).thenReturn(1);
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw-token");
+
+        // Assert
+        assertSame(user, rotation.user());
+        assertNotEquals("raw-token", rotation.refreshToken());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals("family-1", captor.getValue().getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(anyString(), any());
+    }
+
+    @Test
+    void testRotate_ReusedToken_RevokesFamily() {
+        // Arrange: token đã được xoay vòng trước đó
+        RefreshToken token = storedToken("raw-token", Instant.now().plus(1, ChronoUnit.DAYS));
+        token.setUsedAt(Instant.now());
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.markUsed(eq(10L), any(Instant.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any(Instant.class));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testRotate_ExpiredToken_ThrowsException() {
+        // Arrange
+        RefreshToken token = storedToken("raw-token", Instant.now().minus(1, ChronoUnit.MINUTES));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.markUsed(eq(10L), any(Instant.class))).thenReturn(1);
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testRotate_UnknownToken_ThrowsException() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+}
@@ -0,0 +1,127 @@
+package edu.uth.backend.backup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests cho BackupJobService
+ * Test các chức năng: xóa file upload tạm khi job restore bị hủy lúc chờ, bị hủy trước khi chạy, hoặc bị bỏ lúc shutdown
+ */
+@ExtendWith(MockitoExtension.class)
+class BackupJobServiceTest {
+
+    @Mock
+    private BackupService backupService;
+
+    @Mock
+    private MultipartFile upload;
+
+    @InjectMocks
+    private BackupJobService jobService;
+
+    @TempDir
+    Path backupDir;
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Path tempFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(jobService, "queueCapacity", 5);
+        ReflectionTestUtils.setField(jobService, "historySize", 50);
+        ReflectionTestUtils.setField(jobService, "progressIntervalMs", 1000L);
+        jobService.init();
+
+        // Job backup đầu tiên giữ worker để job upload nằm trong hàng đợi
+        when(backupService.createBackup(eq(BackupMode.STREAMING), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        tempFile = Files.createFile(backupDir.resolve("temp_1_backup.json.gz"));
+        when(backupService.saveUpload(upload)).thenReturn(tempFile);
+        when(upload.getOriginalFilename()).thenReturn("backup.json.gz");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jobService.shutdown();
+    }
+
+    @Test
+    void testCancelJob_QueuedUploadDeletesTempFile() throws Exception {
+        // Arrange
+        occupyWorker();
+        BackupJob restore = jobService.submitUploadRestore(upload);
+
+        // Act
+        jobService.cancelJob(restore.getId());
+
+        // Assert
+        assertEquals(BackupJob.Status.CANCELLED, restore.getStatus());
+        assertFalse(Files.exists(tempFile));
+        verify(backupService, never()).restoreUpload(any(), any(), any());
+    }
+
+    @Test
+    void testRun_CancelledBeforeStartDeletesTempFile() throws Exception {
+        // Arrange: cờ hủy bật nhưng task vẫn còn trong hàng đợi, run() sẽ thoát sớm
+        occupyWorker();
+        BackupJob restore = jobService.submitUploadRestore(upload);
+        restore.getProgress().cancel();
+
+        // Act
+        release.countDown();
+        awaitFinished(restore);
+
+        // Assert
+        assertEquals(BackupJob.Status.CANCELLED, restore.getStatus());
+        assertFalse(Files.exists(tempFile));
+        verify(backupService, never()).restoreUpload(any(), any(), any());
+    }
+
+    @Test
+    void testShutdown_DroppedUploadDeletesTempFile() throws Exception {
+        // Arrange
+        occupyWorker();
+        jobService.submitUploadRestore(upload);
+
+        // Act
+        jobService.shutdown();
+
+        // Assert
+        assertFalse(Files.exists(tempFile));
+    }
+
+    private void occupyWorker() throws InterruptedException {
+        jobService.submitBackup(BackupMode.STREAMING);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitFinished(BackupJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished());
+    }
+}
@@ -0,0 +1,99 @@
+package edu.uth.backend.backup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho BackupRetentionPolicy
+ * Test các chức năng: giữ theo tầng giờ/ngày/tuần, giữ chuỗi incremental, thứ tự xóa
+ */
+class BackupRetentionPolicyTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 12, 10, 30);
+
+    private static BackupRetentionPolicy.Candidate full(String name, LocalDateTime createdAt) {
+        return new BackupRetentionPolicy.Candidate(name, createdAt, null);
+    }
+
+    @Test
+    void testSelectToKeep_HourlyTier() {
+        // Arrange: 2 backup mỗi giờ trong 5 giờ gần nhất
+        List<BackupRetentionPolicy.Candidate> candidates = new ArrayList<>();
+        for (int hour = 0; hour < 5; hour++) {
+            candidates.add(full("h" + hour + "a", NOW.minusHours(hour).withMinute(0)));
+            candidates.add(full("h" + hour + "b", NOW.minusHours(hour).withMinute(30)));
+        }
+        BackupRetentionPolicy policy = new BackupRetentionPolicy(3, 0, 0);
+
+        // Act
+        Set<String> keep = policy.selectToKeep(candidates);
+
+        // Assert: bản mới nhất của 3 giờ gần nhất
+        assertEquals(Set.of("h0b", "h1b", "h2b"), keep);
+    }
+
+    @Test
+    void testSelectToKeep_DailyAndWeeklyTiers() {
+        // Arrange: một backup mỗi ngày trong 30 ngày
+        List<BackupRetentionPolicy.Candidate> candidates = new ArrayList<>();
+        for (int day = 0; day < 30; day++) {
+            candidates.add(full("d" + day, NOW.minusDays(day)));
+        }
+        BackupRetentionPolicy policy = new BackupRetentionPolicy(0, 3, 2);
+
+        // Act
+        Set<String> keep = policy.selectToKeep(candidates);
+
+        // Assert: 3 ngày gần nhất; 2025-03-12 là thứ Tư nên tuần trước giữ bản Chủ nhật (d3)
+        assertEquals(Set.of("d0", "d1", "d2", "d3"), keep);
+    }
+
+    @Test
+    void testSelectToKeep_KeepsParentsOfIncremental() {
+        // Arrange
+        List<BackupRetentionPolicy.Candidate> candidates = List.of(
+            full("full", NOW.minusDays(10)),
+            new BackupRetentionPolicy.Candidate("incr1", NOW.minusDays(5), "full"),
+            new BackupRetentionPolicy.Candidate("incr2", NOW, "incr1"),
+            full("old", NOW.minusDays(20)));
+        BackupRetentionPolicy policy = new BackupRetentionPolicy(1, 0, 0);
+
+        // Act
+        Set<String> keep = policy.selectToKeep(candidates);
+
+        // Assert
+        assertEquals(Set.of("incr2", "incr1", "full"), keep);
+    }
+
+    @Test
+    void testSelectToDelete_ChildrenBeforeParents() {
+        // Arrange
+        List<BackupRetentionPolicy.Candidate> candidates = List.of(
+            full("base", NOW.minusDays(3)),
+            new BackupRetentionPolicy.Candidate("incr", NOW.minusDays(2), "base"),
+            full("latest", NOW));
+        BackupRetentionPolicy policy = new BackupRetentionPolicy(1, 0, 0);
+
+        // Act
+        List<String> delete = policy.selectToDelete(candidates);
+
+        // Assert
+        assertEquals(List.of("incr", "base"), delete);
+    }
+
+    @Test
+    void testSelectToKeep_AlwaysKeepsNewest() {
+        // Act
+        Set<String> keep = new BackupRetentionPolicy(0, 0, 0)
+            .selectToKeep(List.of(full("a", NOW.minusDays(1)), full("b", NOW)));
+
+        // Assert
+        assertEquals(Set.of("b"), keep);
+    }
+}
@@ -0,0 +1,86 @@
+package edu.uth.backend.backup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho TableDependencyGraph
+ * Test các chức năng: chia level theo foreign key, bảng tự tham chiếu, chu trình
+ */
+class TableDependencyGraphTest {
+
+    private static TableDependencyGraph.ForeignKey fk(String table, String column, String referencedTable) {
+        return new TableDependencyGraph.ForeignKey(table + "_" + column + "_fkey", table, List.of(column),
+            referencedTable, List.of("id"));
+    }
+
+    @Test
+    void testLevels_ParentsBeforeChildren() {
+        // Arrange
+        List<String> tables = List.of("papers", "reviews", "roles", "user_roles", "users", "conferences");
+        List<TableDependencyGraph.ForeignKey> foreignKeys = List.of(
+            fk("papers", "main_author_id", "users"),
+            fk("papers", "conference_id", "conferences"),
+            fk("reviews", "paper_id", "papers"),
+            fk("user_roles", "user_id", "users"),
+            fk("user_roles", "role_id", "roles"));
+
+        // Act
+        TableDependencyGraph graph = TableDependencyGraph.of(tables, foreignKeys);
+
+        // Assert
+        assertEquals(List.of(
+            List.of("roles", "users", "conferences"),
+            List.of("papers", "user_roles"),
+            List.of("reviews")), graph.getLevels());
+        assertEquals(List.of("roles", "users", "conferences", "papers", "user_roles", "reviews"), graph.getOrder());
+        assertTrue(graph.getCyclicTables().isEmpty());
+    }
+
+    @Test
+    void testLevels_SelfReferenceIgnored() {
+        // Arrange
+        List<String> tables = List.of("users", "discussions");
+        List<TableDependencyGraph.ForeignKey> foreignKeys = List.of(
+            fk("discussions", "parent_id", "discussions"),
+            fk("discussions", "user_id", "users"));
+
+        // Act
+        TableDependencyGraph graph = TableDependencyGraph.of(tables, foreignKeys);
+
+        // Assert
+        assertEquals(List.of(List.of("users"), List.of("discussions")), graph.getLevels());
+        assertEquals(2, graph.getForeignKeys().size());
+    }
+
+    @Test
+    void testLevels_CycleGoesToLastLevel() {
+        // Arrange
+        List<String> tables = List.of("a", "b", "c", "d");
+        List<TableDependencyGraph.ForeignKey> foreignKeys = List.of(
+            fk("a", "b_id", "b"),
+            fk("b", "a_id", "a"),
+            fk("c", "d_id", "d"));
+
+        // Act
+        TableDependencyGraph graph = TableDependencyGraph.of(tables, foreignKeys);
+
+        // Assert
+        assertEquals(List.of(List.of("d"), List.of("c"), List.of("a", "b")), graph.getLevels());
+        assertEquals(Set.of("a", "b"), graph.getCyclicTables());
+    }
+
+    @Test
+    void testLevels_ReferenceOutsideTableSetIgnored() {
+        // Act
+        TableDependencyGraph graph = TableDependencyGraph.of(List.of("papers"),
+            List.of(fk("papers", "main_author_id", "users")));
+
+        // Assert
+        assertEquals(List.of(List.of("papers")), graph.getLevels());
+    }
+}
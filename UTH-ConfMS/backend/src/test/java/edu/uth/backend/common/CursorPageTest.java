@@ -0,0 +1,62 @@
+package edu.uth.backend.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho CursorPage và KeysetCursor
+ * Test các chức năng: cắt dòng dư và tạo nextCursor, trang cuối, mã hóa/giải mã cursor, cursor không hợp lệ
+ */
+class CursorPageTest {
+
+    private record Row(LocalDateTime timestamp, Long id) {
+    }
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 1, 10, 0, 0, 123_456_000);
+
+    @Test
+    void testOf_ExtraRowBecomesNextCursor() {
+        // Arrange: truy vấn limit + 1 = 3 dòng
+        List<Row> rows = List.of(new Row(T0, 9L), new Row(T0, 7L), new Row(T0.minusSeconds(1), 3L));
+
+        // Act
+        CursorPage<Row> page = CursorPage.of(rows, 2, Row::timestamp, Row::id);
+
+        // Assert
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasMore());
+        assertEquals(new KeysetCursor(T0, 7L), KeysetCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void testOf_LastPageHasNoCursor() {
+        // Arrange
+        List<Row> rows = List.of(new Row(T0, 9L));
+
+        // Act
+        CursorPage<Row> page = CursorPage.of(rows, 2, Row::timestamp, Row::id);
+
+        // Assert
+        assertEquals(1, page.items().size());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testDecode_BlankIsFirstPage() {
+        // Act & Assert
+        assertEquals(KeysetCursor.FIRST, KeysetCursor.decode(null));
+        assertEquals(KeysetCursor.FIRST, KeysetCursor.decode(""));
+    }
+
+    @Test
+    void testDecode_InvalidTokenThrows() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("%%%"));
+    }
+}
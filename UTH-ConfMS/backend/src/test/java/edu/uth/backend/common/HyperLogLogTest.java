@@ -0,0 +1,90 @@
+package edu.uth.backend.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho HyperLogLog
+ * Test các chức năng: đếm gần đúng tuyệt đối với tập nhỏ, sai số với tập lớn, phần tử trùng, gộp sketch, lưu/nạp lại
+ */
+class HyperLogLogTest {
+
+    @Test
+    void testCardinality_SmallSetNearlyExact() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog(14);
+
+        // Act
+        for (long userId = 1; userId <= 200; userId++) {
+            sketch.add(userId);
+            sketch.add(userId);
+        }
+
+        // Assert: tập nhỏ dùng linear counting, chỉ lệch khi hai user rơi vào cùng register
+        assertEquals(200, sketch.cardinality(), 4);
+    }
+
+    @Test
+    void testCardinality_LargeSetWithinErrorBound() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog(14);
+
+        // Act
+        for (long userId = 1; userId <= 500_000; userId++) {
+            sketch.add(userId);
+        }
+
+        // Assert: sai số chuẩn ~0.8%, cho phép 3%
+        assertEquals(500_000, sketch.cardinality(), 500_000 * 0.03);
+    }
+
+    @Test
+    void testMerge_EstimatesUnion() {
+        // Arrange: hai ngày có 5000 user chung
+        HyperLogLog monday = new HyperLogLog(14);
+        HyperLogLog tuesday = new HyperLogLog(14);
+        for (long userId = 0; userId < 10_000; userId++) {
+            monday.add(userId);
+        }
+        for (long userId = 5_000; userId < 15_000; userId++) {
+            tuesday.add(userId);
+        }
+
+        // Act
+        HyperLogLog week = monday.copy();
+        week.merge(tuesday);
+
+        // Assert
+        assertEquals(15_000, week.cardinality(), 15_000 * 0.03);
+        assertEquals(10_000, monday.cardinality(), 10_000 * 0.03);
+    }
+
+    @Test
+    void testFromBytes_RoundTrip() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (long userId = 0; userId < 3_000; userId++) {
+            sketch.add(userId);
+        }
+
+        // Act
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        // Assert
+        assertEquals(12, restored.getPrecision());
+        assertEquals(sketch.cardinality(), restored.cardinality());
+        assertFalse(restored.add(42L));
+    }
+
+    @Test
+    void testMerge_DifferentPrecisionRejected() {
+        // Arrange
+        HyperLogLog a = new HyperLogLog(12);
+        HyperLogLog b = new HyperLogLog(14);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> a.merge(b));
+        assertTrue(a.isEmpty());
+    }
+}
@@ -0,0 +1,181 @@
+package edu.uth.backend.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.uth.backend.entity.ActivityStatus;
+import edu.uth.backend.entity.ActivityType;
+import edu.uth.backend.entity.EntityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests cho ActivityHistoryWriter
+ * Test các chức năng: ghi theo batch, bỏ hoạt động khi đã dừng, xóa segment spool đã ghi, phát lại spool khi khởi động
+ */
+@ExtendWith(MockitoExtension.class)
+class ActivityHistoryWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ActivityCounterService activityCounterService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private ActivityHistoryWriter writer;
+
+    @TempDir
+    Path spoolDir;
+
+    private final List<Object[]> rows = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(writer, "batchSize", 50);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(writer, "spoolDir", spoolDir.toString());
+        ReflectionTestUtils.setField(writer, "spoolSegmentSize", 10);
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            rows.addAll(batch);
+            return new int[batch.size()];
+        });
+    }
+
+    private static ActivityEvent event(long userId) {
+        return new ActivityEvent(userId, ActivityType.LOGIN, EntityType.USER, userId, "Đăng nhập",
+            Map.of("userAgent", "test"), "127.0.0.1", LocalDateTime.now(), ActivityStatus.SUCCESS);
+    }
+
+    private long spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void testShutdown_FlushesQueuedActivities() {
+        // Arrange
+        writer.start();
+
+        // Act
+        for (int i = 0; i < 120; i++) {
+            writer.submit(event(i));
+        }
+        writer.shutdown();
+
+        // Assert
+        assertEquals(120, rows.size());
+        assertEquals("LOGIN", rows.get(0)[1]);
+        assertEquals("{\"userAgent\":\"test\"}", rows.get(0)[5]);
+        ActivityHistoryWriter.Stats stats = writer.getStats();
+        assertEquals(120, stats.written());
+        assertEquals(0, stats.dropped());
+        verify(activityCounterService, atLeastOnce()).incrementAll(argThat(counts ->
+            counts.values().stream().allMatch(count -> count == 1L)));
+    }
+
+    @Test
+    void testSubmit_AfterShutdown_DropsActivity() {
+        // Arrange
+        writer.start();
+        writer.shutdown();
+
+        // Act
+        boolean accepted = writer.submit(event(1));
+
+        // Assert
+        assertFalse(accepted);
+        assertTrue(rows.isEmpty());
+        assertEquals(1, writer.getStats().dropped());
+    }
+
+    @Test
+    void testSpool_SegmentsDeletedOnceWritten() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(writer, "spoolEnabled", true);
+        writer.start();
+
+        // Act
+        for (int i = 0; i < 25; i++) {
+            writer.submit(event(i));
+        }
+        writer.shutdown();
+
+        // Assert
+        assertEquals(25, rows.size());
+        assertEquals(0, spoolFiles());
+    }
+
+    @Test
+    void testSpool_ReplaysLeftoverSegmentsOnStart() throws IOException {
+        // Arrange: segment của lần chạy trước chưa được ghi vào DB
+        ActivitySpool previous = new ActivitySpool(spoolDir, 10, objectMapper);
+        for (int i = 0; i < 3; i++) {
+            previous.append(event(i));
+        }
+        Files.writeString(spoolDir.resolve("activity-9999999999999-000000.jsonl"), "{\"userId\":");
+        ReflectionTestUtils.setField(writer, "spoolEnabled", true);
+
+        // Act
+        writer.start();
+        writer.shutdown();
+
+        // Assert: 3 hoạt động được phát lại, dòng ghi dở bị bỏ qua
+        assertEquals(3, rows.size());
+        assertEquals(3, writer.getStats().recovered());
+        assertEquals(0, spoolFiles());
+    }
+
+    @Test
+    void testSpool_DrainedSegmentKeptOpenAndSkippedOnReplay() throws IOException {
+        // Arrange: 3 hoạt động đã ghi xong, 2 hoạt động sau đó còn chờ trong cùng segment
+        ActivitySpool spool = new ActivitySpool(spoolDir, 10, objectMapper);
+        List<ActivitySpool.Segment> written = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            written.add(spool.append(event(i)));
+        }
+        written.forEach(spool::release);
+        ActivitySpool.Segment next = spool.append(event(3));
+        spool.append(event(4));
+
+        // Act
+        ActivitySpool.Recovery recovery = new ActivitySpool(spoolDir, 10, objectMapper).recover();
+
+        // Assert: không xoay vòng segment khi hết hoạt động chờ, chỉ phát lại 2 hoạt động chưa ghi
+        assertSame(written.get(0), next);
+        assertEquals(1, spoolFiles());
+        assertEquals(List.of(3L, 4L), recovery.events().stream().map(ActivityEvent::userId).toList());
+    }
+}
@@ -0,0 +1,113 @@
+package edu.uth.backend.report;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho ReportCacheService
+ * Test các chức năng: cache hit/miss, xóa cache theo sự kiện, không lưu báo cáo tính trong lúc bị xóa cache,
+ * tắt cache khi TTL = 0
+ */
+class ReportCacheServiceTest {
+
+    private ReportCacheService cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReportCacheService();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "store", new InMemoryReportCacheStore(300, 100));
+    }
+
+    private Map<String, Object> load(Long conferenceId) {
+        loads.incrementAndGet();
+        return Map.of("conferenceId", conferenceId, "version", loads.get());
+    }
+
+    @Test
+    void testGet_CachesByConferenceAndType() {
+        // Act
+        Object first = cache.get(1L, ReportType.CONFERENCE, () -> load(1L));
+        Object second = cache.get(1L, ReportType.CONFERENCE, () -> load(1L));
+        cache.get(1L, ReportType.TRACKS, () -> load(1L));
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        ReportCacheService.Stats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(2, stats.size());
+        assertEquals(33.33, stats.hitRate());
+    }
+
+    @Test
+    void testOnReportDataChanged_EvictsOnlyThatConference() {
+        // Arrange
+        cache.get(1L, ReportType.CONFERENCE, () -> load(1L));
+        cache.get(1L, ReportType.REVIEW_PROGRESS, () -> load(1L));
+        cache.get(2L, ReportType.CONFERENCE, () -> load(2L));
+
+        // Act
+        cache.onReportDataChanged(new ReportDataChangedEvent(1L, "decision"));
+
+        // Assert
+        assertEquals(1, cache.getStats().size());
+        cache.get(2L, ReportType.CONFERENCE, () -> load(2L));
+        cache.get(1L, ReportType.CONFERENCE, () -> load(1L));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testOnReportDataChanged_UnknownConferenceClearsAll() {
+        // Arrange
+        cache.get(1L, ReportType.CONFERENCE, () -> load(1L));
+        cache.get(2L, ReportType.CONFERENCE, () -> load(2L));
+
+        // Act
+        cache.onReportDataChanged(new ReportDataChangedEvent(null, "submit"));
+
+        // Assert
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    void testGet_ReportComputedDuringInvalidationIsNotCached() {
+        // Arrange: dữ liệu đổi trong lúc báo cáo đang được tính
+        Object stale = cache.get(1L, ReportType.CONFERENCE, () -> {
+            Map<String, Object> report = load(1L);
+            cache.onReportDataChanged(new ReportDataChangedEvent(1L, "submit-review"));
+            return report;
+        });
+
+        // Act
+        Object fresh = cache.get(1L, ReportType.CONFERENCE, () -> load(1L));
+
+        // Assert
+        assertNotSame(stale, fresh);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().puts());
+    }
+
+    @Test
+    void testGet_DisabledWhenTtlIsZero() {
+        // Arrange
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+
+        // Act
+        cache.get(1L, ReportType.CONFERENCE, () -> load(1L));
+        cache.get(1L, ReportType.CONFERENCE, () -> load(1L));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertFalse(cache.getStats().enabled());
+    }
+}
@@ -0,0 +1,169 @@
+package edu.uth.backend.report;
+
+import edu.uth.backend.entity.*;
+import edu.uth.backend.repository.ConferenceRepository;
+import edu.uth.backend.repository.PaperRepository;
+import edu.uth.backend.repository.ReviewAssignmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests cho ReportService
+ * Test các chức năng: báo cáo tổng hợp, theo track, tiến độ review, export proceedings
+ * và số query cố định (không N+1 theo số track/bài)
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportServiceTest {
+
+    private static final int TRACK_COUNT = 50;
+
+    @Mock
+    private PaperRepository paperRepo;
+
+    @Mock
+    private ReviewAssignmentRepository assignmentRepo;
+
+    @Mock
+    private ConferenceRepository conferenceRepo;
+
+    @InjectMocks
+    private ReportService reportService;
+
+    private final List<TrackStatusCount> trackCounts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Conference conference = new Conference();
+        conference.setId(1L);
+        conference.setName("UTH 2025");
+        lenient().when(conferenceRepo.findById(1L)).thenReturn(Optional.of(conference));
+
+        // Mỗi track: 30 ACCEPTED, 10 REJECTED, 5 UNDER_REVIEW; track cuối chưa có bài
+        for (long trackId = 1; trackId < TRACK_COUNT; trackId++) {
+            trackCounts.add(new TrackStatusCount(trackId, "Track " + trackId, PaperStatus.ACCEPTED, 30L));
+            trackCounts.add(new TrackStatusCount(trackId, "Track " + trackId, PaperStatus.REJECTED, 10L));
+            trackCounts.add(new TrackStatusCount(trackId, "Track " + trackId, PaperStatus.UNDER_REVIEW, 5L));
+        }
+        trackCounts.add(new TrackStatusCount((long) TRACK_COUNT, "Empty track", null, 0L));
+        lenient().when(paperRepo.countByConferenceGroupByTrackAndStatus(1L)).thenReturn(trackCounts);
+    }
+
+    @Test
+    void testGetConferenceReport_SumsStatusCountsInOneQuery() {
+        // Act
+        Map<String, Object> report = reportService.getConferenceReport(1L);
+
+        // Assert
+        long tracksWithPapers = TRACK_COUNT - 1;
+        assertEquals(45 * tracksWithPapers, report.get("totalSubmissions"));
+        assertEquals(30 * tracksWithPapers, report.get("accepted"));
+        assertEquals(10 * tracksWithPapers, report.get("rejected"));
+        assertEquals(5 * tracksWithPapers, report.get("underReview"));
+        assertEquals(66.67, report.get("acceptanceRate"));
+
+        verify(conferenceRepo, times(1)).findById(1L);
+        verify(paperRepo, times(1)).countByConferenceGroupByTrackAndStatus(1L);
+        verifyNoMoreInteractions(conferenceRepo, paperRepo, assignmentRepo);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetTrackReport_IncludesEmptyTracks() {
+        // Act
+        Map<String, Object> report = reportService.getTrackReport(1L);
+
+        // Assert
+        Map<String, Map<String, Object>> tracks = (Map<String, Map<String, Object>>) report.get("tracks");
+        assertEquals(TRACK_COUNT, tracks.size());
+        assertEquals(45L, tracks.get("Track 1").get("total"));
+        assertEquals(66.67, tracks.get("Track 1").get("acceptanceRate"));
+        assertEquals(0L, tracks.get("Empty track").get("total"));
+        assertEquals(0.0, tracks.get("Empty track").get("acceptanceRate"));
+
+        verify(paperRepo, times(1)).countByConferenceGroupByTrackAndStatus(1L);
+        verify(conferenceRepo, times(1)).findById(1L);
+        verifyNoMoreInteractions(conferenceRepo, paperRepo, assignmentRepo);
+    }
+
+    @Test
+    void testGetReviewProgressReport_CountsAssignmentsInOneQuery() {
+        // Arrange
+        when(assignmentRepo.countByConferenceGroupByStatus(1L)).thenReturn(List.of(
+            new AssignmentStatusCount(AssignmentStatus.COMPLETED, 600L),
+            new AssignmentStatusCount(AssignmentStatus.PENDING, 300L),
+            new AssignmentStatusCount(AssignmentStatus.ACCEPTED, 80L),
+            new AssignmentStatusCount(AssignmentStatus.DECLINED, 20L)));
+
+        // Act
+        Map<String, Object> report = reportService.getReviewProgressReport(1L);
+
+        // Assert
+        assertEquals(1000L, report.get("totalAssignments"));
+        assertEquals(600L, report.get("completed"));
+        assertEquals(300L, report.get("pending"));
+        assertEquals(60.0, report.get("completionRate"));
+
+        verify(conferenceRepo, times(1)).findById(1L);
+        verify(assignmentRepo, times(1)).countByConferenceGroupByStatus(1L);
+        verifyNoMoreInteractions(conferenceRepo, paperRepo, assignmentRepo);
+    }
+
+    @Test
+    void testExportPapersForProceedings_LoadsAcceptedPapersInOneQuery() {
+        // Arrange
+        User author = new User();
+        author.setFullName("Author Name");
+        author.setEmail("author@test.com");
+        Track track = new Track();
+        track.setId(2L);
+        track.setName("AI");
+        List<Paper> papers = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            Paper paper = new Paper();
+            paper.setId(id);
+            paper.setTitle("Paper " + id);
+            paper.setStatus(PaperStatus.ACCEPTED);
+            paper.setMainAuthor(author);
+            paper.setTrack(track);
+            papers.add(paper);
+        }
+        when(paperRepo.findAllWithDetailsByConferenceIdAndStatus(1L, PaperStatus.ACCEPTED)).thenReturn(papers);
+
+        // Act
+        List<Map<String, Object>> result = reportService.exportPapersForProceedings(1L);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals(1L, result.get(0).get("id"));
+        assertEquals("AI", result.get(0).get("track"));
+        assertEquals("Author Name", result.get(0).get("mainAuthor"));
+
+        verify(conferenceRepo, times(1)).findById(1L);
+        verify(paperRepo, times(1)).findAllWithDetailsByConferenceIdAndStatus(1L, PaperStatus.ACCEPTED);
+        verifyNoMoreInteractions(conferenceRepo, paperRepo, assignmentRepo);
+    }
+
+    @Test
+    void testGetConferenceReport_ConferenceNotFound() {
+        // Arrange
+        when(conferenceRepo.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> reportService.getConferenceReport(99L));
+        assertEquals("Không tìm thấy hội nghị", exception.getMessage());
+        verifyNoInteractions(paperRepo, assignmentRepo);
+    }
+}
@@ -0,0 +1,90 @@
+package edu.uth.backend.security;
+
+import edu.uth.backend.common.RoleConstants;
+import edu.uth.backend.entity.Role;
+import edu.uth.backend.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark cho JwtTokenProvider: so sánh throughput xác thực bearer token
+ * trước (dựng parser mới, parse hai lần: validate + getEmailFromToken) và sau
+ * (một parser dùng chung, parseAndValidate một lần; có/không có LRU token đã xác thực).
+ * Chạy: mvn -Pjmh test-compile exec:exec -Djmh.include=JwtTokenProviderBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+    private static final long EXPIRATION_MS = 3_600_000L;
+
+    private Key key;
+    private String token;
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        uncachedProvider = new JwtTokenProvider(SECRET, EXPIRATION_MS);
+        cachedProvider = new JwtTokenProvider(SECRET, EXPIRATION_MS, 1024, 5);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("reviewer@example.com");
+        user.setRoles(new HashSet<>());
+        user.getRoles().add(new Role(RoleConstants.ROLE_REVIEWER));
+        token = uncachedProvider.generateToken(user);
+    }
+
+    /**
+     * Cách cũ: validate() và getEmailFromToken() mỗi hàm tự dựng parser rồi parse + verify HMAC
+     */
+    @Benchmark
+    public String rebuildParserAndParseTwice() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> sharedParserParseOnce() {
+        return uncachedProvider.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> verifiedTokenCacheHit() {
+        return cachedProvider.parseAndValidate(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JwtTokenProviderBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -113,6 +113,42 @@ class JwtTokenProviderTest {
         assertNotNull(claims.getExpiration());
     }
 
+    @Test
+    void testParseAndValidate_ContainsStatelessClaims() {
+        // Arrange
+        InMemoryTokenVersionStore versionStore = new InMemoryTokenVersionStore();
+        versionStore.bump(1L);
+        jwtTokenProvider.setTokenVersionStore(versionStore);
+        String token = jwtTokenProvider.generateToken(testUser);
+
+        // Act
+        JwtClaims claims = jwtTokenProvider.parseAndValidate(token).orElseThrow();
+
+        // Assert
+        assertEquals("test@example.com", claims.email());
+        assertEquals(1L, claims.userId());
+        assertEquals(1L, claims.version());
+        assertTrue(claims.enabled());
+        assertNotNull(claims.expiresAt());
+        assertTrue(jwtTokenProvider.parseAndValidate("invalid.jwt.token").isEmpty());
+    }
+
+    @Test
+    void testParseAndValidate_ReusesVerifiedToken() {
+        // Arrange
+        JwtTokenProvider cachingProvider = new JwtTokenProvider(testSecret, 86400000L, 16, 60);
+        String token = cachingProvider.generateToken(testUser);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // Act
+        JwtClaims first = cachingProvider.parseAndValidate(token).orElseThrow();
+        JwtClaims second = cachingProvider.parseAndValidate(token).orElseThrow();
+
+        // Assert: lần hai lấy từ cache; token bị sửa chữ ký vẫn bị từ chối
+        assertSame(first, second);
+        assertTrue(cachingProvider.parseAndValidate(tampered).isEmpty());
+    }
+
     @Test
     void testGetExpirationMs() {
         // Act
@@ -0,0 +1,107 @@
+package edu.uth.backend.security;
+
+import edu.uth.backend.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests cho PrincipalCache
+ * Test các chức năng: cache hit, evict theo email/user id, không cache bản nạp trước evict, giới hạn kích thước, tắt cache
+ */
+class PrincipalCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, CustomUserDetails> loader = email -> {
+        loads.incrementAndGet();
+        User user = new User();
+        user.setId((long) email.length());
+        user.setEmail(email);
+        return new CustomUserDetails(user);
+    };
+
+    @Test
+    void testGet_CachesPrincipal() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(60, 100);
+
+        // Act
+        CustomUserDetails first = cache.get("a@uth.edu.vn", loader);
+        CustomUserDetails second = cache.get("a@uth.edu.vn", loader);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEvict_ReloadsFromLoader() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(60, 100);
+        cache.get("a@uth.edu.vn", loader);
+        cache.get("bb@uth.edu.vn", loader);
+
+        // Act
+        cache.evict("a@uth.edu.vn");
+        cache.evictUser((long) "bb@uth.edu.vn".length());
+        cache.get("a@uth.edu.vn", loader);
+        cache.get("bb@uth.edu.vn", loader);
+
+        // Assert
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testEvict_DuringLoadDoesNotCacheStalePrincipal() {
+        // Arrange: admin khóa user và evict trong lúc một request đang nạp bản cũ
+        PrincipalCache cache = new PrincipalCache(60, 100);
+        Function<String, CustomUserDetails> racingLoader = email -> {
+            CustomUserDetails stale = loader.apply(email);
+            cache.evict(email);
+            return stale;
+        };
+
+        // Act
+        cache.get("a@uth.edu.vn", racingLoader);
+        cache.get("a@uth.edu.vn", loader);
+
+        // Assert: request sau nạp lại từ DB thay vì dùng bản cũ
+        assertEquals(2, loads.get());
+        cache.get("a@uth.edu.vn", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_BoundedBySize() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(60, 2);
+
+        // Act
+        cache.get("a@uth.edu.vn", loader);
+        cache.get("b@uth.edu.vn", loader);
+        cache.get("c@uth.edu.vn", loader);
+
+        // Assert: bản ít dùng nhất (a) bị loại
+        assertEquals(2, cache.size());
+        cache.get("a@uth.edu.vn", loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testGet_DisabledWhenTtlIsZero() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(0, 100);
+
+        // Act
+        cache.get("a@uth.edu.vn", loader);
+        cache.get("a@uth.edu.vn", loader);
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -1,6 +1,6 @@
 // src/apiClient.js
 import axios from "axios";
-import { getToken, clearAuth } from "./auth";
+import { getToken, getRefreshToken, setToken, setRefreshToken, isRemembered, clearAuth } from "./auth";
 
 const apiClient = axios.create({
   baseURL: import.meta.env.VITE_API_BASE_URL || "http://localhost:8080/api",
@@ -19,11 +19,43 @@ apiClient.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
-// Optional: tự clear auth khi 401 (tuỳ bạn dùng)
+// Dùng chung một request refresh cho các request bị 401 cùng lúc:
+// refresh token bị xoay vòng sau mỗi lần dùng nên gửi 2 lần sẽ bị coi là dùng lại token.
+let refreshPromise = null;
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const remember = isRemembered();
+    refreshPromise = apiClient
+      .post("/auth/refresh", { refreshToken: getRefreshToken() }, { skipAuth: true, skipRefresh: true })
+      .then(({ data }) => {
+        setToken(data.accessToken, { remember });
+        setRefreshToken(data.refreshToken, { remember });
+        return data.accessToken;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
+// 401: thử đổi refresh token lấy access token mới rồi gửi lại request, thất bại thì clear auth
 apiClient.interceptors.response.use(
   (res) => res,
-  (err) => {
+  async (err) => {
+    const config = err?.config;
     if (err?.response?.status === 401) {
+      if (config && !config.skipRefresh && !config._retried && getRefreshToken()) {
+        try {
+          const token = await refreshAccessToken();
+          config._retried = true;
+          config.headers.Authorization = `Bearer ${token}`;
+          return apiClient(config);
+        } catch {
+          // Refresh thất bại: rơi xuống clear auth
+        }
+      }
       clearAuth();
     }
     return Promise.reject(err);
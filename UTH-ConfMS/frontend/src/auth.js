@@ -2,6 +2,7 @@
 import { useState, useEffect } from "react";
 
 const ACCESS_TOKEN_KEY = "accessToken";
+const REFRESH_TOKEN_KEY = "refreshToken";
 const CURRENT_USER_KEY = "currentUser";
 
 /**
@@ -27,6 +28,33 @@ export const removeToken = () => {
   localStorage.removeItem(ACCESS_TOKEN_KEY);
 };
 
+/**
+ * Refresh token lưu cùng nơi với access token (session hoặc local).
+ */
+export const getRefreshToken = () => {
+  return sessionStorage.getItem(REFRESH_TOKEN_KEY) || localStorage.getItem(REFRESH_TOKEN_KEY);
+};
+
+export const setRefreshToken = (token, { remember = true } = {}) => {
+  sessionStorage.removeItem(REFRESH_TOKEN_KEY);
+  localStorage.removeItem(REFRESH_TOKEN_KEY);
+
+  if (!token) return;
+
+  if (remember) localStorage.setItem(REFRESH_TOKEN_KEY, token);
+  else sessionStorage.setItem(REFRESH_TOKEN_KEY, token);
+};
+
+export const removeRefreshToken = () => {
+  sessionStorage.removeItem(REFRESH_TOKEN_KEY);
+  localStorage.removeItem(REFRESH_TOKEN_KEY);
+};
+
+/** Token đang lưu ở localStorage (người dùng chọn ghi nhớ đăng nhập) */
+export const isRemembered = () => {
+  return !!localStorage.getItem(ACCESS_TOKEN_KEY) || !!localStorage.getItem(REFRESH_TOKEN_KEY);
+};
+
 export const getCurrentUser = () => {
   const raw = sessionStorage.getItem(CURRENT_USER_KEY) || localStorage.getItem(CURRENT_USER_KEY);
   try {
@@ -54,6 +82,7 @@ export const removeCurrentUser = () => {
 
 export const clearAuth = () => {
   removeToken();
+  removeRefreshToken();
   removeCurrentUser();
 };
 
@@ -2,7 +2,8 @@
 import React, { useState, useRef, useEffect } from "react";
 import { Link, useNavigate } from "react-router-dom";
 import { useTranslation } from "react-i18next";
-import { getCurrentUser, clearAuth } from "../auth";
+import { getCurrentUser, getRefreshToken, clearAuth } from "../auth";
+import apiClient from "../apiClient";
 import "../styles/UserProfileDropdown.css";
 
 const UserProfileDropdown = () => {
@@ -32,6 +33,13 @@ const UserProfileDropdown = () => {
 
   const handleLogout = () => {
     setIsOpen(false);
+    // Thu hồi refresh token phía server (không chờ kết quả)
+    const refreshToken = getRefreshToken();
+    if (refreshToken) {
+      apiClient
+        .post("/auth/logout", { refreshToken }, { skipAuth: true, skipRefresh: true })
+        .catch(() => {});
+    }
     clearAuth();
     
     // Redirect to login page with success message
@@ -3,7 +3,7 @@ import React, { useMemo, useState, useEffect } from "react";
 import { useNavigate, useLocation, Link } from "react-router-dom";
 import { useTranslation } from "react-i18next";
 import apiClient from "../apiClient";
-import { setToken, setCurrentUser } from "../auth";
+import { setToken, setRefreshToken, setCurrentUser } from "../auth";
 import LanguageSwitcher from "../components/LanguageSwitcher";
 import { signInWithPopup } from "firebase/auth";
 import { firebaseAuth, googleProvider } from "../firebase";
@@ -109,8 +109,9 @@ const LoginPage = () => {
   };
 
   const saveAuthAndRedirect = (data) => {
-    const { accessToken, user } = data || {};
+    const { accessToken, refreshToken, user } = data || {};
     if (accessToken) setToken(accessToken, { remember: rememberMe });
+    if (refreshToken) setRefreshToken(refreshToken, { remember: rememberMe });
     if (user) setCurrentUser(user, { remember: rememberMe });
     setToast({ message: t('auth.loginSuccess'), type: "success" });
     setTimeout(() => navigate(routeByRole(user), { replace: true }), 1500);
@@ -3,7 +3,7 @@ import React, { useState, useEffect } from "react";
 import { useNavigate, useLocation, Link } from "react-router-dom";
 import { useTranslation } from "react-i18next";
 import apiClient from "../../apiClient";
-import { setToken, setCurrentUser } from "../../auth";
+import { setToken, setRefreshToken, setCurrentUser } from "../../auth";
 import Toast, { toastStyles } from "../../components/Toast";
 import { signInWithPopup } from "firebase/auth";
 import { firebaseAuth, googleProvider } from "../../firebase";
@@ -35,14 +35,16 @@ const AdminLoginPage = () => {
   }, [location.state, t]);
 
   const saveAuthAndRedirect = (data) => {
-    const { accessToken, user } = data || {};
+    const { accessToken, refreshToken, user } = data || {};
     if (accessToken) setToken(accessToken, { remember: rememberMe });
+    if (refreshToken) setRefreshToken(refreshToken, { remember: rememberMe });
     if (user) setCurrentUser(user, { remember: rememberMe });
 
     const role = normalizeRole(user);
     if (role !== "ADMIN") {
       setToast({ message: t('admin.login.noAdminAccess'), type: "error" });
       setToken(null);
+      setRefreshToken(null);
       setCurrentUser(null);
       return;
     }
@@ -15,6 +15,7 @@ const BackupPage = () => {
   const [error, setError] = useState("");
   const [creating, setCreating] = useState(false);
   const [uploading, setUploading] = useState(false);
+  const [jobProgress, setJobProgress] = useState(null);
 
   const [toasts, setToasts] = useState([]);
   const addToast = useCallback((message, type = "success") => { const id = Date.now(); setToasts((prev) => [...prev, { id, message, type }]); }, []);
@@ -30,11 +31,30 @@ const BackupPage = () => {
     finally { setLoading(false); }
   };
 
+  // Backup/restore chạy nền: poll trạng thái job cho tới khi kết thúc
+  const waitForJob = async (jobId) => {
+    for (;;) {
+      const res = await apiClient.get(`/backups/jobs/${jobId}`);
+      const job = res.data;
+      setJobProgress(job.progress);
+      if (job.status === "SUCCEEDED") return job;
+      if (job.status === "FAILED" || job.status === "CANCELLED") throw new Error(job.error || job.status);
+      await new Promise((resolve) => setTimeout(resolve, 1000));
+    }
+  };
+
+  const formatProgress = (progress) => {
+    if (!progress) return t('app.loading');
+    const tables = progress.totalTables ? ` · ${progress.tablesDone}/${progress.totalTables}` : "";
+    const eta = progress.etaSeconds != null ? ` · ~${progress.etaSeconds}s` : "";
+    return `${progress.rows.toLocaleString()} rows${tables}${eta}`;
+  };
+
   const handleCreateBackup = async () => {
     if (!confirm(t('admin.backup.confirmCreate'))) return;
-    try { setCreating(true); await apiClient.post("/backups"); addToast(t('admin.backup.createSuccess'), "success"); fetchBackups(); }
-    catch (err) { console.error(err); const errorMsg = err.response?.data?.error || t('admin.backup.createFailed'); addToast(errorMsg, "error"); }
-    finally { setCreating(false); }
+    try { setCreating(true); const res = await apiClient.post("/backups"); await waitForJob(res.data.jobId); addToast(t('admin.backup.createSuccess'), "success"); fetchBackups(); }
+    catch (err) { console.error(err); const errorMsg = err.response?.data?.error || err.message || t('admin.backup.createFailed'); addToast(errorMsg, "error"); }
+    finally { setCreating(false); setJobProgress(null); }
   };
 
   const handleDownload = async (filename) => {
@@ -48,8 +68,9 @@ const BackupPage = () => {
 
   const handleRestore = async (filename) => {
     if (!confirm(t('admin.backup.confirmRestore', { filename }))) return;
-    try { await apiClient.post(`/backups/restore/${filename}`); addToast(t('admin.backup.restoreSuccess'), "success"); setTimeout(() => { window.location.href = "/login"; }, 1500); }
-    catch (err) { console.error(err); const errorMsg = err.response?.data?.error || t('admin.backup.restoreFailed'); addToast(errorMsg, "error"); }
+    try { const res = await apiClient.post(`/backups/restore/${filename}`); await waitForJob(res.data.jobId); addToast(t('admin.backup.restoreSuccess'), "success"); setTimeout(() => { window.location.href = "/login"; }, 1500); }
+    catch (err) { console.error(err); const errorMsg = err.response?.data?.error || err.message || t('admin.backup.restoreFailed'); addToast(errorMsg, "error"); }
+    finally { setJobProgress(null); }
   };
 
   const handleDelete = async (filename) => {
@@ -64,9 +85,9 @@ const BackupPage = () => {
 
     console.log('Selected file:', file.name, 'Size:', file.size, 'Type:', file.type);
 
-    // Validate file extension - chấp nhận .json.gz hoặc .json
-    if (!file.name.endsWith('.json.gz') && !file.name.endsWith('.json')) {
-      addToast("Chỉ chấp nhận file .json hoặc .json.gz", "error");
+    // Validate file extension - chấp nhận .json, .json.gz, .json.zst hoặc archive .zip
+    if (!['.json', '.json.gz', '.json.zst', '.zip'].some((ext) => file.name.endsWith(ext))) {
+      addToast("Chỉ chấp nhận file .json, .json.gz, .json.zst hoặc .zip", "error");
       event.target.value = '';
       return;
     }
@@ -89,6 +110,7 @@ const BackupPage = () => {
       });
 
       console.log('Upload response:', response.data);
+      await waitForJob(response.data.jobId);
       addToast("Upload và restore thành công! Đang chuyển hướng...", "success");
       setTimeout(() => { window.location.href = "/login"; }, 1500);
     } catch (err) {
@@ -98,6 +120,7 @@ const BackupPage = () => {
       addToast(errorMsg, "error");
     } finally {
       setUploading(false);
+      setJobProgress(null);
       event.target.value = '';
     }
   };
@@ -121,11 +144,11 @@ const BackupPage = () => {
         <div className="dash-card">
           <h3>{t('admin.backup.createBackup')}</h3>
           <p>{t('admin.backup.createDesc')}</p>
-          <button className="btn-primary" type="button" onClick={handleCreateBackup} disabled={creating}>{creating ? t('app.loading') : t('admin.backup.backupNow')}</button>
+          <button className="btn-primary" type="button" onClick={handleCreateBackup} disabled={creating}>{creating ? formatProgress(jobProgress) : t('admin.backup.backupNow')}</button>
         </div>
         <div className="dash-card">
           <h3>📤 Khôi phục từ file</h3>
-          <p>Upload file backup (.json.gz hoặc .json) từ máy tính để khôi phục dữ liệu</p>
+          <p>Upload file backup (.json, .json.gz, .json.zst hoặc .zip) từ máy tính để khôi phục dữ liệu</p>
           <label htmlFor="backup-upload" style={{
             display: 'inline-block',
             padding: '0.625rem 1rem',
@@ -138,12 +161,12 @@ const BackupPage = () => {
             border: 'none',
             transition: 'all 0.2s'
           }}>
-            {uploading ? '⏳ Đang upload...' : '📁 Chọn file backup'}
+            {uploading ? (jobProgress ? `⏳ ${formatProgress(jobProgress)}` : '⏳ Đang upload...') : '📁 Chọn file backup'}
           </label>
           <input
             id="backup-upload"
             type="file"
-            accept=".json,.json.gz"
+            accept=".json,.gz,.zst,.zip"
             onChange={handleUploadBackup}
             disabled={uploading}
             style={{ display: 'none' }}